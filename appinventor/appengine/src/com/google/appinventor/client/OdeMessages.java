@@ -5776,6 +5776,22 @@ public interface OdeMessages extends Messages, AutogeneratedOdeMessages {
   @Description("This event is raised after a SPARQL engine finishes processing a query and the client has received the results.")
   String RetrievedResultsEvents();
 
+  @DefaultMessage("RetrievedResultsPage")
+  @Description("This event is raised for each page of solutions read from the endpoint when ResultsPageSize is greater than 0. Pages are numbered from 1 and the last page of a query is raised with hasMore set to false.")
+  String RetrievedResultsPageEvents();
+
+  @DefaultMessage("PersistentStore")
+  @Description("The name of an on-device database in which the triples of this component are stored. Stored triples are indexed and remain available the next time the app starts without being read again. When empty, triples are kept in memory and are lost when the app closes.")
+  String PersistentStoreProperties();
+
+  @DefaultMessage("RawResults")
+  @Description("If true, the RetrievedRawResults event is raised with the query results serialized as SPARQL JSON. This requires an additional copy of the result set and is not available when ResultsPageSize is greater than 0.")
+  String RawResultsProperties();
+
+  @DefaultMessage("ResultsPageSize")
+  @Description("When greater than 0, the results of ExecuteSPARQLQuery are read from the endpoint as they arrive and delivered through the RetrievedResultsPage event in pages of at most this many solutions, instead of all at once through RetrievedResults.")
+  String ResultsPageSizeProperties();
+
   @DefaultMessage("UnsupportedQueryType")
   @Description("Event raised when a SPARQL query to be executed is not supported by the Linked Data component.")
   String UnsupportedQueryTypeEvents();
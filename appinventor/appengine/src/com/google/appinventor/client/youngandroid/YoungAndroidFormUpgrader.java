@@ -336,6 +336,9 @@ public final class YoungAndroidFormUpgrader {
       } else if (componentType.equals("LinkedDataListPicker")) {
         srcCompVersion = upgradeLinkedDataListProperties(componentProperties, srcCompVersion);
 
+      } else if (componentType.equals("Reasoner")) {
+        srcCompVersion = upgradeReasonerProperties(componentProperties, srcCompVersion);
+
       } else if (componentType.equals("ListPicker")) {
         srcCompVersion = upgradeListPickerProperties(componentProperties, srcCompVersion);
 
@@ -1467,6 +1470,18 @@ public final class YoungAndroidFormUpgrader {
       componentProperties.remove("BaseURL");
       srcCompVersion = 3;
     }
+    if (srcCompVersion < 4) {
+      // The ResultsPageSize and RawResults properties were added.
+      // Projects created before RawResults existed always received the
+      // RetrievedRawResults event, so keep it enabled for them.
+      componentProperties.put("RawResults", new ClientJsonString("True"));
+      srcCompVersion = 4;
+    }
+    if (srcCompVersion < 5) {
+      // The PersistentStore property was added.
+      // No properties need to be modified to upgrade to version 5.
+      srcCompVersion = 5;
+    }
     return srcCompVersion;
   }
 
@@ -1499,6 +1514,16 @@ public final class YoungAndroidFormUpgrader {
     return srcCompVersion;
   }
 
+  private static int upgradeReasonerProperties(Map<String, JSONValue> componentProperties,
+      int srcCompVersion) {
+    if (srcCompVersion < 2) {
+      // The Incremental property was added.
+      // No properties need to be modified to upgrade to version 2.
+      srcCompVersion = 2;
+    }
+    return srcCompVersion;
+  }
+
   private static int upgradeListPickerProperties(Map<String, JSONValue> componentProperties,
       int srcCompVersion) {
     if (srcCompVersion < 2) {
@@ -1770,6 +1795,11 @@ public final class YoungAndroidFormUpgrader {
       // added an add sheet block and a delete sheet block
       srcCompVersion = 3;
     }
+    if (srcCompVersion < 4) {
+      // The BatchWrites, FlushInterval and CacheTimeout properties and the FlushWrites block
+      // were added. No properties need to be modified to upgrade to version 4.
+      srcCompVersion = 4;
+    }
     return srcCompVersion;
   }
 
@@ -2130,6 +2160,26 @@ public final class YoungAndroidFormUpgrader {
       // Adds ScaleUnits and MapType dropdowns.
       srcCompVersion = 6;
     }
+    if (srcCompVersion < 7) {
+      // The FeaturesInBoundingBox, FeaturesWithin, and NearestFeatures methods were added.
+      // No properties need to be modified to upgrade to version 7.
+      srcCompVersion = 7;
+    }
+    if (srcCompVersion < 8) {
+      // The SimplifyFeatures property was added.
+      // No properties need to be modified to upgrade to version 8.
+      srcCompVersion = 8;
+    }
+    if (srcCompVersion < 9) {
+      // The OfflineTileLimit property was added.
+      // No properties need to be modified to upgrade to version 9.
+      srcCompVersion = 9;
+    }
+    if (srcCompVersion < 10) {
+      // The ClusterMarkers property was added.
+      // No properties need to be modified to upgrade to version 10.
+      srcCompVersion = 10;
+    }
     return srcCompVersion;
   }
 
@@ -2209,6 +2259,16 @@ public final class YoungAndroidFormUpgrader {
       // The GotGeoJSON and GeoJSONError events were renamed in the blocks editor.
       srcCompVersion = 2;
     }
+    if (srcCompVersion < 3) {
+      // The FeaturesInBoundingBox, FeaturesWithin, and NearestFeatures methods were added.
+      // No properties need to be modified to upgrade to version 3.
+      srcCompVersion = 3;
+    }
+    if (srcCompVersion < 4) {
+      // The SimplifyFeatures property was added.
+      // No properties need to be modified to upgrade to version 4.
+      srcCompVersion = 4;
+    }
     return srcCompVersion;
   }
 
@@ -2229,6 +2289,11 @@ public final class YoungAndroidFormUpgrader {
       // UpdateDone event and ProvideUpdateDone property were added
       srcCompVersion = 2;
     }
+    if (srcCompVersion < 3) {
+      // The GetValues method and CacheValues property were added.
+      // No properties need to be modified to upgrade to version 3.
+      srcCompVersion = 3;
+    }
     return srcCompVersion;
   }
 
@@ -6,22 +6,18 @@
 package com.google.appinventor.server;
 
 import com.google.appinventor.server.flags.Flag;
+import com.google.appinventor.server.semweb.ConceptPropertyCache;
+import com.google.appinventor.server.semweb.OntologySnapshot;
+import com.google.appinventor.server.semweb.OntologyTermIndex;
 import com.google.appinventor.shared.rpc.semweb.SemWebConstants;
 import com.google.appinventor.shared.rpc.semweb.SemWebService;
-import com.hp.hpl.jena.ontology.OntClass;
-import com.hp.hpl.jena.ontology.OntModel;
-import com.hp.hpl.jena.ontology.OntProperty;
-import com.hp.hpl.jena.query.Query;
-import com.hp.hpl.jena.query.QueryExecution;
-import com.hp.hpl.jena.query.QueryExecutionFactory;
-import com.hp.hpl.jena.query.QueryFactory;
-import com.hp.hpl.jena.query.QuerySolution;
-import com.hp.hpl.jena.query.ResultSetFactory;
-import com.hp.hpl.jena.query.ResultSetRewindable;
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheStats;
 import com.hp.hpl.jena.rdf.model.Model;
 import com.hp.hpl.jena.rdf.model.ModelFactory;
-import com.hp.hpl.jena.util.iterator.ExtendedIterator;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.ArrayList;
@@ -29,6 +25,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
 import org.apache.jena.riot.Lang;
@@ -50,24 +53,73 @@ public class SemWebServiceImpl extends OdeRemoteServiceServlet implements
 
   private static final Logger LOG = Logger.getLogger(SemWebServiceImpl.class);
 
-  private static final String INDEX_TIME = "Lucene initialization completed in %d ms.";
+  private static final String INDEX_TIME = "Ontology index of %d labels built in %d ms.";
 
   private static final boolean ENABLED = Flag.createFlag("semweb.enable", "true").get()
       .equals("true");
 
+  private static final int MAX_RESULTS = Flag.createFlag("semweb.maxresults", 50).get();
+
+  /**
+   * Directory holding snapshots of the loaded ontologies, relative to the root of the web
+   * application, or empty to always fetch them.
+   */
+  private static final String SNAPSHOT_DIR = Flag.createFlag("semweb.snapshot.dir", "").get();
+
+  private static final int LOADER_THREADS = Flag.createFlag("semweb.loader.threads", 8).get();
+
+  private static final int CONNECT_TIMEOUT_MS = 30 * 1000;
+
+  private static final int READ_TIMEOUT_MS = 120 * 1000;
+
+  private static final int CACHE_STATS_INTERVAL = 100;
+
+  /**
+   * Properties of the concepts requested by {@link #getProperties(String)}.
+   */
+  private static final ConceptPropertyCache PROPERTY_CACHE = new ConceptPropertyCache(
+      Flag.createFlag("semweb.properties.cachesize", 256).get(),
+      Flag.createFlag("semweb.properties.ttl", 60).get(), TimeUnit.MINUTES,
+      Ticker.systemTicker(),
+      new ConceptPropertyCache.Fetcher() {
+        @Override
+        public List<String> fetch(String concept) throws IOException {
+          return fetchProperties(concept);
+        }
+      });
+
+  private static final AtomicLong PROPERTY_CACHE_REQUESTS = new AtomicLong();
+
   /**
    * Stores all ontology information.
    */
   private static final transient Model ontologyModel = ModelFactory.createDefaultModel();
 
   /**
-   * Sets up the ontology model and performs lucene indexing.
+   * Index over the labels of the classes and properties in {@link #ontologyModel}, replaced once
+   * the ontologies have been loaded.
+   */
+  private static volatile OntologyTermIndex termIndex = OntologyTermIndex.EMPTY;
+
+  /**
+   * Sets up the ontology model and indexes its terms. The ontologies are read from the snapshot
+   * directory if it holds a snapshot of the configured ontologies; otherwise they are fetched
+   * concurrently and, if all of them could be read, saved to the snapshot directory.
    */
   private static class OntologyLoader implements Runnable {
+    private final File snapshotDir;
+
+    /**
+     * @param snapshotDir the directory holding ontology snapshots, or null to always fetch them
+     */
+    OntologyLoader(File snapshotDir) {
+      this.snapshotDir = snapshotDir;
+    }
+
     @Override
     public void run() {
       final long start = System.currentTimeMillis();
-      LOG.info("Initializing Lucene index for OWL ontologies...");
+      LOG.info("Loading OWL ontologies...");
       Properties props = new Properties();
       try {
         props.load(SemWebConstants.class.getResourceAsStream("SemWebConstants.properties"));
@@ -75,65 +127,161 @@ public class SemWebServiceImpl extends OdeRemoteServiceServlet implements
         e1.printStackTrace();
       }
       String ontologiesList = props.getProperty("ontologies", "");
-      String[] ontologies = ontologiesList.split(",");
-      for (String ontology : ontologies) {
-        LOG.debug("Reading <" + ontology + "> ...");
+      List<String> ontologies = new ArrayList<>();
+      for (String ontology : ontologiesList.split(",")) {
+        if (!ontology.trim().isEmpty()) {
+          ontologies.add(ontology.trim());
+        }
+      }
+      File snapshot = snapshotDir == null ? null
+          : OntologySnapshot.locate(snapshotDir, ontologies);
+      boolean save = false;
+      if (snapshot == null || !readSnapshot(snapshot)) {
+        save = fetchAll(ontologies) && snapshot != null;
+      }
+      ontologyModel.removeNsPrefix("");
+      termIndex = OntologyTermIndex.build(ontologyModel);
+      LOG.info(String.format(INDEX_TIME, termIndex.size(), System.currentTimeMillis() - start));
+      // The index is ready before the snapshot is written, so a slow or failing write does not
+      // delay lookups
+      if (save) {
         try {
-          // we use this instead of Model.read(String) because Jena would
-          // use Apache HTTP commons, which attempts to read the jssecacerts file.
-          // AppEngine throws an AccessControlException that is never caught
-          // and ultimately will cause this to fail. By using our own connection
-          // we bypass this issue.
-          URL url = new URL(ontology);
-          int attempts = 5;
-          while (attempts-- > 0) {
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setInstanceFollowRedirects(true);
-            conn.addRequestProperty("Accept", "application/rdf+xml,text/turtle,text/n3");
-            conn.setDoInput(true);
-            conn.connect();
-            int response = conn.getResponseCode();
-            LOG.debug("Status code = " + response);
-            if (response >= 300 && response <= 399) {
-              url = new URL(conn.getHeaderField("Location"));
-              conn.disconnect();
-              continue;
-            }
-            String contentType = conn.getContentType();
-            if (contentType != null && contentType.contains(";")) {
-              contentType = contentType.split(";")[0];
+          OntologySnapshot.write(snapshot, ontologyModel);
+          LOG.info("Saved ontology snapshot " + snapshot);
+        } catch (IOException | RuntimeException e) {
+          LOG.warn("Unable to save ontology snapshot " + snapshot, e);
+        }
+      }
+    }
+
+    private boolean readSnapshot(File snapshot) {
+      if (!snapshot.isFile()) {
+        return false;
+      }
+      try {
+        Model model = ModelFactory.createDefaultModel();
+        OntologySnapshot.read(snapshot, model);
+        ontologyModel.add(model);
+        ontologyModel.setNsPrefixes(model.getNsPrefixMap());
+        LOG.info("Read ontology snapshot " + snapshot);
+        return true;
+      } catch (Exception e) {
+        LOG.warn("Unable to read ontology snapshot " + snapshot, e);
+        return false;
+      }
+    }
+
+    /**
+     * Fetches the ontologies concurrently and merges them into the ontology model in the
+     * order they are listed, so later ontologies override earlier prefix declarations just as
+     * when they were read one after another.
+     *
+     * @return true if every ontology was read
+     */
+    private boolean fetchAll(List<String> ontologies) {
+      if (ontologies.isEmpty()) {
+        return true;
+      }
+      ExecutorService executor = Executors.newFixedThreadPool(
+          Math.max(1, Math.min(LOADER_THREADS, ontologies.size())));
+      try {
+        List<Future<Model>> models = new ArrayList<>();
+        for (final String ontology : ontologies) {
+          models.add(executor.submit(new Callable<Model>() {
+            @Override
+            public Model call() throws Exception {
+              return readOntology(ontology);
             }
-            if (contentType == null) {
-              if (ontology.endsWith(".owl")) {
-                ontology = ontology.replace(".owl", ".ttl");
-              }
-              RDFDataMgr.read(ontologyModel, conn.getInputStream(), ontology, Lang.TURTLE);
-            } else if (contentType.equals("application/rdf+xml")
-                || contentType.equals("application/xml")) {
-              ontologyModel.read(conn.getInputStream(), ontology);
-            } else if (contentType.equals("text/turtle")) {
-              ontologyModel.read(conn.getInputStream(), ontology, "TTL");
-            } else if (contentType.equals("text/n3")) {
-              ontologyModel.read(conn.getInputStream(), ontology, "N3");
-            } else if (contentType.equals("text/plain")
-                || contentType.equals("application/octet-stream")) {
-              // for non-compliant servers that return turtle as plain text
-              try {
-                ontologyModel.read(conn.getInputStream(), ontology, "TTL");
-              } catch (Exception e) {
-                LOG.warn("Unexpected content type 'text/plain' returned by server.");
-              }
+          }));
+        }
+        boolean complete = true;
+        for (int i = 0; i < ontologies.size(); i++) {
+          try {
+            Model model = models.get(i).get();
+            if (model == null) {
+              complete = false;
             } else {
-              LOG.warn("Unexpected content type '" + contentType + "' returned by server.");
+              ontologyModel.add(model);
+              ontologyModel.setNsPrefixes(model.getNsPrefixMap());
             }
-            break;
+          } catch (ExecutionException e) {
+            Logger.getRootLogger().warn("Unable to read ontology " + ontologies.get(i),
+                e.getCause());
+            complete = false;
           }
-        } catch (Exception e) {
-          Logger.getRootLogger().warn("Unable to read ontology " + ontology, e);
         }
+        return complete;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      } finally {
+        executor.shutdownNow();
       }
-      LOG.info(String.format(INDEX_TIME, System.currentTimeMillis() - start));
-      ontologyModel.removeNsPrefix("");
+    }
+
+    /**
+     * Reads a single ontology into a new model.
+     *
+     * @return the ontology, or null if the server returned content that could not be read
+     */
+    private static Model readOntology(String ontology) throws IOException {
+      LOG.debug("Reading <" + ontology + "> ...");
+      Model model = ModelFactory.createDefaultModel();
+      // we use this instead of Model.read(String) because Jena would
+      // use Apache HTTP commons, which attempts to read the jssecacerts file.
+      // AppEngine throws an AccessControlException that is never caught
+      // and ultimately will cause this to fail. By using our own connection
+      // we bypass this issue.
+      URL url = new URL(ontology);
+      int attempts = 5;
+      while (attempts-- > 0) {
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        conn.setInstanceFollowRedirects(true);
+        conn.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        conn.setReadTimeout(READ_TIMEOUT_MS);
+        conn.addRequestProperty("Accept", "application/rdf+xml,text/turtle,text/n3");
+        conn.setDoInput(true);
+        conn.connect();
+        int response = conn.getResponseCode();
+        LOG.debug("Status code = " + response);
+        if (response >= 300 && response <= 399) {
+          url = new URL(conn.getHeaderField("Location"));
+          conn.disconnect();
+          continue;
+        }
+        String contentType = conn.getContentType();
+        if (contentType != null && contentType.contains(";")) {
+          contentType = contentType.split(";")[0];
+        }
+        if (contentType == null) {
+          if (ontology.endsWith(".owl")) {
+            ontology = ontology.replace(".owl", ".ttl");
+          }
+          RDFDataMgr.read(model, conn.getInputStream(), ontology, Lang.TURTLE);
+        } else if (contentType.equals("application/rdf+xml")
+            || contentType.equals("application/xml")) {
+          model.read(conn.getInputStream(), ontology);
+        } else if (contentType.equals("text/turtle")) {
+          model.read(conn.getInputStream(), ontology, "TTL");
+        } else if (contentType.equals("text/n3")) {
+          model.read(conn.getInputStream(), ontology, "N3");
+        } else if (contentType.equals("text/plain")
+            || contentType.equals("application/octet-stream")) {
+          // for non-compliant servers that return turtle as plain text
+          try {
+            model.read(conn.getInputStream(), ontology, "TTL");
+          } catch (Exception e) {
+            LOG.warn("Unexpected content type 'text/plain' returned by server.");
+            return null;
+          }
+        } else {
+          LOG.warn("Unexpected content type '" + contentType + "' returned by server.");
+          return null;
+        }
+        return model;
+      }
+      LOG.warn("Too many redirects reading " + ontology);
+      return null;
     }
   }
 
@@ -141,7 +289,16 @@ public class SemWebServiceImpl extends OdeRemoteServiceServlet implements
   public void init(ServletConfig config) throws ServletException {
     super.init(config);
     if (ENABLED) {
-      new Thread(new OntologyLoader()).start();
+      File snapshotDir = null;
+      if (!SNAPSHOT_DIR.isEmpty()) {
+        String path = config.getServletContext().getRealPath(SNAPSHOT_DIR);
+        if (path == null) {
+          LOG.warn("Ontology snapshots disabled, unable to resolve " + SNAPSHOT_DIR);
+        } else {
+          snapshotDir = new File(path);
+        }
+      }
+      new Thread(new OntologyLoader(snapshotDir)).start();
     }
   }
 
@@ -163,112 +320,78 @@ public class SemWebServiceImpl extends OdeRemoteServiceServlet implements
   }
 
   /**
-   * Processes the results of a query (assumes label, uri variables) and
-   * generates objects to be sent back to the client.
+   * Searches the term index and generates objects to be sent back to the client.
    *
-   * @param queryText SPARQL query to be executed over the ontologies
+   * @param kind the kind of term to search for
+   * @param text text typed by the user
    * @return list of mappings modeling the label and uri for matching rdf:Resources
    */
-  private List<Map<String, String>> processQuery(String queryText) {
-    final Logger log = Logger.getRootLogger();
+  private List<Map<String, String>> search(OntologyTermIndex.Kind kind, String text) {
     final List<Map<String, String>> pairs = new ArrayList<>();
-    Query query = QueryFactory.create(queryText);
-    QueryExecution qe = QueryExecutionFactory.create(query, ontologyModel);
-    if (query.isSelectType()) {
-      // handle SELECT queries
-      ResultSetRewindable rs = ResultSetFactory.makeRewindable(qe.execSelect());
-      while (rs.hasNext()) {
-        // convert the query solution into a more compact representation
-        QuerySolution qs = rs.nextSolution();
-        String label;
-        if (qs.getLiteral("label") != null) {
-          label = qs.getLiteral("label").getString();
-        } else if (qs.get("label") != null) {
-          label = qs.get("label").toString();
-        } else if (qs.getResource("uri") != null) {
-          label = qs.getResource("uri").getURI();
-          int idx = Math.max(label.lastIndexOf("/"), label.lastIndexOf("#"));
-          label = label.substring(idx + 1);
-        } else {
-          // uri was null so this entry is pretty useless.
-          continue;
-        }
-        final String value = qs.getResource("uri").getURI();
-        final String prefix = ontologyModel.qnameFor(value);
-        log.info(label + "," + value + "," + prefix);
-        pairs.add(createEntry(label, value, prefix));
-      }
-      if (pairs.size() == 0) {
-        Map<String, String> nullPair = new HashMap<>();
-        nullPair.put("label", "No results found");
-        nullPair.put("value", "");
-        pairs.add(nullPair);
-      }
-      log.info("Finished query");
-    } else {
-      log.warn("Unexpected query type");
+    for (OntologyTermIndex.Term term : termIndex.search(kind, text, MAX_RESULTS)) {
+      pairs.add(createEntry(term.getLabel(), term.getUri(), term.getQName()));
+    }
+    if (pairs.size() == 0) {
+      Map<String, String> nullPair = new HashMap<>();
+      nullPair.put("label", "No results found");
+      nullPair.put("value", "");
+      pairs.add(nullPair);
     }
     return pairs;
   }
 
   @Override
   public List<Map<String, String>> searchClasses(String text) {
-    // TODO: Escape the incoming text
-    String queryText = "PREFIX pf: <http://jena.hpl.hp.com/ARQ/property#> "
-        + "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#> "
-        + "PREFIX skos: <http://www.w3.org/2004/02/skos/core#> "
-        + "PREFIX owl: <http://www.w3.org/2002/07/owl#> "
-        + "SELECT DISTINCT ?uri (SAMPLE(?lbl) AS ?label) WHERE { "
-        + "{ ?uri a owl:Class } UNION { ?uri a rdfs:Class }"
-        + "{ ?uri rdfs:label ?lbl } UNION { ?uri skos:prefLabel ?lbl } "
-        + "FILTER(lang(?lbl) = \"\" || langMatches(lang(?lbl), \"EN\")) . "
-        + "FILTER(regex(?lbl, \"" + text + "\", \"i\")) "
-        + "} GROUP BY ?uri ORDER BY ?label";
-    return processQuery(queryText);
+    return search(OntologyTermIndex.Kind.CLASS, text);
   }
 
   @Override
   public List<Map<String, String>> searchProperties(String text) {
-    // TODO: Escape the incoming text
-    String queryText = "PREFIX pf: <http://jena.hpl.hp.com/ARQ/property#> "
-        + "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#> "
-        + "PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> "
-        + "PREFIX skos: <http://www.w3.org/2004/02/skos/core#> "
-        + "PREFIX owl: <http://www.w3.org/2002/07/owl#> "
-        + "SELECT DISTINCT ?uri (SAMPLE(?lbl) AS ?label) WHERE { "
-        + "{ ?uri a owl:ObjectProperty } UNION { ?uri a owl:DatatypeProperty } "
-        + "UNION { ?uri a rdf:Property } "
-        + "{ ?uri rdfs:label ?lbl } UNION { ?uri skos:prefLabel ?lbl } "
-        + "FILTER(lang(?lbl) = \"\" || langMatches(lang(?lbl), \"EN\")) . "
-        + "FILTER(regex(?lbl, \"" + text + "\", \"i\")) "
-        + "} GROUP BY ?uri ORDER BY ?label";
-    return processQuery(queryText);
+    return search(OntologyTermIndex.Kind.PROPERTY, text);
   }
 
   @Override
   public List<String> getProperties(String concept) {
-    final Logger log = Logger.getRootLogger();
-    List<String> propertyList = new ArrayList<>();
+    List<String> propertyList = PROPERTY_CACHE.getProperties(concept);
+    if (PROPERTY_CACHE_REQUESTS.incrementAndGet() % CACHE_STATS_INTERVAL == 0) {
+      LOG.info("Property cache: " + PROPERTY_CACHE.stats());
+    }
+    return propertyList;
+  }
+
+  /**
+   * Returns the hit, miss and load counts of the cache used by {@link #getProperties(String)}.
+   */
+  public static CacheStats getPropertyCacheStats() {
+    return PROPERTY_CACHE.stats();
+  }
+
+  /**
+   * Fetches a concept's definition and lists the properties declared for it. Failures are
+   * thrown rather than returned as an empty list so that they are not cached.
+   *
+   * @param concept URI of an owl:Class
+   * @return the URIs of the properties of the class
+   */
+  private static List<String> fetchProperties(String concept) throws IOException {
+    HttpURLConnection conn = (HttpURLConnection) new URL(concept).openConnection();
     try {
-      HttpURLConnection conn = (HttpURLConnection) new URL(concept).openConnection();
+      conn.setConnectTimeout(CONNECT_TIMEOUT_MS);
+      conn.setReadTimeout(READ_TIMEOUT_MS);
       conn.addRequestProperty("Accept", "application/rdf+xml,text/turtle,text/n3");
       conn.setDoInput(true);
       conn.connect();
-      OntModel model = (OntModel) ModelFactory.createOntologyModel();
-      model.read(conn.getInputStream(), concept, "RDF/XML");
-      OntClass ontClass = model.getOntClass(concept);
-      ExtendedIterator<OntProperty> propIt = ontClass.listDeclaredProperties();
-      log.info("The list of properties is: ");
-      while (propIt.hasNext()) {
-        if (propIt.next() != null) {
-          propertyList.add(propIt.next().getURI());
-          log.info(propIt.next().getURI());
-        }
+      InputStream in = conn.getInputStream();
+      try {
+        List<String> propertyList = ConceptPropertyCache.readProperties(in, concept);
+        LOG.debug("Properties of " + concept + ": " + propertyList);
+        return propertyList;
+      } finally {
+        in.close();
       }
-    } catch (Exception e) {
-      Logger.getRootLogger().warn("Unable to read ontology " + concept, e);
+    } finally {
+      conn.disconnect();
     }
-    return propertyList;
   }
 
 }
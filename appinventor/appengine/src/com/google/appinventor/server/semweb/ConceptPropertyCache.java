@@ -0,0 +1,124 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.server.semweb;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.hp.hpl.jena.ontology.OntClass;
+import com.hp.hpl.jena.ontology.OntModel;
+import com.hp.hpl.jena.ontology.OntProperty;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.log4j.Logger;
+
+/**
+ * The properties declared for ontology classes, kept for a limited time so that changes to the
+ * published ontologies are eventually picked up. Concurrent requests for a concept that is not
+ * cached wait for a single fetch, and failed fetches are not cached.
+ */
+public final class ConceptPropertyCache {
+
+  private static final Logger LOG = Logger.getLogger(ConceptPropertyCache.class);
+
+  /**
+   * Fetches the properties of a concept from its publisher.
+   */
+  public interface Fetcher {
+    /**
+     * @param concept URI of an owl:Class
+     * @return the URIs of the properties of the class
+     * @throws IOException if the properties could not be fetched
+     */
+    List<String> fetch(String concept) throws IOException;
+  }
+
+  private final LoadingCache<String, List<String>> cache;
+
+  /**
+   * @param maximumSize the number of concepts to keep
+   * @param ttl how long to keep the properties of a concept after they are fetched
+   * @param unit the unit of {@code ttl}
+   * @param ticker the time source for expiring entries
+   * @param fetcher fetches the properties of concepts that are not cached
+   */
+  public ConceptPropertyCache(int maximumSize, long ttl, TimeUnit unit, Ticker ticker,
+      final Fetcher fetcher) {
+    cache = CacheBuilder.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(ttl, unit)
+        .ticker(ticker)
+        .recordStats()
+        .build(new CacheLoader<String, List<String>>() {
+          @Override
+          public List<String> load(String concept) throws IOException {
+            return ImmutableList.copyOf(fetcher.fetch(concept));
+          }
+        });
+  }
+
+  /**
+   * Returns the properties of the given concept, fetching them if they are not cached.
+   *
+   * @param concept URI of an owl:Class
+   * @return a new list of the URIs of the properties of the class, empty if they could not be
+   *     fetched
+   */
+  public List<String> getProperties(String concept) {
+    try {
+      return new ArrayList<>(cache.getUnchecked(concept));
+    } catch (UncheckedExecutionException e) {
+      LOG.warn("Unable to read ontology " + concept, e.getCause());
+      return new ArrayList<>();
+    }
+  }
+
+  /**
+   * Returns the hit, miss and load counts of the cache since it was created.
+   */
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  /**
+   * Reads a concept's definition in RDF/XML and lists the properties declared for it.
+   *
+   * @param in the definition of the concept
+   * @param concept URI of an owl:Class
+   * @return the URIs of the properties of the class
+   * @throws IOException if the definition does not define the concept as a class
+   */
+  public static List<String> readProperties(InputStream in, String concept) throws IOException {
+    OntModel model = ModelFactory.createOntologyModel();
+    model.read(in, concept, "RDF/XML");
+    OntClass ontClass = model.getOntClass(concept);
+    if (ontClass == null) {
+      throw new IOException(concept + " is not defined as a class by its server");
+    }
+    List<String> propertyList = new ArrayList<>();
+    ExtendedIterator<OntProperty> propIt = ontClass.listDeclaredProperties();
+    try {
+      while (propIt.hasNext()) {
+        OntProperty property = propIt.next();
+        if (property != null && property.isURIResource()) {
+          propertyList.add(property.getURI());
+        }
+      }
+    } finally {
+      propIt.close();
+    }
+    return propertyList;
+  }
+}
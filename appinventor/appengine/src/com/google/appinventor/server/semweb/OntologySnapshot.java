@@ -0,0 +1,120 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.server.semweb;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+
+/**
+ * A snapshot of the loaded ontologies on local disk, so that the semantic web service can start
+ * without fetching every ontology from its publisher.
+ *
+ * <p>A snapshot is a gzipped Turtle file made of the model's prefix declarations followed by its
+ * statements in N-Triples form, which the streaming Turtle parser reads much faster than the
+ * original RDF/XML. Its name includes a hash of the list of ontology URLs, so a snapshot is
+ * never used for a different list of ontologies.</p>
+ */
+public final class OntologySnapshot {
+
+  private OntologySnapshot() {
+  }
+
+  /**
+   * Returns the snapshot file for the given list of ontologies in a directory.
+   *
+   * @param dir the snapshot directory
+   * @param ontologies the URLs of the ontologies in the snapshot
+   * @return the snapshot file, which may not exist
+   */
+  public static File locate(File dir, List<String> ontologies) {
+    StringBuilder sb = new StringBuilder();
+    for (String ontology : ontologies) {
+      sb.append(ontology).append('\n');
+    }
+    return new File(dir, "ontologies-" + sha1(sb.toString()) + ".ttl.gz");
+  }
+
+  /**
+   * Reads a snapshot into a model.
+   *
+   * @param file the snapshot file
+   * @param model the model to read into
+   * @throws IOException if the snapshot cannot be read
+   */
+  public static void read(File file, Model model) throws IOException {
+    InputStream in = new GZIPInputStream(new BufferedInputStream(new FileInputStream(file)));
+    try {
+      RDFDataMgr.read(model, in, Lang.TURTLE);
+    } finally {
+      in.close();
+    }
+  }
+
+  /**
+   * Writes a model to a snapshot. The snapshot is written to a temporary file that replaces
+   * the target only once complete, so a partly written snapshot is never read.
+   *
+   * @param file the snapshot file
+   * @param model the model to write
+   * @throws IOException if the snapshot cannot be written
+   */
+  public static void write(File file, Model model) throws IOException {
+    File dir = file.getAbsoluteFile().getParentFile();
+    if (!dir.isDirectory() && !dir.mkdirs()) {
+      throw new IOException("Unable to create " + dir);
+    }
+    File temp = new File(dir, file.getName() + ".tmp");
+    OutputStream out = new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+    try {
+      Writer writer = new OutputStreamWriter(out, "UTF-8");
+      for (Map.Entry<String, String> prefix : model.getNsPrefixMap().entrySet()) {
+        writer.write("@prefix " + prefix.getKey() + ": <" + prefix.getValue() + "> .\n");
+      }
+      writer.flush();
+      model.write(out, "N-TRIPLES");
+    } finally {
+      out.close();
+    }
+    if (!temp.renameTo(file)) {
+      file.delete();
+      if (!temp.renameTo(file)) {
+        temp.delete();
+        throw new IOException("Unable to replace " + file);
+      }
+    }
+  }
+
+  private static String sha1(String text) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-1").digest(text.getBytes("UTF-8"));
+      StringBuilder sb = new StringBuilder(hash.length * 2);
+      for (byte b : hash) {
+        sb.append(String.format("%02x", b));
+      }
+      return sb.toString();
+    } catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,394 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.server.semweb;
+
+import com.hp.hpl.jena.rdf.model.Literal;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.Property;
+import com.hp.hpl.jena.rdf.model.RDFNode;
+import com.hp.hpl.jena.rdf.model.Resource;
+import com.hp.hpl.jena.rdf.model.ResIterator;
+import com.hp.hpl.jena.rdf.model.StmtIterator;
+import com.hp.hpl.jena.vocabulary.OWL;
+import com.hp.hpl.jena.vocabulary.RDF;
+import com.hp.hpl.jena.vocabulary.RDFS;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable in-memory index over the English labels of the classes and properties in an
+ * ontology model, used to answer the designer's autocomplete requests without querying the
+ * model.
+ *
+ * <p>Each label is indexed by its character trigrams and by the prefixes of its words. Queries of
+ * three or more characters match labels containing the query anywhere; shorter queries match
+ * labels with a word starting with the query. Matches are ranked exact label first, then label
+ * prefix, then word prefix, then any other substring, and alphabetically within each rank.</p>
+ */
+public final class OntologyTermIndex {
+
+  /**
+   * The kinds of terms that can be searched.
+   */
+  public enum Kind {
+    CLASS,
+    PROPERTY
+  }
+
+  /**
+   * A labelled ontology term.
+   */
+  public static final class Term {
+    private final String uri;
+    private final String label;
+    private final String qname;
+
+    Term(String uri, String label, String qname) {
+      this.uri = uri;
+      this.label = label;
+      this.qname = qname;
+    }
+
+    public String getUri() {
+      return uri;
+    }
+
+    public String getLabel() {
+      return label;
+    }
+
+    /**
+     * Returns the prefixed name of the term in the source model, or null if the model has no
+     * prefix for the term's namespace.
+     */
+    public String getQName() {
+      return qname;
+    }
+  }
+
+  public static final OntologyTermIndex EMPTY =
+      new OntologyTermIndex(new TermSet(new ArrayList<Term>()),
+          new TermSet(new ArrayList<Term>()));
+
+  private static final String SKOS_NS = "http://www.w3.org/2004/02/skos/core#";
+
+  private static final int TRIGRAM = 3;
+
+  private static final int RANK_EXACT = 0;
+  private static final int RANK_LABEL_PREFIX = 1;
+  private static final int RANK_WORD_PREFIX = 2;
+  private static final int RANK_SUBSTRING = 3;
+
+  private final TermSet classes;
+  private final TermSet properties;
+
+  private OntologyTermIndex(TermSet classes, TermSet properties) {
+    this.classes = classes;
+    this.properties = properties;
+  }
+
+  /**
+   * Indexes the classes ({@code owl:Class}, {@code rdfs:Class}) and properties
+   * ({@code owl:ObjectProperty}, {@code owl:DatatypeProperty}, {@code rdf:Property}) of the
+   * model by their {@code rdfs:label} and {@code skos:prefLabel} values that are either
+   * untagged or tagged as English.
+   *
+   * @param model the model to index
+   * @return the index
+   */
+  public static OntologyTermIndex build(Model model) {
+    return new OntologyTermIndex(
+        new TermSet(collectTerms(model, OWL.Class, RDFS.Class)),
+        new TermSet(collectTerms(model, OWL.ObjectProperty, OWL.DatatypeProperty,
+            RDF.Property)));
+  }
+
+  /**
+   * Returns the number of (term, label) pairs in the index.
+   */
+  public int size() {
+    return classes.terms.length + properties.terms.length;
+  }
+
+  /**
+   * Finds the terms of the given kind whose label matches the text, best matches first. A term
+   * with several matching labels is returned once, with its best matching label.
+   *
+   * @param kind the kind of term to find
+   * @param text the text typed by the user, matched case-insensitively
+   * @param limit the maximum number of terms to return
+   * @return the matching terms
+   */
+  public List<Term> search(Kind kind, String text, int limit) {
+    return (kind == Kind.CLASS ? classes : properties).search(normalize(text), limit);
+  }
+
+  private static String normalize(String text) {
+    return text.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static List<Term> collectTerms(Model model, Resource... types) {
+    Property prefLabel = model.createProperty(SKOS_NS + "prefLabel");
+    Set<Resource> seen = new HashSet<>();
+    List<Term> terms = new ArrayList<>();
+    for (Resource type : types) {
+      ResIterator it = model.listResourcesWithProperty(RDF.type, type);
+      try {
+        while (it.hasNext()) {
+          Resource subject = it.next();
+          if (subject.isURIResource() && seen.add(subject)) {
+            String uri = subject.getURI();
+            String qname = model.qnameFor(uri);
+            Set<String> labels = new HashSet<>();
+            addLabels(subject, RDFS.label, labels);
+            addLabels(subject, prefLabel, labels);
+            for (String label : labels) {
+              terms.add(new Term(uri, label, qname));
+            }
+          }
+        }
+      } finally {
+        it.close();
+      }
+    }
+    return terms;
+  }
+
+  private static void addLabels(Resource subject, Property property, Set<String> labels) {
+    StmtIterator it = subject.listProperties(property);
+    try {
+      while (it.hasNext()) {
+        RDFNode node = it.next().getObject();
+        if (node.isLiteral()) {
+          Literal literal = node.asLiteral();
+          String lang = literal.getLanguage().toLowerCase(Locale.ROOT);
+          if (lang.isEmpty() || lang.equals("en") || lang.startsWith("en-")) {
+            labels.add(literal.getLexicalForm());
+          }
+        }
+      }
+    } finally {
+      it.close();
+    }
+  }
+
+  /**
+   * The index over the terms of one kind.
+   */
+  private static final class TermSet {
+    /** Terms sorted by label, ignoring case. */
+    private final Term[] terms;
+    /** Lower case labels, parallel to {@link #terms}. */
+    private final String[] keys;
+    /** Trigram to the ascending ids of the terms whose label contains it. */
+    private final Map<String, int[]> trigrams = new HashMap<>();
+    /** Lower case label words, sorted, and the id of the term each word came from. */
+    private final String[] words;
+    private final int[] wordTerms;
+
+    TermSet(List<Term> unsorted) {
+      terms = unsorted.toArray(new Term[unsorted.size()]);
+      Arrays.sort(terms, new Comparator<Term>() {
+        @Override
+        public int compare(Term a, Term b) {
+          int result = a.label.compareToIgnoreCase(b.label);
+          return result != 0 ? result : a.uri.compareTo(b.uri);
+        }
+      });
+      keys = new String[terms.length];
+      Map<String, List<Integer>> postings = new HashMap<>();
+      final List<String> wordList = new ArrayList<>();
+      final List<Integer> wordTermList = new ArrayList<>();
+      for (int id = 0; id < terms.length; id++) {
+        String key = normalize(terms[id].label);
+        keys[id] = key;
+        for (String trigram : trigramsOf(key)) {
+          List<Integer> posting = postings.get(trigram);
+          if (posting == null) {
+            posting = new ArrayList<>();
+            postings.put(trigram, posting);
+          }
+          posting.add(id);
+        }
+        for (String word : key.split("[^\\p{L}\\p{N}]+")) {
+          if (!word.isEmpty()) {
+            wordList.add(word);
+            wordTermList.add(id);
+          }
+        }
+      }
+      for (Map.Entry<String, List<Integer>> entry : postings.entrySet()) {
+        trigrams.put(entry.getKey(), toArray(entry.getValue()));
+      }
+      Integer[] order = new Integer[wordList.size()];
+      for (int i = 0; i < order.length; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, new Comparator<Integer>() {
+        @Override
+        public int compare(Integer a, Integer b) {
+          return wordList.get(a).compareTo(wordList.get(b));
+        }
+      });
+      words = new String[order.length];
+      wordTerms = new int[order.length];
+      for (int i = 0; i < order.length; i++) {
+        words[i] = wordList.get(order[i]);
+        wordTerms[i] = wordTermList.get(order[i]);
+      }
+    }
+
+    List<Term> search(String query, int limit) {
+      int[] candidates;
+      if (query.isEmpty()) {
+        candidates = new int[Math.min(limit, terms.length)];
+        for (int i = 0; i < candidates.length; i++) {
+          candidates[i] = i;
+        }
+      } else if (query.length() < TRIGRAM) {
+        candidates = wordPrefixMatches(query);
+      } else {
+        candidates = substringMatches(query);
+      }
+      // Bucket by rank; ids are in label order, so each bucket stays alphabetical.
+      List<List<Integer>> ranked = new ArrayList<>();
+      for (int i = 0; i <= RANK_SUBSTRING; i++) {
+        ranked.add(new ArrayList<Integer>());
+      }
+      for (int id : candidates) {
+        ranked.get(rank(keys[id], query)).add(id);
+      }
+      Map<String, Term> results = new LinkedHashMap<>();
+      for (List<Integer> bucket : ranked) {
+        for (int id : bucket) {
+          if (results.size() >= limit) {
+            return new ArrayList<>(results.values());
+          }
+          if (!results.containsKey(terms[id].uri)) {
+            results.put(terms[id].uri, terms[id]);
+          }
+        }
+      }
+      return new ArrayList<>(results.values());
+    }
+
+    private int[] substringMatches(String query) {
+      Set<String> grams = trigramsOf(query);
+      List<int[]> lists = new ArrayList<>(grams.size());
+      for (String gram : grams) {
+        int[] posting = trigrams.get(gram);
+        if (posting == null) {
+          return new int[0];
+        }
+        lists.add(posting);
+      }
+      Collections.sort(lists, new Comparator<int[]>() {
+        @Override
+        public int compare(int[] a, int[] b) {
+          return a.length - b.length;
+        }
+      });
+      int[] result = lists.get(0);
+      for (int i = 1; i < lists.size() && result.length > 0; i++) {
+        result = intersect(result, lists.get(i));
+      }
+      // Trigrams can all occur in a label without occurring in the query's order.
+      int count = 0;
+      int[] verified = new int[result.length];
+      for (int id : result) {
+        if (keys[id].contains(query)) {
+          verified[count++] = id;
+        }
+      }
+      return Arrays.copyOf(verified, count);
+    }
+
+    private int[] wordPrefixMatches(String query) {
+      int start = lowerBound(query);
+      Set<Integer> ids = new HashSet<>();
+      for (int i = start; i < words.length && words[i].startsWith(query); i++) {
+        ids.add(wordTerms[i]);
+      }
+      int[] result = toArray(new ArrayList<>(ids));
+      Arrays.sort(result);
+      return result;
+    }
+
+    private int lowerBound(String query) {
+      int lo = 0;
+      int hi = words.length;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (words[mid].compareTo(query) < 0) {
+          lo = mid + 1;
+        } else {
+          hi = mid;
+        }
+      }
+      return lo;
+    }
+
+    private static int rank(String key, String query) {
+      if (key.equals(query)) {
+        return RANK_EXACT;
+      } else if (key.startsWith(query)) {
+        return RANK_LABEL_PREFIX;
+      }
+      int index = key.indexOf(query);
+      while (index > 0) {
+        if (!Character.isLetterOrDigit(key.charAt(index - 1))) {
+          return RANK_WORD_PREFIX;
+        }
+        index = key.indexOf(query, index + 1);
+      }
+      return RANK_SUBSTRING;
+    }
+
+    private static Set<String> trigramsOf(String key) {
+      Set<String> result = new HashSet<>();
+      for (int i = 0; i + TRIGRAM <= key.length(); i++) {
+        result.add(key.substring(i, i + TRIGRAM));
+      }
+      return result;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+      int[] result = new int[Math.min(a.length, b.length)];
+      int i = 0;
+      int j = 0;
+      int count = 0;
+      while (i < a.length && j < b.length) {
+        if (a[i] < b[j]) {
+          i++;
+        } else if (a[i] > b[j]) {
+          j++;
+        } else {
+          result[count++] = a[i];
+          i++;
+          j++;
+        }
+      }
+      return Arrays.copyOf(result, count);
+    }
+
+    private static int[] toArray(List<Integer> values) {
+      int[] result = new int[values.size()];
+      for (int i = 0; i < result.length; i++) {
+        result[i] = values.get(i);
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,141 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.server.semweb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.base.Ticker;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ConceptPropertyCache}.
+ */
+public class ConceptPropertyCacheTest {
+
+  private static final String PERSON = "http://example.com/Person";
+
+  private static final String DEFINITION =
+      "<rdf:RDF xmlns:rdf=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\"\n"
+      + "    xmlns:rdfs=\"http://www.w3.org/2000/01/rdf-schema#\"\n"
+      + "    xmlns:owl=\"http://www.w3.org/2002/07/owl#\">\n"
+      + "  <owl:Class rdf:about=\"http://example.com/Person\"/>\n"
+      + "  <owl:Class rdf:about=\"http://example.com/Place\"/>\n"
+      + "  <owl:DatatypeProperty rdf:about=\"http://example.com/name\">\n"
+      + "    <rdfs:domain rdf:resource=\"http://example.com/Person\"/>\n"
+      + "  </owl:DatatypeProperty>\n"
+      + "  <owl:ObjectProperty rdf:about=\"http://example.com/knows\">\n"
+      + "    <rdfs:domain rdf:resource=\"http://example.com/Person\"/>\n"
+      + "  </owl:ObjectProperty>\n"
+      + "  <owl:DatatypeProperty rdf:about=\"http://example.com/area\">\n"
+      + "    <rdfs:domain rdf:resource=\"http://example.com/Place\"/>\n"
+      + "  </owl:DatatypeProperty>\n"
+      + "</rdf:RDF>\n";
+
+  private static class FakeTicker extends Ticker {
+    private long nanos = 0;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    void advance(long time, TimeUnit unit) {
+      nanos += unit.toNanos(time);
+    }
+  }
+
+  private FakeTicker ticker;
+  private List<String> fetched;
+  private boolean failing;
+  private ConceptPropertyCache cache;
+
+  @Before
+  public void setUp() {
+    ticker = new FakeTicker();
+    fetched = new ArrayList<>();
+    failing = false;
+    cache = new ConceptPropertyCache(2, 60, TimeUnit.MINUTES, ticker,
+        new ConceptPropertyCache.Fetcher() {
+          @Override
+          public List<String> fetch(String concept) throws IOException {
+            fetched.add(concept);
+            if (failing) {
+              throw new IOException("unreachable");
+            }
+            return Arrays.asList(concept + "#p");
+          }
+        });
+  }
+
+  @Test
+  public void testHitsAreCounted() {
+    assertEquals(Arrays.asList(PERSON + "#p"), cache.getProperties(PERSON));
+    assertEquals(Arrays.asList(PERSON + "#p"), cache.getProperties(PERSON));
+    assertEquals(1, fetched.size());
+    assertEquals(1, cache.stats().hitCount());
+    assertEquals(1, cache.stats().missCount());
+  }
+
+  @Test
+  public void testCallersGetTheirOwnList() {
+    cache.getProperties(PERSON).clear();
+    assertEquals(1, cache.getProperties(PERSON).size());
+  }
+
+  @Test
+  public void testEntriesExpire() {
+    cache.getProperties(PERSON);
+    ticker.advance(59, TimeUnit.MINUTES);
+    cache.getProperties(PERSON);
+    assertEquals(1, fetched.size());
+    ticker.advance(1, TimeUnit.MINUTES);
+    cache.getProperties(PERSON);
+    assertEquals(2, fetched.size());
+    assertEquals(2, cache.stats().missCount());
+  }
+
+  @Test
+  public void testFailuresAreNotCached() {
+    failing = true;
+    assertTrue(cache.getProperties(PERSON).isEmpty());
+    failing = false;
+    assertEquals(1, cache.getProperties(PERSON).size());
+    assertEquals(2, fetched.size());
+    assertEquals(1, cache.stats().loadExceptionCount());
+  }
+
+  @Test
+  public void testReadProperties() throws IOException {
+    List<String> properties = ConceptPropertyCache.readProperties(stream(DEFINITION), PERSON);
+    assertEquals(2, properties.size());
+    assertTrue(properties.contains("http://example.com/name"));
+    assertTrue(properties.contains("http://example.com/knows"));
+  }
+
+  @Test
+  public void testReadPropertiesOfUndefinedClass() {
+    try {
+      ConceptPropertyCache.readProperties(stream(DEFINITION), "http://example.com/Thing");
+      fail("Expected an IOException");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("http://example.com/Thing"));
+    }
+  }
+
+  private static ByteArrayInputStream stream(String text) {
+    return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+  }
+}
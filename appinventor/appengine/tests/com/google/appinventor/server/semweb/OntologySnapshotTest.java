@@ -0,0 +1,62 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.server.semweb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import java.io.File;
+import java.io.StringReader;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link OntologySnapshot}.
+ */
+public class OntologySnapshotTest {
+
+  private static final String ONTOLOGY =
+      "@prefix ex: <http://example.com/> .\n"
+      + "@prefix owl: <http://www.w3.org/2002/07/owl#> .\n"
+      + "@prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .\n"
+      + "ex:Person a owl:Class ; rdfs:label \"Person\"@en, \"Personne\"@fr ;\n"
+      + "  rdfs:comment \"A human, caf\u00e9 regular\" ;\n"
+      + "  rdfs:subClassOf [ a owl:Restriction ; owl:onProperty ex:name ] .\n";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    Model model = ModelFactory.createDefaultModel();
+    model.read(new StringReader(ONTOLOGY), null, "TTL");
+    File file = OntologySnapshot.locate(folder.getRoot(), Arrays.asList("http://example.com/"));
+    OntologySnapshot.write(file, model);
+    assertTrue(file.isFile());
+    assertFalse(new File(file.getPath() + ".tmp").exists());
+
+    Model copy = ModelFactory.createDefaultModel();
+    OntologySnapshot.read(file, copy);
+    assertTrue(model.isIsomorphicWith(copy));
+    assertEquals("http://example.com/", copy.getNsPrefixURI("ex"));
+    assertEquals("ex:Person", copy.qnameFor("http://example.com/Person"));
+  }
+
+  @Test
+  public void testSnapshotNameDependsOnOntologies() {
+    File dir = folder.getRoot();
+    assertEquals(OntologySnapshot.locate(dir, Arrays.asList("http://a/", "http://b/")),
+        OntologySnapshot.locate(dir, Arrays.asList("http://a/", "http://b/")));
+    assertNotEquals(OntologySnapshot.locate(dir, Arrays.asList("http://a/", "http://b/")),
+        OntologySnapshot.locate(dir, Arrays.asList("http://a/")));
+  }
+}
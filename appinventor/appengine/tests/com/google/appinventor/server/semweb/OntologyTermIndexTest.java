@@ -0,0 +1,107 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.server.semweb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.appinventor.server.semweb.OntologyTermIndex.Kind;
+import com.google.appinventor.server.semweb.OntologyTermIndex.Term;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link OntologyTermIndex}.
+ */
+public class OntologyTermIndexTest {
+
+  private static final String ONTOLOGY =
+      "@prefix ex: <http://example.com/> .\n"
+      + "@prefix owl: <http://www.w3.org/2002/07/owl#> .\n"
+      + "@prefix rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> .\n"
+      + "@prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .\n"
+      + "@prefix skos: <http://www.w3.org/2004/02/skos/core#> .\n"
+      + "ex:Person a owl:Class ; rdfs:label \"Person\"@en, \"Personne\"@fr .\n"
+      + "ex:Personality a rdfs:Class ; rdfs:label \"Personality\" .\n"
+      + "ex:SalesPerson a owl:Class ; skos:prefLabel \"Sales person\" .\n"
+      + "ex:Impersonator a owl:Class ; rdfs:label \"Impersonator\" .\n"
+      + "ex:Place a owl:Class ; rdfs:label \"Place\"@en-US .\n"
+      + "ex:name a owl:DatatypeProperty ; rdfs:label \"name\" .\n"
+      + "ex:knows a rdf:Property ; rdfs:label \"knows\", \"is acquainted with\" .\n";
+
+  private OntologyTermIndex index;
+
+  @Before
+  public void setUp() {
+    Model model = ModelFactory.createDefaultModel();
+    model.read(new StringReader(ONTOLOGY), null, "TTL");
+    index = OntologyTermIndex.build(model);
+  }
+
+  @Test
+  public void testRanking() {
+    assertEquals(uris("Person", "Personality", "SalesPerson", "Impersonator"),
+        uris(index.search(Kind.CLASS, "person", 10)));
+  }
+
+  @Test
+  public void testCaseAndWhitespaceAreIgnored() {
+    assertEquals(uris("Person", "Personality", "SalesPerson", "Impersonator"),
+        uris(index.search(Kind.CLASS, "  PERSON ", 10)));
+  }
+
+  @Test
+  public void testShortQueriesMatchWordPrefixes() {
+    assertEquals(uris("Person", "Personality", "Place", "SalesPerson"),
+        uris(index.search(Kind.CLASS, "p", 10)));
+  }
+
+  @Test
+  public void testLimit() {
+    assertEquals(uris("Person", "Personality"), uris(index.search(Kind.CLASS, "person", 2)));
+  }
+
+  @Test
+  public void testNonEnglishLabelsAreNotIndexed() {
+    assertTrue(index.search(Kind.CLASS, "personne", 10).isEmpty());
+  }
+
+  @Test
+  public void testPropertiesAreSearchedSeparately() {
+    assertTrue(index.search(Kind.PROPERTY, "person", 10).isEmpty());
+    assertEquals(uris("knows"), uris(index.search(Kind.PROPERTY, "acquainted", 10)));
+    List<Term> terms = index.search(Kind.PROPERTY, "name", 10);
+    assertEquals(1, terms.size());
+    assertEquals("name", terms.get(0).getLabel());
+    assertEquals("ex:name", terms.get(0).getQName());
+  }
+
+  @Test
+  public void testEmptyIndex() {
+    assertTrue(OntologyTermIndex.EMPTY.search(Kind.CLASS, "person", 10).isEmpty());
+  }
+
+  private static List<String> uris(String... localNames) {
+    List<String> result = new ArrayList<>();
+    for (String localName : localNames) {
+      result.add("http://example.com/" + localName);
+    }
+    return result;
+  }
+
+  private static List<String> uris(List<Term> terms) {
+    List<String> result = new ArrayList<>();
+    for (Term term : terms) {
+      result.add(term.getUri());
+    }
+    return result;
+  }
+}
@@ -42,6 +42,7 @@ Blockly.Yail.YAIL_BREAK = "*yail-break*";
 Blockly.Yail.YAIL_CALL_COMPONENT_METHOD = "(call-component-method ";
 Blockly.Yail.YAIL_CALL_COMPONENT_METHOD_BLOCKING = "(call-component-method-with-blocking-continuation ";
 Blockly.Yail.YAIL_CALL_COMPONENT_METHOD_CONTINUATION = "(call-component-method-with-continuation ";
+Blockly.Yail.YAIL_CALL_COMPONENT_METHOD_DIRECT = "(call-component-method-direct ";
 Blockly.Yail.YAIL_CALL_COMPONENT_TYPE_METHOD = "(call-component-type-method ";
 Blockly.Yail.YAIL_CALL_COMPONENT_TYPE_METHOD_BLOCKING = "(call-component-type-method-with-blocking-continuation ";
 Blockly.Yail.YAIL_CALL_COMPONENT_TYPE_METHOD_CONTINUATION = "(call-component-type-method-with-continuation ";
@@ -70,6 +71,7 @@ Blockly.Yail.YAIL_FORRANGE = "(forrange ";
 Blockly.Yail.YAIL_GET_COMPONENT = "(get-component ";
 Blockly.Yail.YAIL_GET_ALL_COMPONENT = "(get-all-components ";
 Blockly.Yail.YAIL_GET_PROPERTY = "(get-property ";
+Blockly.Yail.YAIL_GET_PROPERTY_DIRECT = "(get-property-direct ";
 Blockly.Yail.YAIL_GET_COMPONENT_TYPE_PROPERTY = "(get-property-and-check  ";
 Blockly.Yail.YAIL_GET_VARIABLE = "(get-var ";
 Blockly.Yail.YAIL_AND_DELAYED = "(and-delayed ";
@@ -92,6 +94,7 @@ Blockly.Yail.YAIL_QUOTE = "'";
 Blockly.Yail.YAIL_REDUCE = "(reduceovereach ";
 Blockly.Yail.YAIL_RENAME_COMPONENT = "(rename-component ";
 Blockly.Yail.YAIL_SET_AND_COERCE_PROPERTY = "(set-and-coerce-property! ";
+Blockly.Yail.YAIL_SET_AND_COERCE_PROPERTY_DIRECT = "(set-and-coerce-property-direct! ";
 Blockly.Yail.YAIL_SET_AND_COERCE_COMPONENT_TYPE_PROPERTY = "(set-and-coerce-property-and-check! ";
 Blockly.Yail.YAIL_SET_SUBFORM_LAYOUT_PROPERTY = "(%set-subform-layout-property! ";
 Blockly.Yail.YAIL_SET_VARIABLE = "(set-var! ";
@@ -125,12 +128,16 @@ Blockly.Yail.FLONUM_REGEXP = "^[\\s]*[-+]?([0-9]*)((\\.[0-9]+)|[0-9]\\.)[\\s]*$"
  */
 Blockly.Yail.getFormYail = function(formJson, packageName, forRepl, workspace) {
   var oldForRepl = this.forRepl;
+  var oldDirectCalls = this.directCalls;
   var code;
   try {
     this.forRepl = forRepl;
+    // Companions may be older than the runtime that defines the direct component calls
+    this.directCalls = !forRepl;
     code = Blockly.Yail.getFormYail_(formJson, packageName, forRepl, workspace);
   } finally {
     this.forRepl = oldForRepl;
+    this.directCalls = oldDirectCalls;
   }
   return code;
 };
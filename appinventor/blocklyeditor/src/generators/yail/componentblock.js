@@ -166,6 +166,7 @@ Blockly.Yail.methodHelper = function(methodBlock, name, methodName, generic) {
   }
   //var yailTypes = (generic ? [Blockly.Yail.YAIL_COMPONENT_TYPE] : []).concat(methodBlock.yailTypes);
   var callPrefix;
+  var componentClass = null;
   if (generic) {
     name = componentDb.getType(name).type;
     callPrefix = continuation ? Blockly.Yail.YAIL_CALL_COMPONENT_TYPE_METHOD_BLOCKING : Blockly.Yail.YAIL_CALL_COMPONENT_TYPE_METHOD
@@ -175,6 +176,9 @@ Blockly.Yail.methodHelper = function(methodBlock, name, methodName, generic) {
   } else {
     callPrefix = continuation ? Blockly.Yail.YAIL_CALL_COMPONENT_METHOD_BLOCKING : Blockly.Yail.YAIL_CALL_COMPONENT_METHOD;
     name = methodBlock.getFieldValue("COMPONENT_SELECTOR");
+    if (!continuation) {
+      componentClass = Blockly.Yail.componentClassName_(methodBlock);
+    }
     // special case for handling Clock.Add
     var timeUnit = methodBlock.getFieldValue("TIME_UNIT");
     if (timeUnit) {
@@ -187,16 +191,33 @@ Blockly.Yail.methodHelper = function(methodBlock, name, methodName, generic) {
   var args = [];
   for (var x = 0; x < numOfParams; x++) {
     // TODO(hal, andrew): check for empty socket and generate error if necessary
+    if (!methodBlock.getInputTargetBlock('ARG' + x)) {
+      // The direct form needs a value for every parameter
+      componentClass = null;
+    }
     args.push(Blockly.Yail.YAIL_SPACER
               + Blockly.Yail.valueToCode(methodBlock, 'ARG' + x, Blockly.Yail.ORDER_NONE));
   }
 
+  var target;
+  if (componentClass) {
+    // The component's type is known, so the call can be compiled without reflection.
+    callPrefix = Blockly.Yail.YAIL_CALL_COMPONENT_METHOD_DIRECT;
+    target = name
+      + Blockly.Yail.YAIL_SPACER
+      + componentClass
+      + Blockly.Yail.YAIL_SPACER
+      + methodName;
+  } else {
+    target = Blockly.Yail.YAIL_QUOTE
+      + name
+      + Blockly.Yail.YAIL_SPACER
+      + Blockly.Yail.YAIL_QUOTE
+      + methodName;
+  }
+
   return callPrefix
-    + Blockly.Yail.YAIL_QUOTE
-    + name
-    + Blockly.Yail.YAIL_SPACER
-    + Blockly.Yail.YAIL_QUOTE
-    + methodName
+    + target
     + Blockly.Yail.YAIL_SPACER
     + Blockly.Yail.YAIL_OPEN_COMBINATION
     + Blockly.Yail.YAIL_LIST_CONSTRUCTOR
@@ -210,6 +231,23 @@ Blockly.Yail.methodHelper = function(methodBlock, name, methodName, generic) {
     + Blockly.Yail.YAIL_CLOSE_COMBINATION;
 };
 
+/**
+ * Returns the Java class name of the component type of an instance block, which lets the
+ * generated code call the component directly, or null if the type is not known or the code
+ * is for the REPL.
+ *
+ * @param {!Blockly.BlockSvg} block a component block for a single component
+ * @returns {?string} the fully qualified class name of the component
+ * @private
+ */
+Blockly.Yail.componentClassName_ = function(block) {
+  if (!Blockly.Yail.directCalls) {
+    return null;
+  }
+  var componentType = block.workspace.getComponentDatabase().getType(block.typeName);
+  return componentType && componentType.type ? componentType.type : null;
+};
+
 Blockly.Yail.component_set_get = function() {
   if(this.setOrGet == "set") {
     if(this.isGeneric) {
@@ -236,9 +274,19 @@ Blockly.Yail.component_set_get = function() {
 Blockly.Yail.setproperty = function() {
   var propertyName = this.getFieldValue("PROP");
   var propType = this.getPropertyObject(propertyName).type;
-  var assignLabel = Blockly.Yail.YAIL_QUOTE + this.getFieldValue("COMPONENT_SELECTOR") + Blockly.Yail.YAIL_SPACER
-    + Blockly.Yail.YAIL_QUOTE + propertyName;
-  var code = Blockly.Yail.YAIL_SET_AND_COERCE_PROPERTY + assignLabel + Blockly.Yail.YAIL_SPACER;
+  // The direct form needs a value to set
+  var componentClass = this.getInputTargetBlock('VALUE') ?
+      Blockly.Yail.componentClassName_(this) : null;
+  var code;
+  if (componentClass) {
+    code = Blockly.Yail.YAIL_SET_AND_COERCE_PROPERTY_DIRECT + this.getFieldValue("COMPONENT_SELECTOR")
+      + Blockly.Yail.YAIL_SPACER + componentClass + Blockly.Yail.YAIL_SPACER + propertyName
+      + Blockly.Yail.YAIL_SPACER;
+  } else {
+    var assignLabel = Blockly.Yail.YAIL_QUOTE + this.getFieldValue("COMPONENT_SELECTOR") + Blockly.Yail.YAIL_SPACER
+      + Blockly.Yail.YAIL_QUOTE + propertyName;
+    code = Blockly.Yail.YAIL_SET_AND_COERCE_PROPERTY + assignLabel + Blockly.Yail.YAIL_SPACER;
+  }
   // TODO(hal, andrew): check for empty socket and generate error if necessary
   code = code.concat(Blockly.Yail.valueToCode(this, 'VALUE', Blockly.Yail.ORDER_NONE /*TODO:?*/));
   code = code.concat(Blockly.Yail.YAIL_SPACER + Blockly.Yail.YAIL_QUOTE
@@ -285,13 +333,25 @@ Blockly.Yail.genericSetproperty = function() {
 Blockly.Yail.getproperty = function(instanceName) {
   var propertyName = this.getFieldValue("PROP");
   var propType = this.getPropertyObject(propertyName).type;
-  var code = Blockly.Yail.YAIL_GET_PROPERTY
-    + Blockly.Yail.YAIL_QUOTE
-    + this.getFieldValue("COMPONENT_SELECTOR")
-    + Blockly.Yail.YAIL_SPACER
-    + Blockly.Yail.YAIL_QUOTE
-    + propertyName
-    + Blockly.Yail.YAIL_CLOSE_COMBINATION;
+  var componentClass = Blockly.Yail.componentClassName_(this);
+  var code;
+  if (componentClass) {
+    code = Blockly.Yail.YAIL_GET_PROPERTY_DIRECT
+      + this.getFieldValue("COMPONENT_SELECTOR")
+      + Blockly.Yail.YAIL_SPACER
+      + componentClass
+      + Blockly.Yail.YAIL_SPACER
+      + propertyName
+      + Blockly.Yail.YAIL_CLOSE_COMBINATION;
+  } else {
+    code = Blockly.Yail.YAIL_GET_PROPERTY
+      + Blockly.Yail.YAIL_QUOTE
+      + this.getFieldValue("COMPONENT_SELECTOR")
+      + Blockly.Yail.YAIL_SPACER
+      + Blockly.Yail.YAIL_QUOTE
+      + propertyName
+      + Blockly.Yail.YAIL_CLOSE_COMBINATION;
+  }
   return [code, Blockly.Yail.ORDER_ATOMIC];
 };
 
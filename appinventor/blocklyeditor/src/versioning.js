@@ -1912,7 +1912,10 @@ Blockly.Versioning.AllUpgradeMaps =
     // This is initial version. Placeholder for future upgrades
     1: "noUpgrade",
     // UpdateDone event was added.
-    2: "noUpgrade"
+    2: "noUpgrade",
+
+    // AI2: Added GetValues method and CacheValues property.
+    3: "noUpgrade"
 
   },
 
@@ -2001,7 +2004,13 @@ Blockly.Versioning.AllUpgradeMaps =
       Blockly.Versioning.changeEventName('FeatureCollection', 'GeoGeoJSON', 'GotFeatures'),
       Blockly.Versioning.changeEventName('FeatureCollection', 'ErrorLoadingFeatureCollection', 'LoadError'),
       Blockly.Versioning.changeEventName('FeatureCollection', 'LoadedFeatureCollection', 'GotFeatures')
-    ]
+    ],
+
+    // AI2: Added FeaturesInBoundingBox, FeaturesWithin and NearestFeatures methods.
+    3: "noUpgrade",
+
+    // AI2: Added SimplifyFeatures property.
+    4: "noUpgrade"
   },
 
   "File": {
@@ -2397,6 +2406,19 @@ Blockly.Versioning.AllUpgradeMaps =
 
   }, // End Language upgraders
 
+  "LinkedData" : {
+    1: "noUpgrade",
+    2: "noUpgrade",
+    3: "noUpgrade",
+
+    // AI2: Added ResultsPageSize and RawResults properties and the
+    // RetrievedResultsPage event.
+    4: "noUpgrade",
+
+    // AI2: Added PersistentStore property.
+    5: "noUpgrade"
+  }, // End LinkedData upgraders
+
   "LinkedDataListPicker" : {
     1: "noUpgrade",
     2: "noUpgrade",
@@ -2505,7 +2527,19 @@ Blockly.Versioning.AllUpgradeMaps =
     6: [Blockly.Versioning.makeSetterUseDropdown(
           'Map', 'ScaleUnits', 'ScaleUnits'),
         Blockly.Versioning.makeSetterUseDropdown(
-          'Map', 'MapType', 'MapType')]
+          'Map', 'MapType', 'MapType')],
+
+    // AI2: Added FeaturesInBoundingBox, FeaturesWithin and NearestFeatures methods.
+    7: "noUpgrade",
+
+    // AI2: Added SimplifyFeatures property.
+    8: "noUpgrade",
+
+    // AI2: Added offline tile methods, events, and properties.
+    9: "noUpgrade",
+
+    // AI2: Added ClusterMarkers property.
+    10: "noUpgrade"
 
   }, // End Map upgraders
 
@@ -2906,6 +2940,13 @@ Blockly.Versioning.AllUpgradeMaps =
 
   }, // End ProximitySensor upgraders
 
+  "Reasoner": {
+
+    // AI2: Added Incremental property and ReasoningUpdated event.
+    2: "noUpgrade"
+
+  }, // End Reasoner upgraders
+
   "Regression": {
     2: [
       Blockly.Versioning.makeMethodUseHelper("Regression", "CalculateLineOfBestFitValue", 2,
@@ -3155,8 +3196,11 @@ Blockly.Versioning.AllUpgradeMaps =
       Blockly.Versioning.changeEventParameterName("Spreadsheet", "GotColumnData", "colDataList", "columnData")
     ],
 
-    3: "noUpgrade"
-    
+    3: "noUpgrade",
+
+    // AI2: Added BatchWrites, FlushInterval and CacheTimeout properties and FlushWrites method.
+    4: "noUpgrade"
+
   },
 
   "TableArrangement": {
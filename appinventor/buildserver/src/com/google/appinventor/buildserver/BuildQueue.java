@@ -0,0 +1,289 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.buildserver;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * An {@link Executor} that runs a limited number of builds at a time and queues the rest.
+ *
+ * <p>Queued builds are kept per user. When a build finishes, the next build to start is the
+ * oldest queued build of the user with the fewest running builds, so one user submitting many
+ * builds cannot hold up everyone else. Builds are rejected only when the queue, or the user's
+ * share of it, is full. Build requests carry nothing else to rank them by, so there are no other
+ * priorities.</p>
+ *
+ * <p>The queue also keeps the statistics shown on the buildserver's vars page and estimates how
+ * long a newly submitted build will wait before it starts.</p>
+ *
+ * <p>After {@link #shutdown} the queue rejects new builds but still runs the builds already
+ * queued, and {@link #awaitTermination} waits for them to finish.</p>
+ */
+final class BuildQueue implements Executor {
+  // Used for the start time estimate until a build has finished.
+  private static final long DEFAULT_BUILD_MILLIS = 60 * 1000;
+  // Weight of the latest build in the average build time.
+  private static final double BUILD_MILLIS_WEIGHT = 0.2;
+
+  private static final Logger LOG = Logger.getLogger(BuildQueue.class.getName());
+
+  private static final class Job {
+    private final String user;
+    private final Runnable runnable;
+    private final long queuedTime = System.currentTimeMillis();
+
+    private Job(String user, Runnable runnable) {
+      this.user = user;
+      this.runnable = runnable;
+    }
+  }
+
+  // The maximum number of active builds. O means unlimited.
+  private final int maxActiveTasks;
+  // The maximum number of queued builds, and of queued builds per user.
+  private final int maxQueuedTasks;
+  private final int maxQueuedTasksPerUser;
+
+  // All of the following are guarded by this.
+  private final Map<String, Deque<Job>> queues = new LinkedHashMap<>();
+  private final Map<String, Integer> activeTasksPerUser = new HashMap<>();
+  private int activeTaskCount = 0;
+  private int queuedTaskCount = 0;
+  private int completedTaskCount = 0;
+  private int rejectedTaskCount = 0;
+  private int maximumQueuedTaskCount = 0;
+  private int dequeuedTaskCount = 0;
+  private long totalWaitMillis = 0;
+  private long maximumWaitMillis = 0;
+  private double averageBuildMillis = DEFAULT_BUILD_MILLIS;
+  private boolean shutdown = false;
+
+  /**
+   * Creates a BuildQueue.
+   *
+   * @param maxActiveTasks the maximum number of builds running at once, or 0 for no limit
+   * @param maxQueuedTasks the maximum number of builds waiting to run
+   * @param maxQueuedTasksPerUser the maximum number of builds waiting to run for one user
+   */
+  BuildQueue(int maxActiveTasks, int maxQueuedTasks, int maxQueuedTasksPerUser) {
+    this.maxActiveTasks = maxActiveTasks;
+    this.maxQueuedTasks = maxQueuedTasks;
+    this.maxQueuedTasksPerUser = maxQueuedTasksPerUser;
+  }
+
+  @Override
+  public void execute(Runnable runnable) {
+    submit(null, runnable);
+  }
+
+  /**
+   * Runs a build now if there is capacity, or else queues it.
+   *
+   * @param user the user requesting the build, or null if unknown
+   * @param runnable the build
+   * @return the estimated time in milliseconds until the build starts
+   * @throws RejectedExecutionException if the build can neither run nor be queued, or the queue
+   *     has been shut down
+   */
+  long submit(String user, Runnable runnable) {
+    Job job = new Job(user == null ? "" : user, runnable);
+    int queued;
+    long estimate;
+    synchronized (this) {
+      if (shutdown) {
+        rejectedTaskCount++;
+        throw new RejectedExecutionException("The build queue has been shut down");
+      }
+      if (maxActiveTasks == 0 || activeTaskCount < maxActiveTasks && queuedTaskCount == 0) {
+        start(job);
+        return 0;
+      }
+      Deque<Job> queue = queues.get(job.user);
+      int queuedForUser = queue == null ? 0 : queue.size();
+      if (queuedTaskCount >= maxQueuedTasks || queuedForUser >= maxQueuedTasksPerUser) {
+        rejectedTaskCount++;
+        throw new RejectedExecutionException();
+      }
+      if (queue == null) {
+        queue = new ArrayDeque<>();
+        queues.put(job.user, queue);
+      }
+      queue.add(job);
+      queuedTaskCount++;
+      maximumQueuedTaskCount = Math.max(maximumQueuedTaskCount, queuedTaskCount);
+      queued = queuedTaskCount;
+      estimate = estimateWait(queued - 1);
+    }
+    LOG.info("Queued build, " + queued + " waiting, estimated start in " + estimate + " ms");
+    return estimate;
+  }
+
+  /**
+   * Returns the estimated time in milliseconds until a build submitted now would start.
+   */
+  synchronized long getEstimatedWaitMillis() {
+    if (maxActiveTasks == 0 || activeTaskCount < maxActiveTasks && queuedTaskCount == 0) {
+      return 0;
+    }
+    return estimateWait(queuedTaskCount);
+  }
+
+  // Assumes the running builds are half done on average and that the builds ahead of this one
+  // start in rounds of maxActiveTasks.
+  private long estimateWait(int buildsAhead) {
+    return (long) (averageBuildMillis * (0.5 + buildsAhead / maxActiveTasks));
+  }
+
+  private void start(final Job job) {
+    activeTaskCount++;
+    Integer active = activeTasksPerUser.get(job.user);
+    activeTasksPerUser.put(job.user, active == null ? 1 : active + 1);
+    Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        long start = System.currentTimeMillis();
+        try {
+          job.runnable.run();
+        } finally {
+          finish(job, System.currentTimeMillis() - start);
+        }
+      }
+    });
+    thread.start();
+  }
+
+  private synchronized void finish(Job job, long buildMillis) {
+    activeTaskCount--;
+    completedTaskCount++;
+    int active = activeTasksPerUser.get(job.user) - 1;
+    if (active == 0) {
+      activeTasksPerUser.remove(job.user);
+    } else {
+      activeTasksPerUser.put(job.user, active);
+    }
+    averageBuildMillis += BUILD_MILLIS_WEIGHT * (buildMillis - averageBuildMillis);
+    Job next = takeNext();
+    if (next != null) {
+      long wait = System.currentTimeMillis() - next.queuedTime;
+      dequeuedTaskCount++;
+      totalWaitMillis += wait;
+      maximumWaitMillis = Math.max(maximumWaitMillis, wait);
+      start(next);
+    } else if (activeTaskCount == 0) {
+      notifyAll();
+    }
+  }
+
+  // Picks the oldest build of the user with the fewest running builds.
+  private Job takeNext() {
+    Deque<Job> best = null;
+    int bestActive = Integer.MAX_VALUE;
+    for (Map.Entry<String, Deque<Job>> entry : queues.entrySet()) {
+      Integer active = activeTasksPerUser.get(entry.getKey());
+      int userActive = active == null ? 0 : active;
+      Job head = entry.getValue().peekFirst();
+      if (userActive < bestActive
+          || userActive == bestActive && head.queuedTime < best.peekFirst().queuedTime) {
+        best = entry.getValue();
+        bestActive = userActive;
+      }
+    }
+    if (best == null) {
+      return null;
+    }
+    Job job = best.pollFirst();
+    if (best.isEmpty()) {
+      queues.remove(job.user);
+    }
+    queuedTaskCount--;
+    return job;
+  }
+
+  /**
+   * Stops accepting builds. Builds that are running or queued still run.
+   */
+  synchronized void shutdown() {
+    if (!shutdown) {
+      shutdown = true;
+      LOG.info("Build queue shut down with " + activeTaskCount + " running and "
+          + queuedTaskCount + " queued builds");
+    }
+  }
+
+  synchronized boolean isShutdown() {
+    return shutdown;
+  }
+
+  /**
+   * Waits for the running and queued builds to finish after {@link #shutdown}.
+   *
+   * @return true if they all finished, false if the timeout elapsed first
+   */
+  synchronized boolean awaitTermination(long timeout, TimeUnit unit)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    while (activeTaskCount + queuedTaskCount > 0) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return false;
+      }
+      TimeUnit.NANOSECONDS.timedWait(this, remaining);
+    }
+    return true;
+  }
+
+  public int getMaxActiveTasks() {
+    return maxActiveTasks;
+  }
+
+  public int getMaxQueuedTasks() {
+    return maxQueuedTasks;
+  }
+
+  public synchronized int getActiveTaskCount() {
+    return activeTaskCount;
+  }
+
+  public synchronized int getQueuedTaskCount() {
+    return queuedTaskCount;
+  }
+
+  public synchronized int getQueuedUserCount() {
+    return queues.size();
+  }
+
+  public synchronized int getMaximumQueuedTaskCount() {
+    return maximumQueuedTaskCount;
+  }
+
+  public synchronized int getCompletedTaskCount() {
+    return completedTaskCount;
+  }
+
+  public synchronized int getRejectedTaskCount() {
+    return rejectedTaskCount;
+  }
+
+  public synchronized long getAverageWaitMillis() {
+    return dequeuedTaskCount == 0 ? 0 : totalWaitMillis / dequeuedTaskCount;
+  }
+
+  public synchronized long getMaximumWaitMillis() {
+    return maximumWaitMillis;
+  }
+
+  public synchronized long getAverageBuildMillis() {
+    return (long) averageBuildMillis;
+  }
+}
@@ -11,6 +11,7 @@ import com.google.appinventor.buildserver.stats.StatCalculator;
 import com.google.appinventor.buildserver.stats.StatCalculator.Stats;
 import com.google.appinventor.buildserver.stats.StatReporter;
 import com.google.appinventor.buildserver.tasks.android.AndroidBuildFactory;
+import com.google.appinventor.buildserver.util.KawaCompilerPool;
 import com.google.appinventor.common.version.GitBuildId;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.io.ByteStreams;
@@ -51,6 +52,7 @@ import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 import java.util.zip.ZipEntry;
@@ -144,6 +146,18 @@ public class BuildServer {
       usage = "Maximum number of builds that can run in parallel. O means unlimited.")
     int maxSimultaneousBuilds = 0;  // The default is unlimited.
 
+    @Option(name = "--maxQueuedBuilds",
+      usage = "Maximum number of builds that can wait for one of the maxSimultaneousBuilds to finish. 0 means builds are rejected when at capacity.")
+    int maxQueuedBuilds = 50;
+
+    @Option(name = "--maxQueuedBuildsPerUser",
+      usage = "Maximum number of builds a single user can have waiting.")
+    int maxQueuedBuildsPerUser = 2;
+
+    @Option(name = "--maxCompilerWorkers",
+      usage = "Maximum number of Kawa compiler processes kept running between builds. 0 means Kawa is started anew for each build.")
+    int maxCompilerWorkers = 2;
+
     @Option(name = "--port",
       usage = "The port number to bind to on the local machine.")
     int port = 9990;
@@ -199,11 +213,11 @@ public class BuildServer {
   //The number of failed build requests for this server run
   private static int maximumActiveBuildTasks = 0;
 
-  // The build executor used to limit the number of simultaneous builds.
+  // The build executor used to limit the number of simultaneous builds and queue the rest.
   // NOTE(lizlooney) - the buildExecutor must be created after the command line options are
   // processed in main(). If it is created here, the number of simultaneous builds will always be
   // the default value, even if the --maxSimultaneousBuilds option is on the command line.
-  private static NonQueuingExecutor buildExecutor;
+  private static BuildQueue buildExecutor;
 
   // The input zip file. It will be deleted in cleanUp.
   private File inputZip;
@@ -233,9 +247,10 @@ public class BuildServer {
   //                SHUTTING:   We have been told to shutdown, with a time delay
   //                            In this state we return bad health, but accept jobs
   //                DOWN:       We return bad health and reject jobs
-  //                DRAINING:   We have reached > 2/3 of max permitted jobs
+  //                DRAINING:   We have reached > 2/3 of max permitted jobs,
+  //                            counting queued jobs as well as running ones
   //                            We return bad health (but accept jobs) until
-  //                            the number of active jobs is < 1/3 of max
+  //                            the number of active and queued jobs is < 1/3 of max
   private enum ShutdownState { UP, SHUTTING, TURNING, DOWN, DRAINING };
 
   private static volatile boolean draining = false; // We have exceeded 2/3 max load, waiting for
@@ -330,6 +345,22 @@ public class BuildServer {
     variables.put("maximum-simultaneous-build-tasks-occurred", maximumActiveBuildTasks + "");
     variables.put("active-build-tasks", buildExecutor.getActiveTaskCount() + "");
 
+    // Build queue
+    variables.put("maximum-queued-build-tasks-allowed", buildExecutor.getMaxQueuedTasks() + "");
+    variables.put("maximum-queued-build-tasks-occurred",
+        buildExecutor.getMaximumQueuedTaskCount() + "");
+    variables.put("queued-build-tasks", buildExecutor.getQueuedTaskCount() + "");
+    variables.put("queued-build-users", buildExecutor.getQueuedUserCount() + "");
+    variables.put("rejected-build-tasks", buildExecutor.getRejectedTaskCount() + "");
+    variables.put("average-queue-wait-in-ms", buildExecutor.getAverageWaitMillis() + "");
+    variables.put("maximum-queue-wait-in-ms", buildExecutor.getMaximumWaitMillis() + "");
+    variables.put("average-build-time-in-ms", buildExecutor.getAverageBuildMillis() + "");
+    variables.put("estimated-queue-wait-in-ms", buildExecutor.getEstimatedWaitMillis() + "");
+
+    // Kawa compiler workers
+    variables.put("maximum-compiler-workers", KawaCompilerPool.getMaxWorkers() + "");
+    variables.put("idle-compiler-workers", KawaCompilerPool.getIdleWorkerCount() + "");
+
     return mapToHtml(variables);
   }
 
@@ -550,7 +581,10 @@ public class BuildServer {
    *     YoungAndroidProjectService.build.
    * @param callbackUrlStr An url to send the build results back to.
    * @param inputZipFile  The zip file representing the App Inventor source code.
-   * @return a status response, typically OK (200) or SERVICE_UNAVAILABLE (503).
+   * @return a status response, typically OK (200) or SERVICE_UNAVAILABLE (503). The body of an
+   *     OK response is "0", as it always has been; its X-Estimated-Start-Seconds header is the
+   *     estimated number of seconds until the build starts, which is 0 unless the build was
+   *     queued. A SERVICE_UNAVAILABLE response has a Retry-After header.
    */
   @POST
   @Path("build-all-from-zip-async")
@@ -660,11 +694,12 @@ public class BuildServer {
             }
           }
         };
+      long estimatedWait;
       try {
-        buildExecutor.execute(buildTask);
+        estimatedWait = buildExecutor.submit(userName, buildTask);
       } catch (RejectedExecutionException e) {
         // This request was rejected because all threads in the build
-        // executor are busy.
+        // executor are busy and the queue is full.
         rejectedAsyncBuildRequests.incrementAndGet();
         cleanUp();
         // Here, we use SERVICE_UNAVAILABLE (response code 503), which
@@ -673,8 +708,15 @@ public class BuildServer {
         // overloading or maintenance of the server. The implication
         // is that this is a temporary condition which will be
         // alleviated after some delay."
-        return Response.status(Response.Status.SERVICE_UNAVAILABLE).type(MediaType.TEXT_PLAIN_TYPE).entity("The build server is currently at maximum capacity.").build();
+        // The Retry-After header tells the client when a slot is likely to be free, so that
+        // clients do not all retry at once.
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE).type(MediaType.TEXT_PLAIN_TYPE)
+          .header("Retry-After", toSeconds(buildExecutor.getEstimatedWaitMillis()))
+          .entity("The build server is currently at maximum capacity.").build();
       }
+      return Response.ok().type(MediaType.TEXT_PLAIN_TYPE)
+        .header("X-Estimated-Start-Seconds", toSeconds(estimatedWait))
+        .entity("0").build();
     }
     // Note: The code below should no longer be invoked. Progress reports
     // are now handled via a callback mechanism. The "50" here is just a plug
@@ -683,6 +725,10 @@ public class BuildServer {
       .entity("" + 0).build();
   }
 
+  private static long toSeconds(long millis) {
+    return (millis + 999) / 1000;
+  }
+
   private void buildAndCreateZip(String userName, File inputZipFile, String ext,
       ProgressReporter reporter) throws IOException, JSONException {
     Result buildResult = build(userName, inputZipFile, ext, reporter);
@@ -811,29 +857,27 @@ public class BuildServer {
             /* We haven't really started up yet... */
             return;
           }
-          while (true) {
-            int tasks = buildExecutor.getActiveTaskCount();
-            if (tasks <= 0) {
-              try {
-                Thread.sleep(10000); // One final wait so people can get
-                                     // their barcode
-              } catch (InterruptedException e) {
-              }
-              return;
-            }
-            try {
-              Thread.sleep(1000); // Wait one second and try again
-            } catch (InterruptedException e) {
-              // XXX
+          // Reject new builds, but run the ones already queued as well as
+          // the running ones.
+          buildExecutor.shutdown();
+          try {
+            while (!buildExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
+              // Keep waiting
             }
+            Thread.sleep(10000); // One final wait so people can get
+                                 // their barcode
+          } catch (InterruptedException e) {
+            // XXX
           }
         }
       });
 
     // Now that the command line options have been processed, we can create the buildExecutor.
     AndroidBuildFactory.install();
+    KawaCompilerPool.setMaxWorkers(commandLineOptions.maxCompilerWorkers);
     // TODO(ewpatton): Enable iOS build factory here when published
-    buildExecutor = new NonQueuingExecutor(commandLineOptions.maxSimultaneousBuilds);
+    buildExecutor = new BuildQueue(commandLineOptions.maxSimultaneousBuilds,
+        commandLineOptions.maxQueuedBuilds, commandLineOptions.maxQueuedBuildsPerUser);
 
     int port = commandLineOptions.port;
     final ResourceConfig rc = new ResourceConfig(BuildServer.class);
@@ -846,6 +890,7 @@ public class BuildServer {
       LOG.info("Maximum simultaneous builds = unlimited!");
     } else {
       LOG.info("Maximum simultaneous builds = " + commandLineOptions.maxSimultaneousBuilds);
+      LOG.info("Maximum queued builds = " + commandLineOptions.maxQueuedBuilds);
     }
     LOG.info("Visit: http://" + hostAddress + ":" + port +
       "/buildserver/health for server health");
@@ -880,7 +925,8 @@ public class BuildServer {
                                 // (unlimited == 0) and allow more then 10 max builds
         return ShutdownState.UP;
       }
-      int active = buildExecutor.getActiveTaskCount();
+      // Queued builds will run here too, so they count towards the load.
+      int active = buildExecutor.getActiveTaskCount() + buildExecutor.getQueuedTaskCount();
       if (draining) {
         if (active < max/3) {
           draining = false;
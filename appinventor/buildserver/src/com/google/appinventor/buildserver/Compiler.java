@@ -9,11 +9,15 @@ package com.google.appinventor.buildserver;
 import com.google.appinventor.buildserver.context.CompilerContext;
 import com.google.appinventor.buildserver.context.Paths;
 import com.google.appinventor.buildserver.interfaces.Task;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -26,12 +30,18 @@ import java.util.logging.Logger;
  * style pattern, where receives build information, and then
  * {@link Task} can be added.</p>
  *
+ * <p>Tasks run as soon as the tasks they depend on have finished,
+ * up to {@link #MAX_PARALLEL_TASKS} at a time. A task declares its
+ * dependencies with {@link DependsOn}; without it, a task depends on
+ * every task added before it.</p>
+ *
  * @see CompilerContext
  *
  * @author diego@barreiro.xyz (Diego Barreiro)
  */
 public class Compiler<P extends Paths, T extends CompilerContext<P>> implements Callable<Boolean> {
   private static final Logger LOG = Logger.getLogger(Compiler.class.getName());
+  private static final int MAX_PARALLEL_TASKS = 4;
   private final List<Class<? extends Task<? super T>>> tasks;
   private T context;
   private String ext = BuildType.APK_EXTENSION;
@@ -118,15 +128,13 @@ public class Compiler<P extends Paths, T extends CompilerContext<P>> implements
       return true;
     }
 
-    for (int i = 0; i < numTasks; i++) {
-      // We accept Classes, but not initialized ones.
-      Class<? extends Task<?>> task = this.tasks.get(i);
+    List<Task<? super T>> instances = new ArrayList<>(numTasks);
+    for (Class<? extends Task<? super T>> task : this.tasks) {
       String taskName = task.getSimpleName();
 
       // We try to initialize a Task instance.
-      Object taskObject;
       try {
-        taskObject = task.newInstance();
+        instances.add(task.newInstance());
       } catch (IllegalAccessException | InstantiationException e) {
         LOG.log(Level.SEVERE, "Could not create new task " + taskName, e);
         context.getReporter().error("Could not create new task " + taskName);
@@ -156,38 +164,121 @@ public class Compiler<P extends Paths, T extends CompilerContext<P>> implements
       } else {
         context.getReporter().warn("Task " + taskName + " does not contain build type targets!");
       }
+    }
 
-      // Get the current time to know the time needed to execute it.
-      context.getReporter().taskStart(taskName);
-      context.getStatReporter().nextStage(this, task.getSimpleName());
-      long start = System.currentTimeMillis();
+    // Work out which tasks each task waits for, and which tasks wait for it.
+    int[] waitingOn = new int[numTasks];
+    List<List<Integer>> dependents = new ArrayList<>(numTasks);
+    for (int i = 0; i < numTasks; i++) {
+      dependents.add(new ArrayList<Integer>());
+      DependsOn dependsOn = this.tasks.get(i).getAnnotation(DependsOn.class);
+      List<Class<?>> dependencies = dependsOn == null ? null
+          : Arrays.<Class<?>>asList(dependsOn.value());
+      for (int j = 0; j < i; j++) {
+        if (dependencies == null || dependencies.contains(this.tasks.get(j))) {
+          dependents.get(j).add(i);
+          waitingOn[i]++;
+        }
+      }
+    }
 
-      // And then invoke the execute(ExecutorContext) method to run the Task.
-      TaskResult result;
-      try {
-        Method execute = task.getMethod("execute", CompilerContext.class);
-        result = (TaskResult) execute.invoke(taskObject, context);
-      } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-        context.getReporter().taskError(-1);
-        LOG.log(Level.SEVERE, "Error running task " + task, e);
-        return false;
+    // Run each task once everything it waits for has succeeded. After a failure no more tasks
+    // are started, but the ones already running are allowed to finish.
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(MAX_PARALLEL_TASKS, numTasks));
+    CompletionService<TaskOutcome> completion = new ExecutorCompletionService<>(executor);
+    try {
+      int running = 0;
+      int finished = 0;
+      boolean failed = false;
+      for (int i = 0; i < numTasks; i++) {
+        if (waitingOn[i] == 0) {
+          completion.submit(runTask(i, instances.get(i)));
+          running++;
+        }
       }
-      double endTime = (System.currentTimeMillis() - start) / 1000.0;
-
-      // Make sure result is success, else we'll throw an error and don't run
-      // more tasks.
-      if (result == null || !result.isSuccess()) {
-        context.getReporter().error(result == null || result.getError() == null
-            ? "Unknown exception" : result.getError().getMessage(), true);
-        context.getReporter().taskError(endTime);
-        return false;
+      while (running > 0) {
+        TaskOutcome outcome;
+        try {
+          outcome = completion.take().get();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          LOG.log(Level.SEVERE, "Interrupted while running tasks", e);
+          return false;
+        } catch (ExecutionException e) {
+          // runTask reports its own failures, so this is unexpected.
+          LOG.log(Level.SEVERE, "Error running tasks", e.getCause());
+          return false;
+        }
+        running--;
+        if (!outcome.success) {
+          failed = true;
+          continue;
+        }
+        finished++;
+        context.getReporter().setProgress((finished * 100) / numTasks);
+        if (failed) {
+          continue;
+        }
+        for (int dependent : dependents.get(outcome.index)) {
+          if (--waitingOn[dependent] == 0) {
+            completion.submit(runTask(dependent, instances.get(dependent)));
+            running++;
+          }
+        }
       }
+      return !failed && finished == numTasks;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static class TaskOutcome {
+    private final int index;
+    private final boolean success;
 
-      // Update progress depending on the number of steps.
-      context.getReporter().setProgress(((i + 1) * 100) / numTasks);
-      context.getReporter().taskSuccess(endTime);
+    TaskOutcome(int index, boolean success) {
+      this.index = index;
+      this.success = success;
     }
-    return true;
+  }
+
+  private Callable<TaskOutcome> runTask(final int index, final Task<? super T> task) {
+    return new Callable<TaskOutcome>() {
+      @Override
+      public TaskOutcome call() {
+        String taskName = task.getClass().getSimpleName();
+
+        // Get the current time to know the time needed to execute it.
+        context.getReporter().taskStart(taskName);
+        long start = System.currentTimeMillis();
+
+        // And then invoke the execute(ExecutorContext) method to run the Task.
+        TaskResult result;
+        try {
+          result = task.execute(context);
+        } catch (RuntimeException e) {
+          context.getReporter().taskError(-1);
+          LOG.log(Level.SEVERE, "Error running task " + taskName, e);
+          return new TaskOutcome(index, false);
+        }
+        long duration = System.currentTimeMillis() - start;
+        context.getStatReporter().stageFinished(Compiler.this, taskName, duration);
+        double endTime = duration / 1000.0;
+
+        // Make sure result is success, else we'll throw an error and don't run
+        // more tasks.
+        if (result == null || !result.isSuccess()) {
+          context.getReporter().error(result == null || result.getError() == null
+              ? "Unknown exception" : result.getError().getMessage(), true);
+          context.getReporter().taskError(endTime);
+          return new TaskOutcome(index, false);
+        }
+
+        context.getReporter().taskSuccess(endTime);
+        return new TaskOutcome(index, true);
+      }
+    };
   }
 
   @Override
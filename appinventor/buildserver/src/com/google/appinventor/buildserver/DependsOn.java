@@ -0,0 +1,29 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.buildserver;
+
+import com.google.appinventor.buildserver.interfaces.Task;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lists the tasks whose results a {@link Task} needs. The {@link Compiler} may run the annotated
+ * task as soon as the listed tasks that are part of the build have finished, possibly alongside
+ * other tasks.
+ *
+ * <p>A task without this annotation waits for every task added to the build before it.</p>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface DependsOn {
+  /**
+   * The tasks that must finish before the annotated task starts. Tasks that are not part of the
+   * build, or are added after the annotated task, are ignored.
+   */
+  Class<? extends Task<?>>[] value();
+}
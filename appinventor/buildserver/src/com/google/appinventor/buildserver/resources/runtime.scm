@@ -1158,6 +1158,107 @@
 
 
 
+;;; CALL-COMPONENT-METHOD-DIRECT
+;;; The same as call-component-method, for a component whose type is known when the blocks
+;;; are compiled.  For example:
+;;;  (call-component-method-direct Sound1 com.google.appinventor.components.runtime.Sound Vibrate
+;;;    (*list-for-runtime* duration) '(number))
+
+;;; The coercion for each argument is chosen when the call is expanded, and the method is invoked
+;;; on the component cast to its type, so Kawa compiles a direct call to the method instead of
+;;; looking it up by reflection on every call.  If the component found does not have the
+;;; expected type, which can happen in the REPL, the call falls back to call-component-method.
+;;; So does a call whose arguments and types do not match up, such as one made from a block
+;;; with an empty socket, which then fails at run time as it would have without this form.
+;;; A call with a fractional argument also falls back, so that how the number is converted
+;;; for the Java parameter, for example to an int, is left to the dynamic call as before.
+
+(define-syntax call-component-method-direct
+  (syntax-rules (*list-for-runtime* quote)
+    ((_ component-name component-type method-name (*list-for-runtime* arg ...) (quote (type ...)))
+     (%call-component-method-direct component-name component-type method-name
+                                    (arg ...) (type ...) ()))
+    ((_ component-name component-type method-name arglist typelist)
+     (call-component-method 'component-name 'method-name arglist typelist))))
+
+;;; Binds each argument, and its coerced value, to a variable of its own before making the call.
+(define-syntax %call-component-method-direct
+  (syntax-rules ()
+    ((_ component-name component-type method-name (arg more-args ...) (type more-types ...)
+        (bound ...))
+     (%call-component-method-direct component-name component-type method-name
+                                    (more-args ...) (more-types ...)
+                                    (bound ... (value coerced arg type))))
+    ((_ component-name component-type method-name () () ((value coerced arg type) ...))
+     (let* ((value arg) ...
+            (component (lookup-in-current-form-environment 'component-name)))
+       (if (instance? component component-type)
+           (let ((coerced (coerce-arg-for-type value type)) ...)
+             (cond ((not (and (is-coercible? coerced) ...))
+                    (generate-runtime-type-error 'method-name (list value ...)))
+                   ((and (direct-call-arg? coerced) ...)
+                    (sanitize-return-value
+                     component 'method-name
+                     (try-catch
+                      (invoke (as component-type component) 'method-name coerced ...)
+                      (exception PermissionException
+                                 (*:dispatchPermissionDeniedEvent (SimpleForm:getActiveForm)
+                                                                  component 'method-name
+                                                                  exception)))))
+                   (else
+                    (call-component-method 'component-name 'method-name (list value ...)
+                                           '(type ...)))))
+           (call-component-method 'component-name 'method-name (list value ...) '(type ...)))))
+    ((_ component-name component-type method-name (arg ...) (type ...)
+        ((value coerced bound-arg bound-type) ...))
+     (call-component-method 'component-name 'method-name (list bound-arg ... arg ...)
+                            '(bound-type ... type ...)))))
+
+;;; (set-and-coerce-property-direct! Button3 com.google.appinventor.components.runtime.Button
+;;;   FontSize 14 'number)
+;;; The same as set-and-coerce-property!, for a component whose type is known when the blocks
+;;; are compiled.  See call-component-method-direct.  Without a value, as when the block's
+;;; socket is empty, it is the same as set-and-coerce-property!.
+(define-syntax set-and-coerce-property-direct!
+  (syntax-rules (quote)
+    ((_ component-name component-type prop-name property-value (quote property-type))
+     (let* ((value property-value)
+            (component (lookup-in-current-form-environment 'component-name)))
+       (if (instance? component component-type)
+           (let ((coerced (coerce-arg-for-type value property-type)))
+             (cond ((not (is-coercible? coerced))
+                    (generate-runtime-type-error 'prop-name (list value)))
+                   ((direct-call-arg? coerced)
+                    (try-catch
+                     (invoke (as component-type component) 'prop-name coerced)
+                     (exception PermissionException
+                                (*:dispatchPermissionDeniedEvent (SimpleForm:getActiveForm)
+                                                                 component 'prop-name exception))))
+                   (else
+                    (set-and-coerce-property! 'component-name 'prop-name value 'property-type))))
+           (set-and-coerce-property! 'component-name 'prop-name value 'property-type))))
+    ((_ component-name component-type prop-name arg ...)
+     (set-and-coerce-property! 'component-name 'prop-name arg ...))))
+
+;;; True if a coerced argument can be passed by a direct call.  Fractional numbers are left to
+;;; the dynamic call, which converts them for the method's parameter types at run time.
+(define (direct-call-arg? x)
+  (or (not (real? x)) (integer? x)))
+
+;;; (get-property-direct Label1 com.google.appinventor.components.runtime.Label Text)
+;;; The same as get-property, for a component whose type is known when the blocks are compiled.
+;;; See call-component-method-direct.
+(define-syntax get-property-direct
+  (syntax-rules ()
+    ((_ component-name component-type prop-name)
+     (let ((component (lookup-in-current-form-environment 'component-name)))
+       (if (instance? component component-type)
+           (sanitize-return-value component 'prop-name
+                                  (invoke (as component-type component) 'prop-name))
+           (get-property 'component-name 'prop-name))))))
+
+
+
 ;;; CALL-COMPONENT-TYPE-METHOD
 ;;; Call the component method for the given component object with the given list of args,
 ;;; coercing to the given types.
@@ -1496,6 +1597,26 @@
      ((enum-type? type) (coerce-to-enum arg type))
      (else (coerce-to-component-of-type arg type)))))
 
+;;; (coerce-arg-for-type x number)
+;;; The same as coerce-arg, but with the coercion for the type chosen when the call is expanded
+;;; rather than on every call.  Used by the direct component calls, whose types are literal.
+(define-syntax coerce-arg-for-type
+  (syntax-rules (number text boolean list list-of-number InstantInTime component pair key
+                 dictionary any)
+    ((_ arg number) (coerce-to-number (sanitize-atomic arg)))
+    ((_ arg text) (coerce-to-text (sanitize-atomic arg)))
+    ((_ arg boolean) (coerce-to-boolean (sanitize-atomic arg)))
+    ((_ arg list) (coerce-to-yail-list (sanitize-atomic arg)))
+    ((_ arg list-of-number) (coerce-to-number-list (sanitize-atomic arg)))
+    ((_ arg InstantInTime) (coerce-to-instant (sanitize-atomic arg)))
+    ((_ arg component) (coerce-to-component (sanitize-atomic arg)))
+    ((_ arg pair) (coerce-to-pair (sanitize-atomic arg)))
+    ((_ arg key) (coerce-to-key (sanitize-atomic arg)))
+    ((_ arg dictionary) (coerce-to-dictionary (sanitize-atomic arg)))
+    ((_ arg any) (sanitize-atomic arg))
+    ;; Enums and component types
+    ((_ arg type) (coerce-arg arg 'type))))
+
 
 (define (coerce-to-number-list l)  ; is this a yail-list? ; do we want to return yail-list
   (cond
@@ -2390,7 +2511,9 @@ list, use the make-yail-list constructor with no arguments.
   (cdr yail-list))
 
 (define (set-yail-list-contents! yail-list contents)
-  (set-cdr! yail-list contents))
+  (if (instance? yail-list YailList)
+      (*:setContents (as YailList yail-list) contents)
+      (set-cdr! yail-list contents)))
 
 
 (define (insert-yail-list-header x)
@@ -2498,8 +2621,12 @@ list, use the make-yail-list constructor with no arguments.
 
 
 ;; Implements the Blocks length operation
+;; YailList keeps an index of its elements, so its size and items are
+;; found without walking the list.
 (define (yail-list-length yail-list)
-  (length (yail-list-contents yail-list)))
+  (if (instance? yail-list YailList)
+      (*:size (as YailList yail-list))
+      (length (yail-list-contents yail-list))))
 
 ;; These are removed, to simplify the API to lists
 ;; ;; Implements the Blocks first operation
@@ -2544,7 +2671,9 @@ list, use the make-yail-list constructor with no arguments.
                  len
                  (get-display-representation yail-list))
          "Select list item: List index too large")
-    (list-ref (yail-list-contents yail-list) (- index 1)))))
+    (if (instance? yail-list YailList)
+        (*:getObject (as YailList yail-list) (- index 1))
+        (list-ref (yail-list-contents yail-list) (- index 1))))))
 
 
 ;; Implements the Blocks set list item operation
@@ -2563,7 +2692,9 @@ list, use the make-yail-list constructor with no arguments.
                  len
                  (get-display-representation yail-list))
          "List index too large")))
-  (set-car! (list-tail (yail-list-contents yail-list) (- index 1)) value))
+  (if (instance? yail-list YailList)
+      (*:setObject (as YailList yail-list) (- index 1) value)
+      (set-car! (list-tail (yail-list-contents yail-list) (- index 1)) value)))
 
 
 
@@ -2594,8 +2725,10 @@ list, use the make-yail-list constructor with no arguments.
                    len
                    (get-display-representation yail-list))
            "List index too large"))
-      (let ((pair-pointing-to-deletion (list-tail yail-list (- index2 1))))
-        (set-cdr! pair-pointing-to-deletion (cddr pair-pointing-to-deletion))))))
+      (if (instance? yail-list YailList)
+          (*:removeObject (as YailList yail-list) (- index2 1))
+          (let ((pair-pointing-to-deletion (list-tail yail-list (- index2 1))))
+            (set-cdr! pair-pointing-to-deletion (cddr pair-pointing-to-deletion)))))))
 
 
 ;; Implements the Blocks insert list item operation
@@ -2624,11 +2757,13 @@ list, use the make-yail-list constructor with no arguments.
                    (get-display-representation yail-list)
                    len+1)
            "List index too large"))
-      (let ((contents (yail-list-contents yail-list)))
-        (if (= index2 1)
-            (set-yail-list-contents! yail-list (cons item contents))
-            (let ((at-item (list-tail contents (- index2 2))))
-              (set-cdr! at-item (cons item (cdr at-item)))))))))
+      (if (instance? yail-list YailList)
+          (*:insertObject (as YailList yail-list) (- index2 1) item)
+          (let ((contents (yail-list-contents yail-list)))
+            (if (= index2 1)
+                (set-yail-list-contents! yail-list (cons item contents))
+                (let ((at-item (list-tail contents (- index2 2))))
+                  (set-cdr! at-item (cons item (cdr at-item))))))))))
 
 ;; Extends list A by appending the elements of list B to it
 ;; Modifies list A
@@ -2642,10 +2777,12 @@ list, use the make-yail-list constructor with no arguments.
     (if (null? l)
     '()
     (cons (car l) (list-copy (cdr l)))))
-  ;; We have to operate on the yail-list itself, not the contents, because
-  ;; the contents might be empty
-  (set-cdr! (list-tail yail-list-A (length (yail-list-contents yail-list-A)))
-        (list-copy (yail-list-contents yail-list-B))))
+  (if (instance? yail-list-A YailList)
+      (*:appendAll (as YailList yail-list-A) (yail-list-contents yail-list-B))
+      ;; We have to operate on the yail-list itself, not the contents, because
+      ;; the contents might be empty
+      (set-cdr! (list-tail yail-list-A (length (yail-list-contents yail-list-A)))
+                (list-copy (yail-list-contents yail-list-B)))))
 
 
 ;; Extend list A by appending the items to it
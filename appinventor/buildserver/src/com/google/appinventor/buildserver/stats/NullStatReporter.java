@@ -19,7 +19,7 @@ public class NullStatReporter implements StatReporter {
   }
 
   @Override
-  public void nextStage(Compiler compiler, String stage) {
+  public void stageFinished(Compiler compiler, String stage, long duration) {
   }
 
   @Override
@@ -35,7 +35,6 @@ public class SimpleStatReporter implements StatReporter {
     private final Map<String, Long> stages = new LinkedHashMap<>();
     private long end;
     private long duration;
-    private long last = start;
 
     private BuildStats() {
       // Not instantiable outside this class
@@ -59,43 +58,36 @@ public class SimpleStatReporter implements StatReporter {
   }
 
   private final Map<Compiler, BuildStats> activeBuilds = new HashMap<>();
-  private final Map<Compiler, String> currentStages = new HashMap<>();
 
   private final Deque<BuildStats> successfulBuilds = new LinkedList<>();
   private final Deque<BuildStats> failedBuilds = new LinkedList<>();
   private final Deque<BuildStats> orderedBuilds = new LinkedList<>();
 
   @Override
-  public void startBuild(Compiler compiler) {
+  public synchronized void startBuild(Compiler compiler) {
     activeBuilds.put(compiler, new BuildStats());
   }
 
   @Override
-  public void nextStage(Compiler compiler, String newStage) {
+  public void stageFinished(Compiler compiler, String stage, long duration) {
     BuildStats stats;
-    String previousStage;
     synchronized (this) {
       stats = activeBuilds.get(compiler);
-      previousStage = currentStages.get(compiler);
     }
     if (stats == null) {
       LOG.warning("Got compiler with uninitialized stats object");
       return;
     }
-    if (previousStage != null) {
-      stats.stages.put(previousStage, System.currentTimeMillis() - stats.last);
+    synchronized (stats.stages) {
+      stats.stages.put(stage, duration);
     }
-    currentStages.put(compiler, newStage);
-    stats.last = System.currentTimeMillis();
   }
 
   @Override
   public void stopBuild(Compiler compiler, boolean success) {
     BuildStats stats;
-    String previousStage;
     synchronized (this) {
       stats = activeBuilds.remove(compiler);
-      previousStage = currentStages.remove(compiler);
     }
     if (stats == null) {
       LOG.warning("Got compiler with uninitialized stats object");
@@ -103,9 +95,6 @@ public class SimpleStatReporter implements StatReporter {
     }
     stats.end = System.currentTimeMillis();
     stats.duration = stats.end - stats.start;
-    if (previousStage != null) {
-      stats.stages.put(previousStage, stats.end - stats.last);
-    }
     queueAndExpire(stats, success ? successfulBuilds : failedBuilds);
     queueAndExpire(stats, orderedBuilds);
   }
@@ -22,12 +22,14 @@ public interface StatReporter {
   void startBuild(Compiler compiler);
 
   /**
-   * Indicate to the StatReporter that a build is entering a new stage.
+   * Indicate to the StatReporter that a stage of a build has finished. Stages of the same build
+   * may run concurrently, so this may be called from several threads at once.
    *
    * @param compiler the compilation process in progress
-   * @param stage the stage being entered
+   * @param stage the stage that finished
+   * @param duration the time the stage took, in milliseconds
    */
-  void nextStage(Compiler compiler, String stage);
+  void stageFinished(Compiler compiler, String stage, long duration);
 
   /**
    * Indicate to the StatReporter that a build has finished and whether it was successful.
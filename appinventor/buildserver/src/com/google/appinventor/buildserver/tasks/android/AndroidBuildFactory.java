@@ -64,6 +64,7 @@ public class AndroidBuildFactory extends BuildFactory<AndroidPaths, AndroidCompi
     compiler.add(AttachNativeLibs.class);
     compiler.add(AttachAarLibs.class);
     compiler.add(AttachCompAssets.class);
+    compiler.add(PrecompileRules.class);
   }
 
   @Override
@@ -6,6 +6,7 @@
 package com.google.appinventor.buildserver.tasks.android;
 
 import com.google.appinventor.buildserver.BuildType;
+import com.google.appinventor.buildserver.DependsOn;
 import com.google.appinventor.buildserver.TaskResult;
 import com.google.appinventor.buildserver.context.AndroidCompilerContext;
 import com.google.appinventor.buildserver.interfaces.AndroidTask;
@@ -27,6 +28,7 @@ import java.util.Set;
  */
 
 @BuildType(apk = true, aab = true)
+@DependsOn(CreateManifest.class)
 public class AttachAarLibs implements AndroidTask {
   @Override
   public TaskResult execute(AndroidCompilerContext context) {
@@ -11,11 +11,13 @@ import static com.google.appinventor.components.common.ComponentDescriptorConsta
 import static com.google.appinventor.components.common.ComponentDescriptorConstants.X86_64_SUFFIX;
 
 import com.google.appinventor.buildserver.BuildType;
+import com.google.appinventor.buildserver.DependsOn;
 import com.google.appinventor.buildserver.TaskResult;
 import com.google.appinventor.buildserver.YoungAndroidConstants;
 import com.google.appinventor.buildserver.context.AndroidCompilerContext;
 import com.google.appinventor.buildserver.context.AndroidPaths;
 import com.google.appinventor.buildserver.interfaces.AndroidTask;
+import com.google.appinventor.buildserver.tasks.common.LoadComponentInfo;
 import com.google.appinventor.buildserver.util.ExecutorUtils;
 
 import com.google.common.io.Files;
@@ -29,6 +31,7 @@ import java.io.IOException;
  */
 
 @BuildType(apk = true, aab = true)
+@DependsOn(LoadComponentInfo.class)
 public class AttachNativeLibs implements AndroidTask {
   @Override
   public TaskResult execute(AndroidCompilerContext context) {
@@ -6,11 +6,13 @@
 package com.google.appinventor.buildserver.tasks.android;
 
 import com.google.appinventor.buildserver.BuildType;
+import com.google.appinventor.buildserver.DependsOn;
 import com.google.appinventor.buildserver.Project;
 import com.google.appinventor.buildserver.Signatures;
 import com.google.appinventor.buildserver.TaskResult;
 import com.google.appinventor.buildserver.context.AndroidCompilerContext;
 import com.google.appinventor.buildserver.interfaces.AndroidTask;
+import com.google.appinventor.buildserver.tasks.common.LoadComponentInfo;
 import com.google.appinventor.buildserver.util.PermissionConstraint;
 
 import com.google.appinventor.components.common.YaVersion;
@@ -35,6 +37,7 @@ import java.util.Set;
  */
 // CreateManifest
 @BuildType(apk = true, aab = true)
+@DependsOn(LoadComponentInfo.class)
 public class CreateManifest implements AndroidTask {
   private static final String NEARFIELD_COMPONENT =
       "com.google.appinventor.components.runtime.NearField";
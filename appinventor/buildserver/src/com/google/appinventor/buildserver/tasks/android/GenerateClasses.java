@@ -16,6 +16,8 @@ import com.google.appinventor.buildserver.context.CompilerContext;
 import com.google.appinventor.buildserver.interfaces.AndroidTask;
 import com.google.appinventor.buildserver.util.Execution;
 import com.google.appinventor.buildserver.util.ExecutorUtils;
+import com.google.appinventor.buildserver.util.KawaCompilerPool;
+import com.google.appinventor.buildserver.util.ScreenClassCache;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 
@@ -35,6 +37,10 @@ import java.util.Set;
  */
 @BuildType(apk = true, aab = true)
 public class GenerateClasses implements AndroidTask {
+  // The module compiled from runtime.scm, as named by its module-name declaration
+  private static final String RUNTIME_PACKAGE = "com.google.youngandroid";
+  private static final String RUNTIME_CLASS = "runtime";
+
   CompilerContext<AndroidPaths> context;
 
   @Override
@@ -152,41 +158,58 @@ public class GenerateClasses implements AndroidTask {
       context.getReporter().info("Libraries Classpath = " + classpath);
 
       String yailRuntime = context.getResources().getYailRuntime();
-      List<String> kawaCommandArgs = Lists.newArrayList();
-      int mx = context.getChildProcessRam() - 200;
-      Collections.addAll(kawaCommandArgs,
-          System.getProperty("java.home") + "/bin/java",
-          "-Dfile.encoding=UTF-8",
-          "-mx" + mx + "M",
-          "-cp", classpath.toString(),
-          "kawa.repl",
-          "-f", yailRuntime,
-          "-d", context.getPaths().getClassesDir().getAbsolutePath(),
-          "-P", Signatures.getPackageName(context.getProject().getMainClass()) + ".",
-          "-C");
-      // TODO(lizlooney) - we are currently using (and have always used) absolute paths for the
-      // source file names. The resulting .class files contain references to the source file names,
-      // including the name of the tmp directory that contains them. We may be able to avoid that
-      // by using source file names that are relative to the project root and using the project
-      // root as the working directory for the Kawa compiler process.
-      kawaCommandArgs.addAll(sourceFileNames);
-      kawaCommandArgs.add(yailRuntime);
-      String[] kawaCommandLine = kawaCommandArgs.toArray(new String[0]);
+      String packageName = Signatures.getPackageName(context.getProject().getMainClass());
 
-      // Capture Kawa compiler stderr. The ODE server parses out the warnings and errors and adds
-      // them to the protocol buffer for logging purposes. (See
-      // buildserver/ProjectBuilder.processCompilerOutout.
-      ByteArrayOutputStream kawaOutputStream = new ByteArrayOutputStream();
-      boolean kawaSuccess;
-      synchronized (context.getResources().getSyncKawaOrDx()) {
-        kawaSuccess = Execution.execute(null, kawaCommandLine,
-            System.out, new PrintStream(kawaOutputStream));
+      // Screens whose YAIL, runtime and libraries are unchanged since an earlier build are
+      // copied from the cache instead of being compiled again.
+      ScreenClassCache cache = null;
+      List<String> cacheKeys = Lists.newArrayListWithCapacity(sources.size());
+      List<Integer> uncompiled = Lists.newArrayListWithCapacity(sources.size());
+      if (context.getDexCacheDir() != null) {
+        cache = new ScreenClassCache(context.getDexCacheDir(), yailRuntime, classpath.toString(),
+            packageName);
+      }
+      for (int i = 0; i < sourceFileNames.size(); i++) {
+        if (cache == null) {
+          uncompiled.add(i);
+          continue;
+        }
+        String key = cache.keyFor(new File(sourceFileNames.get(i)));
+        cacheKeys.add(key);
+        if (cache.restore(key, new File(classFileNames.get(i)).getParentFile())) {
+          context.getReporter().info("Using cached classes for " + sourceFileNames.get(i));
+        } else {
+          uncompiled.add(i);
+        }
+      }
+
+      // The YAIL runtime is compiled along with the screens. When no screen needs compiling,
+      // its classes come from the cache, or Kawa compiles it on its own.
+      File runtimeDir = new File(context.getPaths().getClassesDir(),
+          RUNTIME_PACKAGE.replace('.', File.separatorChar));
+      boolean runtimeRestored = cache != null && uncompiled.isEmpty()
+          && cache.restore(cache.runtimeKey(), runtimeDir);
+      if (runtimeRestored) {
+        context.getReporter().info("Using cached classes for " + yailRuntime);
+      } else {
+        List<String> uncompiledFileNames = Lists.newArrayListWithCapacity(uncompiled.size());
+        for (int i : uncompiled) {
+          uncompiledFileNames.add(sourceFileNames.get(i));
+        }
+        if (compileYail(uncompiledFileNames, classpath.toString(), yailRuntime, packageName)
+            && cache != null) {
+          for (int i : uncompiled) {
+            File classFile = new File(classFileNames.get(i));
+            cache.store(cacheKeys.get(i), classFile.getParentFile(),
+                classFile.getName().replace(".class", ""));
+          }
+          cache.store(cache.runtimeKey(), runtimeDir, RUNTIME_CLASS);
+        }
       }
-      if (!kawaSuccess) {
-        context.getReporter().error("Kawa compile has failed.", true);
+
+      if (!new File(runtimeDir, RUNTIME_CLASS + ".class").exists()) {
+        return TaskResult.generateError("Can't find class file for the YAIL runtime");
       }
-      String kawaOutput = kawaOutputStream.toString();
-      context.getReporter().getSystemOut().print(kawaOutput);
 
       // Check that all of the class files were created.
       // If they weren't, return with an error.
@@ -205,6 +228,64 @@ public class GenerateClasses implements AndroidTask {
     return TaskResult.generateSuccess();
   }
 
+  /**
+   * Compiles the given YAIL files with Kawa, writing the class files to the classes directory.
+   *
+   * @return true if Kawa succeeded
+   */
+  private boolean compileYail(List<String> sourceFileNames, String classpath, String yailRuntime,
+      String packageName) {
+    int mx = context.getChildProcessRam() - 200;
+    List<String> kawaArgs = Lists.newArrayList();
+    Collections.addAll(kawaArgs,
+        "-d", context.getPaths().getClassesDir().getAbsolutePath(),
+        "-P", packageName + ".",
+        "-C");
+    // TODO(lizlooney) - we are currently using (and have always used) absolute paths for the
+    // source file names. The resulting .class files contain references to the source file names,
+    // including the name of the tmp directory that contains them. We may be able to avoid that
+    // by using source file names that are relative to the project root and using the project
+    // root as the working directory for the Kawa compiler process.
+    kawaArgs.addAll(sourceFileNames);
+    kawaArgs.add(yailRuntime);
+
+    // Capture Kawa compiler stderr. The ODE server parses out the warnings and errors and adds
+    // them to the protocol buffer for logging purposes. (See
+    // buildserver/ProjectBuilder.processCompilerOutout.
+    ByteArrayOutputStream kawaOutputStream = new ByteArrayOutputStream();
+    boolean kawaSuccess;
+    try {
+      // Compiler workers are isolated from each other, so several builds can compile at once.
+      // A worker loads the YAIL runtime once and keeps it for later builds.
+      kawaSuccess = KawaCompilerPool.compile(classpath, yailRuntime, mx,
+          kawaArgs.toArray(new String[0]), System.out, new PrintStream(kawaOutputStream));
+    } catch (IOException e) {
+      context.getReporter().info("Kawa compiler worker unavailable, forking Kawa: "
+          + e.getMessage());
+      kawaOutputStream.reset();
+      List<String> kawaCommandArgs = Lists.newArrayList();
+      Collections.addAll(kawaCommandArgs,
+          System.getProperty("java.home") + "/bin/java",
+          "-Dfile.encoding=UTF-8",
+          "-mx" + mx + "M",
+          "-cp", classpath,
+          "kawa.repl",
+          "-f", yailRuntime);
+      kawaCommandArgs.addAll(kawaArgs);
+      String[] kawaCommandLine = kawaCommandArgs.toArray(new String[0]);
+      synchronized (context.getResources().getSyncKawaOrDx()) {
+        kawaSuccess = Execution.execute(null, kawaCommandLine,
+            System.out, new PrintStream(kawaOutputStream));
+      }
+    }
+    if (!kawaSuccess) {
+      context.getReporter().error("Kawa compile has failed.", true);
+    }
+    String kawaOutput = kawaOutputStream.toString();
+    context.getReporter().getSystemOut().print(kawaOutput);
+    return kawaSuccess;
+  }
+
   @VisibleForTesting
   boolean compileRClasses() {
     if (context.getComponentInfo().getExplodedAarLibs().isEmpty()) {
@@ -0,0 +1,185 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.buildserver.tasks.android;
+
+import static com.google.appinventor.components.common.SemanticWebConstants.CLAUSE_FUNCTOR;
+import static com.google.appinventor.components.common.SemanticWebConstants.CLAUSE_RULE;
+import static com.google.appinventor.components.common.SemanticWebConstants.CLAUSE_TRIPLE;
+import static com.google.appinventor.components.common.SemanticWebConstants.COMPILED_RULES_EXTENSION;
+import static com.google.appinventor.components.common.SemanticWebConstants.COMPILED_RULES_MAGIC;
+import static com.google.appinventor.components.common.SemanticWebConstants.COMPILED_RULES_VERSION;
+import static com.google.appinventor.components.common.SemanticWebConstants.NODE_ANY;
+import static com.google.appinventor.components.common.SemanticWebConstants.NODE_BLANK;
+import static com.google.appinventor.components.common.SemanticWebConstants.NODE_FUNCTOR;
+import static com.google.appinventor.components.common.SemanticWebConstants.NODE_LITERAL;
+import static com.google.appinventor.components.common.SemanticWebConstants.NODE_URI;
+import static com.google.appinventor.components.common.SemanticWebConstants.NODE_VARIABLE;
+import static com.google.appinventor.components.common.SemanticWebConstants.NODE_WILD;
+
+import com.google.appinventor.buildserver.BuildType;
+import com.google.appinventor.buildserver.DependsOn;
+import com.google.appinventor.buildserver.TaskResult;
+import com.google.appinventor.buildserver.YoungAndroidConstants;
+import com.google.appinventor.buildserver.context.AndroidCompilerContext;
+import com.google.appinventor.buildserver.interfaces.AndroidTask;
+import com.google.appinventor.buildserver.util.ExecutorUtils;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.reasoner.TriplePattern;
+import com.hp.hpl.jena.reasoner.rulesys.ClauseEntry;
+import com.hp.hpl.jena.reasoner.rulesys.Functor;
+import com.hp.hpl.jena.reasoner.rulesys.Node_RuleVariable;
+import com.hp.hpl.jena.reasoner.rulesys.Rule;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+
+/**
+ * Parses the .rules assets of apps that use the Reasoner and stores the parsed rules beside
+ * each asset so that the Reasoner does not have to parse them on the device. The format is
+ * described in {@link com.google.appinventor.components.common.SemanticWebConstants}.
+ *
+ * <p>Rulesets that fail to parse are left alone; the Reasoner reports the parse error at runtime
+ * just as it would without this task.</p>
+ */
+@BuildType(apk = true, aab = true)
+@DependsOn(AttachCompAssets.class)
+public class PrecompileRules implements AndroidTask {
+  private static final String REASONER_COMPONENT =
+      "com.google.appinventor.components.runtime.Reasoner";
+  private static final String RULES_EXTENSION = ".rules";
+
+  @Override
+  public TaskResult execute(AndroidCompilerContext context) {
+    if (!context.getSimpleCompTypes().contains(REASONER_COMPONENT)) {
+      return TaskResult.generateSuccess();
+    }
+    File mergedAssetDir = ExecutorUtils.createDir(context.getProject().getBuildDirectory(),
+        YoungAndroidConstants.ASSET_DIR_NAME);
+    File[] assets = mergedAssetDir.listFiles();
+    if (assets == null) {
+      return TaskResult.generateSuccess();
+    }
+    for (File asset : assets) {
+      if (!asset.isFile() || !asset.getName().endsWith(RULES_EXTENSION)) {
+        continue;
+      }
+      File compiled = new File(mergedAssetDir, asset.getName() + COMPILED_RULES_EXTENSION);
+      try {
+        List<Rule> rules = Rule.parseRules(Files.toString(asset, Charsets.UTF_8));
+        writeRules(rules, compiled);
+        context.getReporter().info("Precompiled " + rules.size() + " rules from "
+            + asset.getName());
+      } catch (IOException | RuntimeException e) {
+        context.getReporter().warn("Unable to precompile " + asset.getName() + ": "
+            + e.getMessage());
+        compiled.delete();
+      }
+    }
+    return TaskResult.generateSuccess();
+  }
+
+  static void writeRules(List<Rule> rules, File file) throws IOException {
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+        new FileOutputStream(file)));
+    try {
+      out.writeInt(COMPILED_RULES_MAGIC);
+      out.writeShort(COMPILED_RULES_VERSION);
+      out.writeInt(rules.size());
+      for (Rule rule : rules) {
+        writeRule(out, rule);
+      }
+    } finally {
+      out.close();
+    }
+  }
+
+  private static void writeRule(DataOutputStream out, Rule rule) throws IOException {
+    out.writeBoolean(rule.getName() != null);
+    if (rule.getName() != null) {
+      writeString(out, rule.getName());
+    }
+    out.writeBoolean(rule.isBackward());
+    out.writeInt(rule.getNumVars());
+    writeClauses(out, rule.getHead());
+    writeClauses(out, rule.getBody());
+  }
+
+  private static void writeClauses(DataOutputStream out, ClauseEntry[] clauses)
+      throws IOException {
+    out.writeInt(clauses.length);
+    for (ClauseEntry clause : clauses) {
+      if (clause instanceof TriplePattern) {
+        TriplePattern pattern = (TriplePattern) clause;
+        out.writeByte(CLAUSE_TRIPLE);
+        writeNode(out, pattern.getSubject());
+        writeNode(out, pattern.getPredicate());
+        writeNode(out, pattern.getObject());
+      } else if (clause instanceof Functor) {
+        out.writeByte(CLAUSE_FUNCTOR);
+        writeFunctor(out, (Functor) clause);
+      } else if (clause instanceof Rule) {
+        out.writeByte(CLAUSE_RULE);
+        writeRule(out, (Rule) clause);
+      } else {
+        throw new IOException("Unsupported clause " + clause);
+      }
+    }
+  }
+
+  private static void writeFunctor(DataOutputStream out, Functor functor) throws IOException {
+    writeString(out, functor.getName());
+    Node[] args = functor.getArgs();
+    out.writeInt(args.length);
+    for (Node arg : args) {
+      writeNode(out, arg);
+    }
+  }
+
+  private static void writeNode(DataOutputStream out, Node node) throws IOException {
+    if (node == Node_RuleVariable.WILD) {
+      out.writeByte(NODE_WILD);
+    } else if (node == Node.ANY) {
+      out.writeByte(NODE_ANY);
+    } else if (node instanceof Node_RuleVariable) {
+      out.writeByte(NODE_VARIABLE);
+      writeString(out, node.getName());
+      out.writeInt(((Node_RuleVariable) node).getIndex());
+    } else if (Functor.isFunctor(node)) {
+      out.writeByte(NODE_FUNCTOR);
+      writeFunctor(out, (Functor) node.getLiteralValue());
+    } else if (node.isURI()) {
+      out.writeByte(NODE_URI);
+      writeString(out, node.getURI());
+    } else if (node.isBlank()) {
+      out.writeByte(NODE_BLANK);
+      writeString(out, node.getBlankNodeLabel());
+    } else if (node.isLiteral()) {
+      String lang = node.getLiteralLanguage();
+      String datatype = node.getLiteralDatatypeURI();
+      out.writeByte(NODE_LITERAL);
+      writeString(out, node.getLiteralLexicalForm());
+      writeString(out, lang == null ? "" : lang);
+      writeString(out, datatype == null || lang != null && lang.length() > 0 ? "" : datatype);
+    } else {
+      throw new IOException("Unsupported node " + node);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(Charsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+}
@@ -6,9 +6,11 @@
 package com.google.appinventor.buildserver.tasks.android;
 
 import com.google.appinventor.buildserver.BuildType;
+import com.google.appinventor.buildserver.DependsOn;
 import com.google.appinventor.buildserver.TaskResult;
 import com.google.appinventor.buildserver.context.AndroidCompilerContext;
 import com.google.appinventor.buildserver.interfaces.AndroidTask;
+import com.google.appinventor.buildserver.tasks.common.LoadComponentInfo;
 import com.google.appinventor.buildserver.util.ExecutorUtils;
 
 import com.google.common.base.Strings;
@@ -29,6 +31,7 @@ import javax.imageio.ImageIO;
  * compiler.prepareApplicationIcon()
  */
 @BuildType(apk = true, aab = true)
+@DependsOn(LoadComponentInfo.class)
 public class PrepareAppIcon implements AndroidTask {
   private static final String ERROR_NO_SUITABLE_ICON =
       "Could not find a suitable app icon. Maybe it's not an image.";
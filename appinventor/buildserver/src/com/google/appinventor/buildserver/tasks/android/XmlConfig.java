@@ -10,9 +10,11 @@ import static com.google.appinventor.buildserver.util.ExecutorUtils.createDir;
 
 import com.google.appinventor.buildserver.AnimationXmlConstants;
 import com.google.appinventor.buildserver.BuildType;
+import com.google.appinventor.buildserver.DependsOn;
 import com.google.appinventor.buildserver.TaskResult;
 import com.google.appinventor.buildserver.context.AndroidCompilerContext;
 import com.google.appinventor.buildserver.interfaces.AndroidTask;
+import com.google.appinventor.buildserver.tasks.common.LoadComponentInfo;
 
 import java.io.BufferedWriter;
 import java.io.File;
@@ -43,6 +45,7 @@ import java.util.Map;
 // createResXml
 // GenerateXmlRes
 @BuildType(apk = true, aab = true)
+@DependsOn(LoadComponentInfo.class)
 public class XmlConfig implements AndroidTask {
   AndroidCompilerContext context;
 
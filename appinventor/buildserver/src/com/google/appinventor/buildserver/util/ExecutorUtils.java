@@ -28,7 +28,8 @@ public final class ExecutorUtils {
    */
   public static File createDir(File dir) {
     if (!dir.exists()) {
-      if (!dir.mkdir()) {
+      // Another task may create the same directory concurrently.
+      if (!dir.mkdir() && !dir.isDirectory()) {
         System.out.println("[WARN] Could not create directory: " + dir);
       }
     }
@@ -45,7 +46,7 @@ public final class ExecutorUtils {
   public static File createDir(File parentDir, String name) {
     File dir = new File(parentDir, name);
     if (!dir.exists()) {
-      if (!dir.mkdir()) {
+      if (!dir.mkdir() && !dir.isDirectory()) {
         System.out.println("[WARN] Could not create directory: " + dir);
       }
     }
@@ -0,0 +1,306 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.buildserver.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URISyntaxException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs Kawa compiles in a pool of long-lived {@link KawaCompilerWorker} processes.
+ *
+ * <p>Starting a JVM for every compile costs several seconds of startup, warmup and loading the
+ * YAIL runtime. The pool keeps up to {@link #setMaxWorkers maxWorkers} workers alive between
+ * builds and runs at most that many compiles at once; further compiles wait for a worker. A
+ * worker serves builds with one class path and runtime, so it keeps Kawa and the runtime loaded
+ * from one compile to the next.</p>
+ *
+ * <p>Workers are retired after {@link #MAX_COMPILES_PER_WORKER} compiles, after being idle for
+ * {@link #IDLE_TIMEOUT_MILLIS}, or as soon as Kawa exits one of them. A compile that runs longer
+ * than the compile timeout fails, and its worker is killed.</p>
+ */
+public final class KawaCompilerPool {
+  // Kawa keeps some state from every compile, such as interned symbols, so retire workers
+  // before it grows too large.
+  static final int MAX_COMPILES_PER_WORKER = 50;
+
+  static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+  static final long DEFAULT_COMPILE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+  // The heap a worker starts with. Workers use the serial collector and give memory back
+  // after each compile, so an idle worker shrinks back towards this.
+  private static final int INITIAL_HEAP_MB = 64;
+
+  private static final Logger LOG = Logger.getLogger(KawaCompilerPool.class.getName());
+
+  // Kills workers whose compile is late and stops workers that stay idle.
+  private static final ScheduledExecutorService timer =
+      Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+          Thread thread = new Thread(runnable, "KawaCompilerPool timer");
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+
+  private static final class Worker {
+    private final Process process;
+    private final DataOutputStream requests;
+    private final DataInputStream results;
+    private final String classpath;
+    private final String runtime;
+    private final int mx;
+    private int compiles = 0;
+    private volatile boolean timedOut = false;
+    // When the worker was last returned to the pool, guarded by KawaCompilerPool.class
+    private long idleSince;
+
+    private Worker(String classpath, String runtime, int mx) throws IOException {
+      this.classpath = classpath;
+      this.runtime = runtime;
+      this.mx = mx;
+      process = new ProcessBuilder(
+          System.getProperty("java.home") + "/bin/java",
+          "-Dfile.encoding=UTF-8",
+          "-Xms" + Math.min(INITIAL_HEAP_MB, mx) + "M",
+          "-mx" + mx + "M",
+          "-XX:+UseSerialGC",
+          "-XX:MinHeapFreeRatio=10",
+          "-XX:MaxHeapFreeRatio=30",
+          "-cp", classpath + File.pathSeparator + getWorkerClasspath(),
+          KawaCompilerWorker.class.getName())
+          .redirectError(ProcessBuilder.Redirect.INHERIT)
+          .start();
+      requests = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+      results = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+    }
+
+    private boolean matches(String classpath, String runtime, int mx) {
+      return this.mx == mx && this.classpath.equals(classpath) && this.runtime.equals(runtime);
+    }
+
+    private boolean compile(String[] args, PrintStream out, PrintStream err, long timeoutMillis)
+        throws IOException {
+      compiles++;
+      ScheduledFuture<?> deadline = timer.schedule(new Runnable() {
+        @Override
+        public void run() {
+          timedOut = true;
+          process.destroy();
+        }
+      }, timeoutMillis, TimeUnit.MILLISECONDS);
+      int status;
+      try {
+        KawaCompilerWorker.writeRequest(requests, runtime, args);
+        status = results.readInt();
+        out.write(KawaCompilerWorker.readBytes(results));
+        err.write(KawaCompilerWorker.readBytes(results));
+      } catch (IOException e) {
+        if (timedOut) {
+          throw new CompileTimeoutException();
+        }
+        throw e;
+      } finally {
+        deadline.cancel(false);
+      }
+      if (status == KawaCompilerWorker.STATUS_EXITED) {
+        throw new WorkerExitedException();
+      }
+      return status == KawaCompilerWorker.STATUS_SUCCESS;
+    }
+
+    private void stop() {
+      try {
+        requests.close();
+      } catch (IOException e) {
+        // The worker has already gone.
+      }
+      process.destroy();
+    }
+  }
+
+  /**
+   * Thrown when Kawa exits the worker at the end of a compile. The compile's output has already
+   * been copied, and it counts as a failed compile.
+   */
+  private static final class WorkerExitedException extends IOException {
+    private static final long serialVersionUID = 1L;
+  }
+
+  /**
+   * Thrown when a compile does not finish in time and its worker has been killed. It counts as a
+   * failed compile.
+   */
+  private static final class CompileTimeoutException extends IOException {
+    private static final long serialVersionUID = 1L;
+  }
+
+  private static int maxWorkers = 2;
+  private static long compileTimeoutMillis = DEFAULT_COMPILE_TIMEOUT_MILLIS;
+  private static Semaphore permits = new Semaphore(maxWorkers, true);
+  // Guarded by KawaCompilerPool.class.
+  private static final Deque<Worker> idleWorkers = new ArrayDeque<>();
+
+  private KawaCompilerPool() {
+  }
+
+  /**
+   * Sets the number of compiler workers. 0 disables the pool, in which case {@link #compile}
+   * always throws. Idle workers beyond the new limit are stopped.
+   */
+  public static void setMaxWorkers(int maxWorkers) {
+    Deque<Worker> evicted = new ArrayDeque<>();
+    synchronized (KawaCompilerPool.class) {
+      KawaCompilerPool.maxWorkers = maxWorkers;
+      permits = new Semaphore(Math.max(maxWorkers, 0), true);
+      while (idleWorkers.size() > Math.max(maxWorkers, 0)) {
+        evicted.add(idleWorkers.removeLast());
+      }
+    }
+    for (Worker worker : evicted) {
+      worker.stop();
+    }
+  }
+
+  public static synchronized int getMaxWorkers() {
+    return maxWorkers;
+  }
+
+  public static synchronized int getIdleWorkerCount() {
+    return idleWorkers.size();
+  }
+
+  /**
+   * Sets how long a compile may run before it fails and its worker is killed.
+   */
+  public static synchronized void setCompileTimeout(long timeoutMillis) {
+    compileTimeoutMillis = timeoutMillis;
+  }
+
+  /**
+   * Runs {@code kawa.repl} with the given arguments in a compiler worker, waiting for one to
+   * become available if necessary. The YAIL runtime is loaded as if {@code -f runtime} came
+   * before the arguments, but only once for each worker.
+   *
+   * @param classpath the class path for Kawa, including the Kawa runtime
+   * @param runtime the YAIL runtime to load before compiling
+   * @param mx the maximum heap size of the worker, in MB
+   * @param args the arguments to {@code kawa.repl}
+   * @param out receives Kawa's standard output
+   * @param err receives Kawa's standard error
+   * @return true if Kawa returned normally
+   * @throws IOException if the compile could not be run in a worker, in which case it should be
+   *     run some other way
+   */
+  public static boolean compile(String classpath, String runtime, int mx, String[] args,
+      PrintStream out, PrintStream err) throws IOException {
+    Semaphore semaphore;
+    long timeoutMillis;
+    synchronized (KawaCompilerPool.class) {
+      if (maxWorkers <= 0) {
+        throw new IOException("Kawa compiler pool is disabled");
+      }
+      semaphore = permits;
+      timeoutMillis = compileTimeoutMillis;
+    }
+    semaphore.acquireUninterruptibly();
+    try {
+      Worker worker = takeWorker(classpath, runtime, mx);
+      boolean success;
+      try {
+        success = worker.compile(args, out, err, timeoutMillis);
+      } catch (WorkerExitedException e) {
+        worker.stop();
+        return false;
+      } catch (CompileTimeoutException e) {
+        worker.stop();
+        err.println("Kawa compile did not finish in " + timeoutMillis / 1000 + " seconds");
+        LOG.log(Level.WARNING, "Killed a Kawa compiler worker after " + timeoutMillis + " ms");
+        return false;
+      } catch (IOException e) {
+        LOG.log(Level.WARNING, "Kawa compiler worker failed", e);
+        worker.stop();
+        throw e;
+      }
+      returnWorker(worker);
+      return success;
+    } finally {
+      semaphore.release();
+    }
+  }
+
+  private static Worker takeWorker(String classpath, String runtime, int mx) throws IOException {
+    synchronized (KawaCompilerPool.class) {
+      for (Worker worker : idleWorkers) {
+        if (worker.matches(classpath, runtime, mx)) {
+          idleWorkers.remove(worker);
+          return worker;
+        }
+      }
+    }
+    return new Worker(classpath, runtime, mx);
+  }
+
+  private static void returnWorker(final Worker worker) {
+    if (worker.compiles >= MAX_COMPILES_PER_WORKER) {
+      worker.stop();
+      return;
+    }
+    Worker evicted = null;
+    final long idleSince = System.nanoTime();
+    synchronized (KawaCompilerPool.class) {
+      worker.idleSince = idleSince;
+      idleWorkers.addFirst(worker);
+      if (idleWorkers.size() > maxWorkers) {
+        evicted = idleWorkers.removeLast();
+      }
+    }
+    if (evicted != null) {
+      evicted.stop();
+    }
+    timer.schedule(new Runnable() {
+      @Override
+      public void run() {
+        synchronized (KawaCompilerPool.class) {
+          // The worker may have been used and returned again since.
+          if (worker.idleSince != idleSince || !idleWorkers.remove(worker)) {
+            return;
+          }
+        }
+        worker.stop();
+      }
+    }, IDLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Returns the class path entry holding {@link KawaCompilerWorker}.
+   */
+  private static String getWorkerClasspath() throws IOException {
+    try {
+      return new File(KawaCompilerWorker.class.getProtectionDomain().getCodeSource()
+          .getLocation().toURI()).getAbsolutePath();
+    } catch (URISyntaxException e) {
+      throw new IOException(e);
+    }
+  }
+}
@@ -0,0 +1,213 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.buildserver.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A long-running process that compiles YAIL with Kawa on behalf of {@link KawaCompilerPool}.
+ *
+ * <p>The worker runs with the class path of the builds it serves, so Kawa and the component
+ * classes are loaded once. The first compile loads the YAIL runtime with {@code -f} before
+ * compiling, and later compiles reuse the definitions it made. The worker reads compile requests
+ * from its standard input and writes the results to its standard output, using the framing in
+ * {@link #readRequest} and {@link #writeResult}. Kawa exits the JVM on some compile errors; when
+ * it does, the worker still reports the failure before it exits.</p>
+ *
+ * <p>This class must only depend on the JDK. The buildserver's classes come after the build's
+ * class path in the worker, only so that this class can be found, and the worker runs without
+ * the buildserver's initialization.</p>
+ */
+public final class KawaCompilerWorker {
+  static final int STATUS_SUCCESS = 0;
+  static final int STATUS_FAILURE = 1;
+  // Kawa exited the JVM during the compile, which counts as a failure.
+  static final int STATUS_EXITED = 2;
+
+  /**
+   * Sends what is written to it to the buffer of the current compile. Kawa keeps the
+   * System.out and System.err it finds when its classes are initialized, so these stay in place
+   * and only their target changes.
+   */
+  private static final class Capture extends OutputStream {
+    private volatile ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+    @Override
+    public void write(int b) {
+      target.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      target.write(b, off, len);
+    }
+  }
+
+  private static final Capture capturedOut = new Capture();
+  private static final Capture capturedErr = new Capture();
+  private static DataOutputStream results;
+  private static boolean compiling = false;
+  // The runtime loaded by the first compile, or null before then
+  private static String loadedRuntime = null;
+
+  private KawaCompilerWorker() {
+  }
+
+  /**
+   * Serves compile requests until standard input is closed.
+   */
+  public static void main(String[] args) throws IOException {
+    results = new DataOutputStream(new BufferedOutputStream(
+        new FileOutputStream(FileDescriptor.out)));
+    DataInputStream requests = new DataInputStream(new BufferedInputStream(
+        new FileInputStream(FileDescriptor.in)));
+    System.setOut(new PrintStream(capturedOut, true));
+    System.setErr(new PrintStream(capturedErr, true));
+    Runtime.getRuntime().addShutdownHook(new Thread() {
+      @Override
+      public void run() {
+        finish(STATUS_EXITED);
+      }
+    });
+    while (true) {
+      String[] request;
+      try {
+        request = readRequest(requests);
+      } catch (EOFException e) {
+        return;
+      }
+      compile(request);
+      // Return the compile's garbage to the system while the worker waits for the next one.
+      System.gc();
+    }
+  }
+
+  private static void compile(String[] request) {
+    synchronized (KawaCompilerWorker.class) {
+      capturedOut.target = new ByteArrayOutputStream();
+      capturedErr.target = new ByteArrayOutputStream();
+      compiling = true;
+    }
+    String runtime = request[0];
+    String[] kawaArgs;
+    if (runtime.equals(loadedRuntime)) {
+      kawaArgs = new String[request.length - 1];
+      System.arraycopy(request, 1, kawaArgs, 0, kawaArgs.length);
+    } else {
+      kawaArgs = new String[request.length + 1];
+      kawaArgs[0] = "-f";
+      System.arraycopy(request, 0, kawaArgs, 1, request.length);
+    }
+    boolean success = false;
+    try {
+      if (loadedRuntime != null) {
+        // Forget the modules of the last build; the runtime's definitions are kept.
+        Object moduleManager = Class.forName("gnu.expr.ModuleManager")
+            .getMethod("getInstance").invoke(null);
+        moduleManager.getClass().getMethod("clear").invoke(moduleManager);
+      }
+      Class.forName("kawa.repl").getMethod("main", String[].class)
+          .invoke(null, (Object) kawaArgs);
+      loadedRuntime = runtime;
+      success = true;
+    } catch (InvocationTargetException e) {
+      e.getCause().printStackTrace();
+    } catch (ReflectiveOperationException e) {
+      e.printStackTrace();
+    }
+    finish(success ? STATUS_SUCCESS : STATUS_FAILURE);
+  }
+
+  private static synchronized void finish(int status) {
+    if (!compiling) {
+      return;
+    }
+    compiling = false;
+    flushKawaPorts();
+    System.out.flush();
+    System.err.flush();
+    try {
+      writeResult(results, status, capturedOut.target.toByteArray(),
+          capturedErr.target.toByteArray());
+    } catch (IOException e) {
+      // The pool has gone away; nothing to report to.
+    }
+  }
+
+  /**
+   * Flushes Kawa's buffered ports for standard output and standard error, which would otherwise
+   * only be flushed when the JVM exits.
+   */
+  private static void flushKawaPorts() {
+    try {
+      Class<?> outPort = Class.forName("gnu.mapping.OutPort");
+      for (String port : new String[] {"outDefault", "errDefault"}) {
+        ((Writer) outPort.getMethod(port).invoke(null)).flush();
+      }
+    } catch (ReflectiveOperationException | IOException e) {
+      // Kawa did not get far enough to write anything.
+    }
+  }
+
+  /**
+   * Writes a request: the number of strings, then each string as a length and UTF-8 bytes. The
+   * first string is the YAIL runtime and the rest are the arguments to {@code kawa.repl}.
+   */
+  static void writeRequest(DataOutputStream out, String runtime, String[] args)
+      throws IOException {
+    out.writeInt(args.length + 1);
+    writeBytes(out, runtime.getBytes(StandardCharsets.UTF_8));
+    for (String arg : args) {
+      writeBytes(out, arg.getBytes(StandardCharsets.UTF_8));
+    }
+    out.flush();
+  }
+
+  static String[] readRequest(DataInputStream in) throws IOException {
+    String[] request = new String[in.readInt()];
+    for (int i = 0; i < request.length; i++) {
+      request[i] = new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+    return request;
+  }
+
+  /**
+   * Writes a result: the status, then the compiler's standard output and standard error, each
+   * as a length and bytes.
+   */
+  static void writeResult(DataOutputStream out, int status, byte[] stdout, byte[] stderr)
+      throws IOException {
+    out.writeInt(status);
+    writeBytes(out, stdout);
+    writeBytes(out, stderr);
+    out.flush();
+  }
+
+  private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  static byte[] readBytes(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return bytes;
+  }
+}
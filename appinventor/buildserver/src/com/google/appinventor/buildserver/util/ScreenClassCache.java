@@ -0,0 +1,254 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.buildserver.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A cache of the class files compiled from each screen's YAIL, shared by all builds.
+ *
+ * <p>Entries are keyed by a hash of the screen's YAIL and of everything else the compiled
+ * classes depend on: the YAIL runtime, the compiler's class path and the app's package. A
+ * screen whose key is in the cache does not need to be compiled again.</p>
+ *
+ * <p>Each entry is a directory holding the screen's class and its inner classes. Entries are
+ * written to a temporary directory and then renamed into place, so builds running at the same
+ * time never see a partial entry. The classes compiled from the YAIL runtime are cached the same
+ * way, under a key that depends only on the build's inputs.</p>
+ *
+ * <p>Restoring an entry marks it as recently used. When the cache grows beyond its size limit,
+ * the least recently used entries are deleted.</p>
+ */
+public final class ScreenClassCache {
+  private static final String SUBDIRECTORY = "screens";
+  private static final String TMP_SUFFIX = ".tmp";
+  private static final long DEFAULT_MAX_BYTES = 512L * 1024 * 1024;
+
+  // Hashes of class path entries, keyed by path, length and modification time.
+  private static final Cache<String, String> FILE_HASHES = CacheBuilder.newBuilder()
+      .maximumSize(1000)
+      .build();
+
+  private final File cacheDir;
+  private final String fingerprint;
+  private final long maxBytes;
+
+  /**
+   * Creates a cache for one build.
+   *
+   * @param dexCacheDir the buildserver's cache directory
+   * @param yailRuntime the path of the YAIL runtime
+   * @param classpath the class path given to the Kawa compiler
+   * @param packageName the package of the app's screens
+   * @throws IOException if the inputs cannot be read
+   */
+  public ScreenClassCache(String dexCacheDir, String yailRuntime, String classpath,
+      String packageName) throws IOException {
+    this(dexCacheDir, yailRuntime, classpath, packageName, DEFAULT_MAX_BYTES);
+  }
+
+  /**
+   * Creates a cache for one build that holds at most {@code maxBytes} of class files.
+   */
+  ScreenClassCache(String dexCacheDir, String yailRuntime, String classpath,
+      String packageName, long maxBytes) throws IOException {
+    this.maxBytes = maxBytes;
+    cacheDir = new File(dexCacheDir, SUBDIRECTORY);
+    mkdirs(cacheDir);
+    Hasher hasher = Hashing.md5().newHasher();
+    hasher.putString(packageName, StandardCharsets.UTF_8);
+    hasher.putString(hashOf(new File(yailRuntime)), StandardCharsets.UTF_8);
+    for (String entry : classpath.split(File.pathSeparator)) {
+      if (!entry.isEmpty()) {
+        hasher.putString(hashOf(new File(entry)), StandardCharsets.UTF_8);
+      }
+    }
+    fingerprint = hasher.hash().toString();
+  }
+
+  /**
+   * Returns the cache key for the classes compiled from the given YAIL file.
+   */
+  public String keyFor(File yailFile) throws IOException {
+    return Hashing.md5().newHasher()
+        .putString(fingerprint, StandardCharsets.UTF_8)
+        .putBytes(Files.readAllBytes(yailFile.toPath()))
+        .hash().toString();
+  }
+
+  /**
+   * Returns the cache key for the classes compiled from the YAIL runtime.
+   */
+  public String runtimeKey() {
+    return "runtime-" + fingerprint;
+  }
+
+  /**
+   * Copies the classes cached under {@code key} to {@code packageDir}.
+   *
+   * @return true if the classes were in the cache
+   */
+  public boolean restore(String key, File packageDir) throws IOException {
+    File entry = new File(cacheDir, key);
+    File[] files = entry.listFiles();
+    if (files == null || files.length == 0) {
+      return false;
+    }
+    entry.setLastModified(System.currentTimeMillis());
+    mkdirs(packageDir);
+    for (File file : files) {
+      Files.copy(file.toPath(), new File(packageDir, file.getName()).toPath(),
+          StandardCopyOption.REPLACE_EXISTING);
+    }
+    return true;
+  }
+
+  /**
+   * Caches the classes of the screen named {@code screenName} in {@code packageDir} under
+   * {@code key}, unless they are already cached.
+   */
+  public void store(String key, File packageDir, final String screenName) throws IOException {
+    File entry = new File(cacheDir, key);
+    if (entry.isDirectory()) {
+      return;
+    }
+    File[] files = packageDir.listFiles(new FileFilter() {
+      @Override
+      public boolean accept(File file) {
+        String name = file.getName();
+        return name.equals(screenName + ".class")
+            || name.startsWith(screenName + "$") && name.endsWith(".class");
+      }
+    });
+    if (files == null || files.length == 0) {
+      return;
+    }
+    File tmp = new File(cacheDir, key + "." + UUID.randomUUID() + TMP_SUFFIX);
+    mkdirs(tmp);
+    for (File file : files) {
+      Files.copy(file.toPath(), new File(tmp, file.getName()).toPath());
+    }
+    if (!tmp.renameTo(entry)) {
+      // Another build cached the same screen first.
+      deleteDir(tmp);
+      return;
+    }
+    trim();
+  }
+
+  /**
+   * Deletes the least recently used entries until the cache is no larger than its limit.
+   */
+  private void trim() {
+    File[] entries = cacheDir.listFiles(new FileFilter() {
+      @Override
+      public boolean accept(File file) {
+        return file.isDirectory() && !file.getName().endsWith(TMP_SUFFIX);
+      }
+    });
+    if (entries == null) {
+      return;
+    }
+    final Map<File, Long> lastUsed = new HashMap<>();
+    long total = 0;
+    for (File entry : entries) {
+      lastUsed.put(entry, entry.lastModified());
+      total += sizeOf(entry);
+    }
+    if (total <= maxBytes) {
+      return;
+    }
+    Arrays.sort(entries, new Comparator<File>() {
+      @Override
+      public int compare(File a, File b) {
+        return Long.compare(lastUsed.get(a), lastUsed.get(b));
+      }
+    });
+    for (File entry : entries) {
+      if (total <= maxBytes) {
+        break;
+      }
+      total -= sizeOf(entry);
+      deleteDir(entry);
+    }
+  }
+
+  private static long sizeOf(File entry) {
+    long size = 0;
+    File[] files = entry.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        size += file.length();
+      }
+    }
+    return size;
+  }
+
+  private static String hashOf(File file) throws IOException {
+    if (!file.isFile()) {
+      // A directory's modification time does not change when a file inside it does.
+      Hasher hasher = Hashing.md5().newHasher();
+      hashInto(hasher, file, "");
+      return hasher.hash().toString();
+    }
+    String id = file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified();
+    String hash = FILE_HASHES.getIfPresent(id);
+    if (hash != null) {
+      return hash;
+    }
+    Hasher hasher = Hashing.md5().newHasher();
+    hashInto(hasher, file, "");
+    hash = hasher.hash().toString();
+    FILE_HASHES.put(id, hash);
+    return hash;
+  }
+
+  private static void hashInto(Hasher hasher, File file, String name) throws IOException {
+    hasher.putString(name, StandardCharsets.UTF_8);
+    if (file.isDirectory()) {
+      File[] children = file.listFiles();
+      if (children != null) {
+        Arrays.sort(children);
+        for (File child : children) {
+          hashInto(hasher, child, name + "/" + child.getName());
+        }
+      }
+    } else if (file.isFile()) {
+      hasher.putBytes(Files.readAllBytes(file.toPath()));
+    }
+  }
+
+  private static void mkdirs(File dir) throws IOException {
+    // Another build may create the same directory concurrently.
+    if (!dir.mkdirs() && !dir.isDirectory()) {
+      throw new IOException("Could not create directory: " + dir);
+    }
+  }
+
+  private static void deleteDir(File dir) {
+    File[] files = dir.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    dir.delete();
+  }
+}
@@ -0,0 +1,153 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+package com.google.appinventor.buildserver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests BuildQueue class.
+ */
+public class BuildQueueTest extends TestCase {
+  private final List<String> started = Collections.synchronizedList(new ArrayList<String>());
+
+  public void testAdditionalTaskIsQueued() throws Exception {
+    BuildQueue queue = new BuildQueue(1, 1, 1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(2);
+
+    assertEquals(0, queue.submit("a", new Build("a1", release, done)));
+    assertTrue(queue.submit("b", new Build("b1", release, done)) > 0);
+    assertEquals(1, queue.getActiveTaskCount());
+    assertEquals(1, queue.getQueuedTaskCount());
+
+    // The queue is now full.
+    try {
+      queue.submit("c", new Build("c1", release, done));
+      fail();
+    } catch (RejectedExecutionException e) {
+      // expected
+    }
+    assertEquals(1, queue.getRejectedTaskCount());
+
+    release.countDown();
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertEquals(Arrays.asList("a1", "b1"), started);
+    assertEquals(0, queue.getQueuedTaskCount());
+    assertEquals(1, queue.getMaximumQueuedTaskCount());
+  }
+
+  public void testUserShareOfQueueIsLimited() throws Exception {
+    BuildQueue queue = new BuildQueue(1, 10, 1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(3);
+
+    queue.submit("a", new Build("a1", release, done));
+    queue.submit("a", new Build("a2", release, done));
+    try {
+      queue.submit("a", new Build("a3", release, done));
+      fail();
+    } catch (RejectedExecutionException e) {
+      // expected
+    }
+    queue.submit("b", new Build("b1", release, done));
+
+    release.countDown();
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+  }
+
+  public void testUsersWithFewerRunningBuildsGoFirst() throws Exception {
+    BuildQueue queue = new BuildQueue(2, 10, 10);
+    CountDownLatch releaseFirst = new CountDownLatch(1);
+    CountDownLatch releaseRest = new CountDownLatch(1);
+    CountDownLatch firstDone = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(3);
+
+    // a1 and a2 run; a3 is queued before b1.
+    queue.submit("a", new Build("a1", releaseFirst, firstDone));
+    queue.submit("a", new Build("a2", releaseRest, done));
+    queue.submit("a", new Build("a3", releaseRest, done));
+    queue.submit("b", new Build("b1", releaseRest, done));
+
+    // When a1 finishes, user a still has a build running and b has none, so b1 starts first.
+    releaseFirst.countDown();
+    assertTrue(firstDone.await(10, TimeUnit.SECONDS));
+    long deadline = System.currentTimeMillis() + 10000;
+    while (started.size() < 3 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals("b1", started.get(2));
+    releaseRest.countDown();
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertEquals("a3", started.get(3));
+  }
+
+  public void testUnlimitedNeverQueues() throws Exception {
+    BuildQueue queue = new BuildQueue(0, 0, 0);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(3);
+    for (int i = 0; i < 3; i++) {
+      assertEquals(0, queue.submit("a", new Build("a" + i, release, done)));
+    }
+    assertEquals(3, queue.getActiveTaskCount());
+    assertEquals(0, queue.getEstimatedWaitMillis());
+    release.countDown();
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+  }
+
+  public void testShutdownRunsQueuedBuildsAndRejectsNewOnes() throws Exception {
+    BuildQueue queue = new BuildQueue(1, 10, 10);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(2);
+
+    queue.submit("a", new Build("a1", release, done));
+    queue.submit("b", new Build("b1", release, done));
+    queue.shutdown();
+    assertTrue(queue.isShutdown());
+    try {
+      queue.submit("c", new Build("c1", release, done));
+      fail();
+    } catch (RejectedExecutionException e) {
+      // expected
+    }
+    assertFalse(queue.awaitTermination(50, TimeUnit.MILLISECONDS));
+
+    release.countDown();
+    assertTrue(queue.awaitTermination(10, TimeUnit.SECONDS));
+    assertEquals(Arrays.asList("a1", "b1"), started);
+    assertEquals(2, queue.getCompletedTaskCount());
+    assertEquals(1, queue.getRejectedTaskCount());
+  }
+
+  private class Build implements Runnable {
+    private final String name;
+    private final CountDownLatch release;
+    private final CountDownLatch done;
+
+    private Build(String name, CountDownLatch release, CountDownLatch done) {
+      this.name = name;
+      this.release = release;
+      this.done = done;
+    }
+
+    @Override
+    public void run() {
+      started.add(name);
+      try {
+        release.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        // ignored
+      }
+      done.countDown();
+    }
+  }
+}
@@ -0,0 +1,177 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.buildserver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.appinventor.buildserver.context.AndroidCompilerContext;
+import com.google.appinventor.buildserver.context.AndroidPaths;
+import com.google.appinventor.buildserver.context.CompilerContext;
+import com.google.appinventor.buildserver.interfaces.CommonTask;
+import com.google.appinventor.buildserver.stats.StatReporter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the scheduling of tasks by {@link Compiler}.
+ */
+public class CompilerTest {
+  private static final List<String> ran = Collections.synchronizedList(new ArrayList<String>());
+  private static CountDownLatch latch;
+
+  private final Map<String, Long> stages = new ConcurrentHashMap<>();
+  private AndroidCompilerContext context;
+
+  @BuildType(apk = true)
+  @DependsOn({})
+  public static class First implements CommonTask {
+    @Override
+    public TaskResult execute(CompilerContext<?> context) {
+      ran.add("First");
+      return TaskResult.generateSuccess();
+    }
+  }
+
+  @BuildType(apk = true)
+  @DependsOn(First.class)
+  public static class Second implements CommonTask {
+    @Override
+    public TaskResult execute(CompilerContext<?> context) {
+      ran.add("Second");
+      return TaskResult.generateSuccess();
+    }
+  }
+
+  @BuildType(apk = true)
+  public static class Last implements CommonTask {
+    @Override
+    public TaskResult execute(CompilerContext<?> context) {
+      ran.add("Last");
+      return TaskResult.generateSuccess();
+    }
+  }
+
+  /**
+   * Succeeds only if another Rendezvous task is running at the same time.
+   */
+  @BuildType(apk = true)
+  @DependsOn({})
+  public static class Rendezvous implements CommonTask {
+    @Override
+    public TaskResult execute(CompilerContext<?> context) {
+      latch.countDown();
+      try {
+        if (latch.await(10, TimeUnit.SECONDS)) {
+          ran.add("Rendezvous");
+          return TaskResult.generateSuccess();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return TaskResult.generateError("Tasks did not run concurrently");
+    }
+  }
+
+  @BuildType(apk = true)
+  @DependsOn({})
+  public static class Fail implements CommonTask {
+    @Override
+    public TaskResult execute(CompilerContext<?> context) {
+      ran.add("Fail");
+      return TaskResult.generateError("Failed");
+    }
+  }
+
+  @BuildType(apk = true)
+  @DependsOn({})
+  public static class Throw implements CommonTask {
+    @Override
+    public TaskResult execute(CompilerContext<?> context) {
+      throw new IllegalStateException("Thrown");
+    }
+  }
+
+  @Before
+  public void setUp() {
+    ran.clear();
+    latch = new CountDownLatch(2);
+    stages.clear();
+    context = new CompilerContext.Builder<AndroidPaths, AndroidCompilerContext>(null, "apk")
+        .withClass(AndroidCompilerContext.class)
+        .withTypes(Collections.<String>emptySet())
+        .withBlocks(Collections.<String, Set<String>>emptyMap())
+        .withReporter(new Reporter(null))
+        .withStatReporter(new StatReporter() {
+          @Override
+          public void startBuild(Compiler compiler) {
+          }
+
+          @Override
+          public void stageFinished(Compiler compiler, String stage, long duration) {
+            stages.put(stage, duration);
+          }
+
+          @Override
+          public void stopBuild(Compiler compiler, boolean success) {
+          }
+        })
+        .withKeystore("test.keystore")
+        .build();
+  }
+
+  @Test
+  public void testDependenciesRunFirst() {
+    Compiler<AndroidPaths, AndroidCompilerContext> compiler = newCompiler();
+    compiler.add(First.class).add(Second.class).add(Last.class);
+    assertTrue(compiler.call());
+    assertEquals(3, ran.size());
+    assertTrue(ran.indexOf("First") < ran.indexOf("Second"));
+    assertEquals("Last", ran.get(2));
+    assertEquals(stages.keySet(), new HashSet<>(ran));
+  }
+
+  @Test
+  public void testIndependentTasksRunConcurrently() {
+    Compiler<AndroidPaths, AndroidCompilerContext> compiler = newCompiler();
+    compiler.add(Rendezvous.class).add(Rendezvous.class);
+    assertTrue(compiler.call());
+    assertEquals(2, ran.size());
+  }
+
+  @Test
+  public void testFailureStopsDependents() {
+    Compiler<AndroidPaths, AndroidCompilerContext> compiler = newCompiler();
+    compiler.add(Fail.class).add(Last.class);
+    assertFalse(compiler.call());
+    assertEquals(Collections.singletonList("Fail"), ran);
+  }
+
+  @Test
+  public void testExceptionStopsDependents() {
+    Compiler<AndroidPaths, AndroidCompilerContext> compiler = newCompiler();
+    compiler.add(Throw.class).add(Last.class);
+    assertFalse(compiler.call());
+    assertTrue(ran.isEmpty());
+  }
+
+  private Compiler<AndroidPaths, AndroidCompilerContext> newCompiler() {
+    return new Compiler.Builder<AndroidPaths, AndroidCompilerContext>()
+        .withContext(context)
+        .withType(BuildType.APK_EXTENSION)
+        .build();
+  }
+}
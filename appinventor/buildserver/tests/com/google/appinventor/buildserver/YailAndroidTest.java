@@ -19,6 +19,7 @@ import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import static org.easymock.EasyMock.expect;
 import static org.junit.Assert.assertEquals;
 
 @PowerMockIgnore({"gnu.*", "kawa.*"})
@@ -63,4 +64,76 @@ public class YailAndroidTest {
     SimpleDateFormat sdf = new SimpleDateFormat("MM/dd/yyyy hh:mm:ss a");
     assertEquals(sdf.format(expected.getTime()), output);
   }
+
+  @Test
+  public void testFormatDateTimeDirect() throws Throwable {
+    // The same call as above, as generated for a component whose type is known.
+    Clock c = PowerMock.createMock(Clock.class);
+    scheme.define("*test-clock*", c);
+    String output = scheme.eval("(begin (add-to-current-form-environment 'Clock1 *test-clock*)"
+        + "(call-component-method-direct Clock1 com.google.appinventor.components.runtime.Clock"
+        + " FormatDateTime (*list-for-runtime* 0  \"MM/dd/yyyy hh:mm:ss a\") '(InstantInTime text)))")
+        .toString();
+    Calendar expected = Calendar.getInstance();
+    expected.setTimeInMillis(0);
+    SimpleDateFormat sdf = new SimpleDateFormat("MM/dd/yyyy hh:mm:ss a");
+    assertEquals(sdf.format(expected.getTime()), output);
+  }
+
+  @Test
+  public void testSetPropertyDirect() throws Throwable {
+    Clock c = PowerMock.createMock(Clock.class);
+    c.TimerInterval(250);
+    PowerMock.replay(c);
+    scheme.define("*test-clock*", c);
+    scheme.eval("(begin (add-to-current-form-environment 'Clock1 *test-clock*)"
+        + "(set-and-coerce-property-direct! Clock1 com.google.appinventor.components.runtime.Clock"
+        + " TimerInterval \"250\" 'number))");
+    PowerMock.verify(c);
+  }
+
+  @Test
+  public void testFractionalArgumentsDirect() throws Throwable {
+    // Fractional numbers given for int parameters are converted as by the dynamic forms.
+    Clock c = PowerMock.createMock(Clock.class);
+    Calendar time = Calendar.getInstance();
+    c.TimerInterval(250);
+    c.TimerInterval(250);
+    expect(c.MakeTime(10, 30, 0)).andReturn(time);
+    PowerMock.replay(c);
+    scheme.define("*test-clock*", c);
+    scheme.eval("(begin (add-to-current-form-environment 'Clock1 *test-clock*)"
+        + "(set-and-coerce-property! 'Clock1 'TimerInterval 250.7 'number))");
+    scheme.eval("(set-and-coerce-property-direct! Clock1"
+        + " com.google.appinventor.components.runtime.Clock TimerInterval 250.7 'number)");
+    Object output = scheme.eval("(call-component-method-direct Clock1"
+        + " com.google.appinventor.components.runtime.Clock MakeTime"
+        + " (*list-for-runtime* 10.5 30 0) '(number number number))");
+    assertEquals(time, output);
+    PowerMock.verify(c);
+  }
+
+  @Test
+  public void testGetPropertyDirect() throws Throwable {
+    Clock c = PowerMock.createMock(Clock.class);
+    expect(c.TimerInterval()).andReturn(250);
+    PowerMock.replay(c);
+    scheme.define("*test-clock*", c);
+    Object output = scheme.eval("(begin (add-to-current-form-environment 'Clock1 *test-clock*)"
+        + "(get-property-direct Clock1 com.google.appinventor.components.runtime.Clock"
+        + " TimerInterval))");
+    assertEquals("250", output.toString());
+    PowerMock.verify(c);
+  }
+
+  @Test
+  public void testDirectFormsWithoutValues() throws Throwable {
+    // Blocks with empty sockets generate calls that are missing values. These must still
+    // compile, and fail when they are run just as the dynamic forms do.
+    scheme.eval("(define (set-empty) (set-and-coerce-property-direct! Clock1"
+        + " com.google.appinventor.components.runtime.Clock TimerInterval 'number))");
+    scheme.eval("(define (call-empty) (call-component-method-direct Clock1"
+        + " com.google.appinventor.components.runtime.Clock FormatDateTime"
+        + " (*list-for-runtime* 0) '(InstantInTime text)))");
+  }
 }
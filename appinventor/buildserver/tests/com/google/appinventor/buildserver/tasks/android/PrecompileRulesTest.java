@@ -0,0 +1,63 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.buildserver.tasks.android;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.appinventor.components.runtime.linkeddata.RuleCache;
+import com.google.common.io.Files;
+import com.hp.hpl.jena.reasoner.rulesys.Rule;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that rules written by {@link PrecompileRules} are read back by the runtime unchanged.
+ */
+public class PrecompileRulesTest {
+  private static final String RULES =
+      "[parent: (?a eg:parent ?b) -> (?b eg:child ?a)]\n"
+      + "[adult: (?p eg:age ?n) ge(?n, 18) -> (?p rdf:type eg:Adult)]\n"
+      + "[label: (?p rdf:type eg:Adult) noValue(?p, rdfs:label) makeTemp(?t) -> "
+      + "(?p rdfs:label 'adult') (?p eg:tag ?t) (?p eg:score '1.5'^^xsd:double)]\n"
+      + "[back: (?x eg:parent ?y) <- (?y eg:child ?x) notEqual(?x, ?y)]\n"
+      + "[(?x eg:knows ?y) -> (?x eg:social 'true'^^xsd:boolean)]\n";
+
+  private File dir;
+
+  @Before
+  public void setUp() {
+    dir = Files.createTempDir();
+  }
+
+  @After
+  public void tearDown() {
+    FileUtils.deleteQuietly(dir);
+  }
+
+  @Test
+  public void testCompiledRulesMatchParsedRules() throws IOException {
+    List<Rule> parsed = Rule.parseRules(RULES);
+    File compiled = new File(dir, "test.rules.compiled");
+    PrecompileRules.writeRules(parsed, compiled);
+
+    List<Rule> read = RuleCache.readCompiledRules(Files.toByteArray(compiled));
+    assertEquals(parsed.size(), read.size());
+    for (int i = 0; i < parsed.size(); i++) {
+      Rule expected = parsed.get(i);
+      Rule actual = read.get(i);
+      assertEquals(expected.toString(), actual.toString());
+      assertEquals(expected.getName(), actual.getName());
+      assertEquals(expected.isBackward(), actual.isBackward());
+      assertEquals(expected.getNumVars(), actual.getNumVars());
+      assertEquals(expected, actual);
+    }
+  }
+}
@@ -0,0 +1,109 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.buildserver.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link KawaCompilerPool}.
+ */
+public class KawaCompilerPoolTest {
+  private static final int MX = 256;
+
+  private File dir;
+  private String kawaRuntime;
+  private String yailRuntime;
+  private ByteArrayOutputStream out;
+
+  @Before
+  public void setUp() throws Exception {
+    dir = Files.createTempDir();
+    kawaRuntime = new File(kawa.repl.class.getProtectionDomain().getCodeSource().getLocation()
+        .toURI()).getAbsolutePath();
+    yailRuntime = write("runtime",
+        "(display \"runtime loaded\")\n(define-syntax twice (syntax-rules () ((_ x) (* 2 x))))");
+    KawaCompilerPool.setMaxWorkers(1);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    KawaCompilerPool.setMaxWorkers(0);
+    KawaCompilerPool.setCompileTimeout(KawaCompilerPool.DEFAULT_COMPILE_TIMEOUT_MILLIS);
+    for (File file : dir.listFiles()) {
+      file.delete();
+    }
+    dir.delete();
+  }
+
+  @Test
+  public void testCompilesReuseWorkerAndRuntime() throws IOException {
+    assertTrue(compile("one", "(define (one) (twice 1))"));
+    assertTrue(new File(dir, "one.class").exists());
+    assertTrue(out.toString().contains("runtime loaded"));
+    assertEquals(1, KawaCompilerPool.getIdleWorkerCount());
+
+    assertTrue(compile("two", "(define (two) (twice 1))"));
+    assertTrue(new File(dir, "two.class").exists());
+    assertFalse(out.toString().contains("runtime loaded"));
+    assertFalse(out.toString().contains("twice"));
+    assertEquals(1, KawaCompilerPool.getIdleWorkerCount());
+  }
+
+  @Test
+  public void testLateCompileIsKilled() throws IOException {
+    KawaCompilerPool.setCompileTimeout(2000);
+    String hanging = write("hanging", "(let loop () (loop))");
+    out = new ByteArrayOutputStream();
+    assertFalse(KawaCompilerPool.compile(kawaRuntime, hanging, MX,
+        new String[] {"-d", dir.getAbsolutePath(), "-C", yailRuntime},
+        new PrintStream(out), new PrintStream(out)));
+    assertTrue(out.toString().contains("did not finish"));
+    assertEquals(0, KawaCompilerPool.getIdleWorkerCount());
+    assertTrue(compile("five", "(define (five) 5)"));
+  }
+
+  @Test
+  public void testWorkerRecoversFromFailedCompile() throws IOException {
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+    assertFalse(KawaCompilerPool.compile(kawaRuntime, yailRuntime, MX,
+        new String[] {"-d", dir.getAbsolutePath(), "-C", new File(dir, "missing.scm").getPath()},
+        new PrintStream(new ByteArrayOutputStream()), new PrintStream(err)));
+    assertTrue(compile("three", "(define (three) 3)"));
+    assertTrue(new File(dir, "three.class").exists());
+  }
+
+  @Test(expected = IOException.class)
+  public void testDisabledPoolThrows() throws IOException {
+    KawaCompilerPool.setMaxWorkers(0);
+    compile("four", "(define (four) 4)");
+  }
+
+  private String write(String name, String source) throws IOException {
+    File file = new File(dir, name + ".scm");
+    Files.write(source, file, Charsets.UTF_8);
+    return file.getAbsolutePath();
+  }
+
+  private boolean compile(String name, String source) throws IOException {
+    String file = write(name, source);
+    out = new ByteArrayOutputStream();
+    return KawaCompilerPool.compile(kawaRuntime, yailRuntime, MX,
+        new String[] {"-d", dir.getAbsolutePath(), "-C", file},
+        new PrintStream(out), new PrintStream(out));
+  }
+}
@@ -0,0 +1,139 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.buildserver.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link ScreenClassCache}.
+ */
+public class ScreenClassCacheTest {
+  private File dir;
+  private File cacheDir;
+  private File runtime;
+  private File library;
+  private File screen;
+
+  @Before
+  public void setUp() throws IOException {
+    dir = Files.createTempDir();
+    cacheDir = new File(dir, "cache");
+    runtime = write("runtime.scm", "(define x 1)");
+    library = write("lib.jar", "library");
+    screen = write("Screen1.yail", "(define-form Screen1)");
+  }
+
+  @After
+  public void tearDown() {
+    FileUtils.deleteQuietly(dir);
+  }
+
+  @Test
+  public void testStoreAndRestore() throws IOException {
+    File packageDir = new File(dir, "build/com/example");
+    write("build/com/example/Screen1.class", "screen");
+    write("build/com/example/Screen1$frame.class", "frame");
+    write("build/com/example/Screen10.class", "other screen");
+
+    ScreenClassCache cache = newCache();
+    String key = cache.keyFor(screen);
+    assertFalse(cache.restore(key, packageDir));
+    cache.store(key, packageDir, "Screen1");
+
+    File restoreDir = new File(dir, "restore");
+    assertTrue(newCache().restore(key, restoreDir));
+    String[] names = restoreDir.list();
+    Arrays.sort(names);
+    assertArrayEquals(new String[] {"Screen1$frame.class", "Screen1.class"}, names);
+    assertEquals("frame",
+        Files.toString(new File(restoreDir, "Screen1$frame.class"), Charsets.UTF_8));
+  }
+
+  @Test
+  public void testKeyDependsOnInputs() throws IOException {
+    String key = newCache().keyFor(screen);
+    assertEquals(key, newCache().keyFor(screen));
+
+    write("Screen1.yail", "(define-form Screen1 changed)");
+    assertNotEquals(key, newCache().keyFor(screen));
+    write("Screen1.yail", "(define-form Screen1)");
+
+    write("lib.jar", "library, version 2");
+    assertNotEquals(key, newCache().keyFor(screen));
+    write("lib.jar", "library");
+
+    assertNotEquals(key, new ScreenClassCache(cacheDir.getPath(), runtime.getPath(),
+        library.getPath(), "org.example").keyFor(screen));
+  }
+
+  @Test
+  public void testRuntimeClasses() throws IOException {
+    File runtimeDir = new File(dir, "build/com/google/youngandroid");
+    write("build/com/google/youngandroid/runtime.class", "runtime");
+    write("build/com/google/youngandroid/runtime$frame.class", "frame");
+
+    ScreenClassCache cache = newCache();
+    String key = cache.runtimeKey();
+    assertNotEquals(key, cache.keyFor(screen));
+    cache.store(key, runtimeDir, "runtime");
+
+    File restoreDir = new File(dir, "restore");
+    assertTrue(newCache().restore(key, restoreDir));
+    assertEquals(2, restoreDir.list().length);
+
+    write("runtime.scm", "(define x 2)");
+    assertNotEquals(key, newCache().runtimeKey());
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsed() throws IOException {
+    File packageDir = new File(dir, "build/com/example");
+    write("build/com/example/Screen1.class", "0123456789");
+    write("build/com/example/Screen2.class", "0123456789");
+    write("build/com/example/Screen3.class", "0123456789");
+    ScreenClassCache cache = new ScreenClassCache(cacheDir.getPath(), runtime.getPath(),
+        library.getPath(), "com.example", 25);
+    File restoreDir = new File(dir, "restore");
+
+    cache.store("one", packageDir, "Screen1");
+    cache.store("two", packageDir, "Screen2");
+    new File(cacheDir, "screens/one").setLastModified(1000);
+    new File(cacheDir, "screens/two").setLastModified(2000);
+    // Restoring an entry makes it the most recently used
+    assertTrue(cache.restore("one", restoreDir));
+    cache.store("three", packageDir, "Screen3");
+
+    assertTrue(cache.restore("one", restoreDir));
+    assertFalse(cache.restore("two", restoreDir));
+    assertTrue(cache.restore("three", restoreDir));
+  }
+
+  private ScreenClassCache newCache() throws IOException {
+    return new ScreenClassCache(cacheDir.getPath(), runtime.getPath(), library.getPath(),
+        "com.example");
+  }
+
+  private File write(String name, String content) throws IOException {
+    File file = new File(dir, name);
+    Files.createParentDirs(file);
+    Files.write(content, file, Charsets.UTF_8);
+    return file;
+  }
+}
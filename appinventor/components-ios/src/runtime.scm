@@ -539,6 +539,23 @@
       ;; TODO(markf): this should probably be generalized but for now this is OK, I think
       (sanitize-component-data result))))
 
+;;; The blocks editor names the component type in calls on components whose type it knows,
+;;; so that Android can compile them as direct calls.  Here they are made like any other call.
+(define-syntax call-component-method-direct
+  (syntax-rules ()
+    ((_ component-name component-type method-name arglist typelist)
+     (call-component-method 'component-name 'method-name arglist typelist))))
+
+(define-syntax set-and-coerce-property-direct!
+  (syntax-rules ()
+    ((_ component-name component-type prop-name arg ...)
+     (set-and-coerce-property! 'component-name 'prop-name arg ...))))
+
+(define-syntax get-property-direct
+  (syntax-rules ()
+    ((_ component-name component-type prop-name)
+     (get-property 'component-name 'prop-name))))
+
 (define (call-component-type-method possible-component component-type method-name arglist typelist)
   ;; Note that we use the cdr of the typelist because it contains the generic
   ;; 'component' type for the component and we want to check the more specific type
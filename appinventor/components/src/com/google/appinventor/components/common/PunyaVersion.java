@@ -3,5 +3,8 @@ package com.google.appinventor.components.common;
 public class PunyaVersion {
   public static final int PUNYA_VERSION = 1;
 
-  public static final int REASONER_COMPONENT_VERSION = 1;
+  // For REASONER_COMPONENT_VERSION 2:
+  // - Added Incremental property
+  // - Added ReasoningUpdated event
+  public static final int REASONER_COMPONENT_VERSION = 2;
 }
@@ -4,4 +4,38 @@ public final class SemanticWebConstants {
   private SemanticWebConstants() { }
 
   public static final String DEFAULT_BASE_URI = "http://example.com/";
+
+  /*
+   * Compiled rulesets. The buildserver parses each .rules asset of an app that uses the Reasoner
+   * and writes the parsed rules beside it as <asset>.compiled, which the Reasoner loads instead
+   * of parsing the text. The writer (buildserver PrecompileRules) and the reader (runtime
+   * CompiledRulesReader) must agree on this format; bump the version whenever it changes.
+   *
+   * file   := MAGIC:int VERSION:short count:int rule*
+   * rule   := hasName:boolean [name:string] backward:boolean numVars:int
+   *           headCount:int clause* bodyCount:int clause*
+   * clause := CLAUSE_TRIPLE node node node | CLAUSE_FUNCTOR functor | CLAUSE_RULE rule
+   * functor:= name:string argCount:int node*
+   * node   := NODE_URI uri:string | NODE_BLANK label:string
+   *         | NODE_LITERAL lexical:string lang:string datatype:string
+   *         | NODE_VARIABLE name:string index:int | NODE_WILD | NODE_ANY
+   *         | NODE_FUNCTOR functor
+   * string := length:int utf8-bytes
+   */
+
+  public static final String COMPILED_RULES_EXTENSION = ".compiled";
+  public static final int COMPILED_RULES_MAGIC = 0x50524C53;  // "PRLS"
+  public static final short COMPILED_RULES_VERSION = 1;
+
+  public static final byte CLAUSE_TRIPLE = 0;
+  public static final byte CLAUSE_FUNCTOR = 1;
+  public static final byte CLAUSE_RULE = 2;
+
+  public static final byte NODE_URI = 0;
+  public static final byte NODE_BLANK = 1;
+  public static final byte NODE_LITERAL = 2;
+  public static final byte NODE_VARIABLE = 3;
+  public static final byte NODE_WILD = 4;
+  public static final byte NODE_ANY = 5;
+  public static final byte NODE_FUNCTOR = 6;
 }
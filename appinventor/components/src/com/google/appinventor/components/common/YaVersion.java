@@ -678,7 +678,27 @@ public class YaVersion {
   // - appinventor-sources master was merged into punya master
   // For YOUNG_ANDROID_VERSION 242:
   // - appinventor-sources master was merged into punya master
-  public static final int YOUNG_ANDROID_VERSION = 242;
+  // For YOUNG_ANDROID_VERSION 243:
+  // - LINKED_DATA_COMPONENT_VERSION was incremented to 4.
+  // For YOUNG_ANDROID_VERSION 244:
+  // - LINKED_DATA_COMPONENT_VERSION was incremented to 5.
+  // For YOUNG_ANDROID_VERSION 245:
+  // - PunyaVersion.REASONER_COMPONENT_VERSION was incremented to 2.
+  // For YOUNG_ANDROID_VERSION 246:
+  // - CLOUDDB_COMPONENT_VERSION was incremented to 3.
+  // For YOUNG_ANDROID_VERSION 247:
+  // - SPREADSHEET_COMPONENT_VERSION was incremented to 4.
+  // For YOUNG_ANDROID_VERSION 248:
+  // - MAP_COMPONENT_VERSION was incremented to 7.
+  // - FEATURE_COLLECTION_COMPONENT_VERSION was incremented to 3.
+  // For YOUNG_ANDROID_VERSION 249:
+  // - MAP_COMPONENT_VERSION was incremented to 8.
+  // - FEATURE_COLLECTION_COMPONENT_VERSION was incremented to 4.
+  // For YOUNG_ANDROID_VERSION 250:
+  // - MAP_COMPONENT_VERSION was incremented to 9.
+  // For YOUNG_ANDROID_VERSION 251:
+  // - MAP_COMPONENT_VERSION was incremented to 10.
+  public static final int YOUNG_ANDROID_VERSION = 251;
 
   // ............................... Blocks Language Version Number ...............................
 
@@ -1041,7 +1061,11 @@ public class YaVersion {
   // - GotGeoJSON event was renamed to GotFeatures
   // - ErrorLoadingFeatureCollection event was removed
   // - LoadedFeatureCollection event was removed
-  public static final int FEATURE_COLLECTION_COMPONENT_VERSION = 2;
+  // For FEATURE_COLLECTION_COMPONENT_VERSION 3:
+  // - FeaturesInBoundingBox, FeaturesWithin, and NearestFeatures methods were added
+  // For FEATURE_COLLECTION_COMPONENT_VERSION 4:
+  // - SimplifyFeatures property was added
+  public static final int FEATURE_COLLECTION_COMPONENT_VERSION = 4;
 
   // For FILE_COMPONENT_VERSION 2:
   // - The AfterFileSaved event was added.
@@ -1248,7 +1272,12 @@ public class YaVersion {
   // - Renamed SemanticWeb component to LinkedData component
   // For LINKED_DATA_COMPONENT_VERSION 3:
   // - Removed BaseURL property eclipsed by FormID on Linked Data Form
-  public static final int LINKED_DATA_COMPONENT_VERSION = 3;
+  // For LINKED_DATA_COMPONENT_VERSION 4:
+  // - Added ResultsPageSize and RawResults properties
+  // - Added RetrievedResultsPage event
+  // For LINKED_DATA_COMPONENT_VERSION 5:
+  // - Added PersistentStore property
+  public static final int LINKED_DATA_COMPONENT_VERSION = 5;
 
   // For SEMANTIC_FORM_COMPONENT_VERSION 1:
   // - Initial version.
@@ -1326,7 +1355,16 @@ public class YaVersion {
   // - Added ScaleUnits property
   // For MAP_COMPONENT_VERSION 6:
   // - Adds ScaleUnits and MapType dropdowns.
-  public static final int MAP_COMPONENT_VERSION = 6;
+  // For MAP_COMPONENT_VERSION 7:
+  // - FeaturesInBoundingBox, FeaturesWithin, and NearestFeatures methods were added
+  // For MAP_COMPONENT_VERSION 8:
+  // - SimplifyFeatures property was added
+  // For MAP_COMPONENT_VERSION 9:
+  // - SaveOfflineTiles and ClearOfflineTiles methods, OfflineTilesProgress and OfflineTilesSaved
+  //   events, and OfflineTileLimit and OfflineTileSize properties were added
+  // For MAP_COMPONENT_VERSION 10:
+  // - ClusterMarkers property was added
+  public static final int MAP_COMPONENT_VERSION = 10;
 
   // For MARKER_COMPONENT_VERSION 1:
   // - Initial Marker implementation using OpenStreetMap
@@ -1558,7 +1596,11 @@ public class YaVersion {
   // - Added the DeleteSheet block
   // - Added the FinishedDeleteSheet event
 
-  public static final int SPREADSHEET_COMPONENT_VERSION = 3;
+  // For SPREADSHEET_COMPONENT_VERSION 4:
+  // - Added the BatchWrites, FlushInterval and CacheTimeout properties
+  // - Added the FlushWrites block
+
+  public static final int SPREADSHEET_COMPONENT_VERSION = 4;
 
   // For SWITCH_COMPONENT_VERSION 1
   //  - Initial Version
@@ -1654,7 +1696,9 @@ public class YaVersion {
   // For CLOUDDB_COMPONENT_VERSION 2:
   // - Added the UpdateDone event
   //   to control its use
-  public static final int CLOUDDB_COMPONENT_VERSION = 2;
+  // For CLOUDDB_COMPONENT_VERSION 3:
+  // - Added the GetValues method and the CacheValues property
+  public static final int CLOUDDB_COMPONENT_VERSION = 3;
 
   // For GRAPHQL_COMPONENT_VERSION 1:
   // - GraphQL component introduced.
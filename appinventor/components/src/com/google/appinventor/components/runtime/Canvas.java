@@ -74,7 +74,10 @@ import java.io.IOException;
 import java.io.OutputStream;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
@@ -180,6 +183,10 @@ public final class Canvas extends AndroidViewComponent implements ComponentConta
   // sorted by increasing sprite.Z().
   private final List<Sprite> sprites;
 
+  // The same sprites, indexed by position so that collisions and touches
+  // only need to be checked against nearby sprites.
+  private final SpriteGrid spriteGrid = new SpriteGrid();
+
   // Handle touches and drags
   private final MotionEventParser motionEventParser;
 
@@ -301,7 +308,7 @@ public final class Canvas extends AndroidViewComponent implements ComponentConta
           lastY = y;
           drag = false;
           isDrag = false;
-          for (Sprite sprite : sprites) {
+          for (Sprite sprite : spritesNear(rect)) {
             if (sprite.Enabled() && sprite.Visible() && sprite.intersectsWith(rect)) {
               draggedSprites.add(sprite);
               sprite.TouchDown(startX, startY);
@@ -335,7 +342,7 @@ public final class Canvas extends AndroidViewComponent implements ComponentConta
 
           // Update draggedSprites by adding any that are currently being
           // touched.
-          for (Sprite sprite : sprites) {
+          for (Sprite sprite : spritesNear(rect)) {
             if (!draggedSprites.contains(sprite)
                 && sprite.Enabled() && sprite.Visible()
                 && sprite.intersectsWith(rect)) {
@@ -853,6 +860,7 @@ public final class Canvas extends AndroidViewComponent implements ComponentConta
    */
   void removeSprite(Sprite sprite) {
     sprites.remove(sprite);
+    spriteGrid.remove(sprite);
   }
 
   /**
@@ -862,7 +870,7 @@ public final class Canvas extends AndroidViewComponent implements ComponentConta
    * @param sprite the Sprite whose Z property has changed
    */
   void changeSpriteLayer(Sprite sprite) {
-    removeSprite(sprite);
+    sprites.remove(sprite);
     addSprite(sprite);
     view.invalidate();
   }
@@ -912,9 +920,30 @@ public final class Canvas extends AndroidViewComponent implements ComponentConta
    */
   void registerChange(Sprite sprite) {
     view.invalidate();
+    spriteGrid.update(sprite);
     findSpriteCollisions(sprite);
   }
 
+  /**
+   * Returns the sprites that may intersect the given rectangle, in
+   * increasing Z order.
+   *
+   * @param rect the rectangle
+   * @return the sprites near the rectangle
+   */
+  private List<Sprite> spritesNear(BoundingBox rect) {
+    Set<Sprite> near = new LinkedHashSet<Sprite>();
+    spriteGrid.findNear(rect, near);
+    List<Sprite> result = new ArrayList<Sprite>(near);
+    Collections.sort(result, new Comparator<Sprite>() {
+      @Override
+      public int compare(Sprite sprite1, Sprite sprite2) {
+        return Double.compare(sprite1.Z(), sprite2.Z());
+      }
+    });
+    return result;
+  }
+
 
   // Methods for detecting collisions
 
@@ -934,7 +963,11 @@ public final class Canvas extends AndroidViewComponent implements ComponentConta
    * @param movedSprite the sprite that has just changed position
    */
   protected void findSpriteCollisions(Sprite movedSprite) {
-    for (Sprite sprite : sprites) {
+    // Only sprites near the moved sprite can have started colliding with it,
+    // but any sprite it was colliding with may have stopped.
+    Set<Sprite> candidates = new LinkedHashSet<Sprite>(movedSprite.getRegisteredCollisions());
+    spriteGrid.findNear(movedSprite, candidates);
+    for (Sprite sprite : candidates) {
       if (sprite != movedSprite) {
         // Check whether we already raised an event for their collision.
         if (movedSprite.CollidingWith(sprite)) {
@@ -1746,7 +1779,7 @@ public final class Canvas extends AndroidViewComponent implements ComponentConta
 
       boolean spriteHandledFling = false;
 
-      for (Sprite sprite : sprites) {
+      for (Sprite sprite : spritesNear(rect)) {
         if (sprite.Enabled() && sprite.Visible() &&
             sprite.intersectsWith(rect)) {
           sprite.Flung(x, y, speed, heading, vx, vy);
@@ -11,6 +11,7 @@ import com.github.mikephil.charting.data.DataSet;
 import com.github.mikephil.charting.data.Entry;
 import com.github.mikephil.charting.data.PieEntry;
 import com.github.mikephil.charting.interfaces.datasets.IDataSet;
+import com.google.appinventor.components.runtime.util.RingBufferList;
 import com.google.appinventor.components.runtime.util.YailList;
 
 import java.util.ArrayList;
@@ -50,7 +51,9 @@ public abstract class ChartDataModel<
     this.data = data;
     this.view = view;
 
-    entries = new ArrayList<>();
+    // Real-time data removes the oldest entry for every entry added,
+    // which a RingBufferList does without shifting the other entries.
+    entries = new RingBufferList<>();
   }
 
   /**
@@ -338,9 +341,9 @@ public abstract class ChartDataModel<
    */
   public void addTimeEntry(YailList tuple) {
     // If the entry count of the Data Series entries exceeds
-    // the maximum allowed time entries, then remove the first one
-    if (entries.size() >= maximumTimeEntries) {
-      entries.remove(0);
+    // the maximum allowed time entries, then remove the oldest ones
+    while (!entries.isEmpty() && entries.size() >= maximumTimeEntries) {
+      removeOldestTimeEntry();
     }
 
     // Add entry from the specified tuple
@@ -349,6 +352,26 @@ public abstract class ChartDataModel<
     addEntryFromTuple(tuple);
   }
 
+  /**
+   * Removes the first entry of the Data Series to make room for a new
+   * time entry.
+   */
+  protected void removeOldestTimeEntry() {
+    entries.remove(0);
+  }
+
+  /**
+   * Returns the entries that the Chart should draw to display the
+   * specified entries. By default, every entry is drawn.
+   *
+   * @param entries        entries of the Data Series
+   * @param maximumEntries number of entries the Chart can usefully draw
+   * @return List of entries to draw
+   */
+  public List<E> getEntriesToDraw(List<E> entries, int maximumEntries) {
+    return entries;
+  }
+
   /**
    * Sets the maximum time entries to be kept in the Data Series.
    *
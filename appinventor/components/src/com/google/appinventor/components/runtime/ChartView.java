@@ -20,7 +20,9 @@ import com.github.mikephil.charting.data.Entry;
 
 import com.github.mikephil.charting.interfaces.datasets.IDataSet;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Base class to represent Chart Views. The class (and subclasses)
@@ -52,6 +54,14 @@ public abstract class ChartView<
 
   protected Handler uiHandler = new Handler(Looper.myLooper());
 
+  // Series with more entries than this many per pixel of the Chart's
+  // width are downsampled before they are drawn.
+  private static final int DRAWN_ENTRIES_PER_PIXEL = 2;
+  private static final int MINIMUM_DRAWN_ENTRIES = 500;
+
+  // Data Models with a refresh already posted to the UI thread
+  private final Set<ChartDataModel<E, T, D, C, V>> pendingRefreshes = new HashSet<>();
+
   /**
    * Creates a new Chart View with the specified Chart component
    * instance as the parent of the View.
@@ -135,6 +145,22 @@ public abstract class ChartView<
    * @param model Chart Data Model to update & refresh
    */
   public void refresh(final ChartDataModel<E, T, D, C, V> model) {
+    if (Looper.myLooper() == Looper.getMainLooper()) {
+      // Real-time values arrive on the UI thread, often faster than the
+      // Chart can be redrawn, so changes made before the Chart is next
+      // refreshed are drawn together.
+      if (pendingRefreshes.add(model)) {
+        uiHandler.post(new Runnable() {
+          @Override
+          public void run() {
+            pendingRefreshes.remove(model);
+            refresh(model, new ArrayList<>(model.getEntries()));
+          }
+        });
+      }
+      return;
+    }
+
     // Create a new RefreshTask with the model's current List of Entries
     RefreshTask refreshTask = new RefreshTask(model.getEntries());
 
@@ -199,7 +225,8 @@ public abstract class ChartView<
     // would not be caused by asynchronous operations)
     T dataset = model.getDataset();
     if (dataset instanceof DataSet) {
-      ((DataSet<E>) dataset).setValues(entries);
+      ((DataSet<E>) dataset).setValues(model.getEntriesToDraw(entries,
+          getMaximumDrawnEntries()));
     }
 
     // Notify the Data component of data changes (needs to be called
@@ -214,4 +241,15 @@ public abstract class ChartView<
     // effect.
     chart.invalidate();
   }
+
+  /**
+   * Returns the number of entries per Data Series that are worth
+   * drawing at the Chart's current width and zoom level.
+   *
+   * @return maximum number of entries to draw
+   */
+  protected int getMaximumDrawnEntries() {
+    float visibleWidth = chart.getWidth() * chart.getViewPortHandler().getScaleX();
+    return Math.max(MINIMUM_DRAWN_ENTRIES, (int) (visibleWidth * DRAWN_ENTRIES_PER_PIXEL));
+  }
 }
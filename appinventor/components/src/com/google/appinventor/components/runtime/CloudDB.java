@@ -38,6 +38,7 @@ import com.google.appinventor.components.common.YaVersion;
 import com.google.appinventor.components.runtime.errors.YailRuntimeError;
 
 import com.google.appinventor.components.runtime.util.BulkPermissionRequest;
+import com.google.appinventor.components.runtime.util.CloudDBCache;
 import com.google.appinventor.components.runtime.util.CloudDBJedisListener;
 import com.google.appinventor.components.runtime.util.FileUtil;
 import com.google.appinventor.components.runtime.util.JsonUtil;
@@ -54,9 +55,11 @@ import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
@@ -233,6 +236,10 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
   private volatile CloudDBJedisListener currentListener;
   private volatile boolean listenerRunning = false;
 
+  // Values read from the server or published by it, used when CacheValues is true.
+  private final CloudDBCache cache = new CloudDBCache();
+  private boolean cacheValues = false;
+
   // To avoid blocking the UI thread, we do most Jedis operations in the background.
   // Rather then spawning a new thread for each request, we use an ExcutorService with
   // a single background thread to perform all the Jedis work. Using a single thread
@@ -317,6 +324,7 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
       currentListener = null;
       listenerRunning = false;
     }
+    cache.unsubscribed();
   }
 
   /*
@@ -391,6 +399,7 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
               Log.d(LOG_TAG, "Woke up! (2)");
             }
           }
+          cache.unsubscribed();
           listenerRunning = false;
           if (!dead && !shutdown) {
             startListener();
@@ -417,12 +426,14 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
         } else {
           redisServer = defaultRedisServer;
         }
+        cache.clear();
         flushJedis(true);           // Re-initialize any existing connections
       }
     } else {
       useDefault = false;
       if (!servername.equals(redisServer)) {
         redisServer = servername;
+        cache.clear();
         flushJedis(true);           // Re-initialize any existing connections
       }
     }
@@ -461,6 +472,7 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
   public void RedisPort(int port) {
     if (port != redisPort) {
       redisPort = port;
+      cache.clear();
       flushJedis(true);
     }
   }
@@ -493,6 +505,7 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
   public void ProjectID(String id) {
     if (!projectID.equals(id)) {
       projectID = id;
+      cache.clear();
     }
     if (projectID.equals("")){
       throw new RuntimeException("CloudDB ProjectID property cannot be blank.");
@@ -561,6 +574,29 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
     return useSSL;
   }
 
+  /**
+   * Set to `true`{:.logic.block} to keep a copy of the values read from `CloudDB` on the
+   * device. The copy is kept up to date as values change, so that reading them again does not
+   * need to contact the server, and the last values read are still available while off-line.
+   *
+   * @param cacheValues true if values should be cached on the device
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN,
+      defaultValue = "False")
+  @SimpleProperty
+  public void CacheValues(boolean cacheValues) {
+    this.cacheValues = cacheValues;
+    cache.setEnabled(cacheValues);
+  }
+
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR,
+      description = "If true, values read from CloudDB are kept on the device and kept up to " +
+          "date, so that reading them again does not contact the server, and the last values " +
+          "read are available off-line.")
+  public boolean CacheValues() {
+    return cacheValues;
+  }
+
   private static final String SET_SUB_SCRIPT =
     "local key = KEYS[1];" +
     "local value = ARGV[1];" +
@@ -608,6 +644,8 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
       if (DEBUG) {
         Log.d(LOG_TAG,"Device is online...");
       }
+      // Reads after this one go to the server, behind the store.
+      cache.invalidate(tag);
       synchronized(storeQueue) {
         boolean kickit = false;
         if (storeQueue.size() == 0) { // Need to kick off the background task
@@ -752,6 +790,26 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
     NetworkInfo networkInfo = cm.getActiveNetworkInfo();
     boolean isConnected = networkInfo != null && networkInfo.isConnected();
 
+    if (!isConnected && cacheValues) {
+      // Off-line, so fall back on the last value we know of, if any.
+      Map<String, String> cached = cache.getAll(Collections.singletonList(tag), true);
+      if (cached.containsKey(tag)) {
+        final AtomicReference<Object> cachedValue = new AtomicReference<Object>();
+        try {
+          cachedValue.set(toGotValue(cached.get(tag), valueIfTagNotThere));
+        } catch (JSONException e) {
+          CloudDBError("JSON conversion error for " + tag);
+          return;
+        }
+        androidUIHandler.post(new Runnable() {
+            public void run() {
+              GotValue(tag, cachedValue.get());
+            }
+          });
+        return;
+      }
+    }
+
     if (isConnected) {
       // Set value to either the JSON from the CloudDB
       // or the JSON representation of valueIfTagNotThere
@@ -796,28 +854,9 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
   private AtomicReference<Object> getValueByTag(final String tag, final Object valueIfTagNotThere) {
     AtomicReference<Object> value = new AtomicReference<Object>();
 
-    Jedis jedis = getJedis();
     try {
-      if (DEBUG) {
-        Log.d(LOG_TAG,"about to call jedis.get()");
-      }
-      String returnValue = jedis.get(projectID + ":" + tag);
-      if (DEBUG) {
-        Log.d(LOG_TAG, "finished call jedis.get()");
-      }
-      if (returnValue != null) {
-        String val = JsonUtil.getJsonRepresentationIfValueFileName(form, returnValue);
-        if (val != null) {
-          value.set(val);
-        } else {
-          value.set(returnValue);
-        }
-      } else {
-        if (DEBUG) {
-          Log.d(CloudDB.LOG_TAG,"Value retrieved is null");
-        }
-        value.set(JsonUtil.getJsonRepresentation(valueIfTagNotThere));
-      }
+      Map<String, String> returnValues = readValues(Collections.singletonList(tag));
+      value.set(toGotValue(returnValues.get(tag), valueIfTagNotThere));
     } catch (JSONException e) {
       CloudDBError("JSON conversion error for " + tag);
       value.set(null);
@@ -834,7 +873,138 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
 
     return value;
   }
- 
+
+  /**
+   * Reads the values of the given tags, from the cache where possible and
+   * otherwise from the server in a single round trip.
+   *
+   * @param tags  tags of the values to read
+   * @return  map from each tag to its stored JSON text, or to null if the tag is not present
+   */
+  private Map<String, String> readValues(List<String> tags) throws JedisException {
+    Map<String, String> returnValues = cache.getAll(tags, false);
+    List<String> missing = new ArrayList<String>();
+    for (String tag : tags) {
+      if (!returnValues.containsKey(tag) && !missing.contains(tag)) {
+        missing.add(tag);
+      }
+    }
+    if (missing.isEmpty()) {
+      return returnValues;
+    }
+    String[] keys = new String[missing.size()];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = projectID + ":" + missing.get(i);
+    }
+    long generation = cache.getGeneration();
+    if (DEBUG) {
+      Log.d(LOG_TAG,"about to call jedis.mget()");
+    }
+    List<String> fetched = getJedis().mget(keys);
+    if (DEBUG) {
+      Log.d(LOG_TAG, "finished call jedis.mget()");
+    }
+    for (int i = 0; i < keys.length; i++) {
+      String tag = missing.get(i);
+      returnValues.put(tag, fetched.get(i));
+      cache.put(tag, fetched.get(i), generation);
+    }
+    return returnValues;
+  }
+
+  /**
+   * Converts a value as stored on the server into the value passed to
+   * {@link #GotValue(String, Object)}.
+   *
+   * @param returnValue  the stored JSON text, or null if the tag is not present
+   * @param valueIfTagNotThere  the value to use if the tag is not present
+   * @return  the JSON text to pass to GotValue
+   */
+  private String toGotValue(String returnValue, Object valueIfTagNotThere) throws JSONException {
+    if (returnValue == null) {
+      if (DEBUG) {
+        Log.d(CloudDB.LOG_TAG,"Value retrieved is null");
+      }
+      return JsonUtil.getJsonRepresentation(valueIfTagNotThere);
+    }
+    String val = JsonUtil.getJsonRepresentationIfValueFileName(form, returnValue);
+    return val != null ? val : returnValue;
+  }
+
+  /**
+   * `GetValues` asks `CloudDB` to get the values stored under each of the given tags, in a single
+   * request to the server. The {@link #GotValue(String, Object)} event will be run once for each
+   * tag, in order. If there is no value stored under a tag, the
+   * `valueIfTagNotThere`{:.variable.block} will be given for it.
+   *
+   * @param tags The list of tags whose values are to be retrieved.
+   * @param valueIfTagNotThere The value to pass to the event for tags that do not exist.
+   */
+  @SimpleFunction(description = "Get the Values for a list of tags in a single request. " +
+    "A GotValue event will fire for each tag, in order, when the values are looked up.")
+  public void GetValues(final YailList tags, final Object valueIfTagNotThere) {
+    checkProjectIDNotBlank();
+    final List<String> tagList = Arrays.asList(tags.toStringArray());
+    if (tagList.isEmpty()) {
+      return;
+    }
+    NetworkInfo networkInfo = cm.getActiveNetworkInfo();
+    boolean isConnected = networkInfo != null && networkInfo.isConnected();
+
+    if (!isConnected) {
+      // Off-line, so only the last values we know of, if any, can be given.
+      Map<String, String> cached = cacheValues
+          ? cache.getAll(tagList, true) : Collections.<String, String>emptyMap();
+      if (!cached.keySet().containsAll(tagList)) {
+        CloudDBError("Cannot fetch variables while off-line.");
+      }
+      postGotValues(tagList, cached, valueIfTagNotThere);
+      return;
+    }
+
+    background.submit(new Runnable() {
+        public void run() {
+          try {
+            postGotValues(tagList, readValues(tagList), valueIfTagNotThere);
+          } catch (NullPointerException e) {
+            CloudDBError("System Error getting tags " + tagList);
+            flushJedis(true);
+          } catch (JedisException e) {
+            Log.e(LOG_TAG, "Exception in GetValues", e);
+            CloudDBError(e.getMessage());
+            flushJedis(true);
+          }
+        }
+      });
+  }
+
+  /**
+   * Runs {@link #GotValue(String, Object)} on the UI thread for each of the given tags that
+   * has a value in {@code returnValues}.
+   */
+  private void postGotValues(List<String> tags, Map<String, String> returnValues,
+      Object valueIfTagNotThere) {
+    final List<String> gotTags = new ArrayList<String>();
+    final List<String> gotValues = new ArrayList<String>();
+    for (String tag : tags) {
+      if (returnValues.containsKey(tag)) {
+        try {
+          gotValues.add(toGotValue(returnValues.get(tag), valueIfTagNotThere));
+          gotTags.add(tag);
+        } catch (JSONException e) {
+          CloudDBError("JSON conversion error for " + tag);
+        }
+      }
+    }
+    androidUIHandler.post(new Runnable() {
+        public void run() {
+          for (int i = 0; i < gotTags.size(); i++) {
+            GotValue(gotTags.get(i), gotValues.get(i));
+          }
+        }
+      });
+  }
+
   /**
    * Returns `true`{:.logic.block} if we are on the network and will likely be able to connect to
    * the `CloudDB` server.
@@ -922,6 +1092,7 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
     checkProjectIDNotBlank();
 
     final String key = tag;
+    cache.invalidate(tag);
 
     background.submit(new Runnable() {
         public void run() {
@@ -980,6 +1151,7 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
 
     final String item = (String) itemObject;
     final String key = tag;
+    cache.invalidate(tag);
 
     background.submit(new Runnable() {
         public void run() {
@@ -1031,6 +1203,17 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
     EventDispatcher.dispatchEvent(this, "GotValue", tag, value);
   }
 
+  // Deletes a tag and publishes the deletion as a change with no values, which
+  // listeners take to mean that the tag is no longer present.
+  private static final String CLEAR_SCRIPT =
+      "local key = KEYS[1];" +
+      "local project = ARGV[1];" +
+      "local deleted = redis.call('del', project .. \":\" .. key);" +
+      "redis.call(\"publish\", project, \"[\" .. cjson.encode(key) .. \",[]]\");" +
+      "return deleted;";
+
+  private static final String CLEAR_SCRIPT_SHA1 = "baa0c641996bdfa36c5c19d1de264592622e13e2";
+
   /**
    * Remove the tag from CloudDB.
    *
@@ -1042,11 +1225,11 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
   @SimpleFunction(description = "Remove the tag from CloudDB.")
   public void ClearTag(final String tag) {
     checkProjectIDNotBlank();
+    cache.invalidate(tag);
     background.submit(new Runnable() {
         public void run() {
           try {
-            Jedis jedis = getJedis();
-            jedis.del(projectID + ":" + tag);
+            jEval(CLEAR_SCRIPT, CLEAR_SCRIPT_SHA1, 1, tag, projectID);
             // Notify all the Data Source observers of the change
             notifyDataObservers(tag, null);
             UpdateDone(tag, "ClearTag");
@@ -1350,6 +1533,10 @@ public class CloudDB extends AndroidNonvisibleComponent implements Component,
     return background;
   }
 
+  public CloudDBCache getCache() {
+    return cache;
+  }
+
   public Object jEval(String script, String scriptsha1, int argcount, String... args) throws JedisException {
     Jedis jedis = getJedis();
     try {
@@ -19,10 +19,16 @@ import com.google.appinventor.components.common.PropertyTypeConstants;
 import com.google.appinventor.components.common.YaVersion;
 
 import com.google.appinventor.components.runtime.util.ChartDataSourceUtil;
+import com.google.appinventor.components.runtime.util.CsvTable;
 import com.google.appinventor.components.runtime.util.CsvUtil;
+import com.google.appinventor.components.runtime.util.IOUtils;
 import com.google.appinventor.components.runtime.util.JsonUtil;
 import com.google.appinventor.components.runtime.util.YailList;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
 import java.util.ArrayList;
 
 import java.util.concurrent.Callable;
@@ -54,6 +60,8 @@ import org.json.JSONException;
 @SimpleObject
 public class DataFile extends FileBase implements DataSource<YailList, Future<YailList>> {
 
+  // For CSV files, the rows and columns are built from the table when first asked for
+  private CsvTable table;
   private YailList rows;
   private YailList columns;
   private YailList columnNames; // Elements of the first column
@@ -86,6 +94,9 @@ public class DataFile extends FileBase implements DataSource<YailList, Future<Ya
     return getYailListPropertyHelper(new Callable<YailList>() {
       @Override
       public YailList call() {
+        if (rows == null) {
+          rows = table.getRows();
+        }
         return rows;
       }
     });
@@ -103,6 +114,9 @@ public class DataFile extends FileBase implements DataSource<YailList, Future<Ya
     return getYailListPropertyHelper(new Callable<YailList>() {
       @Override
       public YailList call() {
+        if (columns == null) {
+          columns = table.getColumns();
+        }
         return columns;
       }
     });
@@ -217,9 +231,37 @@ public class DataFile extends FileBase implements DataSource<YailList, Future<Ya
       return new YailList();
     }
 
+    if (columns == null) {
+      // Build only the column asked for
+      return table.getColumn(index);
+    }
+
     return (YailList) columns.getObject(index);
   }
 
+  @Override
+  protected void afterRead(InputStreamReader reader) throws IOException {
+    BufferedReader in = new BufferedReader(reader);
+    in.mark(1);
+    int first = in.read();
+    in.reset();
+    if (first == '{') {
+      // JSON is parsed as a whole
+      afterRead(IOUtils.normalizeNewLines(IOUtils.readReader(in)));
+      return;
+    }
+    try {
+      // Parse CSV as it is read, storing its values by column
+      CsvTable result = CsvUtil.readCsvTable(in);
+      table = result;
+      rows = null;
+      columns = null;
+      columnNames = result.getColumnNames();
+    } catch (Exception e) {
+      Log.e(this.getClass().getName(), "Unable to parse DataFile",  e);
+    }
+  }
+
   @Override
   protected void afterRead(final String result) {
     try {
@@ -238,10 +280,12 @@ public class DataFile extends FileBase implements DataSource<YailList, Future<Ya
 
           // Construct row lists from columns
           rows = ChartDataSourceUtil.getTranspose(columns);
+          table = null;
         } catch (JSONException e) {
           // JSON parsing failed; Fallback to CSV
           rows = CsvUtil.fromCsvTable(result);
           columns = ChartDataSourceUtil.getTranspose(rows);
+          table = null;
         }
       } else { // Assume CSV otherwise
         // Parse rows from the result
@@ -249,6 +293,7 @@ public class DataFile extends FileBase implements DataSource<YailList, Future<Ya
 
         // Construct column lists from rows
         columns = ChartDataSourceUtil.getTranspose(rows);
+        table = null;
       }
 
       // If rows size is non-zero, set column names to first row. Otherwise,
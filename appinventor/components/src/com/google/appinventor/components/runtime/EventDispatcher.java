@@ -8,10 +8,12 @@ package com.google.appinventor.components.runtime;
 
 import android.util.Log;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Dispatches events to component event handlers.
@@ -56,6 +58,36 @@ public class EventDispatcher {
     }
   }
 
+  /*
+   * A weak reference to a component that compares components by identity, so that it can be the
+   * key of a concurrent map without keeping the component alive.
+   */
+  private static final class ComponentKey extends WeakReference<Component> {
+    private final int hash;
+
+    private ComponentKey(Component component, ReferenceQueue<Component> queue) {
+      super(component, queue);
+      hash = System.identityHashCode(component);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ComponentKey)) {
+        return false;
+      }
+      Component component = get();
+      return component != null && component == ((ComponentKey) o).get();
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
   /*
    * Each EventRegistry is associated with one dispatchDelegate.
    * It contains all the event closures for a single form.
@@ -63,22 +95,50 @@ public class EventDispatcher {
   private static final class EventRegistry {
     private final HandlesEventDispatching dispatchDelegate;
 
-    // Mapping of event names to a set of event closures.
-    // Note that by using a Set here, we'll only have one closure corresponding to a
+    // Mapping of event names to the event closures for that event, keyed by component id.
+    // Note that by using a Map here, we'll only have one closure corresponding to a
     // given componentId-eventName.  We do not support invoking multiple handlers for a
     // single event.
-    private final HashMap<String, Set<EventClosure>> eventClosuresMap =
-        new HashMap<String, Set<EventClosure>>();
+    private final ConcurrentMap<String, ConcurrentMap<String, EventClosure>> eventClosuresMap =
+        new ConcurrentHashMap<String, ConcurrentMap<String, EventClosure>>();
+
+    // The id whose event handler last accepted an event from each component. Only the dispatch
+    // delegate knows which component object a component id refers to, so this is filled in as
+    // events are dispatched. The keys are weak so that components can be collected, and the map
+    // is cleared whenever an event closure is registered or unregistered.
+    private final ConcurrentMap<ComponentKey, String> componentIds =
+        new ConcurrentHashMap<ComponentKey, String>();
+
+    // Keys of collected components, removed from componentIds when an id is stored
+    private final ReferenceQueue<Component> collectedComponents = new ReferenceQueue<Component>();
 
     EventRegistry(HandlesEventDispatching dispatchDelegate) {
       this.dispatchDelegate = dispatchDelegate;
     }
+
+    private void clear() {
+      eventClosuresMap.clear();
+      componentIds.clear();
+    }
+
+    private String getComponentId(Component component) {
+      return componentIds.get(new ComponentKey(component, null));
+    }
+
+    private void putComponentId(Component component, String componentId) {
+      Reference<? extends Component> collected;
+      while ((collected = collectedComponents.poll()) != null) {
+        componentIds.remove(collected);
+      }
+      componentIds.put(new ComponentKey(component, collectedComponents), componentId);
+    }
   }
 
   private static final boolean DEBUG = false;
 
-  private static final Map<HandlesEventDispatching, EventRegistry>
-      mapDispatchDelegateToEventRegistry = new HashMap<HandlesEventDispatching, EventRegistry>();
+  private static final ConcurrentMap<HandlesEventDispatching, EventRegistry>
+      mapDispatchDelegateToEventRegistry =
+      new ConcurrentHashMap<HandlesEventDispatching, EventRegistry>();
 
   private EventDispatcher() {
   }
@@ -86,8 +146,11 @@ public class EventDispatcher {
   private static EventRegistry getEventRegistry(HandlesEventDispatching dispatchDelegate) {
     EventRegistry er = mapDispatchDelegateToEventRegistry.get(dispatchDelegate);
     if (er == null) {
-      er = new EventRegistry(dispatchDelegate);
-      mapDispatchDelegateToEventRegistry.put(dispatchDelegate, er);
+      EventRegistry newRegistry = new EventRegistry(dispatchDelegate);
+      er = mapDispatchDelegateToEventRegistry.putIfAbsent(dispatchDelegate, newRegistry);
+      if (er == null) {
+        er = newRegistry;
+      }
     }
     return er;
   }
@@ -106,14 +169,20 @@ public class EventDispatcher {
    * @param eventName  name of event
    */
   // Don't delete this method. It's called from runtime.scm.
-  public static synchronized void registerEventForDelegation(HandlesEventDispatching dispatchDelegate,
+  public static void registerEventForDelegation(HandlesEventDispatching dispatchDelegate,
                                                 String componentId, String eventName) {
     EventRegistry er = getEventRegistry(dispatchDelegate);
-    Set<EventClosure> eventClosures = er.eventClosuresMap.get(eventName);
-    Set<EventClosure> newEventClosures = eventClosures == null
-        ? new HashSet<EventClosure>() : new HashSet<>(eventClosures);
-    newEventClosures.add(new EventClosure(componentId, eventName));
-    er.eventClosuresMap.put(eventName, newEventClosures);
+    ConcurrentMap<String, EventClosure> eventClosures = er.eventClosuresMap.get(eventName);
+    if (eventClosures == null) {
+      ConcurrentMap<String, EventClosure> newEventClosures =
+          new ConcurrentHashMap<String, EventClosure>();
+      eventClosures = er.eventClosuresMap.putIfAbsent(eventName, newEventClosures);
+      if (eventClosures == null) {
+        eventClosures = newEventClosures;
+      }
+    }
+    eventClosures.putIfAbsent(componentId, new EventClosure(componentId, eventName));
+    er.componentIds.clear();
 
     if (DEBUG) {
       Log.i("EventDispatcher", "Registered event closure for " +
@@ -130,25 +199,19 @@ public class EventDispatcher {
    * @param eventName  name of event
    */
   // Don't delete this method. It's called from runtime.scm.
-  public static synchronized void unregisterEventForDelegation(HandlesEventDispatching dispatchDelegate,
+  public static void unregisterEventForDelegation(HandlesEventDispatching dispatchDelegate,
                                                   String componentId, String eventName) {
     EventRegistry er = getEventRegistry(dispatchDelegate);
-    Set<EventClosure> eventClosures = er.eventClosuresMap.get(eventName);
-    if (eventClosures == null || eventClosures.isEmpty()) {
+    ConcurrentMap<String, EventClosure> eventClosures = er.eventClosuresMap.get(eventName);
+    if (eventClosures == null) {
       return;
     }
-    Set<EventClosure> updated = new HashSet<>();
-    for (EventClosure eventClosure : eventClosures) {
-      if (eventClosure.componentId.equals(componentId)) {
-        if (DEBUG) {
-          Log.i("EventDispatcher", "Deleting event closure for " +
-              eventClosure.componentId + "." + eventClosure.eventName);
-        }
-      } else {
-        updated.add(eventClosure);
-      }
+    EventClosure eventClosure = eventClosures.remove(componentId);
+    er.componentIds.clear();
+    if (DEBUG && eventClosure != null) {
+      Log.i("EventDispatcher", "Deleting event closure for " +
+          eventClosure.componentId + "." + eventClosure.eventName);
     }
-    er.eventClosuresMap.put(eventName, updated);
   }
 
   /**
@@ -156,9 +219,9 @@ public class EventDispatcher {
    * {@link EventDispatcher#registerEventForDelegation}.
    */
   // Don't delete this method. It's called from runtime.scm.
-  public static synchronized void unregisterAllEventsForDelegation() {
+  public static void unregisterAllEventsForDelegation() {
     for (EventRegistry er : mapDispatchDelegateToEventRegistry.values()) {
-      er.eventClosuresMap.clear();
+      er.clear();
     }
   }
 
@@ -169,13 +232,35 @@ public class EventDispatcher {
    *
    * Called when a Form's onDestroy method is called.
    */
-  public static synchronized void removeDispatchDelegate(HandlesEventDispatching dispatchDelegate) {
+  public static void removeDispatchDelegate(HandlesEventDispatching dispatchDelegate) {
     EventRegistry er = removeEventRegistry(dispatchDelegate);
     if (er != null) {
-      er.eventClosuresMap.clear();
+      er.clear();
     }
   }
 
+  /**
+   * Returns whether an event handler may be registered for the given component's event. Only the
+   * dispatch delegate knows which component an event handler belongs to, so until an event from
+   * the component has been handled, any handler for an event of that name counts. Handlers for
+   * events of any component are not considered.
+   *
+   * @param component  the component that would raise the event
+   * @param eventName  name of the event
+   */
+  public static boolean hasEventHandler(Component component, String eventName) {
+    EventRegistry er = mapDispatchDelegateToEventRegistry.get(component.getDispatchDelegate());
+    if (er == null) {
+      return false;
+    }
+    Map<String, EventClosure> eventClosures = er.eventClosuresMap.get(eventName);
+    if (eventClosures == null || eventClosures.isEmpty()) {
+      return false;
+    }
+    String componentId = er.getComponentId(component);
+    return componentId == null || eventClosures.containsKey(componentId);
+  }
+
   /**
    * Dispatches an event based on its name to any registered handlers.
    *
@@ -183,7 +268,7 @@ public class EventDispatcher {
    * @param eventName  name of event being raised
    * @param args  arguments to the event handler
    */
-  public static synchronized boolean dispatchEvent(Component component, String eventName, Object...args) {
+  public static boolean dispatchEvent(Component component, String eventName, Object...args) {
     return Boolean.TRUE == dispatchFallibleEvent(component, eventName, args);
   }
 
@@ -196,7 +281,7 @@ public class EventDispatcher {
    * @return `Boolean.TRUE` if the event was dispatched, `Boolean.FALSE` if no event handler was
    * found, or an Exception if the event handler threw an Exception
    */
-  public static synchronized Object dispatchFallibleEvent(Component component, String eventName, Object... args) {
+  public static Object dispatchFallibleEvent(Component component, String eventName, Object... args) {
     if (DEBUG) {
       Log.i("EventDispatcher", "Trying to dispatch event " + eventName);
     }
@@ -206,9 +291,9 @@ public class EventDispatcher {
       HandlesEventDispatching dispatchDelegate = component.getDispatchDelegate();
       if (dispatchDelegate.canDispatchEvent(component, eventName)) {
         EventRegistry er = getEventRegistry(dispatchDelegate);
-        Set<EventClosure> eventClosures = er.eventClosuresMap.get(eventName);
-        if (eventClosures != null && eventClosures.size() > 0) {
-          dispatched = delegateDispatchEvent(dispatchDelegate, eventClosures, component, args);
+        Map<String, EventClosure> eventClosures = er.eventClosuresMap.get(eventName);
+        if (eventClosures != null && !eventClosures.isEmpty()) {
+          dispatched = delegateDispatchEvent(er, eventClosures, component, eventName, args);
         }
         dispatchDelegate.dispatchGenericEvent(component, eventName, !dispatched, args);
       }
@@ -221,19 +306,36 @@ public class EventDispatcher {
   /**
    * Delegates the dispatch of an event to the dispatch delegate.
    *
-   * @param eventClosures set of event closures matching the event name
+   * @param er the event registry of the dispatch delegate
+   * @param eventClosures event closures matching the event name, keyed by component id
    * @param component the component that generated the event
+   * @param eventName name of event being raised
    * @param args  arguments to event handler
    */
-  private static synchronized boolean delegateDispatchEvent(HandlesEventDispatching dispatchDelegate,
-                                               Set<EventClosure> eventClosures,
-                                               Component component, Object... args) {
-    // The event closures set will contain all event closures matching the event name.
+  private static boolean delegateDispatchEvent(EventRegistry er,
+                                               Map<String, EventClosure> eventClosures,
+                                               Component component, String eventName,
+                                               Object... args) {
     // We depend on the delegate's dispatchEvent method to check the registered event closure and
     // only dispatch the event if the registered component matches the component that generated the
-    // event.  This should only be true for one (or zero) of the closures.
+    // event.  This should only be true for one (or zero) of the closures, so once the component's
+    // id is known its closure is tried first.  The delegate also returns false when a handler
+    // fails, so only ids that handled an event are remembered.
+    HandlesEventDispatching dispatchDelegate = er.dispatchDelegate;
+    String componentId = er.getComponentId(component);
+    if (componentId != null) {
+      if (!eventClosures.containsKey(componentId)) {
+        return false;
+      }
+      if (dispatchDelegate.dispatchEvent(component, componentId, eventName, args)) {
+        return true;
+      }
+    }
     boolean dispatched = false;
-    for (EventClosure eventClosure : eventClosures) {
+    for (EventClosure eventClosure : eventClosures.values()) {
+      if (eventClosure.componentId.equals(componentId)) {
+        continue;
+      }
       if (dispatchDelegate.dispatchEvent(component,
                                          eventClosure.componentId,
                                          eventClosure.eventName,
@@ -242,6 +344,9 @@ public class EventDispatcher {
           Log.i("EventDispatcher", "Successfully dispatched event " +
               eventClosure.componentId + "." + eventClosure.eventName);
         }
+        if (!dispatched) {
+          er.putComponentId(component, eventClosure.componentId);
+        }
         dispatched = true;  // break here or keep iterating through loop?
       }
     }
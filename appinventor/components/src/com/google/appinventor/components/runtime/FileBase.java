@@ -24,6 +24,7 @@ import com.google.appinventor.components.runtime.util.IOUtils;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStreamReader;
 
 /**
  * Base class for File-based components.
@@ -108,6 +109,12 @@ public abstract class FileBase extends AndroidNonvisibleComponent implements Com
           return true;
         }
 
+        @Override
+        protected boolean process(InputStreamReader reader) throws IOException {
+          afterRead(reader);
+          return true;
+        }
+
         @Override
         public void onError(IOException e) {
           if (e instanceof FileNotFoundException) {
@@ -133,4 +140,17 @@ public abstract class FileBase extends AndroidNonvisibleComponent implements Com
    * @param result  the contents of the file that was read
    */
   protected abstract void afterRead(String result);
+
+  /**
+   * Reads the contents of the specified file from a reader. By default the
+   * whole file is read and passed to {@link #afterRead(String)}. Subclasses
+   * that can parse the contents as they are read override this instead, so
+   * that a large file is never held in memory as a single String.
+   *
+   * @param reader  the reader of the file's contents
+   * @throws IOException if the file cannot be read
+   */
+  protected void afterRead(InputStreamReader reader) throws IOException {
+    afterRead(IOUtils.normalizeNewLines(IOUtils.readReader(reader)));
+  }
 }
@@ -14,6 +14,8 @@ import com.github.mikephil.charting.utils.EntryXComparator;
 
 import com.google.appinventor.components.common.ComponentConstants;
 import com.google.appinventor.components.common.LineType;
+import com.google.appinventor.components.runtime.util.Downsampler;
+import com.google.appinventor.components.runtime.util.RingBufferList;
 import com.google.appinventor.components.runtime.util.YailList;
 
 import java.util.ArrayList;
@@ -91,6 +93,64 @@ public abstract class LineChartBaseDataModel<V extends LineChartViewBase<V>>
     }
   }
 
+  @Override
+  protected void removeOldestTimeEntry() {
+    super.removeOldestTimeEntry();
+
+    // The circle colors are kept per entry, so the oldest color goes
+    // with the oldest entry.
+    if (dataset instanceof LineDataSet) {
+      List<Integer> colors = ((LineDataSet) dataset).getCircleColors();
+      if (colors.size() > 1) {
+        if (!(colors instanceof RingBufferList)) {
+          colors = new RingBufferList<>(colors);
+          ((LineDataSet) dataset).setCircleColors(colors);
+        }
+        colors.remove(0);
+      }
+    }
+  }
+
+  @Override
+  public List<Entry> getEntriesToDraw(List<Entry> entries, int maximumEntries) {
+    // Entries highlighted in their own color have to be drawn, so
+    // only series drawn in a single color are downsampled.
+    if (entries.size() <= maximumEntries || !(dataset instanceof LineDataSet)
+        || hasMultipleCircleColors()) {
+      return entries;
+    }
+
+    int count = entries.size();
+    float[] xValues = new float[count];
+    float[] yValues = new float[count];
+    for (int i = 0; i < count; ++i) {
+      xValues[i] = entries.get(i).getX();
+      yValues[i] = entries.get(i).getY();
+    }
+
+    int[] kept = Downsampler.largestTriangleThreeBuckets(xValues, yValues, count,
+        maximumEntries);
+    if (kept == null) {
+      return entries;
+    }
+
+    List<Entry> result = new ArrayList<>(kept.length);
+    for (int index : kept) {
+      result.add(entries.get(index));
+    }
+    return result;
+  }
+
+  private boolean hasMultipleCircleColors() {
+    List<Integer> colors = ((LineDataSet) dataset).getCircleColors();
+    for (int i = 1; i < colors.size(); ++i) {
+      if (!colors.get(i).equals(colors.get(0))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public void setColor(int argb) {
     super.setColor(argb);
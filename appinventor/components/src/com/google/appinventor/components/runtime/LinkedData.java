@@ -19,9 +19,11 @@ import com.google.appinventor.components.common.ComponentCategory;
 import com.google.appinventor.components.common.PropertyTypeConstants;
 import com.google.appinventor.components.common.YaVersion;
 import com.google.appinventor.components.runtime.util.AsynchUtil;
+import com.google.appinventor.components.runtime.util.ErrorMessages;
 import com.google.appinventor.components.runtime.util.IOUtils;
 import com.google.appinventor.components.runtime.util.MediaUtil;
 import com.google.appinventor.components.runtime.util.RdfUtil;
+import com.google.appinventor.components.runtime.util.SQLiteGraph;
 import com.google.appinventor.components.runtime.util.YailList;
 import com.hp.hpl.jena.query.ResultSet;
 import com.hp.hpl.jena.query.ResultSetFactory;
@@ -29,6 +31,7 @@ import com.hp.hpl.jena.query.ResultSetFormatter;
 import com.hp.hpl.jena.query.ResultSetRewindable;
 import com.hp.hpl.jena.rdf.model.Model;
 import com.hp.hpl.jena.rdf.model.ModelFactory;
+import com.hp.hpl.jena.sparql.engine.http.QueryEngineHTTP;
 import com.hp.hpl.jena.vocabulary.XSD;
 import java.io.ByteArrayOutputStream;
 import java.io.FileOutputStream;
@@ -51,7 +54,7 @@ import java.util.Set;
     "slf4j-android.jar," + "jena-iri.jar," + "jena-core.jar," +
     "jena-arq.jar," + "xml-apis.jar")
 public class LinkedData extends LinkedDataBase<Model> implements
-		Component {
+		Component, OnDestroyListener {
 
   /* constants for convenience */
   private static final String LOG_TAG = "LinkedData";
@@ -65,6 +68,18 @@ public class LinkedData extends LinkedDataBase<Model> implements
   /** endpointURL stores the URI of a SPARQL endpoint **/
   private String endpointURL;
 
+  /** resultsPageSize stores the number of solutions delivered per RetrievedResultsPage event **/
+  private int resultsPageSize = 0;
+
+  /** rawResults stores whether RetrievedRawResults is raised for a query **/
+  private boolean rawResults = false;
+
+  /** persistentStore stores the name of the on-device database backing the model **/
+  private String persistentStore = "";
+
+  /** graph is the on-device triple store backing the model, if any **/
+  private SQLiteGraph graph = null;
+
   public LinkedData(ComponentContainer<?> container) {
 	  super(container, ModelFactory.createDefaultModel());
 	  endpointURL = "http://dbpedia.org/sparql";
@@ -75,6 +90,7 @@ public class LinkedData extends LinkedDataBase<Model> implements
     model.setNsPrefix("geo", GEO_NS);
     model.setNsPrefix("skos", SKOS_NS);
     model.setNsPrefix("xsd", XSD.getURI());
+    form.registerForOnDestroy(this);
   }
 
   public void Initialize() {
@@ -111,10 +127,122 @@ public class LinkedData extends LinkedDataBase<Model> implements
 	  endpointURL = url;
   }
 
+  /**
+   * Returns the number of solutions delivered by each RetrievedResultsPage
+   * event, or 0 if results are delivered all at once.
+   *
+   * @return the number of solutions per page
+   */
+  @SimpleProperty(category = PropertyCategory.LINKED_DATA,
+      description = "<p>When greater than 0, the results of ExecuteSPARQLQuery "
+          + "are read from the endpoint as they arrive and delivered through "
+          + "the RetrievedResultsPage event in pages of at most this many "
+          + "solutions, instead of all at once through RetrievedResults. Use "
+          + "this for queries with large result sets.</p>")
+  public int ResultsPageSize() {
+    return resultsPageSize;
+  }
+
+  /**
+   * Specifies the number of solutions delivered by each RetrievedResultsPage
+   * event. A value of 0 delivers all solutions through RetrievedResults.
+   *
+   * @param size the number of solutions per page
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_INTEGER,
+      defaultValue = "0")
+  @SimpleProperty
+  public void ResultsPageSize(int size) {
+    if (size < 0) {
+      size = 0;
+    }
+    resultsPageSize = size;
+  }
+
+  /**
+   * Returns whether the RetrievedRawResults event is raised for queries.
+   *
+   * @return true if the raw results are reported, otherwise false
+   */
+  @SimpleProperty(category = PropertyCategory.LINKED_DATA,
+      description = "<p>If true, the RetrievedRawResults event is raised with "
+          + "the query results serialized as SPARQL JSON. This requires an "
+          + "additional copy of the result set and is not available when "
+          + "ResultsPageSize is greater than 0.</p>")
+  public boolean RawResults() {
+    return rawResults;
+  }
+
+  /**
+   * Specifies whether the RetrievedRawResults event is raised for queries.
+   *
+   * @param enabled true if the raw results should be reported
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN,
+      defaultValue = "False")
+  @SimpleProperty
+  public void RawResults(boolean enabled) {
+    rawResults = enabled;
+  }
+
+  /**
+   * Returns the name of the on-device database in which this component
+   * stores its triples, or the empty string if triples are kept in memory.
+   *
+   * @return the name of the persistent store
+   */
+  @SimpleProperty(category = PropertyCategory.LINKED_DATA,
+      description = "<p>The name of an on-device database in which the triples "
+          + "of this component are stored. Stored triples are indexed and "
+          + "remain available the next time the app starts without being read "
+          + "again. When empty, triples are kept in memory and are lost when "
+          + "the app closes.</p>")
+  public String PersistentStore() {
+    return persistentStore;
+  }
+
+  /**
+   * Specifies the name of the on-device database in which this component
+   * stores its triples. Triples held by the previous store are not copied
+   * into the new one.
+   *
+   * @param name the name of the persistent store, or the empty string to keep
+   *     triples in memory
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_STRING,
+      defaultValue = "")
+  @SimpleProperty
+  public void PersistentStore(String name) {
+    if (name.equals(persistentStore)) {
+      return;
+    }
+    Model newModel;
+    SQLiteGraph newGraph = null;
+    try {
+      if (name.length() == 0) {
+        newModel = ModelFactory.createDefaultModel();
+      } else {
+        newGraph = new SQLiteGraph(form, name);
+        newModel = ModelFactory.createModelForGraph(newGraph);
+      }
+    } catch (Exception e) {
+      Log.w(LOG_TAG, "Unable to open persistent store " + name, e);
+      form.dispatchErrorOccurredEvent(this, "PersistentStore",
+          ErrorMessages.ERROR_LINKED_DATA_STORE_UNAVAILABLE, name);
+      return;
+    }
+    newModel.setNsPrefixes(model.getNsPrefixMap());
+    closeStore();
+    model = newModel;
+    graph = newGraph;
+    persistentStore = name;
+  }
+
   /**
    * Execute a SPARQL query on the set EndpointURL of this Linked Data component.
    * Currently only supports SELECT queries, and converts all integer types into Long
-   * and decimal types into Double.
+   * and decimal types into Double. If ResultsPageSize is greater than 0, the
+   * solutions are delivered incrementally through RetrievedResultsPage.
    *
    * @param query Query text to execute
    */
@@ -127,6 +255,10 @@ public class LinkedData extends LinkedDataBase<Model> implements
   }
 
   private void executeQuery(String queryText) {
+    if ( resultsPageSize > 0 ) {
+      executePagedQuery(queryText, resultsPageSize);
+      return;
+    }
     try {
       ResultSet results = RdfUtil.executeSELECT( endpointURL, queryText );
       if ( results == null ) {
@@ -137,22 +269,59 @@ public class LinkedData extends LinkedDataBase<Model> implements
         });
         return;
       }
-      results = ResultSetFactory.copyResults( results );
-      ByteArrayOutputStream baos = new ByteArrayOutputStream();
-      ResultSetFormatter.outputAsJSON( baos, results );
-      final String jsonResults = baos.toString();
+      if ( rawResults ) {
+        results = ResultSetFactory.copyResults( results );
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ResultSetFormatter.outputAsJSON( baos, results );
+        final String jsonResults = baos.toString();
+        form.runOnUiThread(new Runnable() {
+          public void run() {
+            RetrievedRawResults("SELECT", jsonResults);
+          }
+        });
+        ((ResultSetRewindable)results).reset();
+      }
+      final YailList solutions = RdfUtil.resultSetUsingYailDictionary( results );
       form.runOnUiThread(new Runnable() {
         public void run() {
-          RetrievedRawResults("SELECT", jsonResults);
+          RetrievedResults("SELECT", solutions);
         }
       });
-      ((ResultSetRewindable)results).reset();
-      final YailList solutions = RdfUtil.resultSetUsingYailDictionary( results );
+    } catch (final Exception e ) {
+      Log.w(LOG_TAG, e);
+      Log.w(LOG_TAG, queryText);
       form.runOnUiThread(new Runnable() {
         public void run() {
-          RetrievedResults("SELECT", solutions);
+          FailedToExecuteQuery(e.getMessage());
         }
       });
+    }
+  }
+
+  private void executePagedQuery(String queryText, int pageSize) {
+    QueryEngineHTTP execution = null;
+    try {
+      execution = RdfUtil.createStreamingSELECT( endpointURL, queryText );
+      if ( execution == null ) {
+        form.runOnUiThread(new Runnable() {
+          public void run() {
+            UnsupportedQueryType();
+          }
+        });
+        return;
+      }
+      ResultSet results = execution.execSelect();
+      int page = 0;
+      do {
+        final int pageNumber = ++page;
+        final YailList solutions = RdfUtil.resultSetPageUsingYailDictionary( results, pageSize );
+        final boolean hasMore = results.hasNext();
+        form.runOnUiThread(new Runnable() {
+          public void run() {
+            RetrievedResultsPage("SELECT", pageNumber, solutions, hasMore);
+          }
+        });
+      } while ( results.hasNext() );
     } catch (final Exception e ) {
       Log.w(LOG_TAG, e);
       Log.w(LOG_TAG, queryText);
@@ -161,6 +330,10 @@ public class LinkedData extends LinkedDataBase<Model> implements
           FailedToExecuteQuery(e.getMessage());
         }
       });
+    } finally {
+      if ( execution != null ) {
+        execution.close();
+      }
     }
   }
 
@@ -190,6 +363,21 @@ public class LinkedData extends LinkedDataBase<Model> implements
     EventDispatcher.dispatchEvent(this, "RetrievedResults", type, bindings);
   }
 
+  /**
+   * This event is raised for each page of solutions read from the endpoint
+   * when ResultsPageSize is greater than 0. Pages are numbered from 1 and
+   * the last page of a query is raised with hasMore set to false.
+   *
+   * @param type Type of query executed, e.g. SELECT
+   * @param page The number of this page, starting at 1
+   * @param bindings A list of at most ResultsPageSize bindings satisfying the SPARQL query
+   * @param hasMore true if more pages will follow, otherwise false
+   */
+  @SimpleEvent
+  public void RetrievedResultsPage(String type, int page, YailList bindings, boolean hasMore) {
+    EventDispatcher.dispatchEvent(this, "RetrievedResultsPage", type, page, bindings, hasMore);
+  }
+
   /**
    * Event raised when a SPARQL query to be executed is not supported
    * by the Linked Data component.
@@ -235,7 +423,7 @@ public class LinkedData extends LinkedDataBase<Model> implements
         type = "TURTLE";
       }
       input = MediaUtil.openMedia(form, path);
-      model.read(input, path, type);
+      readModel(input, path, type);
     } catch(Exception e) {
       Log.w(LOG_TAG, "Unable to read model.", e);
       return false;
@@ -676,6 +864,18 @@ public class LinkedData extends LinkedDataBase<Model> implements
     EventDispatcher.dispatchEvent(this, "FinishedDeletingDataFromLocal");
   }
 
+  @Override
+  public void onDestroy() {
+    closeStore();
+  }
+
+  private void closeStore() {
+    if (graph != null) {
+      graph.close();
+      graph = null;
+    }
+  }
+
   /**
    * Returns the contents of this LinkedData component as a string. Useful
    * for debugging purposes.
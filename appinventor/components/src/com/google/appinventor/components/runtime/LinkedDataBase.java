@@ -11,6 +11,7 @@ import com.hp.hpl.jena.rdf.model.ResourceFactory;
 import com.hp.hpl.jena.rdf.model.Statement;
 import com.hp.hpl.jena.rdf.model.StmtIterator;
 import com.hp.hpl.jena.vocabulary.RDF;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.ArrayList;
@@ -45,13 +46,7 @@ public class LinkedDataBase<T extends Model> extends AndroidNonvisibleComponent
   public List<List<String>> GetStatements(Object subject, Object predicate, Object object) {
     List<List<String>> result = new ArrayList<>();
     for (StmtIterator it = statementIterator(subject, predicate, object); it.hasNext(); ) {
-      Statement st = it.next();
-      String value = st.getObject().isLiteral() ? st.getObject().asLiteral().getString() :
-          st.getObject().asResource().getURI();
-      result.add(Arrays.asList(
-          st.getSubject().toString(),
-          st.getPredicate().toString(),
-          value));
+      result.add(statementAsList(it.next()));
     }
     return result;
   }
@@ -71,10 +66,50 @@ public class LinkedDataBase<T extends Model> extends AndroidNonvisibleComponent
     return result;
   }
 
+  /**
+   * Converts a statement into a (subject, predicate, object) list of strings. Literal objects are
+   * represented by their lexical form.
+   *
+   * @param st the statement to convert
+   * @return the statement as a list of three strings
+   */
+  protected static List<String> statementAsList(Statement st) {
+    String value = st.getObject().isLiteral() ? st.getObject().asLiteral().getString() :
+        st.getObject().asResource().getURI();
+    return Arrays.asList(
+        st.getSubject().toString(),
+        st.getPredicate().toString(),
+        value);
+  }
+
   protected Model getModel() {
     return model;
   }
 
+  /**
+   * Reads the contents of the stream into the model. Stores that support
+   * transactions receive the whole document in a single transaction rather
+   * than committing every triple separately.
+   *
+   * @param input the stream to read
+   * @param base the base URI of the document
+   * @param lang the serialization of the document
+   */
+  protected void readModel(InputStream input, String base, String lang) {
+    if (model.supportsTransactions()) {
+      model.begin();
+      try {
+        model.read(input, base, lang);
+        model.commit();
+      } catch (RuntimeException e) {
+        model.abort();
+        throw e;
+      }
+    } else {
+      model.read(input, base, lang);
+    }
+  }
+
   protected StmtIterator statementIterator(Object subject, Object predicate, Object object) {
     Resource s = null;
     Property p = null;
@@ -118,7 +153,7 @@ public class LinkedDataBase<T extends Model> extends AndroidNonvisibleComponent
           } else if (contentType.startsWith("text/n3")) {
             lang = "N3";
           }
-          model.read(conn.getInputStream(), url, lang);
+          readModel(conn.getInputStream(), url, lang);
           return true;
         }
       });
@@ -35,6 +35,7 @@ import com.google.appinventor.components.runtime.LocationSensor.LocationSensorLi
 
 import com.google.appinventor.components.runtime.util.AsynchUtil;
 import com.google.appinventor.components.runtime.util.ErrorMessages;
+import com.google.appinventor.components.runtime.util.FeatureIndex;
 import com.google.appinventor.components.runtime.util.FileUtil;
 import com.google.appinventor.components.runtime.util.FileWriteOperation;
 import com.google.appinventor.components.runtime.util.GeoJSONUtil;
@@ -57,7 +58,9 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.locationtech.jts.geom.Envelope;
 import org.osmdroid.util.BoundingBox;
+import org.osmdroid.util.GeoPoint;
 
 /**
  * A two-dimensional container that renders map tiles in the background and allows for multiple
@@ -99,6 +102,7 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
   private static final String ERROR_INVALID_NUMBER = "%s is not a valid number.";
   private static final String ERROR_LATITUDE_OUT_OF_BOUNDS = "Latitude %f is out of bounds.";
   private static final String ERROR_LONGITUDE_OUT_OF_BOUNDS = "Longitude %f is out of bounds.";
+  private static final int BYTES_PER_MEGABYTE = 1024 * 1024;
 
   /**
    * <p>Platform-specific map controller returned by {@link MapFactory}.</p>
@@ -107,6 +111,23 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
 
   private LocationSensor sensor = null;
 
+  /**
+   * <p>Spatial index over all of the features on the map, including those in feature
+   * collections.</p>
+   */
+  private final FeatureIndex<MapFeature> featureIndex =
+      new FeatureIndex<MapFeature>(new FeatureIndex.Measure<MapFeature>() {
+        @Override
+        public Envelope getEnvelope(MapFeature feature) {
+          return GeometryUtil.getEnvelope(feature);
+        }
+
+        @Override
+        public double distanceTo(MapFeature feature, double latitude, double longitude) {
+          return GeometryUtil.distanceBetweenEdges(feature, new GeoPoint(latitude, longitude));
+        }
+      });
+
   /**
    * Construct a new map to be rendered within the given container.
    *
@@ -129,6 +150,7 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
     ShowZoom(false);
     EnableRotation(false);
     ShowScale(false);
+    ClusterMarkers(false);
   }
 
   @Override
@@ -532,6 +554,27 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
     return mapController.isScaleVisible();
   }
 
+  /**
+   * Groups `Marker`s that would be drawn close together into a badge showing how many markers it
+   * holds. Tapping a badge zooms in on its markers. The groups are recomputed whenever the zoom
+   * level changes, so markers separate as the map is zoomed in. Markers that are not grouped are
+   * drawn and respond to events as usual. Enable this for maps with many markers, since only the
+   * badges and the ungrouped markers near the visible area are drawn.
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN,
+      defaultValue = "False")
+  @SimpleProperty
+  public void ClusterMarkers(boolean cluster) {
+    mapController.setMarkerClusteringEnabled(cluster);
+  }
+
+  @SimpleProperty(category = PropertyCategory.APPEARANCE,
+      description = "Groups markers that are drawn close together into badges that expand " +
+          "when tapped.")
+  public boolean ClusterMarkers() {
+    return mapController.isMarkerClusteringEnabled();
+  }
+
   /**
    * Specifies the units used for the scale overlay. 1 (the default) will give metric units
    * (km, m) whereas 2 will give imperial units (mi, ft).
@@ -583,6 +626,36 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
     return sensor == null ? -999 : sensor.Longitude();
   }
 
+  /**
+   * Specifies the largest amount of storage, in megabytes, used by map tiles saved with
+   * {@link #SaveOfflineTiles(double, double, double, double, int, int)}. When the limit is
+   * reached, the tiles that have gone unused the longest are removed first, the next time a tile
+   * is saved. The saved tiles are shared by all of the `Map`s in the app.
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_INTEGER,
+      defaultValue = "200")
+  @SimpleProperty
+  public void OfflineTileLimit(int megabytes) {
+    mapController.setOfflineTileLimit((long) megabytes * BYTES_PER_MEGABYTE);
+  }
+
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR,
+      description = "The largest amount of storage, in megabytes, used by tiles saved for " +
+          "offline use.")
+  public int OfflineTileLimit() {
+    return (int) (mapController.getOfflineTileLimit() / BYTES_PER_MEGABYTE);
+  }
+
+  /**
+   * Returns the amount of storage, in megabytes, currently used by map tiles saved for offline
+   * use.
+   */
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR,
+      description = "The amount of storage, in megabytes, used by tiles saved for offline use.")
+  public double OfflineTileSize() {
+    return (double) mapController.getOfflineTileSize() / BYTES_PER_MEGABYTE;
+  }
+
   @SimpleFunction(description = "Pans the map center to the given latitude and longitude and " +
       "adjust the zoom level to the specified zoom.")
   public void PanTo(double latitude, double longitude, int zoom) {
@@ -646,6 +719,55 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
     }
   }
 
+  /**
+   * Downloads the map tiles covering the box bounded by the given `north`, `west`, `south`, and
+   * `east` edges at every zoom level from `minZoom` to `maxZoom` and keeps them on the device.
+   * Saved tiles are drawn before any others, so the area can be viewed without a network
+   * connection. The download happens in the background; progress is reported by the
+   * {@link #OfflineTilesProgress(int, int)} event and completion by the
+   * {@link #OfflineTilesSaved(int, int)} event.
+   *
+   *   Each zoom level needs about four times as many tiles as the one before it, so large areas
+   * should only be saved at low zoom levels. At most 5000 tiles are saved by each call.
+   *
+   * @param north The latitude of the northern edge of the area
+   * @param west The longitude of the western edge of the area
+   * @param south The latitude of the southern edge of the area
+   * @param east The longitude of the eastern edge of the area
+   * @param minZoom The lowest zoom level to save
+   * @param maxZoom The highest zoom level to save
+   */
+  @SimpleFunction(description = "Saves the map tiles covering the given area at the zoom " +
+      "levels from minZoom to maxZoom so that they can be shown without a network connection.")
+  public void SaveOfflineTiles(double north, double west, double south, double east,
+      int minZoom, int maxZoom) {
+    for (double latitude : new double[] { north, south }) {
+      if (!GeometryUtil.isValidLatitude(latitude)) {
+        InvalidPoint(String.format(ERROR_LATITUDE_OUT_OF_BOUNDS, latitude));
+        return;
+      }
+    }
+    for (double longitude : new double[] { west, east }) {
+      if (!GeometryUtil.isValidLongitude(longitude)) {
+        InvalidPoint(String.format(ERROR_LONGITUDE_OUT_OF_BOUNDS, longitude));
+        return;
+      }
+    }
+    int low = Math.max(1, Math.min(minZoom, maxZoom));
+    int high = Math.min(20, Math.max(minZoom, maxZoom));
+    mapController.saveOfflineTiles(new BoundingBox(Math.max(north, south), east,
+        Math.min(north, south), west), low, high);
+  }
+
+  /**
+   * Removes all of the map tiles saved by
+   * {@link #SaveOfflineTiles(double, double, double, double, int, int)}.
+   */
+  @SimpleFunction(description = "Removes all of the map tiles saved for offline use.")
+  public void ClearOfflineTiles() {
+    mapController.clearOfflineTiles();
+  }
+
   /**
    * The `Ready` event runs once the `Map` has been initialized and is ready for user interaction.
    */
@@ -720,6 +842,27 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
     EventDispatcher.dispatchEvent(this, "LongPressAtPoint", latitude, longitude);
   }
 
+  /**
+   * The `OfflineTilesProgress` event runs periodically while tiles are being saved by
+   * {@link #SaveOfflineTiles(double, double, double, double, int, int)}. The `saved` parameter
+   * is the number of tiles processed so far, out of `total`.
+   */
+  @SimpleEvent(description = "Reports the progress of saving map tiles for offline use.")
+  public void OfflineTilesProgress(int saved, int total) {
+    EventDispatcher.dispatchEvent(this, "OfflineTilesProgress", saved, total);
+  }
+
+  /**
+   * The `OfflineTilesSaved` event runs when
+   * {@link #SaveOfflineTiles(double, double, double, double, int, int)} has finished. The `saved`
+   * parameter is the number of tiles in the area now available offline and `failed` is the
+   * number that could not be downloaded.
+   */
+  @SimpleEvent(description = "Map tiles have been saved for offline use.")
+  public void OfflineTilesSaved(int saved, int failed) {
+    EventDispatcher.dispatchEvent(this, "OfflineTilesSaved", saved, failed);
+  }
+
   public MapController getController() {
     return mapController;
   }
@@ -835,6 +978,26 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
     });
   }
 
+  @Override
+  public void onOfflineTilesProgress(final int saved, final int total) {
+    container.$form().runOnUiThread(new Runnable() {
+      @Override
+      public void run() {
+        Map.this.OfflineTilesProgress(saved, total);
+      }
+    });
+  }
+
+  @Override
+  public void onOfflineTilesSaved(final int saved, final int failed) {
+    container.$form().runOnUiThread(new Runnable() {
+      @Override
+      public void run() {
+        Map.this.OfflineTilesSaved(saved, failed);
+      }
+    });
+  }
+
   @Override
   public Map getMap() {
     return this;
@@ -847,6 +1010,7 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
     features.add(marker);
     marker.setMap(this);
     mapController.addFeature(marker);
+    featureIndex.add(marker);
   }
 
   @Override
@@ -854,6 +1018,7 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
     features.add(lineString);
     lineString.setMap(this);
     mapController.addFeature(lineString);
+    featureIndex.add(lineString);
   }
 
   @Override
@@ -861,6 +1026,7 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
     features.add(polygon);
     polygon.setMap(this);
     mapController.addFeature(polygon);
+    featureIndex.add(polygon);
   }
 
   @Override
@@ -868,6 +1034,7 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
     features.add(rectangle);
     rectangle.setMap(this);
     mapController.addFeature(rectangle);
+    featureIndex.add(rectangle);
   }
 
   @Override
@@ -875,11 +1042,17 @@ public class Map extends MapFeatureContainerBase implements MapEventListener {
     features.add(circle);
     circle.setMap(this);
     mapController.addFeature(circle);
+    featureIndex.add(circle);
   }
 
   @Override
   public void removeFeature(MapFeature feature) {
     features.remove(feature);
     mapController.removeFeature(feature);
+    featureIndex.remove(feature);
+  }
+
+  FeatureIndex<MapFeature> getFeatureIndex() {
+    return featureIndex;
   }
 }
@@ -114,6 +114,7 @@ public abstract class MapFeatureBase implements MapFeature, HasStroke {
   @Override
   public void removeFromMap() {
     map.getController().removeFeature(this);
+    map.getFeatureIndex().remove(this);
   }
 
   @SuppressWarnings("squid:S00100")
@@ -427,9 +428,15 @@ public abstract class MapFeatureBase implements MapFeature, HasStroke {
   }
 
   @SuppressWarnings("WeakerAccess")
-  protected final synchronized void clearGeometry() {
-    centroid = null;
-    geometry = null;
+  protected final void clearGeometry() {
+    synchronized (this) {
+      centroid = null;
+      geometry = null;
+    }
+    // Outside of the lock, since the index takes its own lock and then reads our geometry
+    if (map != null) {
+      map.getFeatureIndex().invalidate(this);
+    }
   }
 
   protected abstract Geometry computeGeometry();
@@ -6,32 +6,44 @@
 package com.google.appinventor.components.runtime;
 
 import android.app.Activity;
+import android.os.Handler;
 import android.util.Log;
+import com.google.appinventor.components.annotations.DesignerProperty;
 import com.google.appinventor.components.annotations.PropertyCategory;
 import com.google.appinventor.components.annotations.SimpleEvent;
 import com.google.appinventor.components.annotations.SimpleFunction;
 import com.google.appinventor.components.annotations.SimpleObject;
 import com.google.appinventor.components.annotations.SimpleProperty;
+import com.google.appinventor.components.common.PropertyTypeConstants;
 import com.google.appinventor.components.runtime.util.AsynchUtil;
 import com.google.appinventor.components.runtime.util.ErrorMessages;
+import com.google.appinventor.components.runtime.util.FeatureIndex;
+import com.google.appinventor.components.runtime.util.GeoJSONUtil;
+import com.google.appinventor.components.runtime.util.GeometryUtil;
 import com.google.appinventor.components.runtime.util.MapFactory;
 import com.google.appinventor.components.runtime.util.MapFactory.MapFeature;
 import com.google.appinventor.components.runtime.util.YailList;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import static com.google.appinventor.components.runtime.util.GeoJSONUtil.getGeoJSONFeatures;
@@ -55,12 +67,25 @@ public abstract class MapFeatureContainerBase extends AndroidViewComponent imple
   private static final String GEOJSON_GEOMETRYCOLLECTION = "GeometryCollection";
   private static final String GEOJSON_FEATURES = "features";
 
+  /**
+   * Number of features created from descriptions before the UI thread is given back to the
+   * message loop.
+   */
+  private static final int FEATURE_BATCH_SIZE = 100;
+
   /**
    * <p>List of {@link MapFactory.MapFeature features} associated with this map, including those that are
    * invisible.</p>
    */
   protected List<MapFeature> features = new CopyOnWriteArrayList<MapFeature>();
 
+  private final Handler androidUIHandler = new Handler();
+
+  private boolean simplifyFeatures = false;
+
+  // True while GotFeatures is raised for features that were added as they were read
+  private boolean featuresAdded = false;
+
   private final MapFactory.MapFeatureVisitor<Void> featureAdder = new MapFactory.MapFeatureVisitor<Void>() {
     @Override
     public Void visit(MapFactory.MapMarker marker, Object... arguments) {
@@ -133,6 +158,32 @@ public abstract class MapFeatureContainerBase extends AndroidViewComponent imple
     return YailList.makeList(features);
   }
 
+  /**
+   * Specifies whether lines and polygons loaded by {@link #LoadFromURL(String)} are simplified
+   * for the zoom level of the Map at the time of loading. Simplified features have fewer points,
+   * so they load and draw faster, but they lose detail that would be visible when zooming in.
+   *
+   * @param simplify true if the features should be simplified, otherwise false
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN,
+      defaultValue = "False")
+  @SimpleProperty
+  public void SimplifyFeatures(boolean simplify) {
+    simplifyFeatures = simplify;
+  }
+
+  /**
+   * Returns whether lines and polygons loaded from URLs are simplified for the current zoom level.
+   *
+   * @return true if the features are simplified, otherwise false
+   */
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR,
+      description = "Simplify lines and polygons loaded by LoadFromURL so that they have no more " +
+          "detail than the Map can show at its current zoom level.")
+  public boolean SimplifyFeatures() {
+    return simplifyFeatures;
+  }
+
   /**
    * When a feature is clicked, the parent `%type%` will also receive a `FeatureClick` event.
    * The `feature` parameter indicates which child feature was clicked. This event is run *after*
@@ -229,9 +280,12 @@ public abstract class MapFeatureContainerBase extends AndroidViewComponent imple
       "LoadError event will be raised with any applicable HTTP response code and error " +
       "message.</p>")
   public void LoadFromURL(final String url) {
+    final double tolerance = simplifyFeatures
+        ? pixelSizeInDegrees(getMap().ZoomLevel(), getMap().Latitude()) : 0;
+    final boolean addAsRead = !EventDispatcher.hasEventHandler(this, "GotFeatures");
     AsynchUtil.runAsynchronously(new Runnable() {
       public void run() {
-        performGet(url);
+        performGet(url, tolerance, addAsRead);
       }
     });
   }
@@ -273,6 +327,82 @@ public abstract class MapFeatureContainerBase extends AndroidViewComponent imple
     }
   }
 
+  /**
+   * Returns the features of the `%type%` that overlap the box bounded by the given `north`,
+   * `west`, `south`, and `east` edges, for example, the value of the Map's `BoundingBox`. The
+   * features are found using a spatial index, so the time taken grows with the number of features
+   * returned rather than the number of features on the `%type%`.
+   *
+   * @param north The latitude of the northern edge of the box
+   * @param west The longitude of the western edge of the box
+   * @param south The latitude of the southern edge of the box
+   * @param east The longitude of the eastern edge of the box
+   * @return A list of the features that overlap the box
+   */
+  @SimpleFunction(description = "Returns the features of the %type% that overlap the box " +
+      "bounded by the given north, west, south, and east edges.")
+  public YailList FeaturesInBoundingBox(double north, double west, double south, double east) {
+    List<Envelope> boxes = new ArrayList<Envelope>();
+    if (west <= east) {
+      boxes.add(new Envelope(west, east, south, north));
+    } else {
+      // The box crosses the antimeridian
+      boxes.add(new Envelope(west, 180, south, north));
+      boxes.add(new Envelope(-180, east, south, north));
+    }
+    FeatureIndex.Filter<MapFeature> filter = ownFeatures();
+    Set<MapFeature> result = new LinkedHashSet<MapFeature>();
+    for (Envelope box : boxes) {
+      Geometry area = GeometryUtil.createGeometry(box.getMaxY(), box.getMaxX(), box.getMinY(),
+          box.getMinX());
+      for (MapFeature feature : getMap().getFeatureIndex().query(box, filter)) {
+        if (shapeOf(feature).intersects(area)) {
+          result.add(feature);
+        }
+      }
+    }
+    return YailList.makeList(result);
+  }
+
+  /**
+   * Returns the features of the `%type%` that lie entirely within the given `region`, which is
+   * usually a `Polygon`, `Rectangle`, or `Circle`. The region itself is not included in the
+   * result.
+   *
+   * @param region The feature whose area is searched
+   * @return A list of the features within the region
+   */
+  @SimpleFunction(description = "Returns the features of the %type% that lie entirely within " +
+      "the given region, such as a Polygon, Rectangle, or Circle.")
+  public YailList FeaturesWithin(MapFeature region) {
+    Geometry area = shapeOf(region);
+    List<MapFeature> result = new ArrayList<MapFeature>();
+    for (MapFeature feature : getMap().getFeatureIndex().query(area.getEnvelopeInternal(),
+        ownFeatures())) {
+      if (feature != region && area.covers(shapeOf(feature))) {
+        result.add(feature);
+      }
+    }
+    return YailList.makeList(result);
+  }
+
+  /**
+   * Returns up to `count` features of the `%type%` ordered by their distance from the point
+   * (`latitude`, `longitude`), nearest first. Distances are measured to the edge of each feature,
+   * as in the `DistanceToPoint` method with `centroid` set to `false`{:.logic.block}.
+   *
+   * @param latitude The latitude of the point
+   * @param longitude The longitude of the point
+   * @param count The largest number of features to return
+   * @return A list of the nearest features
+   */
+  @SimpleFunction(description = "Returns up to count features of the %type% ordered by their " +
+      "distance from the given point, nearest first.")
+  public YailList NearestFeatures(double latitude, double longitude, int count) {
+    return YailList.makeList(getMap().getFeatureIndex().nearest(latitude, longitude, count,
+        ownFeatures()));
+  }
+
   /**
    * The `GotFeatures` event is run when a feature collection is successfully read from the
    * given `url`{:.variable.block}. The `features`{:.variable.block} parameter will be a list of
@@ -285,13 +415,11 @@ public abstract class MapFeatureContainerBase extends AndroidViewComponent imple
   @SimpleEvent(description = "A GeoJSON document was successfully read from url. The features " +
       "specified in the document are provided as a list in features.")
   public void GotFeatures(String url, YailList features) {
-    if (!EventDispatcher.dispatchEvent(this, "GotFeatures", url, features)) {
+    if (!EventDispatcher.dispatchEvent(this, "GotFeatures", url, features) && !featuresAdded) {
       // If the app inventor hasn't defined GotFeatures, we by default create the features for them
       Iterator it = features.iterator();
       it.next();  // skip *list* symbol
-      while (it.hasNext()) {
-        FeatureFromDescription((YailList) it.next());
-      }
+      addFeaturesInBatches(it);
     }
   }
 
@@ -388,13 +516,89 @@ public abstract class MapFeatureContainerBase extends AndroidViewComponent imple
     feature.accept(featureAdder);
   }
 
-  private void performGet(final String url) {
+  /**
+   * Selects the features in the Map's index that belong to this container, or null if every
+   * feature on the map does.
+   */
+  private FeatureIndex.Filter<MapFeature> ownFeatures() {
+    if (getMap() == this) {
+      return null;
+    }
+    final Set<MapFeature> own = new HashSet<MapFeature>(features);
+    return new FeatureIndex.Filter<MapFeature>() {
+      @Override
+      public boolean accept(MapFeature feature) {
+        return own.contains(feature);
+      }
+    };
+  }
+
+  /**
+   * Returns the area covered by the feature. The geometry of a circle is only its center, so the
+   * circle is approximated by a polygon instead.
+   */
+  private static Geometry shapeOf(MapFeature feature) {
+    if (feature instanceof MapFactory.MapCircle) {
+      MapFactory.MapCircle circle = (MapFactory.MapCircle) feature;
+      return GeometryUtil.createCircleGeometry(circle.getCentroid(), circle.Radius());
+    }
+    return feature.getGeometry();
+  }
+
+  /**
+   * Reads the features at the given url and raises GotFeatures with them. If {@code addAsRead} is
+   * true, because GotFeatures had no handler when the load started, the features are created a
+   * batch at a time as they are read, rather than once the whole document has been read.
+   */
+  private void performGet(final String url, final double tolerance, final boolean addAsRead) {
     try {
-      String jsonContent = loadUrl(url);
-      if (jsonContent == null) {
+      Reader reader = openUrl(url);
+      if (reader == null) {
         return;
       }
-      processGeoJSON(url, jsonContent);
+      final List<YailList> yailFeatures = new ArrayList<YailList>();
+      boolean isCollection;
+      try {
+        isCollection = GeoJSONUtil.readGeoJSONFeatures(TAG, reader, tolerance, FEATURE_BATCH_SIZE,
+            new GeoJSONUtil.FeatureBatchHandler() {
+              @Override
+              public void onFeatures(final List<YailList> features) {
+                yailFeatures.addAll(features);
+                if (addAsRead) {
+                  $form().runOnUiThread(new Runnable() {
+                    public void run() {
+                      for (YailList description : features) {
+                        FeatureFromDescription(description);
+                      }
+                    }
+                  });
+                }
+              }
+            });
+      } finally {
+        reader.close();
+      }
+      if (!isCollection) {
+        $form().runOnUiThread(new Runnable() {
+          public void run() {
+            MapFeatureContainerBase.this.LoadError(url, ERROR_CODE_MALFORMED_GEOJSON,
+                ERROR_MALFORMED_GEOJSON);
+          }
+        });
+        return;
+      }
+      $form().runOnUiThread(new Runnable() {
+        public void run() {
+          // Still raise GotFeatures, for handlers of any map feature container and for a handler
+          // defined since the load started, but do not add the features again.
+          featuresAdded = addAsRead;
+          try {
+            MapFeatureContainerBase.this.GotFeatures(url, YailList.makeList(yailFeatures));
+          } finally {
+            featuresAdded = false;
+          }
+        }
+      });
     } catch(Exception e) {
       Log.e(TAG, "Exception retreiving GeoJSON", e);
       $form().dispatchErrorOccurredEvent(this, "LoadFromURL", ERROR_CODE_UNKNOWN_TYPE,
@@ -402,7 +606,11 @@ public abstract class MapFeatureContainerBase extends AndroidViewComponent imple
     }
   }
 
-  private String loadUrl(final String url) {
+  /**
+   * Opens a reader on the content at the given url, or reports a LoadError and returns null if
+   * the content cannot be read.
+   */
+  private Reader openUrl(final String url) {
     try {
       URLConnection connection = new URL(url).openConnection();
       connection.connect();
@@ -420,16 +628,7 @@ public abstract class MapFeatureContainerBase extends AndroidViewComponent imple
           return null;
         }
       }
-      BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(),
-            "UTF-8"));
-      StringBuilder content = new StringBuilder();
-      String line;
-      while ((line = reader.readLine()) != null) {
-        content.append(line);
-        content.append("\n");
-      }
-      reader.close();
-      return content.toString();
+      return new BufferedReader(new InputStreamReader(connection.getInputStream(), "UTF-8"));
     } catch(MalformedURLException e) {
       $form().runOnUiThread(new Runnable() {
         public void run() {
@@ -448,6 +647,36 @@ public abstract class MapFeatureContainerBase extends AndroidViewComponent imple
     return null;
   }
 
+  /**
+   * Creates features from the remaining descriptions, {@link #FEATURE_BATCH_SIZE} at a time.
+   * Between batches the UI thread returns to its message loop, so that a large document does not
+   * freeze the app while its features are created.
+   */
+  private void addFeaturesInBatches(final Iterator<?> descriptions) {
+    new Runnable() {
+      @Override
+      public void run() {
+        for (int i = 0; i < FEATURE_BATCH_SIZE && descriptions.hasNext(); i++) {
+          FeatureFromDescription((YailList) descriptions.next());
+        }
+        if (descriptions.hasNext()) {
+          androidUIHandler.post(this);
+        }
+      }
+    }.run();
+  }
+
+  /**
+   * Returns the size in degrees of one pixel of a 256-pixel map tile at the given zoom level and
+   * latitude. A pixel spans a fixed number of degrees of longitude, but in the Mercator
+   * projection it spans fewer degrees of latitude away from the equator, by the cosine of the
+   * latitude. The smaller of the two is returned, so that simplification never removes detail
+   * that would be visible.
+   */
+  private static double pixelSizeInDegrees(int zoom, double latitude) {
+    return 360.0 / (256.0 * Math.pow(2, zoom)) * Math.cos(Math.toRadians(latitude));
+  }
+
   @SuppressWarnings("WeakerAccess")
   protected void processGeoJSON(final String url, final String content) throws JSONException {
     String type = getGeoJSONType(content, GEOJSON_TYPE);
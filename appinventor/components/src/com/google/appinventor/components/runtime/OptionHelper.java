@@ -15,6 +15,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Includes helper methods for getting the abstract enum value associated with a concrete value for
@@ -23,8 +24,10 @@ import java.util.Map;
  */
 public class OptionHelper {
 
+  // Events are dispatched from several threads. Two threads may populate the same entry, which
+  // is harmless.
   private static final Map<String, Map<String, Method>> componentMethods =
-      new HashMap<String, Map<String, Method>>();
+      new ConcurrentHashMap<String, Map<String, Method>>();
     
   /**
    * Returns the OptionList version of the value if the function's return type has an @Options
@@ -17,6 +17,9 @@ import com.github.mikephil.charting.interfaces.datasets.IDataSet;
 import com.google.appinventor.components.runtime.util.ErrorMessages;
 import com.google.appinventor.components.runtime.util.YailList;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Handles the data operations & model-specific styling for point-based
  * Chart data (e.g. Scatter or Line data) for the Chart component.
@@ -80,4 +83,77 @@ public abstract class PointChartDataModel<
 
     return null;
   }
+
+  /**
+   * Finds the index of the specified Entry in the Data Series.
+   * Returns -1 if the Entry does not exist.
+   *
+   * <p>Point based entries are kept sorted by x value, so only the
+   * entries with the same x value as the specified Entry are compared.
+   *
+   * @param entry Entry to find
+   * @return index of the entry, or -1 if entry is not found
+   */
+  @Override
+  public int findEntryIndex(Entry entry) {
+    if (Float.isNaN(entry.getX())) {
+      return super.findEntryIndex(entry);
+    }
+
+    for (int i = findFirstIndexOfX(entry.getX());
+        i < entries.size() && entries.get(i).getX() == entry.getX(); ++i) {
+      if (areEntriesEqual(entries.get(i), entry)) {
+        return i;
+      }
+    }
+
+    return -1;
+  }
+
+  @Override
+  public YailList findEntriesByCriterion(String value, EntryCriterion criterion) {
+    if (criterion != EntryCriterion.XValue) {
+      return super.findEntriesByCriterion(value, criterion);
+    }
+
+    List<YailList> result = new ArrayList<>();
+
+    try {
+      float xValue = Float.parseFloat(value);
+
+      // Entries are sorted by x value, so the matching entries are
+      // next to each other.
+      for (int i = findFirstIndexOfX(xValue);
+          i < entries.size() && entries.get(i).getX() == xValue; ++i) {
+        result.add(getTupleFromEntry(entries.get(i)));
+      }
+    } catch (NumberFormatException e) {
+      // Do nothing (no entry matches)
+    }
+
+    return YailList.makeList(result);
+  }
+
+  /**
+   * Returns the index of the first entry with an x value not less
+   * than the specified x value.
+   *
+   * @param x x value to look for
+   * @return index of the first entry at or after x
+   */
+  private int findFirstIndexOfX(float x) {
+    int low = 0;
+    int high = entries.size();
+
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (entries.get(middle).getX() < x) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    return low;
+  }
 }
@@ -11,6 +11,8 @@ import com.google.appinventor.components.annotations.UsesLibraries;
 import com.google.appinventor.components.common.ComponentCategory;
 import com.google.appinventor.components.common.PropertyTypeConstants;
 import com.google.appinventor.components.common.PunyaVersion;
+import com.google.appinventor.components.common.SemanticWebConstants;
+import com.google.appinventor.components.runtime.linkeddata.RuleCache;
 import com.google.appinventor.components.runtime.linkeddata.SumAllLinked;
 import com.google.appinventor.components.runtime.util.AsynchUtil;
 import com.google.appinventor.components.runtime.util.ErrorMessages;
@@ -18,15 +20,22 @@ import com.google.appinventor.components.runtime.util.IOUtils;
 import com.google.appinventor.components.runtime.util.MediaUtil;
 import com.google.appinventor.components.runtime.util.YailDictionary;
 import com.google.appinventor.components.runtime.util.YailList;
+import com.hp.hpl.jena.graph.Graph;
+import com.hp.hpl.jena.graph.GraphEvents;
+import com.hp.hpl.jena.graph.Triple;
 import com.hp.hpl.jena.query.Query;
 import com.hp.hpl.jena.query.QueryExecution;
 import com.hp.hpl.jena.query.QueryExecutionFactory;
 import com.hp.hpl.jena.query.QueryFactory;
 import com.hp.hpl.jena.query.QuerySolution;
 import com.hp.hpl.jena.query.ResultSet;
+import com.hp.hpl.jena.rdf.listeners.StatementListener;
 import com.hp.hpl.jena.rdf.model.InfModel;
+import com.hp.hpl.jena.rdf.model.Model;
 import com.hp.hpl.jena.rdf.model.ModelFactory2;
 import com.hp.hpl.jena.rdf.model.RDFNode;
+import com.hp.hpl.jena.rdf.model.Statement;
+import com.hp.hpl.jena.rdf.model.StmtIterator;
 import com.hp.hpl.jena.reasoner.BaseInfGraph;
 import com.hp.hpl.jena.reasoner.ReasonerRegistry;
 import com.hp.hpl.jena.reasoner.rulesys.BuiltinRegistry;
@@ -62,6 +71,67 @@ public class Reasoner extends LinkedDataBase<InfModel> {
   private String rulesEngine = "";
   private String rulesFile = "";
   private List<Rule> rules = new ArrayList<>();
+  private boolean incremental = false;
+
+  /**
+   * Triples added to the base model since the last incremental run.
+   */
+  private final List<Triple> pendingAdds = new ArrayList<>();
+
+  /**
+   * Whether statements were removed from the base model since the last incremental run.
+   */
+  private boolean pendingRemoval = false;
+
+  /**
+   * Whether the inference model must be rebuilt on the next incremental run, for example because
+   * the rules changed.
+   */
+  private boolean stale = true;
+
+  /**
+   * The base model that {@link #baseModelListener} is registered with, if any.
+   */
+  private Model trackedModel = null;
+
+  /**
+   * The thread currently replaying {@link #pendingAdds} into the inference model. Changes that
+   * the replay makes to the base model are not deltas and are ignored by the listener.
+   */
+  private volatile Thread applyingThread = null;
+
+  private final StatementListener baseModelListener = new StatementListener() {
+    @Override
+    public void addedStatement(Statement s) {
+      if (Thread.currentThread() == applyingThread) {
+        return;
+      }
+      synchronized (pendingAdds) {
+        pendingAdds.add(s.asTriple());
+      }
+    }
+
+    @Override
+    public void removedStatement(Statement s) {
+      if (Thread.currentThread() == applyingThread) {
+        return;
+      }
+      synchronized (pendingAdds) {
+        pendingRemoval = true;
+      }
+    }
+
+    @Override
+    public void notifyEvent(Model m, Object event) {
+      if (event instanceof GraphEvents && event != GraphEvents.startRead
+          && event != GraphEvents.finishRead) {
+        // removeAll or a remove(s, p, o) pattern
+        synchronized (pendingAdds) {
+          pendingRemoval = true;
+        }
+      }
+    }
+  };
 
   static {
     BuiltinRegistry.theRegistry.register(new SumAllLinked());
@@ -92,6 +162,7 @@ public class Reasoner extends LinkedDataBase<InfModel> {
   @SimpleProperty(category = PropertyCategory.BEHAVIOR)
   public void Model(LinkedData model) {
     this.basemodel = model;
+    stale = true;
   }
 
   @SimpleProperty
@@ -110,6 +181,7 @@ public class Reasoner extends LinkedDataBase<InfModel> {
   @SimpleProperty(category = PropertyCategory.BEHAVIOR)
   public void RulesEngine(String rules) {
     this.rulesEngine = rules;
+    stale = true;
   }
 
   @SimpleProperty
@@ -127,6 +199,32 @@ public class Reasoner extends LinkedDataBase<InfModel> {
   @SimpleProperty(category = PropertyCategory.BEHAVIOR)
   public void RulesFile(String rules) {
     this.rulesFile = rules;
+    stale = true;
+  }
+
+  @SimpleProperty
+  public boolean Incremental() {
+    return incremental;
+  }
+
+  /**
+   * Specifies whether the reasoner keeps its conclusions between calls to {@link #Run()}. When
+   * true, each run only applies the statements added to the Model since the previous run, using
+   * the forward engine's incremental support, and raises {@link #ReasoningUpdated(YailList)} with
+   * the newly derived statements. Removing statements from the Model causes the next run to
+   * derive all conclusions again.
+   *
+   * @param incremental true to reason incrementally, otherwise false
+   */
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN,
+      defaultValue = "False")
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR)
+  public void Incremental(boolean incremental) {
+    this.incremental = incremental;
+    if (!incremental) {
+      untrackBaseModel();
+    }
+    stale = true;
   }
 
   ///endregion
@@ -145,35 +243,23 @@ public class Reasoner extends LinkedDataBase<InfModel> {
     }
     final String rulesFile = this.rulesFile;
     final String rulesEngine = this.rulesEngine;
-    AsynchUtil.runAsynchronously(new Runnable() {
+    final boolean incremental = this.incremental;
+    AsynchUtil.runAsynchronously(AsynchUtil.Lane.CPU, new Runnable() {
       @Override
       public void run() {
         try {
-          com.hp.hpl.jena.reasoner.Reasoner reasoner;
-          if ("RDFS".equals(rulesEngine)) {
-            reasoner = ReasonerRegistry.getRDFSReasoner();
-          } else if ("OWL Micro".equals(rulesEngine)) {
-            reasoner = ReasonerRegistry.getOWLMicroReasoner();
-          } else if ("OWL Mini".equals(rulesEngine)) {
-            reasoner = ReasonerRegistry.getOWLMiniReasoner();
-          } else if ("OWL".equals(rulesEngine)) {
-            reasoner = ReasonerRegistry.getOWLReasoner();
+          if (incremental) {
+            final YailList entailed = runIncremental(rulesEngine, rulesFile);
+            form.runOnUiThread(new Runnable() {
+              @Override
+              public void run() {
+                ReasoningUpdated(entailed);
+              }
+            });
           } else {
-            reasoner = new GenericRuleReasoner(new ArrayList<>(rules));
-            ((GenericRuleReasoner) reasoner).setMode(GenericRuleReasoner.HYBRID);
-          }
-          model = ModelFactory2.createInfModel(reasoner, basemodel.getModel());
-          if (rulesFile != null && !rulesFile.equals("")) {
-            if (reasoner instanceof FBRuleReasoner) {
-              ((FBRuleReasoner) reasoner).addRules(loadRules(rulesFile));
-            } else if (reasoner instanceof RuleReasoner) {
-              ((RuleReasoner) reasoner).setRules(loadRules(rulesFile));
-            }
-          }
-          model.prepare();
-          if (model.getGraph() instanceof BaseInfGraph) {
-            ((BaseInfGraph) model.getGraph()).validate();
-            // TODO(ewpatton): Report validity to blocks
+            model = createInfModel(rulesEngine, rulesFile);
+            model.prepare();
+            validate();
           }
           form.runOnUiThread(new Runnable() {
             @Override
@@ -200,7 +286,8 @@ public class Reasoner extends LinkedDataBase<InfModel> {
    */
   @SimpleFunction
   public void RulesFromRuleset(String ruleset) {
-    rules = Rule.parseRules(ruleset);
+    rules = RuleCache.parseRules(ruleset);
+    stale = true;
     String[] lines = rules.toString().split("\n");
     System.err.println("Rules:");
     for (String line : lines) {
@@ -228,8 +315,9 @@ public class Reasoner extends LinkedDataBase<InfModel> {
    */
   @SimpleFunction
   public void AddRulesFromRuleset(String ruleset) {
-    List<Rule> newRules = Rule.parseRules(ruleset);
+    List<Rule> newRules = RuleCache.parseRules(ruleset);
     rules.addAll(newRules);
+    stale = true;
     String[] lines = rules.toString().split("\n");
     System.err.println("Rules:");
     for (String line : lines) {
@@ -286,6 +374,18 @@ public class Reasoner extends LinkedDataBase<InfModel> {
     EventDispatcher.dispatchEvent(this, "ReasoningComplete");
   }
 
+  /**
+   * Runs after an incremental run of the reasoner when {@link #Incremental()} is true, before
+   * {@link #ReasoningComplete()}. The first run after the reasoner is configured, and the first
+   * run after statements are removed from the Model, report every forward deduction.
+   *
+   * @param statements a list of (subject, predicate, object) triples derived by this run
+   */
+  @SimpleEvent
+  public void ReasoningUpdated(YailList statements) {
+    EventDispatcher.dispatchEvent(this, "ReasoningUpdated", statements);
+  }
+
   /**
    * Runs when the reasoner encounters an error during reasoning.
    *
@@ -300,11 +400,135 @@ public class Reasoner extends LinkedDataBase<InfModel> {
 
   ///endregion
 
+  private InfModel createInfModel(String rulesEngine, String rulesFile) throws IOException {
+    com.hp.hpl.jena.reasoner.Reasoner reasoner;
+    if ("RDFS".equals(rulesEngine)) {
+      reasoner = ReasonerRegistry.getRDFSReasoner();
+    } else if ("OWL Micro".equals(rulesEngine)) {
+      reasoner = ReasonerRegistry.getOWLMicroReasoner();
+    } else if ("OWL Mini".equals(rulesEngine)) {
+      reasoner = ReasonerRegistry.getOWLMiniReasoner();
+    } else if ("OWL".equals(rulesEngine)) {
+      reasoner = ReasonerRegistry.getOWLReasoner();
+    } else {
+      reasoner = new GenericRuleReasoner(new ArrayList<>(rules));
+      ((GenericRuleReasoner) reasoner).setMode(GenericRuleReasoner.HYBRID);
+    }
+    InfModel infModel = ModelFactory2.createInfModel(reasoner, basemodel.getModel());
+    if (rulesFile != null && !rulesFile.equals("")) {
+      if (reasoner instanceof FBRuleReasoner) {
+        ((FBRuleReasoner) reasoner).addRules(loadRules(rulesFile));
+      } else if (reasoner instanceof RuleReasoner) {
+        ((RuleReasoner) reasoner).setRules(loadRules(rulesFile));
+      }
+    }
+    return infModel;
+  }
+
+  private void validate() {
+    if (model.getGraph() instanceof BaseInfGraph) {
+      ((BaseInfGraph) model.getGraph()).validate();
+      // TODO(ewpatton): Report validity to blocks
+    }
+  }
+
+  /**
+   * Brings the inference model up to date with the base model, rebuilding it only if the
+   * configuration changed or statements were removed, and returns the forward deductions that
+   * were not reported by a previous run.
+   */
+  private synchronized YailList runIncremental(String rulesEngine, String rulesFile)
+      throws IOException {
+    List<Triple> adds;
+    boolean removed;
+    synchronized (pendingAdds) {
+      adds = new ArrayList<>(pendingAdds);
+      removed = pendingRemoval;
+      pendingAdds.clear();
+      pendingRemoval = false;
+    }
+    Model base = basemodel.getModel();
+    boolean rebuilt = false;
+    if (stale || model == null || trackedModel != base) {
+      untrackBaseModel();
+      base.register(baseModelListener);
+      trackedModel = base;
+      stale = false;
+      model = createInfModel(rulesEngine, rulesFile);
+      rebuilt = true;
+    } else if (removed) {
+      // Jena's engines cannot retract conclusions incrementally, so start from the current data.
+      model.rebind();
+      rebuilt = true;
+    }
+    model.prepare();
+    List<YailList> entailed = new ArrayList<>();
+    Model deductions = model.getDeductionsModel();
+    if (rebuilt) {
+      if (deductions != null) {
+        for (StmtIterator it = deductions.listStatements(); it.hasNext(); ) {
+          entailed.add(YailList.makeList(statementAsList(it.next())));
+        }
+      }
+    } else {
+      // The forward engine only adds a deduction it does not already have, so the statements
+      // added to the deductions while the delta is applied are exactly the new conclusions.
+      final List<Statement> derived = new ArrayList<>();
+      StatementListener listener = new StatementListener() {
+        @Override
+        public void addedStatement(Statement s) {
+          derived.add(s);
+        }
+      };
+      if (deductions != null) {
+        deductions.register(listener);
+      }
+      Graph graph = model.getGraph();
+      applyingThread = Thread.currentThread();
+      try {
+        for (Triple t : adds) {
+          graph.add(t);
+        }
+      } finally {
+        applyingThread = null;
+        if (deductions != null) {
+          deductions.unregister(listener);
+        }
+      }
+      for (Statement st : derived) {
+        entailed.add(YailList.makeList(statementAsList(st)));
+      }
+    }
+    validate();
+    return YailList.makeList(entailed);
+  }
+
+  private void untrackBaseModel() {
+    if (trackedModel != null) {
+      trackedModel.unregister(baseModelListener);
+      trackedModel = null;
+    }
+    synchronized (pendingAdds) {
+      pendingAdds.clear();
+      pendingRemoval = false;
+    }
+  }
+
   private List<Rule> loadRules(String filename) throws IOException {
     InputStream in = null;
+    try {
+      // Packaged apps carry a copy of the ruleset precompiled by the buildserver.
+      in = MediaUtil.openMedia(form, filename + SemanticWebConstants.COMPILED_RULES_EXTENSION);
+      return RuleCache.readCompiledRules(IOUtils.readStream(in));
+    } catch (IOException e) {
+      // Not precompiled (e.g., in the companion) or from an incompatible build; parse the text.
+    } finally {
+      IOUtils.closeQuietly(LOG_TAG, in);
+    }
+    in = null;
     try {
       in = MediaUtil.openMedia(form, filename);
-      return Rule.parseRules(IOUtils.readStreamAsString(in));
+      return RuleCache.parseRules(IOUtils.readStreamAsString(in));
     } finally {
       IOUtils.closeQuietly(LOG_TAG, in);
     }
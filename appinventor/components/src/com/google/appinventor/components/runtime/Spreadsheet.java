@@ -12,6 +12,8 @@ import static android.Manifest.permission.READ_EXTERNAL_STORAGE;
 import static android.Manifest.permission.WRITE_EXTERNAL_STORAGE;
 
 import android.app.Activity;
+import android.os.Handler;
+import android.os.SystemClock;
 import android.util.Log;
 import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
 import com.google.api.client.http.javanet.NetHttpTransport;
@@ -22,6 +24,7 @@ import com.google.api.services.sheets.v4.model.AddSheetRequest;
 import com.google.api.services.sheets.v4.model.AppendValuesResponse;
 import com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetRequest;
 import com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetResponse;
+import com.google.api.services.sheets.v4.model.BatchUpdateValuesRequest;
 import com.google.api.services.sheets.v4.model.ClearValuesRequest;
 import com.google.api.services.sheets.v4.model.ClearValuesResponse;
 import com.google.api.services.sheets.v4.model.DeleteDimensionRequest;
@@ -73,6 +76,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -145,7 +149,7 @@ import java.util.regex.Pattern;
     })
 })
 public class Spreadsheet extends AndroidNonvisibleComponent implements Component,
-    ObservableDataSource<YailList, Future<YailList>> {
+    ObservableDataSource<YailList, Future<YailList>>, OnDestroyListener {
   private static final String LOG_TAG = "SPREADSHEET";
 
   private static final Pattern INTEGER = Pattern.compile("^[0-9]+$");
@@ -176,6 +180,69 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
 
   private final Map<String, Integer> sheetIdMap = new HashMap<>();
 
+  // Batch mode: writes wait in pendingWrites until they are flushed together
+  private boolean batchWrites = false;
+  private int flushInterval = 5000;
+  private final List<PendingWrite> pendingWrites = new ArrayList<>();
+  private final Object flushLock = new Object();
+  private final Handler androidUIHandler = new Handler();
+  private boolean flushScheduled = false;
+  private final Runnable flushTimer = new Runnable() {
+    @Override
+    public void run() {
+      flushScheduled = false;
+      startFlush();
+    }
+  };
+
+  // Sheets read with credentials, kept for cacheTimeout milliseconds
+  private int cacheTimeout = 0;
+  private final Map<String, SheetSnapshot> snapshots = new HashMap<>();
+  // Incremented on every write, so that a read which overlaps a write is not kept
+  private long snapshotGeneration = 0;
+
+  /**
+   * A write waiting to be sent while {@link #BatchWrites()} is true.
+   */
+  private static final class PendingWrite {
+    // The block that queued the write, used to report errors and pick the event to fire
+    final String method;
+    final String sheetName;
+    // The A1 range to write, or null to append after the last row of the sheet
+    final String range;
+    // The values to write, or null to delete the row rowNumber
+    final List<List<Object>> values;
+    final int rowNumber;
+    // For appends, the row that was written, filled in when the write is sent
+    int writtenRow;
+
+    PendingWrite(String method, String sheetName, String range, List<List<Object>> values,
+        int rowNumber) {
+      this.method = method;
+      this.sheetName = sheetName;
+      this.range = range;
+      this.values = values;
+      this.rowNumber = rowNumber;
+    }
+
+    boolean isRowDeletion() {
+      return values == null;
+    }
+  }
+
+  /**
+   * The cells of a sheet as of the time it was read.
+   */
+  private static final class SheetSnapshot {
+    final List<List<String>> rows;
+    final long readTime;
+
+    SheetSnapshot(List<List<String>> rows, long readTime) {
+      this.rows = rows;
+      this.readTime = readTime;
+    }
+  }
+
   /**
    * Construct a new Spreadsheet component.
    *
@@ -185,6 +252,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     super(componentContainer.$form());
     this.container = componentContainer;
     this.activity = componentContainer.$context();
+    form.registerForOnDestroy(this);
   }
 
   private synchronized void updateSheetID(String sheetName, int sheetId) {
@@ -274,6 +342,74 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     this.applicationName = applicationName;
   }
 
+  /**
+   * Specifies whether {@link #WriteCell(String, String, Object)},
+   * {@link #WriteRow(String, int, YailList)}, {@link #AddRow(String, YailList)} and
+   * {@link #RemoveRow(String, int)} are sent right away or held and sent together. Held writes
+   * are sent every {@link #FlushInterval()} milliseconds, when {@link #FlushWrites()} is called,
+   * or when BatchWrites is set to false. Consecutive cell and row writes are sent as one
+   * request, as are consecutive row removals, and the usual Finished events fire once the
+   * request completes.
+   */
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR)
+  public boolean BatchWrites() {
+    return batchWrites;
+  }
+
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN,
+      defaultValue = "False")
+  @SimpleProperty(description = "If true, cell and row writes are held and sent together "
+      + "every FlushInterval milliseconds or when FlushWrites is called, using fewer requests.")
+  public void BatchWrites(boolean batchWrites) {
+    this.batchWrites = batchWrites;
+    if (!batchWrites) {
+      FlushWrites();
+    }
+  }
+
+  /**
+   * The number of milliseconds held writes wait before they are sent when
+   * {@link #BatchWrites()} is true. If 0, writes are only sent when {@link #FlushWrites()} is
+   * called.
+   */
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR)
+  public int FlushInterval() {
+    return flushInterval;
+  }
+
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_INTEGER,
+      defaultValue = "5000")
+  @SimpleProperty(description = "The number of milliseconds held writes wait before they are "
+      + "sent when BatchWrites is true. If 0, writes are only sent by FlushWrites.")
+  public void FlushInterval(int flushInterval) {
+    this.flushInterval = Math.max(0, flushInterval);
+  }
+
+  /**
+   * The number of milliseconds that a sheet read with credentials is kept and used to answer
+   * {@link #ReadSheet(String)}, {@link #ReadRow(String, int)} and the filter blocks without
+   * asking Google Sheets again. Writes made by this component discard the kept copy of the
+   * sheet they change, but changes made elsewhere are not seen until the time runs out. If 0,
+   * every read asks Google Sheets.
+   */
+  @SimpleProperty(category = PropertyCategory.BEHAVIOR)
+  public int CacheTimeout() {
+    return cacheTimeout;
+  }
+
+  @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_INTEGER,
+      defaultValue = "0")
+  @SimpleProperty(description = "The number of milliseconds a sheet that has been read is "
+      + "kept and used to answer later reads and filters. If 0, nothing is kept.")
+  public void CacheTimeout(int cacheTimeout) {
+    synchronized (snapshots) {
+      this.cacheTimeout = Math.max(0, cacheTimeout);
+      if (this.cacheTimeout == 0) {
+        snapshots.clear();
+      }
+    }
+  }
+
   /* Utility Functions for Making Calls */
 
   private GoogleCredential authorize() throws IOException {
@@ -390,6 +526,260 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     return GetCellReference(row1, column1) + ":" + GetCellReference(row2, column2);
   }
 
+  /* Batched Writes */
+
+  /**
+   * Sends the writes held while {@link #BatchWrites()} is true without waiting for
+   * {@link #FlushInterval()}.
+   */
+  @SimpleFunction(description = "Sends the writes held while BatchWrites is true right away.")
+  public void FlushWrites() {
+    androidUIHandler.removeCallbacks(flushTimer);
+    flushScheduled = false;
+    startFlush();
+  }
+
+  @Override
+  public void onDestroy() {
+    // Send anything still held rather than losing it
+    FlushWrites();
+  }
+
+  private void queueWrite(PendingWrite write) {
+    synchronized (pendingWrites) {
+      pendingWrites.add(write);
+    }
+    if (flushInterval > 0 && !flushScheduled) {
+      flushScheduled = true;
+      androidUIHandler.postDelayed(flushTimer, flushInterval);
+    }
+  }
+
+  private void startFlush() {
+    synchronized (pendingWrites) {
+      if (pendingWrites.isEmpty()) {
+        return;
+      }
+    }
+    AsynchUtil.runAsynchronously(new Runnable() {
+      @Override
+      public void run() {
+        flushPendingWrites();
+      }
+    });
+  }
+
+  private void flushPendingWrites() {
+    // Holding flushLock while taking the writes keeps flushes in the order they were queued
+    synchronized (flushLock) {
+      List<PendingWrite> writes;
+      synchronized (pendingWrites) {
+        writes = new ArrayList<>(pendingWrites);
+        pendingWrites.clear();
+      }
+      if (writes.isEmpty()) {
+        return;
+      }
+      String method = writes.get(0).method;
+      try {
+        Sheets sheetsService = getSheetsService();
+        // Row removals shift the rows below them, so runs of value writes and of removals are
+        // sent one after the other in the order they were made.
+        int start = 0;
+        while (start < writes.size()) {
+          boolean removals = writes.get(start).isRowDeletion();
+          int end = start + 1;
+          while (end < writes.size() && writes.get(end).isRowDeletion() == removals) {
+            end++;
+          }
+          List<PendingWrite> run = writes.subList(start, end);
+          method = run.get(0).method;
+          if (removals) {
+            sendRowDeletions(sheetsService, run);
+          } else {
+            sendValueWrites(sheetsService, run);
+          }
+          fireFinishedEvents(run);
+          start = end;
+        }
+      } catch (Exception e) {
+        // Later writes may depend on the one that failed, so they are dropped too
+        e.printStackTrace();
+        ErrorOccurred(method + ": " + e.getMessage());
+      }
+    }
+  }
+
+  private void sendValueWrites(Sheets sheetsService, List<PendingWrite> writes)
+      throws IOException {
+    // An append lands after whatever is in the sheet when it is sent, so runs of appends and of
+    // writes to fixed ranges are sent one after the other in the order they were made.
+    int start = 0;
+    while (start < writes.size()) {
+      boolean appends = writes.get(start).range == null;
+      int end = start + 1;
+      while (end < writes.size() && (writes.get(end).range == null) == appends) {
+        end++;
+      }
+      List<PendingWrite> run = writes.subList(start, end);
+      try {
+        if (appends) {
+          sendAppends(sheetsService, run);
+        } else {
+          sendRangeWrites(sheetsService, run);
+        }
+      } finally {
+        for (PendingWrite write : run) {
+          invalidateSnapshot(write.sheetName);
+        }
+      }
+      start = end;
+    }
+  }
+
+  private void sendRangeWrites(Sheets sheetsService, List<PendingWrite> writes)
+      throws IOException {
+    List<ValueRange> data = new ArrayList<>();
+    for (PendingWrite write : writes) {
+      data.add(new ValueRange().setRange(write.range).setValues(write.values));
+    }
+    BatchUpdateValuesRequest body = new BatchUpdateValuesRequest()
+        .setValueInputOption("USER_ENTERED")
+        .setData(data);
+    sheetsService.spreadsheets().values().batchUpdate(spreadsheetID, body).execute();
+  }
+
+  private void sendAppends(Sheets sheetsService, List<PendingWrite> writes) throws IOException {
+    // The rows queued for each sheet go in one append, so the server places them together after
+    // the last row of the sheet without the sheet having to be read first
+    Map<String, List<PendingWrite>> bySheet = new LinkedHashMap<>();
+    for (PendingWrite write : writes) {
+      List<PendingWrite> sheetWrites = bySheet.get(write.sheetName);
+      if (sheetWrites == null) {
+        sheetWrites = new ArrayList<>();
+        bySheet.put(write.sheetName, sheetWrites);
+      }
+      sheetWrites.add(write);
+    }
+    for (Map.Entry<String, List<PendingWrite>> entry : bySheet.entrySet()) {
+      List<List<Object>> rows = new ArrayList<>();
+      for (PendingWrite write : entry.getValue()) {
+        rows.addAll(write.values);
+      }
+      AppendValuesResponse response = sheetsService.spreadsheets().values()
+          .append(spreadsheetID, entry.getKey(),
+              new ValueRange().setRange(entry.getKey()).setValues(rows))
+          .setValueInputOption("USER_ENTERED")
+          .setInsertDataOption("INSERT_ROWS")
+          .execute();
+      int row = getFirstRow(response.getUpdates().getUpdatedRange());
+      for (PendingWrite write : entry.getValue()) {
+        write.writtenRow = row;
+        row += write.values.size();
+      }
+    }
+  }
+
+  /**
+   * Returns the number of the first row of a range in A1 notation, such as the 6 in
+   * {@code Sheet1!A6:C8}.
+   */
+  private static int getFirstRow(String range) {
+    String cell = range.substring(range.lastIndexOf('!') + 1).split(":")[0];
+    // Remove non-numeric characters from the string
+    return Integer.parseInt(cell.replaceAll("[^\\d]", ""));
+  }
+
+  private void sendRowDeletions(Sheets sheetsService, List<PendingWrite> writes)
+      throws IOException {
+    List<Request> requests = new ArrayList<>();
+    for (PendingWrite write : writes) {
+      int gridId = getSheetID(sheetsService, write.sheetName);
+      if (gridId == -1) {
+        throw new IOException("sheetName not found");
+      }
+      requests.add(new Request().setDeleteDimension(new DeleteDimensionRequest()
+          .setRange(new DimensionRange()
+              .setSheetId(gridId)
+              .setDimension("ROWS")
+              .setStartIndex(write.rowNumber - 1)
+              .setEndIndex(write.rowNumber))));
+    }
+    BatchUpdateSpreadsheetRequest body = new BatchUpdateSpreadsheetRequest()
+        .setRequests(requests);
+    try {
+      sheetsService.spreadsheets().batchUpdate(spreadsheetID, body).execute();
+    } finally {
+      for (PendingWrite write : writes) {
+        invalidateSnapshot(write.sheetName);
+      }
+    }
+  }
+
+  private void fireFinishedEvents(final List<PendingWrite> writes) {
+    final List<PendingWrite> sent = new ArrayList<>(writes);
+    activity.runOnUiThread(new Runnable() {
+      @Override
+      public void run() {
+        for (PendingWrite write : sent) {
+          if ("WriteCell".equals(write.method)) {
+            FinishedWriteCell();
+          } else if ("WriteRow".equals(write.method)) {
+            FinishedWriteRow();
+          } else if ("AddRow".equals(write.method)) {
+            FinishedAddRow(write.writtenRow);
+          } else if ("RemoveRow".equals(write.method)) {
+            FinishedRemoveRow();
+          }
+        }
+      }
+    });
+  }
+
+  /* Cached Sheets */
+
+  /**
+   * Returns the cells of the sheet if they were read less than {@link #CacheTimeout()}
+   * milliseconds ago, otherwise null.
+   */
+  private List<List<String>> getSnapshot(String sheetName) {
+    synchronized (snapshots) {
+      SheetSnapshot snapshot = snapshots.get(sheetName);
+      if (snapshot == null) {
+        return null;
+      } else if (SystemClock.elapsedRealtime() - snapshot.readTime >= cacheTimeout) {
+        snapshots.remove(sheetName);
+        return null;
+      }
+      return snapshot.rows;
+    }
+  }
+
+  private long getSnapshotGeneration() {
+    synchronized (snapshots) {
+      return snapshotGeneration;
+    }
+  }
+
+  /**
+   * Keeps the cells of a sheet, unless a write was made since {@code generation} was obtained
+   * before reading them.
+   */
+  private void putSnapshot(String sheetName, List<List<String>> rows, long generation) {
+    synchronized (snapshots) {
+      if (cacheTimeout > 0 && generation == snapshotGeneration) {
+        snapshots.put(sheetName, new SheetSnapshot(rows, SystemClock.elapsedRealtime()));
+      }
+    }
+  }
+
+  private void invalidateSnapshot(String sheetName) {
+    synchronized (snapshots) {
+      snapshotGeneration++;
+      snapshots.remove(sheetName);
+    }
+  }
+
   /* Filters and Methods that Use Filters */
 
   /**
@@ -490,7 +880,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     description="On the page with the provided sheetName, this method will " +
       "read the row at the given rowNumber and trigger the GotRowData " +
       "callback event.")
-  public void ReadRow (String sheetName, int rowNumber) {
+  public void ReadRow (final String sheetName, final int rowNumber) {
 
     if (spreadsheetID == "" || spreadsheetID == null) {
       ErrorOccurred("ReadRow: " + "SpreadsheetID is empty.");
@@ -558,6 +948,23 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
             return;
           }
 
+          // Answer from the copy of the sheet read earlier, if there is a recent one
+          List<List<String>> cached = getSnapshot(sheetName);
+          if (cached != null) {
+            if (rowNumber < 1 || rowNumber > cached.size() || cached.get(rowNumber - 1).isEmpty()) {
+              ErrorOccurred("ReadRow: No data found");
+              return;
+            }
+            final List<String> cachedRow = cached.get(rowNumber - 1);
+            activity.runOnUiThread(new Runnable() {
+              @Override
+              public void run() {
+                GotRowData(cachedRow);
+              }
+            });
+            return;
+          }
+
           // Run this if there is a credentials json provided.
           Sheets sheetsService = getSheetsService();
           ValueRange readResult = sheetsService.spreadsheets().values()
@@ -613,7 +1020,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
   @SimpleFunction(
     description="Given a list of values as `data`, writes the values to the " +
       "row of the sheet with the given row number.")
-  public void WriteRow (String sheetName, int rowNumber, YailList data) {
+  public void WriteRow (final String sheetName, int rowNumber, YailList data) {
 
     if (spreadsheetID == "" || spreadsheetID == null) {
       ErrorOccurred("WriteRow: " + "SpreadsheetID is empty.");
@@ -632,6 +1039,11 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     List<Object> row = new ArrayList<Object>(rowValues);
     values.add(row);
 
+    if (batchWrites) {
+      queueWrite(new PendingWrite("WriteRow", sheetName, rangeRef, values, 0));
+      return;
+    }
+
     // Sets the 2D list above to be the values in the body of the API Call
     final ValueRange body = new ValueRange()
       .setValues(values);
@@ -648,6 +1060,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
             .update(spreadsheetID, rangeRef, body)
             .setValueInputOption("USER_ENTERED")
             .execute();
+          invalidateSnapshot(sheetName);
           // Re-enter main thread to call the Event Block
           activity.runOnUiThread(new Runnable() {
             @Override
@@ -765,6 +1178,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
               .setRequests(requests);
           sheetsService.spreadsheets().batchUpdate(spreadsheetID, body).execute();
           removeSheetID(sheetName);
+          invalidateSnapshot(sheetName);
 
           // Run the callback event block
           activity.runOnUiThread(new Runnable() {
@@ -818,6 +1232,11 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     List<Object> row = sanitizeList(data);
     values.add(row);
 
+    if (batchWrites) {
+      queueWrite(new PendingWrite("AddRow", sheetName, null, values, 0));
+      return;
+    }
+
     // Sets the 2D list above to be the values in the body of the API Call
     final ValueRange body = new ValueRange()
       .setValues(values).setRange(sheetName);
@@ -844,13 +1263,10 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
               .setValueInputOption("USER_ENTERED")   // USER_ENTERED or RAW
               .setInsertDataOption("INSERT_ROWS")    // INSERT_ROWS or OVERRIDE
               .execute();
+          invalidateSnapshot(sheetName);
 
           // getUpdatedRange returns the range that updates were applied in A1
-          String updatedRange = response.getUpdates().getUpdatedRange();
-          // updatedRange is in the form SHEET_NAME!A#:END# => We want #
-          String cell = updatedRange.split("!")[1].split(":")[0];
-          // Remove non-numeric characters from the string
-          final int rowNumber = Integer.parseInt(cell.replaceAll("[^\\d.]", ""));
+          final int rowNumber = getFirstRow(response.getUpdates().getUpdatedRange());
           activity.runOnUiThread(new Runnable() {
             @Override
             public void run() {
@@ -891,6 +1307,10 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     description="Deletes the row with the given row number from the table." +
       "This does not clear the row, but removes it entirely.")
   public void RemoveRow (final String sheetName, final int rowNumber) {
+    if (batchWrites) {
+      queueWrite(new PendingWrite("RemoveRow", sheetName, null, null, rowNumber));
+      return;
+    }
     AsynchUtil.runAsynchronously(new Runnable() {
       @Override
       public void run () {
@@ -916,6 +1336,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
           BatchUpdateSpreadsheetRequest body = new BatchUpdateSpreadsheetRequest()
             .setRequests(requests);
           sheetsService.spreadsheets().batchUpdate(spreadsheetID, body).execute();
+          invalidateSnapshot(sheetName);
 
           // Run the callback event block
           activity.runOnUiThread(new Runnable() {
@@ -1079,7 +1500,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
   @SimpleFunction(description = "Given a list of values as `data`, this method will write the "
       + "values to the column of the sheet and calls the FinishedWriteColumn event "
       + "once complete.")
-  public void WriteColumn(String sheetName, String column, YailList data) {
+  public void WriteColumn(final String sheetName, String column, YailList data) {
     if (spreadsheetID == null || spreadsheetID.isEmpty()) {
       ErrorOccurred("WriteColumn: " + "SpreadsheetID is empty.");
       return;
@@ -1118,6 +1539,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
             .update(spreadsheetID, rangeRef, body)
             .setValueInputOption("USER_ENTERED")
             .execute();
+          invalidateSnapshot(sheetName);
           // Run the callback function
           activity.runOnUiThread(new Runnable() {
             @Override
@@ -1209,6 +1631,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
               .update(spreadsheetID, rangeRef, body)
               .setValueInputOption("USER_ENTERED")
               .execute();
+          invalidateSnapshot(sheetName);
 
           activity.runOnUiThread(new Runnable() {
             @Override
@@ -1281,6 +1704,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
           BatchUpdateSpreadsheetRequest body = new BatchUpdateSpreadsheetRequest()
               .setRequests(requests);
           sheetsService.spreadsheets().batchUpdate(spreadsheetID, body).execute();
+          invalidateSnapshot(sheetName);
           // Run the callback event
           activity.runOnUiThread(new Runnable() {
             @Override
@@ -1448,7 +1872,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
   @SimpleFunction(
     description="Given text or a number as `data`, writes the value into the " +
       "cell. Once complete, it triggers the FinishedWriteCell callback event")
-  public void WriteCell (String sheetName, String cellReference, Object data) {
+  public void WriteCell (final String sheetName, String cellReference, Object data) {
     if (spreadsheetID == "") {
       ErrorOccurred("WriteCell: " + "SpreadsheetID is empty.");
       return;
@@ -1460,12 +1884,18 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     // Generates the A1 Reference for the operation
     final String rangeRef = sheetName + "!" + cellReference;
     // Form the body as a 2D list of Strings, with only one string
-    final ValueRange body = new ValueRange()
-      .setValues(Arrays.asList(
+    List<List<Object>> values = Arrays.asList(
         Arrays.asList(sanitizeObject(data))
-      ));
+    );
     Log.d(LOG_TAG, "Writing Cell: " + rangeRef);
 
+    if (batchWrites) {
+      queueWrite(new PendingWrite("WriteCell", sheetName, rangeRef, values, 0));
+      return;
+    }
+    final ValueRange body = new ValueRange()
+      .setValues(values);
+
     // Wrap the API Call in an Async Utility
     AsynchUtil.runAsynchronously(new Runnable() {
       @Override
@@ -1483,6 +1913,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
             .update(spreadsheetID, rangeRef, body)
             .setValueInputOption("USER_ENTERED") // USER_ENTERED or RAW
             .execute();
+          invalidateSnapshot(sheetName);
           // Trigger the Callback
           activity.runOnUiThread(new Runnable() {
             @Override
@@ -1640,7 +2071,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     description="Given list of lists as `data`, writes the values into the " +
       "range. The number of rows and columns in the range reference must " +
       "match the dimensions of the data.")
-  public void WriteRange (String sheetName, String rangeReference, YailList data) {
+  public void WriteRange (final String sheetName, String rangeReference, YailList data) {
     if (spreadsheetID == "" || spreadsheetID == null) {
       ErrorOccurred("WriteRange: " + "SpreadsheetID is empty.");
       return;
@@ -1692,6 +2123,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
             .update(spreadsheetID, rangeRef, body)
             .setValueInputOption("USER_ENTERED") // USER_ENTERED or RAW
             .execute();
+          invalidateSnapshot(sheetName);
           activity.runOnUiThread(new Runnable() {
             @Override
             public void run() {
@@ -1724,7 +2156,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
   @SimpleFunction(
     description="Empties the cells in the given range. Once complete, this " +
       "block triggers the FinishedClearRange callback event.")
-  public void ClearRange (String sheetName, String rangeReference) {
+  public void ClearRange (final String sheetName, String rangeReference) {
     if (spreadsheetID == "" || spreadsheetID == null) {
       ErrorOccurred("ClearRange: " + "SpreadsheetID is empty.");
       return;
@@ -1746,6 +2178,7 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
           sheetsService.spreadsheets().values()
             .clear(spreadsheetID, rangeRef, new ClearValuesRequest())
             .execute();
+          invalidateSnapshot(sheetName);
           form.runOnUiThread(new Runnable() {
             @Override
             public void run() {
@@ -1868,34 +2301,12 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
           }
           Log.d(LOG_TAG, "Reading Sheet: Credentials located.");
 
-          // Run this if there is a credentials json provided.
-          Sheets sheetsService = getSheetsService();
-          Log.d(LOG_TAG, "Reading Sheet: Got sheet service");
-          // Spreadsheet sheet = sheetsService.spreadsheets().get(spreadsheetID).execute();
-          ValueRange readResult = sheetsService.spreadsheets().values()
-              .get(spreadsheetID, sheetName).execute();
-          Log.d(LOG_TAG, "Got read result");
-          // Get the actual data from the response
-          List<List<Object>> values = readResult.getValues();
-          Log.d(LOG_TAG, "Reading Sheet: values count " + values.size());
-
-          // No Data Found
-          if (values == null || values.isEmpty()) {
+          // Use the copy of the sheet from an earlier read if it is recent enough
+          final List<List<String>> ret = readSheetValues(sheetName);
+          if (ret == null) {
             ErrorOccurred("ReadSheet: No data found.");
             return;
           }
-          // Format the result as a string and run the call back
-          final List<List<String>> ret = new ArrayList<List<String>>();
-          // For every object in the result, convert it to a string
-          Log.d(LOG_TAG, "RetriveSheet data: " + values);
-
-          for (List<Object> row : values) {
-            List<String> cellRow = new ArrayList<String>();
-            for (Object cellValue : row) {
-              cellRow.add(String.format("%s", cellValue == null ? "" : cellValue));
-            }
-            ret.add(cellRow);
-          }
           Log.d(LOG_TAG, "RetriveSheet return rowcount: " + ret.size());
 
           // We need to re-enter the main thread before we can dispatch the event!
@@ -1951,6 +2362,48 @@ public class Spreadsheet extends AndroidNonvisibleComponent implements Component
     };
   }
 
+  /**
+   * Returns the cells of the sheet as text, using the copy kept from an earlier read if it is
+   * recent enough, or null if the sheet is empty. Requires credentials.
+   */
+  private List<List<String>> readSheetValues(String sheetName)
+      throws IOException, GeneralSecurityException {
+    List<List<String>> cached = getSnapshot(sheetName);
+    if (cached != null) {
+      Log.d(LOG_TAG, "Reading Sheet: using copy read earlier");
+      return cached;
+    }
+    long generation = getSnapshotGeneration();
+
+    // Run this if there is a credentials json provided.
+    Sheets sheetsService = getSheetsService();
+    Log.d(LOG_TAG, "Reading Sheet: Got sheet service");
+    ValueRange readResult = sheetsService.spreadsheets().values()
+        .get(spreadsheetID, sheetName).execute();
+    Log.d(LOG_TAG, "Got read result");
+    // Get the actual data from the response
+    List<List<Object>> values = readResult.getValues();
+
+    // No Data Found
+    if (values == null || values.isEmpty()) {
+      return null;
+    }
+    Log.d(LOG_TAG, "Reading Sheet: values count " + values.size());
+    // Format the result as a string and run the call back
+    List<List<String>> ret = new ArrayList<List<String>>();
+    // For every object in the result, convert it to a string
+    for (List<Object> row : values) {
+      List<String> cellRow = new ArrayList<String>();
+      for (Object cellValue : row) {
+        cellRow.add(String.format("%s", cellValue == null ? "" : cellValue));
+      }
+      ret.add(Collections.unmodifiableList(cellRow));
+    }
+    ret = Collections.unmodifiableList(ret);
+    putSnapshot(sheetName, ret, generation);
+    return ret;
+  }
+
   /**
    * The callback event for the {@link #ReadSheet} block. The `sheetData` is a
    * list of rows.
@@ -726,6 +726,14 @@ public abstract class Sprite extends VisibleComponent
     return registeredCollisions.contains(other);
   }
 
+  /**
+   * Returns the sprites a collision has been registered with. Used by the
+   * Canvas to check whether they are still colliding after this sprite moves.
+   */
+  Set<Sprite> getRegisteredCollisions() {
+    return registeredCollisions;
+  }
+
   /**
    * Moves the sprite back in bounds if part of it extends out of bounds,
    * having no effect otherwise. If the sprite is too wide to fit on the
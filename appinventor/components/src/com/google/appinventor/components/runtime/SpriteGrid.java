@@ -0,0 +1,151 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime;
+
+import com.google.appinventor.components.runtime.util.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A uniform grid of the sprites on a {@link Canvas}, used to find the sprites
+ * near a point or another sprite without checking every sprite.
+ *
+ * <p>Each sprite is recorded in every cell its bounds overlap. The bounds are
+ * those of the smallest circle about the sprite's origin that holds the whole
+ * sprite, so they hold however the sprite is rotated. Sprites that touch share
+ * at least one cell; whether they actually touch is left to
+ * {@link Sprite#colliding(Sprite, Sprite)} and
+ * {@link Sprite#intersectsWith(BoundingBox)}.</p>
+ */
+final class SpriteGrid {
+  // Sprites are typically tens of pixels across, so most occupy one to four cells.
+  private static final int CELL_SIZE = 64;
+
+  // Cells are keyed by their column and row packed into a long.
+  private final Map<Long, List<Sprite>> cells = new HashMap<Long, List<Sprite>>();
+
+  // The cells each sprite is recorded in, as {left, top, right, bottom} column and row.
+  private final Map<Sprite, int[]> spriteCells = new IdentityHashMap<Sprite, int[]>();
+
+  /**
+   * Records the current position of the given sprite, adding it to the grid
+   * if it is not already there.
+   *
+   * @param sprite the sprite that has moved, or changed size or heading
+   */
+  void update(Sprite sprite) {
+    // Image sprites rotate about their origin, so take the farthest corner from it.
+    double radius = Math.hypot(
+        Math.max(sprite.xOrigin - sprite.xLeft, sprite.xLeft + sprite.Width() - sprite.xOrigin),
+        Math.max(sprite.yOrigin - sprite.yTop, sprite.yTop + sprite.Height() - sprite.yOrigin));
+    int[] range = {
+        cell(sprite.xOrigin - radius), cell(sprite.yOrigin - radius),
+        cell(sprite.xOrigin + radius), cell(sprite.yOrigin + radius)
+    };
+    int[] old = spriteCells.get(sprite);
+    if (old != null) {
+      if (old[0] == range[0] && old[1] == range[1] && old[2] == range[2]
+          && old[3] == range[3]) {
+        return;
+      }
+      removeFromCells(sprite, old);
+    }
+    spriteCells.put(sprite, range);
+    for (int column = range[0]; column <= range[2]; column++) {
+      for (int row = range[1]; row <= range[3]; row++) {
+        Long key = key(column, row);
+        List<Sprite> cell = cells.get(key);
+        if (cell == null) {
+          cell = new ArrayList<Sprite>(4);
+          cells.put(key, cell);
+        }
+        cell.add(sprite);
+      }
+    }
+  }
+
+  /**
+   * Removes the given sprite from the grid.
+   *
+   * @param sprite the sprite to remove
+   */
+  void remove(Sprite sprite) {
+    int[] range = spriteCells.remove(sprite);
+    if (range != null) {
+      removeFromCells(sprite, range);
+    }
+  }
+
+  /**
+   * Adds the sprites sharing a cell with the given sprite, other than the
+   * sprite itself, to {@code result}.
+   *
+   * @param sprite a sprite in the grid
+   * @param result the collection to add the nearby sprites to
+   */
+  void findNear(Sprite sprite, Collection<Sprite> result) {
+    int[] range = spriteCells.get(sprite);
+    if (range != null) {
+      collect(range[0], range[1], range[2], range[3], sprite, result);
+    }
+  }
+
+  /**
+   * Adds the sprites in the cells overlapping the given rectangle to
+   * {@code result}.
+   *
+   * @param rect the rectangle
+   * @param result the collection to add the nearby sprites to
+   */
+  void findNear(BoundingBox rect, Collection<Sprite> result) {
+    collect(cell(rect.getLeft()), cell(rect.getTop()), cell(rect.getRight()),
+        cell(rect.getBottom()), null, result);
+  }
+
+  private void collect(int left, int top, int right, int bottom, Sprite exclude,
+      Collection<Sprite> result) {
+    for (int column = left; column <= right; column++) {
+      for (int row = top; row <= bottom; row++) {
+        List<Sprite> cell = cells.get(key(column, row));
+        if (cell != null) {
+          for (Sprite other : cell) {
+            if (other != exclude) {
+              result.add(other);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private void removeFromCells(Sprite sprite, int[] range) {
+    for (int column = range[0]; column <= range[2]; column++) {
+      for (int row = range[1]; row <= range[3]; row++) {
+        Long key = key(column, row);
+        List<Sprite> cell = cells.get(key);
+        if (cell != null) {
+          cell.remove(sprite);
+          if (cell.isEmpty()) {
+            cells.remove(key);
+          }
+        }
+      }
+    }
+  }
+
+  private static int cell(double coordinate) {
+    return (int) Math.floor(coordinate / CELL_SIZE);
+  }
+
+  private static Long key(int column, int row) {
+    return ((long) column << 32) | (row & 0xffffffffL);
+  }
+}
@@ -239,6 +239,12 @@ public class Web extends AndroidNonvisibleComponent implements Component,
   // The columns are used for Chart Data importing.
   private YailList columns = new YailList();
 
+  // The latest response and its type, until they are parsed into columns.
+  // Parsing is deferred until the columns are needed, so that responses
+  // that no Chart imports are never parsed.
+  private String unparsedResponseContent = null;
+  private String unparsedResponseType = null;
+
   // Set of observers
   private HashSet<DataSourceChangeListener> dataSourceObservers = new HashSet<>();
   private String responseTextEncoding = "UTF-8";
@@ -1273,9 +1279,6 @@ public class Web extends AndroidNonvisibleComponent implements Component,
 
             // Update the locally stored columns list with the contents of the
             // retrieved response & response type.
-            // TODO: Optimizations are possible here. Currently for projects which
-            // TODO: do not make use of Chart components, this will create extra overhead
-            // TODO: due to JSON/CSV parsing.
             updateColumns(responseContent, responseType);
 
             // Notify all data observers with null key and null value.
@@ -1662,10 +1665,37 @@ public class Web extends AndroidNonvisibleComponent implements Component,
    * <p>Currently supported MIME types are all types which have 'json' in the name,
    * types which have 'csv' in the name, as well as types which start with 'text/'</p>
    *
+   * <p>The response is only recorded here, and is parsed by {@link #getParsedColumns()}
+   * when the columns are first needed.</p>
+   *
    * @param responseContent  Content of the response
    * @param responseType  Type of the response
    */
-  private void updateColumns(final String responseContent, final String responseType) {
+  private synchronized void updateColumns(final String responseContent,
+      final String responseType) {
+    if (responseType.contains("json") || responseType.contains("csv")
+        || responseType.startsWith("text/")) {
+      unparsedResponseContent = responseContent;
+      unparsedResponseType = responseType;
+    }
+  }
+
+  /**
+   * Returns the columns of the latest response, parsing the response first
+   * if it has not yet been parsed.
+   *
+   * @return  YailList of columns, where each entry is a YailList
+   */
+  private synchronized YailList getParsedColumns() {
+    if (unparsedResponseContent != null) {
+      parseColumns(unparsedResponseContent, unparsedResponseType);
+      unparsedResponseContent = null;
+      unparsedResponseType = null;
+    }
+    return columns;
+  }
+
+  private void parseColumns(String responseContent, String responseType) {
     // Check whether the response type is a JSON type (by checking
     // whether the response type contains the String 'json')
     // If this is not the case, CSV parsing is attempted if the
@@ -1696,6 +1726,8 @@ public class Web extends AndroidNonvisibleComponent implements Component,
    * @return  YailList representation of the column (empty List if not found)
    */
   public YailList getColumn(String column) {
+    YailList columns = getParsedColumns();
+
     // Iterate through all the columns
     for (int i = 0; i < columns.size(); ++i) {
       YailList list = (YailList)columns.getObject(i);
@@ -1748,6 +1780,10 @@ public class Web extends AndroidNonvisibleComponent implements Component,
 
   @Override
   public void notifyDataObservers(YailList key, Object newValue) {
+    if (dataSourceObservers.isEmpty()) {
+      return;
+    }
+    YailList columns = getParsedColumns();
     for (DataSourceChangeListener dataComponent : dataSourceObservers) {
       // Notify Data Component observer with the new columns value (and null key,
       // since key does not matter in the case of the Web component)
@@ -0,0 +1,169 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.linkeddata;
+
+import static com.google.appinventor.components.common.SemanticWebConstants.CLAUSE_FUNCTOR;
+import static com.google.appinventor.components.common.SemanticWebConstants.CLAUSE_RULE;
+import static com.google.appinventor.components.common.SemanticWebConstants.CLAUSE_TRIPLE;
+import static com.google.appinventor.components.common.SemanticWebConstants.COMPILED_RULES_MAGIC;
+import static com.google.appinventor.components.common.SemanticWebConstants.COMPILED_RULES_VERSION;
+import static com.google.appinventor.components.common.SemanticWebConstants.NODE_ANY;
+import static com.google.appinventor.components.common.SemanticWebConstants.NODE_BLANK;
+import static com.google.appinventor.components.common.SemanticWebConstants.NODE_FUNCTOR;
+import static com.google.appinventor.components.common.SemanticWebConstants.NODE_LITERAL;
+import static com.google.appinventor.components.common.SemanticWebConstants.NODE_URI;
+import static com.google.appinventor.components.common.SemanticWebConstants.NODE_VARIABLE;
+import static com.google.appinventor.components.common.SemanticWebConstants.NODE_WILD;
+
+import com.hp.hpl.jena.datatypes.TypeMapper;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.rdf.model.AnonId;
+import com.hp.hpl.jena.reasoner.TriplePattern;
+import com.hp.hpl.jena.reasoner.rulesys.ClauseEntry;
+import com.hp.hpl.jena.reasoner.rulesys.Functor;
+import com.hp.hpl.jena.reasoner.rulesys.Node_RuleVariable;
+import com.hp.hpl.jena.reasoner.rulesys.Rule;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a ruleset precompiled by the buildserver's PrecompileRules task. The format is
+ * described in {@link com.google.appinventor.components.common.SemanticWebConstants}.
+ */
+final class CompiledRulesReader {
+  private final DataInputStream in;
+
+  /**
+   * Variables of the rule being read, by index. Nested rules share the variable table of the
+   * top-level rule that contains them.
+   */
+  private final Map<Integer, Node_RuleVariable> variables = new HashMap<>();
+
+  private CompiledRulesReader(byte[] data) {
+    in = new DataInputStream(new ByteArrayInputStream(data));
+  }
+
+  /**
+   * Decodes a compiled ruleset.
+   *
+   * @param data the contents of a compiled rules file
+   * @return the rules, in the order they appeared in the source file
+   * @throws IOException if the data is not a compiled ruleset of the expected version
+   */
+  static List<Rule> read(byte[] data) throws IOException {
+    return new CompiledRulesReader(data).readRules();
+  }
+
+  private List<Rule> readRules() throws IOException {
+    if (in.readInt() != COMPILED_RULES_MAGIC) {
+      throw new IOException("Not a compiled ruleset");
+    }
+    short version = in.readShort();
+    if (version != COMPILED_RULES_VERSION) {
+      throw new IOException("Unsupported compiled ruleset version " + version);
+    }
+    int count = in.readInt();
+    List<Rule> rules = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      variables.clear();
+      rules.add(readRule());
+    }
+    return rules;
+  }
+
+  private Rule readRule() throws IOException {
+    String name = in.readBoolean() ? readString() : null;
+    boolean backward = in.readBoolean();
+    int numVars = in.readInt();
+    ClauseEntry[] head = readClauses();
+    ClauseEntry[] body = readClauses();
+    Rule rule = new Rule(name, head, body);
+    rule.setBackward(backward);
+    rule.setNumVars(numVars);
+    return rule;
+  }
+
+  private ClauseEntry[] readClauses() throws IOException {
+    ClauseEntry[] clauses = new ClauseEntry[in.readInt()];
+    for (int i = 0; i < clauses.length; i++) {
+      byte tag = in.readByte();
+      switch (tag) {
+        case CLAUSE_TRIPLE:
+          clauses[i] = new TriplePattern(readNode(), readNode(), readNode());
+          break;
+        case CLAUSE_FUNCTOR:
+          clauses[i] = readFunctor();
+          break;
+        case CLAUSE_RULE:
+          clauses[i] = readRule();
+          break;
+        default:
+          throw new IOException("Unknown clause type " + tag);
+      }
+    }
+    return clauses;
+  }
+
+  private Functor readFunctor() throws IOException {
+    String name = readString();
+    int count = in.readInt();
+    List<Node> args = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      args.add(readNode());
+    }
+    // Looks up the builtin implementation in the registry, as the rule parser does.
+    return new Functor(name, args);
+  }
+
+  private Node readNode() throws IOException {
+    byte tag = in.readByte();
+    switch (tag) {
+      case NODE_URI:
+        return Node.createURI(readString());
+      case NODE_BLANK:
+        return Node.createAnon(new AnonId(readString()));
+      case NODE_LITERAL: {
+        String lexical = readString();
+        String lang = readString();
+        String datatype = readString();
+        if (datatype.length() > 0) {
+          return Node.createLiteral(lexical, null,
+              TypeMapper.getInstance().getSafeTypeByName(datatype));
+        }
+        return Node.createLiteral(lexical, lang, false);
+      }
+      case NODE_VARIABLE: {
+        String name = readString();
+        int index = in.readInt();
+        Node_RuleVariable variable = variables.get(index);
+        if (variable == null) {
+          variable = new Node_RuleVariable(name, index);
+          variables.put(index, variable);
+        }
+        return variable;
+      }
+      case NODE_WILD:
+        return Node_RuleVariable.WILD;
+      case NODE_ANY:
+        return Node.ANY;
+      case NODE_FUNCTOR:
+        return Functor.makeFunctorNode(readFunctor());
+      default:
+        throw new IOException("Unknown node type " + tag);
+    }
+  }
+
+  private String readString() throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, "UTF-8");
+  }
+}
@@ -0,0 +1,101 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.linkeddata;
+
+import com.hp.hpl.jena.reasoner.rulesys.Rule;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A process-wide cache of parsed rulesets, keyed by a hash of their contents so that the same
+ * ruleset is parsed once no matter how many times, or by how many Reasoners, it is loaded.
+ *
+ * <p>Parsed {@link Rule}s are treated as immutable by the rule engines and are shared between
+ * callers, but each caller gets its own list so that it can add to or remove from it.</p>
+ */
+public final class RuleCache {
+  private static final int MAX_ENTRIES = 16;
+
+  private static final Map<String, List<Rule>> CACHE =
+      new LinkedHashMap<String, List<Rule>>(MAX_ENTRIES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<Rule>> eldest) {
+          return size() > MAX_ENTRIES;
+        }
+      };
+
+  private RuleCache() {
+  }
+
+  /**
+   * Returns the rules in the given ruleset text, parsing it only if it has not been parsed
+   * before.
+   *
+   * @param ruleset rules in the Jena rule syntax
+   * @return a new list containing the parsed rules
+   */
+  public static List<Rule> parseRules(String ruleset) {
+    byte[] bytes;
+    try {
+      bytes = ruleset.getBytes("UTF-8");
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);  // UTF-8 is always supported
+    }
+    String key = "text:" + digest(bytes);
+    List<Rule> rules = get(key);
+    if (rules == null) {
+      rules = Rule.parseRules(ruleset);
+      put(key, rules);
+    }
+    return new ArrayList<>(rules);
+  }
+
+  /**
+   * Returns the rules in the given precompiled ruleset, decoding it only if it has not been
+   * decoded before.
+   *
+   * @param compiled the contents of a compiled rules asset
+   * @return a new list containing the decoded rules
+   * @throws IOException if the data is not a compiled ruleset this runtime can read
+   */
+  public static List<Rule> readCompiledRules(byte[] compiled) throws IOException {
+    String key = "compiled:" + digest(compiled);
+    List<Rule> rules = get(key);
+    if (rules == null) {
+      rules = CompiledRulesReader.read(compiled);
+      put(key, rules);
+    }
+    return new ArrayList<>(rules);
+  }
+
+  private static synchronized List<Rule> get(String key) {
+    return CACHE.get(key);
+  }
+
+  private static synchronized void put(String key, List<Rule> rules) {
+    CACHE.put(key, rules);
+  }
+
+  private static String digest(byte[] bytes) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+      StringBuilder sb = new StringBuilder(hash.length * 2);
+      for (byte b : hash) {
+        sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+        sb.append(Character.forDigit(b & 0xF, 16));
+      }
+      return sb.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);  // SHA-256 is required on all platforms
+    }
+  }
+}
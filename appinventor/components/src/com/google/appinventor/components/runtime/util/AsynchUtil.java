@@ -14,11 +14,23 @@ import android.util.Log;
 import com.google.appinventor.components.runtime.errors.YailRuntimeError;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Utilities for handling asynchronous calls.
  *
+ * <p>Asynchronous calls run on one of two shared, bounded thread pools, or
+ * {@link Lane lanes}, rather than on a new thread each. Calls beyond a lane's
+ * limit wait in its queue. Threads are started as needed and stop after being
+ * idle for a while.</p>
+ *
  * @author markf@google.com (Mark Friedman)
  */
 
@@ -26,14 +38,149 @@ public class AsynchUtil {
 
   private static final String LOG_TAG = AsynchUtil.class.getSimpleName();
 
+  // How long a lane's threads wait for more work before stopping.
+  private static final long KEEP_ALIVE_SECONDS = 30;
+
+  /**
+   * The thread pools that asynchronous calls run on.
+   */
+  public enum Lane {
+    /**
+     * For calls that spend most of their time waiting on the network, storage
+     * or other devices. This is the default.
+     */
+    IO(32, Thread.NORM_PRIORITY),
+
+    /**
+     * For calls that spend most of their time computing. There is one thread
+     * per processor, and they run below the priority of the UI thread.
+     */
+    CPU(Math.max(2, Runtime.getRuntime().availableProcessors()), Thread.NORM_PRIORITY - 1);
+
+    private final int threads;
+    private final int priority;
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong totalWaitMillis = new AtomicLong();
+    private final AtomicLong totalRunMillis = new AtomicLong();
+    private ThreadPoolExecutor executor;
+
+    Lane(int threads, int priority) {
+      this.threads = threads;
+      this.priority = priority;
+    }
+
+    private synchronized ThreadPoolExecutor getExecutor() {
+      if (executor == null) {
+        final String prefix = "AsynchUtil-" + name().toLowerCase() + "-";
+        executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+              private final AtomicInteger count = new AtomicInteger();
+
+              @Override
+              public Thread newThread(Runnable runnable) {
+                Thread thread = new LaneThread(runnable, prefix + count.incrementAndGet());
+                thread.setPriority(priority);
+                return thread;
+              }
+            });
+        executor.allowCoreThreadTimeOut(true);
+      }
+      return executor;
+    }
+
+    /**
+     * Returns the number of calls waiting for a thread.
+     */
+    public int getQueuedCount() {
+      return getExecutor().getQueue().size();
+    }
+
+    /**
+     * Returns the number of calls running.
+     */
+    public int getActiveCount() {
+      return getExecutor().getActiveCount();
+    }
+
+    /**
+     * Returns the number of calls that have finished.
+     */
+    public long getCompletedCount() {
+      return completedCount.get();
+    }
+
+    /**
+     * Returns the average time in milliseconds finished calls waited for a thread.
+     */
+    public long getAverageWaitMillis() {
+      long completed = completedCount.get();
+      return completed == 0 ? 0 : totalWaitMillis.get() / completed;
+    }
+
+    /**
+     * Returns the average time in milliseconds finished calls took to run.
+     */
+    public long getAverageRunMillis() {
+      long completed = completedCount.get();
+      return completed == 0 ? 0 : totalRunMillis.get() / completed;
+    }
+  }
+
   /**
-   * Make an asynchronous call in a separate thread.
+   * A thread belonging to one of the lanes.
+   */
+  private static final class LaneThread extends Thread {
+    private LaneThread(Runnable runnable, String name) {
+      super(runnable, name);
+    }
+  }
+
+  /**
+   * Wraps a call to record how long it waited and ran.
+   */
+  private static final class TimedRunnable implements Runnable {
+    private final Lane lane;
+    private final Runnable call;
+    private final long queuedTime = System.currentTimeMillis();
+
+    private TimedRunnable(Lane lane, Runnable call) {
+      this.lane = lane;
+      this.call = call;
+    }
+
+    @Override
+    public void run() {
+      long start = System.currentTimeMillis();
+      try {
+        call.run();
+      } finally {
+        lane.totalWaitMillis.addAndGet(start - queuedTime);
+        lane.totalRunMillis.addAndGet(System.currentTimeMillis() - start);
+        lane.completedCount.incrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Make an asynchronous call on the {@link Lane#IO} lane.
    * @param call a {@link Runnable} to run in the thread.
    */
   public static void runAsynchronously(final Runnable call) {
-    Thread thread = new Thread(call);
-    thread.start();
+    Lane.IO.getExecutor().execute(new TimedRunnable(Lane.IO, call));
   }
+
+  /**
+   * Make an asynchronous call on the given lane. The call can be cancelled
+   * through the returned {@link Future}, which also holds any exception it
+   * throws.
+   * @param lane the lane to run the call on
+   * @param call a {@link Runnable} to run in the thread.
+   * @return a Future that completes when the call returns
+   */
+  public static Future<?> runAsynchronously(Lane lane, final Runnable call) {
+    return lane.getExecutor().submit(new TimedRunnable(lane, call));
+  }
+
   /**
    * Make an asynchronous call in a separate thread, with a callback that's run on the current
    * Android UI thread.
@@ -56,11 +203,19 @@ public class AsynchUtil {
         }
       }
     };
-    Thread thread = new Thread(runnable);
-    thread.start();
+    runAsynchronously(runnable);
   }
 
   public static <T> T runAsynchronously(final Callable<T> call) throws InterruptedException {
+    if (Thread.currentThread() instanceof LaneThread) {
+      // Waiting here for another call on the same lane could use up all of its threads.
+      try {
+        return call.call();
+      } catch (Exception e) {
+        e.printStackTrace();
+        return null;
+      }
+    }
     final AtomicReference<T> result = new AtomicReference<>();
     synchronized (result) {
       AsynchUtil.runAsynchronously(new Runnable() {
@@ -0,0 +1,144 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A local copy of the CloudDB values an app has read or been told about,
+ * kept up to date by the change notifications that
+ * {@link CloudDBJedisListener} receives.
+ *
+ * <p>Values are kept as the JSON text stored on the server. A tag known to
+ * have no value maps to {@code null}.</p>
+ *
+ * <p>While the listener is subscribed, every change to the project is
+ * published to it, so the cached values are current and can be used instead
+ * of asking the server. When the subscription is lost the values are kept,
+ * but only as the last known values to use while offline. They are discarded
+ * when the listener subscribes again, since changes may have been missed in
+ * the meantime.</p>
+ */
+public class CloudDBCache {
+  private final Map<String, String> values = new HashMap<String, String>();
+
+  // Values are only kept while caching is enabled.
+  private boolean enabled = false;
+
+  // True while the listener is subscribed.
+  private boolean current = false;
+
+  // Counts changes to the cache, so that a value read from the server is
+  // only stored if no change was published while the read was in flight.
+  private long generation = 0;
+
+  /**
+   * Turns caching on or off. Turning it off discards all values.
+   */
+  public synchronized void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    if (!enabled) {
+      values.clear();
+    }
+    generation++;
+  }
+
+  /**
+   * Returns a stamp to pass to {@link #put(String, String, long)} with a value
+   * about to be read from the server.
+   */
+  public synchronized long getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Returns the cached values of the given tags. Tags that are not cached are
+   * left out of the result.
+   *
+   * @param tags the tags to look up
+   * @param includeStale true to include the last known values while the
+   *     listener is not subscribed, for use when offline
+   * @return a map from tag to the JSON text of its value, or null if the tag has no value
+   */
+  public synchronized Map<String, String> getAll(Collection<String> tags, boolean includeStale) {
+    Map<String, String> result = new HashMap<String, String>();
+    if (current || includeStale) {
+      for (String tag : tags) {
+        if (values.containsKey(tag)) {
+          result.put(tag, values.get(tag));
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Stores a value read from the server, unless the cache has changed since
+   * {@code generation} was obtained.
+   *
+   * @param tag the tag that was read
+   * @param value the JSON text of the value, or null if the tag has no value
+   * @param generation the result of {@link #getGeneration()} before the read
+   */
+  public synchronized void put(String tag, String value, long generation) {
+    if (enabled && current && generation == this.generation) {
+      values.put(tag, value);
+    }
+  }
+
+  /**
+   * Records a change published by the server.
+   *
+   * @param tag the tag that changed
+   * @param value the JSON text of the new value, or null if the tag was removed
+   */
+  public synchronized void update(String tag, String value) {
+    generation++;
+    if (enabled && current) {
+      values.put(tag, value);
+    }
+  }
+
+  /**
+   * Forgets the value of a tag that this device is about to change, so that
+   * it is read from the server until the change is published back. Reads
+   * already in flight are not stored, as they may have read the old value.
+   *
+   * @param tag the tag being changed
+   */
+  public synchronized void invalidate(String tag) {
+    generation++;
+    values.remove(tag);
+  }
+
+  /**
+   * Called when the listener has subscribed to change notifications.
+   */
+  public synchronized void subscribed() {
+    values.clear();
+    generation++;
+    current = true;
+  }
+
+  /**
+   * Called when the listener has lost or given up its subscription.
+   */
+  public synchronized void unsubscribed() {
+    generation++;
+    current = false;
+  }
+
+  /**
+   * Discards all values, as when the app switches to a different project or
+   * server.
+   */
+  public synchronized void clear() {
+    values.clear();
+    generation++;
+  }
+}
@@ -38,6 +38,8 @@ public class CloudDBJedisListener extends JedisPubSub {
     if (DEBUG) {
       Log.d(LOG_TAG, "onSubscribe " + channel + " " + subscribedChannels);
     }
+    // From now on every change is published to us, so cached values stay current.
+    cloudDB.getCache().subscribed();
   }
 
   @Override
@@ -54,6 +56,10 @@ public class CloudDBJedisListener extends JedisPubSub {
       }
       String tag = (String) data.get(0);   // The variable that was changed
       List<Object> valueList = (List<Object>) data.get(1);
+      // The last value published is the one now stored. No values means the tag was cleared.
+      // Values are JSON text, apart from "true" and "false", which are decoded to Booleans.
+      cloudDB.getCache().update(tag, valueList.isEmpty() ? null
+          : String.valueOf(valueList.get(valueList.size() - 1)));
       for (Object value : valueList) {
         // Note: DataChanged will arrange to dispatch the event
         // on the UI thread.
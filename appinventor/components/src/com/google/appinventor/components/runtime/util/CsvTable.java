@@ -0,0 +1,352 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A CSV table stored by column, as read by {@link CsvUtil#readCsvTable(java.io.Reader)}.
+ *
+ * <p>The first row holds the column names. The cells of every other row are
+ * stored in their column, as longs or doubles while the column holds only
+ * numbers and as text otherwise, so a large numeric table takes a fraction
+ * of the memory of its text. Cells read back as the exact text they were
+ * parsed from, and rows keep their own lengths, so the rows and columns
+ * produced are the same as those of {@link CsvUtil#fromCsvTable(String)} and
+ * {@link ChartDataSourceUtil#getTranspose(YailList)}.</p>
+ *
+ * <p>YailLists of the rows or columns are only built when asked for.</p>
+ */
+public final class CsvTable {
+  private List<String> header = null;
+  private final List<Column> columns = new ArrayList<Column>();
+  // Lengths of the rows after the header
+  private int[] rowLengths = new int[16];
+  private int dataRowCount = 0;
+
+  CsvTable() {
+  }
+
+  /**
+   * Appends a row to the table. The first row appended is the header.
+   * Line breaks inside quoted cells are stored as "\n", as they are when the
+   * whole file is read with {@link IOUtils#normalizeNewLines(String)} first.
+   */
+  void addRow(List<String> cells) {
+    if (header == null) {
+      header = new ArrayList<String>(cells.size());
+      for (String cell : cells) {
+        header.add(normalizeNewLines(cell));
+      }
+      return;
+    }
+    int row = dataRowCount;
+    for (int i = 0; i < cells.size(); i++) {
+      if (i == columns.size()) {
+        // A new column: the earlier rows are shorter than this one
+        Column column = new Column();
+        for (int j = 0; j < row; j++) {
+          column.add("");
+        }
+        columns.add(column);
+      }
+      columns.get(i).add(normalizeNewLines(cells.get(i)));
+    }
+    for (int i = cells.size(); i < columns.size(); i++) {
+      columns.get(i).add("");
+    }
+    if (row == rowLengths.length) {
+      rowLengths = Arrays.copyOf(rowLengths, row * 2);
+    }
+    rowLengths[row] = cells.size();
+    dataRowCount++;
+  }
+
+  /**
+   * Returns the number of rows, including the header.
+   */
+  public int getRowCount() {
+    return header == null ? 0 : dataRowCount + 1;
+  }
+
+  /**
+   * Returns the number of columns, which is the length of the longest row.
+   */
+  public int getColumnCount() {
+    return header == null ? 0 : Math.max(header.size(), columns.size());
+  }
+
+  /**
+   * Returns the number of cells in the given row.
+   */
+  public int getRowLength(int row) {
+    checkRow(row);
+    return row == 0 ? header.size() : rowLengths[row - 1];
+  }
+
+  /**
+   * Returns the text of a cell, or the empty string if the row is shorter
+   * than {@code column + 1} cells.
+   *
+   * @param row the row, where 0 is the header
+   * @param column the column, starting from 0
+   */
+  public String get(int row, int column) {
+    checkRow(row);
+    if (row == 0) {
+      return column < header.size() ? header.get(column) : "";
+    }
+    return column < columns.size() ? columns.get(column).get(row - 1) : "";
+  }
+
+  /**
+   * Returns true if every cell of the column after the header is a number
+   * or empty.
+   */
+  public boolean isNumeric(int column) {
+    return column < columns.size() && columns.get(column).type != Column.TEXT;
+  }
+
+  /**
+   * Returns the header, the first row of the table.
+   */
+  public YailList getColumnNames() {
+    return header == null ? new YailList() : YailList.makeList(header);
+  }
+
+  /**
+   * Returns the given row as a list of its cells.
+   *
+   * @param row the row, where 0 is the header
+   */
+  public YailList getRow(int row) {
+    int length = getRowLength(row);
+    List<String> cells = new ArrayList<String>(length);
+    for (int i = 0; i < length; i++) {
+      cells.add(get(row, i));
+    }
+    return YailList.makeList(cells);
+  }
+
+  /**
+   * Returns the given column, including the header, with the empty string in
+   * rows too short to have it.
+   */
+  public YailList getColumn(int column) {
+    int rows = getRowCount();
+    List<String> cells = new ArrayList<String>(rows);
+    for (int i = 0; i < rows; i++) {
+      cells.add(get(i, column));
+    }
+    return YailList.makeList(cells);
+  }
+
+  /**
+   * Returns all the rows, as {@link CsvUtil#fromCsvTable(String)} would.
+   */
+  public YailList getRows() {
+    int rows = getRowCount();
+    List<YailList> result = new ArrayList<YailList>(rows);
+    for (int i = 0; i < rows; i++) {
+      result.add(getRow(i));
+    }
+    return YailList.makeList(result);
+  }
+
+  /**
+   * Returns all the columns, as {@link ChartDataSourceUtil#getTranspose(YailList)}
+   * of the rows would.
+   */
+  public YailList getColumns() {
+    int count = getColumnCount();
+    List<YailList> result = new ArrayList<YailList>(count);
+    for (int i = 0; i < count; i++) {
+      result.add(getColumn(i));
+    }
+    return YailList.makeList(result);
+  }
+
+  private static String normalizeNewLines(String cell) {
+    return cell.indexOf('\r') < 0 ? cell : cell.replace("\r\n", "\n");
+  }
+
+  private void checkRow(int row) {
+    if (row < 0 || row >= getRowCount()) {
+      throw new IndexOutOfBoundsException("Row: " + row + ", Rows: " + getRowCount());
+    }
+  }
+
+  /**
+   * The cells of one column, below the header.
+   */
+  private static final class Column {
+    static final int LONG = 0;
+    static final int DOUBLE = 1;
+    static final int TEXT = 2;
+
+    int type = LONG;
+    int size = 0;
+    long[] longs = new long[16];
+    double[] doubles;
+    String[] texts;
+    // Empty cells of a numeric column
+    final BitSet blanks = new BitSet();
+    // Cells of a DOUBLE column that were written as integers
+    BitSet integers;
+    // Cells of a numeric column whose text is not the way the number is
+    // usually written, such as "1.50" or "1e3"
+    Map<Integer, String> writtenAs;
+
+    void add(String cell) {
+      int row = size;
+      ensureCapacity(row + 1);
+      size++;
+      if (type == TEXT) {
+        texts[row] = cell;
+        return;
+      }
+      if (cell.isEmpty()) {
+        blanks.set(row);
+        return;
+      }
+      if (type == LONG) {
+        if (isCanonicalLong(cell)) {
+          longs[row] = Long.parseLong(cell);
+          return;
+        }
+        toDoubles();
+      }
+      if (type == DOUBLE) {
+        if (isCanonicalLong(cell)) {
+          long value = Long.parseLong(cell);
+          doubles[row] = value;
+          if ((long) doubles[row] == value) {
+            integers.set(row);
+            return;
+          }
+        } else {
+          try {
+            double value = Double.parseDouble(cell);
+            doubles[row] = value;
+            if (Double.toString(value).equals(cell)) {
+              return;
+            }
+          } catch (NumberFormatException e) {
+            toText();
+            texts[row] = cell;
+            return;
+          }
+        }
+        // A number that has to be kept as written
+        if (writtenAs == null) {
+          writtenAs = new HashMap<Integer, String>();
+        }
+        writtenAs.put(row, cell);
+        if (writtenAs.size() > 16 + size / 8) {
+          // Too many to be worth keeping as numbers
+          toText();
+          texts[row] = cell;
+        }
+      }
+    }
+
+    String get(int row) {
+      switch (type) {
+        case TEXT:
+          return texts[row];
+        case LONG:
+          return blanks.get(row) ? "" : Long.toString(longs[row]);
+        default:
+          if (blanks.get(row)) {
+            return "";
+          } else if (writtenAs != null && writtenAs.containsKey(row)) {
+            return writtenAs.get(row);
+          } else if (integers.get(row)) {
+            return Long.toString((long) doubles[row]);
+          }
+          return Double.toString(doubles[row]);
+      }
+    }
+
+    private void toDoubles() {
+      doubles = new double[longs.length];
+      integers = new BitSet();
+      for (int i = 0; i < size - 1; i++) {
+        if (!blanks.get(i)) {
+          doubles[i] = longs[i];
+          if ((long) doubles[i] == longs[i]) {
+            integers.set(i);
+          } else {
+            // Too large to be exact as a double
+            if (writtenAs == null) {
+              writtenAs = new HashMap<Integer, String>();
+            }
+            writtenAs.put(i, Long.toString(longs[i]));
+          }
+        }
+      }
+      longs = null;
+      type = DOUBLE;
+    }
+
+    private void toText() {
+      String[] cells = new String[type == LONG ? longs.length : doubles.length];
+      // The cell being added is not converted; the caller stores it.
+      for (int i = 0; i < size - 1; i++) {
+        cells[i] = get(i);
+      }
+      texts = cells;
+      longs = null;
+      doubles = null;
+      integers = null;
+      writtenAs = null;
+      blanks.clear();
+      type = TEXT;
+    }
+
+    private void ensureCapacity(int capacity) {
+      int length = type == LONG ? longs.length : type == DOUBLE ? doubles.length : texts.length;
+      if (capacity <= length) {
+        return;
+      }
+      int grown = Math.max(capacity, length * 2);
+      if (type == LONG) {
+        longs = Arrays.copyOf(longs, grown);
+      } else if (type == DOUBLE) {
+        doubles = Arrays.copyOf(doubles, grown);
+      } else {
+        texts = Arrays.copyOf(texts, grown);
+      }
+    }
+
+    /**
+     * Returns true if the text is an integer written the way
+     * {@link Long#toString(long)} writes it, and small enough to parse.
+     */
+    private static boolean isCanonicalLong(String cell) {
+      int start = cell.charAt(0) == '-' ? 1 : 0;
+      int digits = cell.length() - start;
+      if (digits == 0 || digits > 18) {
+        return false;
+      }
+      if (cell.charAt(start) == '0' && (digits > 1 || start == 1)) {
+        return false;
+      }
+      for (int i = start; i < cell.length(); i++) {
+        char c = cell.charAt(i);
+        if (c < '0' || c > '9') {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -36,6 +36,20 @@ public final class CsvUtil {
     return YailList.makeList(csvList);
   }
 
+  /**
+   * Parses CSV text from a reader into a {@link CsvTable}, one row at a time,
+   * without holding the whole text in memory.
+   */
+  public static CsvTable readCsvTable(Reader reader) throws Exception {
+    CsvParser csvParser = new CsvParser(reader);
+    CsvTable table = new CsvTable();
+    while (csvParser.hasNext()) {
+      table.addRow(csvParser.next());
+    }
+    csvParser.throwAnyProblem();
+    return table;
+  }
+
   public static YailList fromCsvRow(String csvString) throws Exception {
     CsvParser csvParser = new CsvParser(new StringReader(csvString));
     if (csvParser.hasNext()) {
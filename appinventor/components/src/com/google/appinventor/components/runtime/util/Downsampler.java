@@ -0,0 +1,85 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+/**
+ * Picks a subset of the points of a series to draw in its place, so that a
+ * Chart with many more points than pixels keeps its shape without drawing
+ * every point.
+ */
+public final class Downsampler {
+
+  private Downsampler() {
+  }
+
+  /**
+   * Chooses {@code threshold} of the {@code count} points given, using the
+   * Largest-Triangle-Three-Buckets algorithm. The first and last points are
+   * always kept. The rest of the points are split into equal buckets, and from
+   * each bucket the point kept is the one forming the largest triangle with
+   * the point kept from the previous bucket and the average of the next
+   * bucket, which preserves peaks and troughs.
+   *
+   * @param x the x values of the points, in increasing order
+   * @param y the y values of the points
+   * @param count the number of points
+   * @param threshold the number of points to keep
+   * @return the indices of the points kept, in increasing order, or null if
+   *     {@code count} is not more than {@code threshold}
+   */
+  public static int[] largestTriangleThreeBuckets(float[] x, float[] y, int count,
+      int threshold) {
+    if (count <= threshold || threshold < 3) {
+      return null;
+    }
+    int[] kept = new int[threshold];
+    int keptCount = 0;
+    kept[keptCount++] = 0;
+
+    // Buckets for every point except the first and the last
+    double bucketSize = (double) (count - 2) / (threshold - 2);
+    int previous = 0;
+    for (int bucket = 0; bucket < threshold - 2; bucket++) {
+      int start = (int) (bucket * bucketSize) + 1;
+      int end = bucket == threshold - 3 ? count - 1 : (int) ((bucket + 1) * bucketSize) + 1;
+
+      // The average of the next bucket, or the last point for the last bucket
+      int nextStart = end;
+      int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, count);
+      if (nextStart >= count - 1) {
+        nextStart = count - 1;
+        nextEnd = count;
+      }
+      double averageX = 0;
+      double averageY = 0;
+      for (int i = nextStart; i < nextEnd; i++) {
+        averageX += x[i];
+        averageY += y[i];
+      }
+      averageX /= nextEnd - nextStart;
+      averageY /= nextEnd - nextStart;
+
+      double previousX = x[previous];
+      double previousY = y[previous];
+      double maxArea = -1;
+      int chosen = start;
+      for (int i = start; i < end; i++) {
+        // Twice the area of the triangle, which is enough to compare
+        double area = Math.abs((previousX - averageX) * (y[i] - previousY)
+            - (previousX - x[i]) * (averageY - previousY));
+        if (area > maxArea) {
+          maxArea = area;
+          chosen = i;
+        }
+      }
+      kept[keptCount++] = chosen;
+      previous = chosen;
+    }
+
+    kept[keptCount] = count - 1;
+    return kept;
+  }
+}
@@ -312,4 +312,39 @@ class DummyMapController implements MapController {
   public ScaleUnits getScaleUnitsAbstract() {
     throw new UnsupportedOperationException();
   }
+
+  @Override
+  public void setMarkerClusteringEnabled(boolean enabled) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean isMarkerClusteringEnabled() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void saveOfflineTiles(BoundingBox bounds, int minZoom, int maxZoom) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void clearOfflineTiles() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void setOfflineTileLimit(long bytes) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public long getOfflineTileLimit() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public long getOfflineTileSize() {
+    throw new UnsupportedOperationException();
+  }
 }
@@ -365,6 +365,9 @@ public final class ErrorMessages {
   public static final int ERROR_REASONER_FAILED = 12100;
   public static final int ERROR_REASONER_NO_MODEL = 12101;
 
+  // for linked data
+  public static final int ERROR_LINKED_DATA_STORE_UNAVAILABLE = 12200;
+
   // GraphQL errors
   public static final int ERROR_GQL_INVALID_HTTP_HEADERS = 13601;
   public static final int ERROR_GQL_UNABLE_TO_POST = 13602;
@@ -878,6 +881,10 @@ public final class ErrorMessages {
     errorMessages.put(ERROR_REASONER_FAILED, "Reasoning failed due to error: %s");
     errorMessages.put(ERROR_REASONER_NO_MODEL, "No Model specified for reasoning.");
 
+    // Linked data errors
+    errorMessages.put(ERROR_LINKED_DATA_STORE_UNAVAILABLE,
+        "Unable to open the persistent store %s.");
+
     // GraphQL errors
     errorMessages.put(ERROR_GQL_INVALID_HTTP_HEADERS,
         "Invalid HTTP header format. Must be a JSON string of name and value(s).");
@@ -0,0 +1,269 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.quadtree.Quadtree;
+
+/**
+ * FeatureIndex keeps the bounding boxes of map features in a quadtree so that the features in a
+ * region, or nearest to a point, can be found without visiting every feature. Envelopes use
+ * longitude for x and latitude for y, the same as the geometries built by {@link GeometryUtil}.
+ *
+ * Features are placed in the tree lazily. {@link #add(Object)} and {@link #invalidate(Object)}
+ * only mark a feature as stale, and its bounding box is computed at the next query. This keeps
+ * dragging a feature from rebuilding the index on every step, and lets features be added before
+ * they have a shape, as components are while they are being constructed. Features without a
+ * bounding box are kept as members of the index but are not found by queries until they are
+ * invalidated again.
+ *
+ * @param <T> the type of the indexed features
+ */
+public final class FeatureIndex<T> {
+
+  /**
+   * Supplies the geometric information the index needs about each feature.
+   */
+  public interface Measure<T> {
+    /**
+     * Returns the bounding box of the feature, in degrees, or null if the feature has no shape.
+     */
+    Envelope getEnvelope(T feature);
+
+    /**
+     * Returns the distance in meters from the feature to the given point.
+     */
+    double distanceTo(T feature, double latitude, double longitude);
+  }
+
+  /**
+   * Selects the features considered by a query.
+   */
+  public interface Filter<T> {
+    boolean accept(T feature);
+  }
+
+  /**
+   * Radius, in meters, of the first region searched by {@link #nearest}.
+   */
+  private static final double INITIAL_RADIUS = 100;
+
+  private final Measure<T> measure;
+  private final Quadtree tree = new Quadtree();
+  private final Set<T> members = new HashSet<>();
+  private final Map<T, Envelope> envelopes = new HashMap<>();
+  private final Set<T> stale = new LinkedHashSet<>();
+
+  public FeatureIndex(Measure<T> measure) {
+    this.measure = measure;
+  }
+
+  /**
+   * Adds the feature to the index, or updates its position if it is already indexed. The
+   * feature's bounding box is not computed until the next query.
+   */
+  public synchronized void add(T feature) {
+    members.add(feature);
+    stale.add(feature);
+  }
+
+  /**
+   * Removes the feature from the index. Nothing happens if the feature is not indexed.
+   */
+  public synchronized void remove(T feature) {
+    members.remove(feature);
+    stale.remove(feature);
+    Envelope old = envelopes.remove(feature);
+    if (old != null) {
+      tree.remove(old, feature);
+    }
+  }
+
+  /**
+   * Notes that the shape of the feature has changed. Features that are not indexed are ignored.
+   */
+  public synchronized void invalidate(T feature) {
+    if (members.contains(feature)) {
+      stale.add(feature);
+    }
+  }
+
+  public synchronized boolean contains(T feature) {
+    return members.contains(feature);
+  }
+
+  public synchronized int size() {
+    return members.size();
+  }
+
+  /**
+   * Returns the accepted features whose bounding boxes intersect the given envelope.
+   */
+  public synchronized List<T> query(Envelope envelope, Filter<T> filter) {
+    refresh();
+    List<T> result = new ArrayList<>();
+    for (T feature : candidates(envelope)) {
+      if (filter == null || filter.accept(feature)) {
+        result.add(feature);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns up to {@code count} accepted features ordered by their distance to the given point,
+   * nearest first.
+   *
+   * The search starts with a small box around the point and doubles its size until it holds
+   * {@code count} features that are no farther away than the edge of the box. Anything outside
+   * the box is then known to be farther away, so the result matches a full scan.
+   */
+  public synchronized List<T> nearest(final double latitude, final double longitude, int count,
+      Filter<T> filter) {
+    refresh();
+    if (count <= 0 || envelopes.isEmpty()) {
+      return new ArrayList<>();
+    }
+    final Map<T, Double> distances = new HashMap<>();
+    double radius = INITIAL_RADIUS;
+    while (true) {
+      Envelope[] boxes = boxAround(latitude, longitude, radius);
+      Set<T> found = new LinkedHashSet<>();
+      for (Envelope box : boxes) {
+        found.addAll(candidates(box));
+      }
+      boolean everywhere = boxes.length == 1 && boxes[0].getHeight() >= 180
+          && boxes[0].getWidth() >= 360;
+      if (everywhere) {
+        // Features with coordinates outside the valid range would escape the box
+        found.addAll(envelopes.keySet());
+      }
+      int inRange = 0;
+      List<T> accepted = new ArrayList<>();
+      for (T feature : found) {
+        if (filter != null && !filter.accept(feature)) {
+          continue;
+        }
+        Double distance = distances.get(feature);
+        if (distance == null) {
+          distance = measure.distanceTo(feature, latitude, longitude);
+          distances.put(feature, distance);
+        }
+        accepted.add(feature);
+        if (distance <= radius) {
+          inRange++;
+        }
+      }
+      if (inRange >= count || everywhere) {
+        Collections.sort(accepted, new Comparator<T>() {
+          @Override
+          public int compare(T a, T b) {
+            return Double.compare(distances.get(a), distances.get(b));
+          }
+        });
+        return new ArrayList<>(accepted.subList(0, Math.min(count, accepted.size())));
+      }
+      radius *= 2;
+    }
+  }
+
+  public synchronized void clear() {
+    for (Map.Entry<T, Envelope> entry : envelopes.entrySet()) {
+      tree.remove(entry.getValue(), entry.getKey());
+    }
+    members.clear();
+    envelopes.clear();
+    stale.clear();
+  }
+
+  /**
+   * Returns an envelope, in degrees, that holds every point within {@code radius} meters of the
+   * given point. The envelope is split in two when it crosses the antimeridian.
+   */
+  public static Envelope[] boxAround(double latitude, double longitude, double radius) {
+    double dLat = radius / GeometryUtil.ONE_DEG_IN_METERS;
+    double south = latitude - dLat;
+    double north = latitude + dLat;
+    if (south <= -90 || north >= 90) {
+      return new Envelope[] { new Envelope(-180, 180, Math.max(-90, south), Math.min(90, north)) };
+    }
+    double widest = Math.max(Math.abs(south), Math.abs(north));
+    double dLon = dLat / Math.cos(Math.toRadians(widest));
+    if (dLon >= 180) {
+      return new Envelope[] { new Envelope(-180, 180, south, north) };
+    }
+    double west = longitude - dLon;
+    double east = longitude + dLon;
+    if (west < -180) {
+      return new Envelope[] {
+          new Envelope(-180, east, south, north),
+          new Envelope(west + 360, 180, south, north)
+      };
+    } else if (east > 180) {
+      return new Envelope[] {
+          new Envelope(west, 180, south, north),
+          new Envelope(-180, east - 360, south, north)
+      };
+    }
+    return new Envelope[] { new Envelope(west, east, south, north) };
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<T> candidates(Envelope envelope) {
+    // The quadtree may return items from neighboring cells, so check the stored boxes
+    List<T> result = new ArrayList<>();
+    for (Object item : tree.query(envelope)) {
+      T feature = (T) item;
+      Envelope bounds = envelopes.get(feature);
+      if (bounds != null && bounds.intersects(envelope)) {
+        result.add(feature);
+      }
+    }
+    return result;
+  }
+
+  private void refresh() {
+    if (stale.isEmpty()) {
+      return;
+    }
+    List<T> changed = new ArrayList<>(stale);
+    stale.clear();
+    for (T feature : changed) {
+      place(feature);
+    }
+  }
+
+  /**
+   * Moves the feature to its current bounding box in the tree. Features whose bounding box is
+   * empty or cannot be computed, such as a line without points, are left out of the tree.
+   */
+  private void place(T feature) {
+    Envelope old = envelopes.remove(feature);
+    if (old != null) {
+      tree.remove(old, feature);
+    }
+    Envelope envelope;
+    try {
+      envelope = measure.getEnvelope(feature);
+    } catch (RuntimeException e) {
+      // The feature is not fully formed yet and will be invalidated when its shape changes
+      envelope = null;
+    }
+    if (envelope != null && !envelope.isNull()) {
+      envelopes.put(feature, envelope);
+      tree.insert(envelope, feature);
+    }
+  }
+}
@@ -6,6 +6,8 @@
 package com.google.appinventor.components.runtime.util;
 
 import android.text.TextUtils;
+import android.util.JsonReader;
+import android.util.JsonToken;
 import android.util.Log;
 import com.google.appinventor.components.runtime.LineString;
 import com.google.appinventor.components.runtime.Marker;
@@ -30,6 +32,8 @@ import org.osmdroid.util.GeoPoint;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.io.PushbackReader;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -468,6 +472,289 @@ public final class GeoJSONUtil {
     return type;
   }
 
+  /**
+   * Receives the features of a GeoJSON document in batches, as they are read.
+   */
+  public interface FeatureBatchHandler {
+    /**
+     * Called with the next features read from the document, in document order.
+     */
+    void onFeatures(List<YailList> features);
+  }
+
+  /**
+   * Reads the features of a GeoJSON document one at a time from the given reader, so that neither
+   * the text of the document nor its JSON tree is ever held in memory as a whole. If
+   * {@code tolerance} is positive, the lines and rings of each feature are simplified so that no
+   * vertex is dropped that lies farther than {@code tolerance} degrees from the simplified shape.
+   *
+   * <p>The features are given to {@code handler} {@code batchSize} at a time, on the calling
+   * thread. Features are only handed on once the document is known to be a collection, so if its
+   * type comes after its features they are all handed on at the end.</p>
+   *
+   * @param logTag the tag to use when logging
+   * @param reader the source of the GeoJSON text
+   * @param tolerance the simplification tolerance in degrees, or 0 to keep every vertex
+   * @param batchSize the number of features to collect before calling {@code handler}
+   * @param handler receives the feature descriptions, in the form returned by
+   *     {@link #getGeoJSONFeatures(String, String)}
+   * @return true, or false if the root of the document is not a FeatureCollection or
+   *     GeometryCollection
+   * @throws IOException if the reader fails or the text is not valid JSON
+   */
+  public static boolean readGeoJSONFeatures(final String logTag, final Reader reader,
+      final double tolerance, final int batchSize, final FeatureBatchHandler handler)
+      throws IOException {
+    PushbackReader source = new PushbackReader(reader);
+    int first = source.read();
+    if (first != -1 && first != '\uFEFF') {
+      source.unread(first);
+    }
+    JsonReader json = new JsonReader(source);
+    List<YailList> features = new ArrayList<YailList>();
+    String type = null;
+    try {
+      json.beginObject();
+      while (json.hasNext()) {
+        String name = json.nextName();
+        if (GEOJSON_TYPE.equals(name) && json.peek() == JsonToken.STRING) {
+          type = json.nextString();
+          if (!isCollectionType(type)) {
+            // No need to read the rest of the document
+            return false;
+          }
+        } else if (GEOJSON_FEATURES.equals(name) && json.peek() == JsonToken.BEGIN_ARRAY) {
+          json.beginArray();
+          while (json.hasNext()) {
+            Object feature = readJsonValue(logTag, json);
+            if (feature instanceof YailList) {
+              features.add(tolerance > 0 ? simplifyFeature((YailList) feature, tolerance)
+                  : (YailList) feature);
+              if (features.size() >= batchSize && type != null) {
+                handler.onFeatures(features);
+                features = new ArrayList<YailList>();
+              }
+            }
+          }
+          json.endArray();
+        } else {
+          json.skipValue();
+        }
+      }
+      json.endObject();
+    } finally {
+      json.close();
+    }
+    if (!isCollectionType(type)) {
+      return false;
+    }
+    if (!features.isEmpty()) {
+      handler.onFeatures(features);
+    }
+    return true;
+  }
+
+  private static boolean isCollectionType(String type) {
+    return GEOJSON_FEATURECOLLECTION.equals(type) || GEOJSON_GEOMETRYCOLLECTION.equals(type);
+  }
+
+  /**
+   * Reads the next JSON value, converting objects and arrays in the same way as
+   * {@link #jsonObjectToYail(String, JSONObject)} and {@link #jsonArrayToYail(String, JSONArray)}.
+   * Returns null for a JSON null.
+   */
+  private static Object readJsonValue(final String logTag, final JsonReader json)
+      throws IOException {
+    switch (json.peek()) {
+      case BEGIN_OBJECT:
+        List<YailList> pairs = new ArrayList<YailList>();
+        json.beginObject();
+        while (json.hasNext()) {
+          String key = json.nextName();
+          Object value = readJsonValue(logTag, json);
+          if (value != null) {
+            pairs.add(YailList.makeList(new Object[] { key, value }));
+          }
+        }
+        json.endObject();
+        return YailList.makeList(pairs);
+      case BEGIN_ARRAY:
+        List<Object> items = new ArrayList<Object>();
+        json.beginArray();
+        while (json.hasNext()) {
+          Object value = readJsonValue(logTag, json);
+          if (value != null) {
+            items.add(value);
+          }
+        }
+        json.endArray();
+        return YailList.makeList(items);
+      case STRING:
+        return json.nextString();
+      case NUMBER:
+        return parseJsonNumber(json.nextString());
+      case BOOLEAN:
+        return json.nextBoolean();
+      case NULL:
+        json.nextNull();
+        return null;
+      default:
+        Log.wtf(logTag, ERROR_UNKNOWN_TYPE + ": " + json.peek());
+        throw new IllegalArgumentException(ERROR_UNKNOWN_TYPE);
+    }
+  }
+
+  /**
+   * Parses a JSON number into an Integer, Long, or Double, as org.json does.
+   */
+  @VisibleForTesting
+  static Number parseJsonNumber(String text) {
+    if (text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0) {
+      try {
+        long value = Long.parseLong(text);
+        if (value == (int) value) {
+          return (int) value;
+        }
+        return value;
+      } catch (NumberFormatException e) {
+        // Too large for a long
+      }
+    }
+    return Double.parseDouble(text);
+  }
+
+  /**
+   * Returns a copy of the feature description with its lines and rings simplified.
+   */
+  private static YailList simplifyFeature(YailList feature, double tolerance) {
+    List<Object> pairs = new ArrayList<Object>();
+    for (Object o : feature.toArray()) {
+      YailList pair = (YailList) o;
+      if (GEOJSON_GEOMETRY.equals(pair.getString(0)) && pair.getObject(1) instanceof YailList) {
+        pair = YailList.makeList(new Object[] { GEOJSON_GEOMETRY,
+            simplifyGeometry((YailList) pair.getObject(1), tolerance) });
+      }
+      pairs.add(pair);
+    }
+    return YailList.makeList(pairs);
+  }
+
+  private static YailList simplifyGeometry(YailList geometry, double tolerance) {
+    String type = null;
+    for (Object o : geometry.toArray()) {
+      YailList pair = (YailList) o;
+      if (GEOJSON_TYPE.equals(pair.getString(0))) {
+        type = pair.getObject(1).toString();
+      }
+    }
+    int depth;
+    if (MapFeatureType.TYPE_LINESTRING.equals(type)) {
+      depth = 0;
+    } else if (MapFeatureType.TYPE_POLYGON.equals(type)) {
+      depth = 1;
+    } else if (MapFeatureType.TYPE_MULTIPOLYGON.equals(type)) {
+      depth = 2;
+    } else {
+      return geometry;
+    }
+    List<Object> pairs = new ArrayList<Object>();
+    for (Object o : geometry.toArray()) {
+      YailList pair = (YailList) o;
+      if (GEOJSON_COORDINATES.equals(pair.getString(0)) && pair.getObject(1) instanceof YailList) {
+        pair = YailList.makeList(new Object[] { GEOJSON_COORDINATES,
+            simplifyCoordinates((YailList) pair.getObject(1), depth, tolerance) });
+      }
+      pairs.add(pair);
+    }
+    return YailList.makeList(pairs);
+  }
+
+  /**
+   * Simplifies the lines nested {@code depth} levels inside the given coordinates. Lines at depth
+   * 0 are line strings and keep at least 2 points; deeper lines are rings and keep at least 4.
+   */
+  private static YailList simplifyCoordinates(YailList coordinates, int depth, double tolerance) {
+    if (depth == 0) {
+      return simplifyLine(coordinates, tolerance, 2);
+    }
+    List<Object> parts = new ArrayList<Object>();
+    for (Object part : coordinates.toArray()) {
+      if (depth == 1) {
+        parts.add(simplifyLine((YailList) part, tolerance, 4));
+      } else {
+        parts.add(simplifyCoordinates((YailList) part, depth - 1, tolerance));
+      }
+    }
+    return YailList.makeList(parts);
+  }
+
+  /**
+   * Simplifies a list of [longitude, latitude] positions using the Douglas-Peucker algorithm,
+   * keeping the original entries of the points that remain. The line is returned unchanged if
+   * fewer than {@code minPoints} points would remain.
+   */
+  @VisibleForTesting
+  static YailList simplifyLine(YailList line, double tolerance, int minPoints) {
+    Object[] points = line.toArray();
+    int n = points.length;
+    if (n <= minPoints) {
+      return line;
+    }
+    double[] x = new double[n];
+    double[] y = new double[n];
+    for (int i = 0; i < n; i++) {
+      YailList point = (YailList) points[i];
+      x[i] = ((Number) point.get(LONGITUDE)).doubleValue();
+      y[i] = ((Number) point.get(LATITUDE)).doubleValue();
+    }
+    boolean[] keep = new boolean[n];
+    keep[0] = keep[n - 1] = true;
+    // Explicit stack of [start, end] index pairs, since lines can have many thousands of points
+    int[] stack = new int[2 * n];
+    int top = 0;
+    stack[top++] = 0;
+    stack[top++] = n - 1;
+    while (top > 0) {
+      int end = stack[--top];
+      int start = stack[--top];
+      double farthest = 0;
+      int index = -1;
+      for (int i = start + 1; i < end; i++) {
+        double d = distanceToSegment(x[i], y[i], x[start], y[start], x[end], y[end]);
+        if (d > farthest) {
+          farthest = d;
+          index = i;
+        }
+      }
+      if (index >= 0 && farthest > tolerance) {
+        keep[index] = true;
+        stack[top++] = start;
+        stack[top++] = index;
+        stack[top++] = index;
+        stack[top++] = end;
+      }
+    }
+    List<Object> kept = new ArrayList<Object>();
+    for (int i = 0; i < n; i++) {
+      if (keep[i]) {
+        kept.add(points[i]);
+      }
+    }
+    return kept.size() < minPoints ? line : YailList.makeList(kept);
+  }
+
+  private static double distanceToSegment(double px, double py, double ax, double ay, double bx,
+      double by) {
+    double dx = bx - ax;
+    double dy = by - ay;
+    double lengthSquared = dx * dx + dy * dy;
+    double t = lengthSquared == 0 ? 0 : ((px - ax) * dx + (py - ay) * dy) / lengthSquared;
+    t = Math.max(0, Math.min(1, t));
+    double ex = px - (ax + t * dx);
+    double ey = py - (ay + t * dy);
+    return Math.sqrt(ex * ex + ey * ey);
+  }
+
   private static YailList jsonObjectToYail(final String logTag, final JSONObject object) throws JSONException {
     List<YailList> pairs = new ArrayList<YailList>();
     @SuppressWarnings("unchecked")  // json only allows String keys
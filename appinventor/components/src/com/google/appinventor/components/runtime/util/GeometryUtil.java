@@ -10,6 +10,7 @@ import com.google.appinventor.components.runtime.errors.IterationError;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.LineString;
@@ -20,6 +21,8 @@ import org.locationtech.jts.geom.PrecisionModel;
 import org.osmdroid.api.IGeoPoint;
 
 import com.google.appinventor.components.runtime.util.MapFactory.MapCircle;
+import com.google.appinventor.components.runtime.util.MapFactory.MapFeature;
+import com.google.appinventor.components.runtime.util.MapFactory.MapFeatureVisitor;
 import com.google.appinventor.components.runtime.util.MapFactory.MapLineString;
 import com.google.appinventor.components.runtime.util.MapFactory.MapMarker;
 import com.google.appinventor.components.runtime.util.MapFactory.MapPolygon;
@@ -45,6 +48,33 @@ public final class GeometryUtil {
   public static final int WEB_MERCATOR_SRID = 4326;
   private static final GeometryFactory FACTORY =
       new GeometryFactory(new PrecisionModel(), WEB_MERCATOR_SRID);
+  private static final int CIRCLE_VERTICES = 60;
+  private static final MapFeatureVisitor<Double> EDGE_DISTANCE = new MapFeatureVisitor<Double>() {
+    @Override
+    public Double visit(MapMarker marker, Object... arguments) {
+      return distanceBetween(marker, (GeoPoint) arguments[0]);
+    }
+
+    @Override
+    public Double visit(MapLineString lineString, Object... arguments) {
+      return distanceBetweenEdges(lineString, (GeoPoint) arguments[0]);
+    }
+
+    @Override
+    public Double visit(MapPolygon polygon, Object... arguments) {
+      return distanceBetweenEdges(polygon, (GeoPoint) arguments[0]);
+    }
+
+    @Override
+    public Double visit(MapCircle circle, Object... arguments) {
+      return distanceBetweenEdges(circle, (GeoPoint) arguments[0]);
+    }
+
+    @Override
+    public Double visit(MapRectangle rectangle, Object... arguments) {
+      return distanceBetweenEdges(rectangle, (GeoPoint) arguments[0]);
+    }
+  };
 
   private GeometryUtil() {
   }
@@ -435,6 +465,57 @@ public final class GeometryUtil {
     return from.getCentroid().bearingTo(to.getCentroid());
   }
 
+  /**
+   * Computes the distance in meters between the edge of any map feature and a point, using the
+   * same measure as the feature's DistanceToPoint method.
+   *
+   * @param feature the feature to measure from
+   * @param point the point to measure to
+   * @return the distance in meters, or 0 if the point lies within the feature
+   */
+  public static double distanceBetweenEdges(MapFeature feature, GeoPoint point) {
+    return feature.accept(EDGE_DISTANCE, point);
+  }
+
+  /**
+   * Computes the bounding box of a map feature in degrees, with longitude as x and latitude as y.
+   * Unlike the envelope of the feature's geometry, the bounding box of a circle includes its
+   * radius.
+   *
+   * @param feature the feature to bound
+   * @return a new envelope containing the feature, or null if the feature has no points
+   */
+  public static Envelope getEnvelope(MapFeature feature) {
+    Geometry geometry = feature.getGeometry();
+    if (geometry == null || geometry.isEmpty()) {
+      return null;
+    }
+    Envelope envelope = new Envelope(geometry.getEnvelopeInternal());
+    if (feature instanceof MapCircle) {
+      double dLat = ((MapCircle) feature).Radius() / ONE_DEG_IN_METERS;
+      double widest = Math.max(Math.abs(envelope.getMinY()), Math.abs(envelope.getMaxY())) + dLat;
+      double dLng = widest >= 90 ? 360 : dLat / Math.cos(Math.toRadians(widest));
+      envelope.expandBy(dLng, dLat);
+    }
+    return envelope;
+  }
+
+  /**
+   * Creates a polygon approximating the area within radius meters of the center.
+   *
+   * @param center the center of the circle
+   * @param radius the radius of the circle, in meters
+   * @return a polygon whose vertices lie on the circle
+   */
+  public static Geometry createCircleGeometry(GeoPoint center, double radius) {
+    List<GeoPoint> ring = new ArrayList<GeoPoint>(CIRCLE_VERTICES + 1);
+    for (int i = 0; i < CIRCLE_VERTICES; i++) {
+      ring.add(center.destinationPoint(radius, 360.0f * i / CIRCLE_VERTICES));
+    }
+    ring.add(ring.get(0));
+    return ringToPolygon(ring);
+  }
+
   /**
    * Tests whether the given double value is a valid latitude.
    *
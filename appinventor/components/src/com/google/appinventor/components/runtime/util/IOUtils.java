@@ -13,7 +13,7 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.Reader;
 
 public final class IOUtils {
   private static final int BUFFER_LENGTH = 4096;
@@ -75,13 +75,13 @@ public final class IOUtils {
   }
 
   /**
-   * Read an InputStreamReader object until the end of the stream.
+   * Read a Reader until the end of the stream.
    *
-   * @param reader the input stream reader to use
+   * @param reader the reader to use
    * @return a String containing the contents of the stream
    * @throws IOException if there is an underlying problem reading the stream
    */
-  public static String readReader(InputStreamReader reader) throws IOException {
+  public static String readReader(Reader reader) throws IOException {
     StringBuilder sb = new StringBuilder();
     char[] buffer = new char[BUFFER_LENGTH];
     int read;
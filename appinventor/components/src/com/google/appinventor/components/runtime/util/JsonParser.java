@@ -0,0 +1,365 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.json.JSONException;
+
+/**
+ * Parses JSON text from a {@link Reader} directly into YAIL values, without
+ * building an intermediate {@link org.json.JSONObject} tree.
+ *
+ * <p>The values produced are the same as those produced by converting the
+ * result of {@link org.json.JSONTokener#nextValue()} with
+ * {@link JsonUtil#convertJsonItem(Object, boolean)}, and the same lenient
+ * syntax is accepted: comments, single-quoted and unquoted strings, {@code =}
+ * and {@code =>} between names and values, and {@code ;} between members.</p>
+ */
+final class JsonParser {
+  // Characters that end an unquoted literal, in addition to line breaks.
+  private static final String LITERAL_DELIMITERS = "{}[]/\\:,=;# \t\f";
+
+  // Stands in for JSON null until it is converted.
+  private static final Object NULL = new Object();
+
+  private final Reader in;
+  private final boolean useDicts;
+  private final char[] buffer = new char[8192];
+  private final StringBuilder text = new StringBuilder();
+  private int length = 0;
+  private int pos = 0;
+  private long offset = 0;
+
+  private JsonParser(Reader in, boolean useDicts) {
+    this.in = in;
+    this.useDicts = useDicts;
+  }
+
+  /**
+   * Parses the first JSON value in the given input, as
+   * {@link JsonUtil#getObjectFromJson(String, boolean)} does.
+   *
+   * @param in the JSON text to parse
+   * @param useDicts true if YailDictionary should be used for JSON objects,
+   *                 false for associative lists
+   * @return the parsed value, null for JSON null, or the empty string if there is no input
+   * @throws JSONException if the JSON is malformed
+   * @throws IOException if the input cannot be read
+   */
+  static Object parse(Reader in, boolean useDicts) throws JSONException, IOException {
+    JsonParser parser = new JsonParser(in, useDicts);
+    if (parser.peek() == -1) {
+      // Form relies on the empty string decoding to the empty string.
+      return "";
+    }
+    int c = parser.nextClean();
+    if (c == '[') {
+      // Unlike nested arrays, the outermost array is never a YailList.
+      return parser.readArray();
+    }
+    Object value = parser.readValue(c);
+    if (value == NULL) {
+      return null;
+    }
+    return value;
+  }
+
+  private Object readValue(int c) throws JSONException, IOException {
+    switch (c) {
+      case -1:
+        throw syntaxError("End of input");
+      case '{':
+        return readObject();
+      case '[':
+        return useDicts ? YailList.makeList(readArray()) : readArray();
+      case '"':
+      case '\'':
+        return readString((char) c);
+      default:
+        return readLiteral((char) c);
+    }
+  }
+
+  private Object readObject() throws JSONException, IOException {
+    // Members are listed in order of their names, and later duplicates replace earlier ones.
+    Map<String, Object> members = new TreeMap<String, Object>();
+    int c = nextClean();
+    if (c != '}') {
+      while (true) {
+        Object name = readValue(c);
+        if (!(name instanceof String)) {
+          throw syntaxError(name == NULL ? "Names cannot be null" : "Names must be strings");
+        }
+        int separator = nextClean();
+        if (separator != ':' && separator != '=') {
+          throw syntaxError("Expected ':' after " + name);
+        }
+        if (separator == '=' && peek() == '>') {
+          pos++;
+        }
+        Object value = readValue(nextClean());
+        if (value instanceof Number) {
+          double number = ((Number) value).doubleValue();
+          if (Double.isNaN(number) || Double.isInfinite(number)) {
+            throw syntaxError("Forbidden numeric value: " + value);
+          }
+        }
+        members.put((String) name, convert(value));
+        c = nextClean();
+        if (c == '}') {
+          break;
+        } else if (c != ',' && c != ';') {
+          throw syntaxError("Unterminated object");
+        }
+        c = nextClean();
+      }
+    }
+    if (useDicts) {
+      YailDictionary result = new YailDictionary();
+      for (Map.Entry<String, Object> member : members.entrySet()) {
+        result.put(member.getKey(), member.getValue());
+      }
+      return result;
+    }
+    List<Object> result = new ArrayList<Object>(members.size());
+    for (Map.Entry<String, Object> member : members.entrySet()) {
+      List<Object> pair = new ArrayList<Object>(2);
+      pair.add(member.getKey());
+      pair.add(member.getValue());
+      result.add(pair);
+    }
+    return result;
+  }
+
+  private List<Object> readArray() throws JSONException, IOException {
+    List<Object> result = new ArrayList<Object>();
+    int c = nextClean();
+    if (c == ']') {
+      return result;
+    }
+    while (true) {
+      if (c == -1) {
+        throw syntaxError("Unterminated array");
+      } else if (c == ',' || c == ';' || c == ']') {
+        // JSONTokener accepts empty elements, but JSONArray cannot return them.
+        throw syntaxError("Missing array element");
+      }
+      result.add(convert(readValue(c)));
+      c = nextClean();
+      if (c == ']') {
+        return result;
+      } else if (c != ',' && c != ';') {
+        throw syntaxError("Unterminated array");
+      }
+      c = nextClean();
+    }
+  }
+
+  private String readString(char quote) throws JSONException, IOException {
+    text.setLength(0);
+    while (true) {
+      int c = read();
+      if (c == -1) {
+        throw syntaxError("Unterminated string");
+      } else if (c == quote) {
+        return text.toString();
+      } else if (c != '\\') {
+        text.append((char) c);
+        continue;
+      }
+      c = read();
+      switch (c) {
+        case -1:
+          throw syntaxError("Unterminated escape sequence");
+        case 'u':
+          int code = 0;
+          for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit == -1) {
+              throw syntaxError("Invalid escape sequence");
+            }
+            code = (code << 4) | digit;
+          }
+          text.append((char) code);
+          break;
+        case 't':
+          text.append('\t');
+          break;
+        case 'b':
+          text.append('\b');
+          break;
+        case 'n':
+          text.append('\n');
+          break;
+        case 'r':
+          text.append('\r');
+          break;
+        case 'f':
+          text.append('\f');
+          break;
+        default:
+          text.append((char) c);
+          break;
+      }
+    }
+  }
+
+  private Object readLiteral(char first) throws JSONException, IOException {
+    if (first == '\r' || first == '\n' || LITERAL_DELIMITERS.indexOf(first) != -1) {
+      throw syntaxError("Expected literal value");
+    }
+    text.setLength(0);
+    text.append(first);
+    while (true) {
+      int c = peek();
+      if (c == -1 || c == '\r' || c == '\n' || LITERAL_DELIMITERS.indexOf(c) != -1) {
+        break;
+      }
+      text.append((char) c);
+      pos++;
+    }
+    String literal = text.toString();
+    if ("null".equalsIgnoreCase(literal)) {
+      return NULL;
+    } else if ("true".equalsIgnoreCase(literal)) {
+      return Boolean.TRUE;
+    } else if ("false".equalsIgnoreCase(literal)) {
+      return Boolean.FALSE;
+    }
+    if (literal.indexOf('.') == -1) {
+      int base = 10;
+      String number = literal;
+      if (number.startsWith("0x") || number.startsWith("0X")) {
+        number = number.substring(2);
+        base = 16;
+      } else if (number.startsWith("0") && number.length() > 1) {
+        number = number.substring(1);
+        base = 8;
+      }
+      try {
+        long value = Long.parseLong(number, base);
+        if (value <= Integer.MAX_VALUE && value >= Integer.MIN_VALUE) {
+          return (int) value;
+        }
+        return value;
+      } catch (NumberFormatException e) {
+        // Not an integer, so try a double.
+      }
+    }
+    try {
+      return Double.valueOf(literal);
+    } catch (NumberFormatException e) {
+      return literal;
+    }
+  }
+
+  /**
+   * Converts a value inside an array or object as
+   * {@link JsonUtil#convertJsonItem(Object, boolean)} does.
+   */
+  private static Object convert(Object value) {
+    if (value == NULL) {
+      return "null";
+    } else if (value instanceof String) {
+      String string = (String) value;
+      if (string.equalsIgnoreCase("true")) {
+        return true;
+      } else if (string.equalsIgnoreCase("false")) {
+        return false;
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Returns the next character that is not whitespace or part of a comment.
+   */
+  private int nextClean() throws JSONException, IOException {
+    while (true) {
+      int c = read();
+      switch (c) {
+        case '\t':
+        case ' ':
+        case '\n':
+        case '\r':
+          continue;
+        case '/':
+          int next = peek();
+          if (next == '*') {
+            pos++;
+            skipComment();
+            continue;
+          } else if (next == '/') {
+            pos++;
+            skipToEndOfLine();
+            continue;
+          }
+          return c;
+        case '#':
+          skipToEndOfLine();
+          continue;
+        default:
+          return c;
+      }
+    }
+  }
+
+  private void skipComment() throws JSONException, IOException {
+    int previous = 0;
+    while (true) {
+      int c = read();
+      if (c == -1) {
+        throw syntaxError("Unterminated comment");
+      } else if (previous == '*' && c == '/') {
+        return;
+      }
+      previous = c;
+    }
+  }
+
+  private void skipToEndOfLine() throws IOException {
+    while (true) {
+      int c = read();
+      if (c == -1 || c == '\r' || c == '\n') {
+        return;
+      }
+    }
+  }
+
+  private int read() throws IOException {
+    int c = peek();
+    if (c != -1) {
+      pos++;
+    }
+    return c;
+  }
+
+  private int peek() throws IOException {
+    if (pos == length) {
+      offset += length;
+      pos = 0;
+      length = 0;
+      int count;
+      do {
+        count = in.read(buffer);
+      } while (count == 0);
+      if (count == -1) {
+        return -1;
+      }
+      length = count;
+    }
+    return buffer[pos];
+  }
+
+  private JSONException syntaxError(String message) {
+    return new JSONException(message + " at character " + (offset + pos));
+  }
+}
@@ -20,6 +20,8 @@ import gnu.math.IntFraction;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -34,7 +36,6 @@ import java.util.TreeSet;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.json.JSONTokener;
 
 /**
  * Provides utility functions to convert between Java object and JSON.
@@ -332,32 +333,32 @@ public class JsonUtil {
    * @throws JSONException if the JSON is malformed
    */
   public static Object getObjectFromJson(String jsonString, boolean useDicts) throws JSONException {
-    if ((jsonString == null) || jsonString.equals("")) {
-      // We'd like the empty string to decode to the empty string.  Form.java
-      // relies on this for the case where there's an activity result with no intent data.
-      // We handle this case explicitly since nextValue() appears to throw an error
-      // when given the empty string.
+    if (jsonString == null) {
       return "";
-    } else {
-      final Object value = (new JSONTokener(jsonString)).nextValue();
-      // Note that the JSONTokener may return a value equals() to null.
-      if (value == null || value.equals(JSONObject.NULL)) {
-        return null;
-      } else if ((value instanceof String) ||
-          (value instanceof Number) ||
-          (value instanceof Boolean)) {
-        return value;
-      } else if (value instanceof JSONArray) {
-        return getListFromJsonArray((JSONArray)value, useDicts);
-      } else if (value instanceof JSONObject) {
-        if (useDicts) {
-          return getDictionaryFromJsonObject((JSONObject) value);
-        } else {
-          return getListFromJsonObject((JSONObject) value);
-        }
-      }
-      throw new JSONException("Invalid JSON string.");
     }
+    try {
+      return getObjectFromJson(new StringReader(jsonString), useDicts);
+    } catch (IOException e) {
+      // StringReader does not throw.
+      throw new JSONException(e.getMessage());
+    }
+  }
+
+  /**
+   * Parses the JSON content read from {@code reader} into a YAIL object, as
+   * {@link #getObjectFromJson(String, boolean)} does, without first reading the whole content
+   * into a string. Only the first JSON value is read.
+   *
+   * @param reader the source of the JSON text to parse
+   * @param useDicts true if YailDictionary should be used for JSON objects,
+   *                 false for associative lists
+   * @return the parsed object
+   * @throws JSONException if the JSON is malformed
+   * @throws IOException if the content cannot be read
+   */
+  public static Object getObjectFromJson(Reader reader, boolean useDicts)
+      throws JSONException, IOException {
+    return JsonParser.parse(reader, useDicts);
   }
 
   /**
@@ -120,6 +120,22 @@ public final class MapFactory {
      * @param feature The map feature the user has released from dragging.
      */
     void onFeatureStopDrag(MapFeature feature);
+
+    /**
+     * onOfflineTilesProgress is raised periodically while tiles are being saved for offline use.
+     *
+     * @param saved The number of tiles processed so far.
+     * @param total The number of tiles that will be processed.
+     */
+    void onOfflineTilesProgress(int saved, int total);
+
+    /**
+     * onOfflineTilesSaved is raised when a request to save tiles for offline use completes.
+     *
+     * @param saved The number of tiles now available offline.
+     * @param failed The number of tiles that could not be downloaded.
+     */
+    void onOfflineTilesSaved(int saved, int failed);
   }
 
   /**
@@ -594,6 +610,51 @@ public final class MapFactory {
      * Returns the units for the scale.
      */
     ScaleUnits getScaleUnitsAbstract();
+
+    /**
+     * Sets whether markers drawn close together are grouped into cluster badges. Markers that
+     * are alone in their cluster are drawn and behave as usual.
+     * @param enabled True if markers should be clustered, otherwise false.
+     */
+    void setMarkerClusteringEnabled(boolean enabled);
+
+    /**
+     * Gets whether markers drawn close together are grouped into cluster badges.
+     * @return true if markers are clustered, otherwise false.
+     */
+    boolean isMarkerClusteringEnabled();
+
+    /**
+     * Downloads the tiles covering the bounding box at each zoom level between minZoom and
+     * maxZoom, inclusive, into the offline tile archive. The work happens in the background and
+     * is reported to the {@link MapEventListener}s.
+     *
+     * @param bounds the area to save
+     * @param minZoom the lowest zoom level to save
+     * @param maxZoom the highest zoom level to save
+     */
+    void saveOfflineTiles(BoundingBox bounds, int minZoom, int maxZoom);
+
+    /**
+     * Removes all tiles from the offline tile archive.
+     */
+    void clearOfflineTiles();
+
+    /**
+     * Sets the largest size, in bytes, of the offline tile archive. Least recently used tiles
+     * are removed when the archive is larger.
+     */
+    void setOfflineTileLimit(long bytes);
+
+    /**
+     * Gets the largest size, in bytes, of the offline tile archive.
+     */
+    long getOfflineTileLimit();
+
+    /**
+     * Gets the current size, in bytes, of the offline tile archive.
+     */
+    long getOfflineTileSize();
   }
 
   /**
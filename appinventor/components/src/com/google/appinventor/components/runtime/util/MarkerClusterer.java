@@ -0,0 +1,127 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MarkerClusterer groups map points that would be drawn close together at a given zoom level.
+ * Points are projected to Web Mercator pixels, the same projection used by the map tiles, and
+ * points that fall in the same square cell of a fixed pixel size form a cluster. Cells are
+ * fixed to the world rather than the screen, so clusters do not change while the map is panned.
+ *
+ * The clusterer only works with coordinates and does not touch any views, so it can run on a
+ * background thread.
+ */
+final class MarkerClusterer {
+
+  /**
+   * The northern and southern limit of the Web Mercator projection.
+   */
+  private static final double MAX_LATITUDE = 85.05112877980659;
+
+  /**
+   * The size of a map tile at zoom level 0, in density independent pixels.
+   */
+  private static final double TILE_SIZE = 256;
+
+  /**
+   * A group of points drawn as one badge. Clusters with a single member are drawn as the
+   * member itself.
+   *
+   * @param <T> the type of the clustered items
+   */
+  static final class Cluster<T> {
+    final List<T> members = new ArrayList<T>();
+    double latitude;
+    double longitude;
+    double north = -90;
+    double south = 90;
+    double east = -180;
+    double west = 180;
+
+    private void add(T item, double lat, double lon) {
+      members.add(item);
+      // Keep running sums until finish() turns them into the centroid
+      latitude += lat;
+      longitude += lon;
+      north = Math.max(north, lat);
+      south = Math.min(south, lat);
+      east = Math.max(east, lon);
+      west = Math.min(west, lon);
+    }
+
+    private void finish() {
+      latitude /= members.size();
+      longitude /= members.size();
+    }
+
+    int size() {
+      return members.size();
+    }
+  }
+
+  private MarkerClusterer() {
+  }
+
+  /**
+   * Groups the items by the grid cell holding their position at the given zoom level.
+   *
+   * @param items the items to cluster
+   * @param latitudes the latitude of each item, in the same order as {@code items}
+   * @param longitudes the longitude of each item, in the same order as {@code items}
+   * @param zoom the zoom level of the map
+   * @param cellSize the width and height of a grid cell, in density independent pixels, or 0 to
+   *     put every item in a cluster of its own
+   * @param <T> the type of the items
+   * @return the clusters, in the order their first member appears in {@code items}
+   */
+  static <T> List<Cluster<T>> cluster(List<T> items, double[] latitudes, double[] longitudes,
+      int zoom, double cellSize) {
+    double cells = TILE_SIZE * Math.pow(2, zoom) / cellSize;
+    Map<Long, Cluster<T>> grid = new LinkedHashMap<Long, Cluster<T>>();
+    for (int i = 0; i < items.size(); i++) {
+      long key = i;
+      if (cellSize > 0) {
+        long column = (long) Math.floor(projectX(longitudes[i]) * cells);
+        long row = (long) Math.floor(projectY(latitudes[i]) * cells);
+        key = (column << 32) | (row & 0xFFFFFFFFL);
+      }
+      Cluster<T> cluster = grid.get(key);
+      if (cluster == null) {
+        cluster = new Cluster<T>();
+        grid.put(key, cluster);
+      }
+      cluster.add(items.get(i), latitudes[i], longitudes[i]);
+    }
+    List<Cluster<T>> result = new ArrayList<Cluster<T>>(grid.values());
+    for (Cluster<T> cluster : result) {
+      cluster.finish();
+    }
+    return result;
+  }
+
+  /**
+   * Projects a longitude to the fraction of the map width, from 0 at the antimeridian in the
+   * west to 1 at the antimeridian in the east.
+   */
+  static double projectX(double longitude) {
+    return Math.min(Math.max((longitude + 180) / 360, 0), 1);
+  }
+
+  /**
+   * Projects a latitude to the fraction of the map height, from 0 at the top of the map to 1 at
+   * the bottom.
+   */
+  static double projectY(double latitude) {
+    double clamped = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude));
+    double sin = Math.sin(Math.toRadians(clamped));
+    return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+  }
+}
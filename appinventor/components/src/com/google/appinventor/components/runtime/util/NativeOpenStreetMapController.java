@@ -7,8 +7,10 @@ package com.google.appinventor.components.runtime.util;
 
 import android.content.Context;
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Picture;
+import android.graphics.Point;
 import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.PictureDrawable;
@@ -45,14 +47,18 @@ import com.google.appinventor.components.runtime.util.MapFactory.MapPolygon;
 import com.google.appinventor.components.runtime.util.MapFactory.MapRectangle;
 import com.google.appinventor.components.runtime.util.MapFactory.MapScaleUnits;
 import com.google.appinventor.components.runtime.view.ZoomControlView;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -64,17 +70,20 @@ import org.osmdroid.events.ZoomEvent;
 import org.osmdroid.tileprovider.MapTile;
 import org.osmdroid.tileprovider.MapTileProviderBase;
 import org.osmdroid.tileprovider.MapTileProviderBasic;
+import org.osmdroid.tileprovider.cachemanager.CacheManager;
 import org.osmdroid.tileprovider.constants.OpenStreetMapTileProviderConstants;
 import org.osmdroid.tileprovider.modules.IFilesystemCache;
 import org.osmdroid.tileprovider.modules.MapTileFilesystemProvider;
 import org.osmdroid.tileprovider.modules.MapTileSqlCacheProvider;
 import org.osmdroid.tileprovider.modules.TileWriter;
 import org.osmdroid.tileprovider.tilesource.ITileSource;
+import org.osmdroid.tileprovider.tilesource.OnlineTileSourceBase;
 import org.osmdroid.tileprovider.tilesource.TileSourceFactory;
 import org.osmdroid.util.BoundingBox;
 import org.osmdroid.util.GeoPoint;
 import org.osmdroid.views.MapView;
 import org.osmdroid.views.MapView.OnTapListener;
+import org.osmdroid.views.Projection;
 import org.osmdroid.views.overlay.CopyrightOverlay;
 import org.osmdroid.views.overlay.Marker;
 import org.osmdroid.views.overlay.Marker.OnMarkerClickListener;
@@ -124,6 +133,41 @@ class NativeOpenStreetMapController implements MapController, MapListener {
   private float lastAzimuth = Float.NaN;
   private ScaleBarOverlay scaleBar;
 
+  /**
+   * The width and height, in density independent pixels, of the grid cells used to group
+   * markers when clustering is enabled.
+   */
+  private static final double CLUSTER_CELL_SIZE = 64;
+
+  /**
+   * The delay, in milliseconds, before clusters are recomputed after a change, so that adding
+   * many markers at once or a zoom animation only recomputes them once.
+   */
+  private static final long CLUSTER_DELAY = 100;
+
+  private boolean clusterMarkers = false;
+  private ClusterOverlay clusterOverlay = null;
+  private final Handler clusterHandler = new Handler();
+  private final Runnable clusterTask = new Runnable() {
+    @Override
+    public void run() {
+      updateClusters();
+    }
+  };
+  private int clusterGeneration = 0;
+  private List<MarkerClusterer.Cluster<MapMarker>> clusters = Collections.emptyList();
+
+  /**
+   * The markers that are shown while clustering is enabled, whether on their own or as part of
+   * a cluster badge. Their overlays are only added to the map when they are alone in a cluster.
+   */
+  private final Set<MapMarker> clusteredMarkers = new LinkedHashSet<MapMarker>();
+
+  /**
+   * The overlays of markers that are alone in their cluster and near the visible area.
+   */
+  private final Set<OverlayWithIW> unclusteredOverlays = new HashSet<OverlayWithIW>();
+
   /**
    * This set stores feature collections that are hidden (Visible = False).
    */
@@ -136,6 +180,36 @@ class NativeOpenStreetMapController implements MapController, MapListener {
    */
   private Set<MapFeature> hiddenFeatures = new HashSet<>();
 
+  /**
+   * The largest number of tiles a single call to {@link #saveOfflineTiles} will download. Bulk
+   * downloads are discouraged by the OpenStreetMap tile usage policy, so large areas should be
+   * saved at low zoom levels only.
+   */
+  private static final int MAX_OFFLINE_TILES = 5000;
+
+  /**
+   * The number of tiles processed between progress reports while saving tiles.
+   */
+  private static final int OFFLINE_PROGRESS_INTERVAL = 25;
+
+  /**
+   * How long, in milliseconds, to wait for a tile server to connect or send data before the tile
+   * is skipped.
+   */
+  private static final int TILE_DOWNLOAD_TIMEOUT = 30000;
+
+  /**
+   * The northern and southern limit of the Web Mercator projection used by map tiles.
+   */
+  private static final double MAX_TILE_LATITUDE = 85.05112877980659;
+
+  private static final long DEFAULT_OFFLINE_TILE_LIMIT = 200L * 1024 * 1024;
+
+  /**
+   * The archive of tiles saved for offline use. It is shared by every map in the app.
+   */
+  private static OfflineTileArchive offlineTiles = null;
+
   private static final float[] ANCHOR_HORIZONTAL = { Float.NaN, 0.0f, 1.0f, 0.5f };
   private static final float[] ANCHOR_VERTICAL = { Float.NaN, 0.0f, 0.5f, 1.0f };
 
@@ -245,6 +319,68 @@ class NativeOpenStreetMapController implements MapController, MapListener {
     }
   }
 
+  /**
+   * ClusterOverlay draws a badge with the number of markers for each cluster that has more than
+   * one marker. Tapping a badge zooms the map to the markers in the cluster.
+   */
+  private class ClusterOverlay extends Overlay {
+    private final float density = form.getResources().getDisplayMetrics().density;
+    private final Paint fill = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint stroke = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint text = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Point point = new Point();
+    private List<MarkerClusterer.Cluster<MapMarker>> badges = Collections.emptyList();
+
+    ClusterOverlay() {
+      fill.setColor(Color.argb(224, 33, 150, 243));
+      stroke.setStyle(Paint.Style.STROKE);
+      stroke.setColor(Color.WHITE);
+      stroke.setStrokeWidth(2 * density);
+      text.setColor(Color.WHITE);
+      text.setTextAlign(Paint.Align.CENTER);
+      text.setTextSize(12 * density);
+      text.setFakeBoldText(true);
+    }
+
+    private float getRadius(MarkerClusterer.Cluster<MapMarker> cluster) {
+      return density * (14 + 4 * (float) Math.log10(cluster.size()));
+    }
+
+    @Override
+    public void draw(Canvas canvas, MapView mapView, boolean shadow) {
+      if (shadow) {
+        return;
+      }
+      Projection projection = mapView.getProjection();
+      float baseline = -(text.descent() + text.ascent()) / 2;
+      for (MarkerClusterer.Cluster<MapMarker> cluster : badges) {
+        projection.toPixels(new GeoPoint(cluster.latitude, cluster.longitude), point);
+        float radius = getRadius(cluster);
+        canvas.drawCircle(point.x, point.y, radius, fill);
+        canvas.drawCircle(point.x, point.y, radius, stroke);
+        canvas.drawText(Integer.toString(cluster.size()), point.x, point.y + baseline, text);
+      }
+    }
+
+    @Override
+    public boolean onSingleTapConfirmed(MotionEvent event, MapView mapView) {
+      Projection projection = mapView.getProjection();
+      // Badges drawn last are on top, so they are hit first
+      for (int i = badges.size() - 1; i >= 0; i--) {
+        MarkerClusterer.Cluster<MapMarker> cluster = badges.get(i);
+        projection.toPixels(new GeoPoint(cluster.latitude, cluster.longitude), point);
+        float dx = event.getX() - point.x;
+        float dy = event.getY() - point.y;
+        float radius = getRadius(cluster);
+        if (dx * dx + dy * dy <= radius * radius) {
+          expandCluster(cluster);
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
   private class MapReadyHandler extends Handler {
 
     @Override
@@ -291,7 +427,7 @@ class NativeOpenStreetMapController implements MapController, MapListener {
 
   private static class CustomMapTileProviderBasic extends MapTileProviderBasic {
     public CustomMapTileProviderBasic(Context context, ITileSource tileSource,
-        IFilesystemCache cacheWriter) {
+        IFilesystemCache cacheWriter, OfflineTileArchive offlineTiles) {
       super(context, tileSource, cacheWriter);
       for (int i = 0; i < this.mTileProviderList.size(); i++) {
         if (this.mTileProviderList.get(i) instanceof MapTileSqlCacheProvider) {
@@ -299,12 +435,31 @@ class NativeOpenStreetMapController implements MapController, MapListener {
               new MapTileFilesystemProvider(mRegisterReceiver, tileSource));
         }
       }
+      if (offlineTiles != null) {
+        // Tiles saved for offline use are checked before the cache and the network
+        this.mTileProviderList.add(0, new OfflineTileProvider(tileSource, offlineTiles));
+      }
     }
   }
 
   CustomMapView createCustomMapView(Context context) {
     return new CustomMapView(context, new CustomMapTileProviderBasic(context,
-        TileSourceFactory.DEFAULT_TILE_SOURCE, new TileWriter()));
+        TileSourceFactory.DEFAULT_TILE_SOURCE, new TileWriter(), offlineTiles));
+  }
+
+  private static synchronized OfflineTileArchive openOfflineTiles(Form form) {
+    if (offlineTiles == null) {
+      File osmdroid = new File(form.getFilesDir(), "osmdroid");
+      if (osmdroid.exists() || osmdroid.mkdirs()) {
+        try {
+          offlineTiles = new OfflineTileArchive(new File(osmdroid, "offline-tiles.db"),
+              DEFAULT_OFFLINE_TILE_LIMIT);
+        } catch (RuntimeException e) {
+          Log.e(TAG, "Unable to open offline tile archive", e);
+        }
+      }
+    }
+    return offlineTiles;
   }
 
   private final AppInventorLocationSensorAdapter locationProvider;
@@ -322,6 +477,7 @@ class NativeOpenStreetMapController implements MapController, MapListener {
     }
     this.form = form;
     this.touch = new TouchOverlay();
+    openOfflineTiles(form);
     view = createCustomMapView(form.getApplicationContext());
     locationProvider = new AppInventorLocationSensorAdapter();
     defaultInfoWindow = new OverlayInfoWindow(view);
@@ -605,10 +761,13 @@ class NativeOpenStreetMapController implements MapController, MapListener {
             }
           }
         });
-        if (aiMarker.Visible()) {
-          showOverlay(overlay);
-        } else {
+        if (!aiMarker.Visible()) {
           hideOverlay(overlay);
+        } else if (clusterMarkers) {
+          clusteredMarkers.add(aiMarker);
+          scheduleClustering();
+        } else {
+          showOverlay(overlay);
         }
       }
 
@@ -765,8 +924,12 @@ class NativeOpenStreetMapController implements MapController, MapListener {
 
   @Override
   public void removeFeature(MapFeature aiFeature) {
-    view.getOverlayManager().remove(featureOverlays.get(aiFeature));
-    featureOverlays.remove(aiFeature);
+    OverlayWithIW overlay = featureOverlays.remove(aiFeature);
+    view.getOverlayManager().remove(overlay);
+    unclusteredOverlays.remove(overlay);
+    if (clusteredMarkers.remove(aiFeature)) {
+      scheduleClustering();
+    }
   }
 
   @Override
@@ -778,6 +941,9 @@ class NativeOpenStreetMapController implements MapController, MapListener {
       marker.setPosition(new GeoPoint(aiMarker.Latitude(), aiMarker.Longitude()));
       view.invalidate();
     }
+    if (clusteredMarkers.contains(aiMarker)) {
+      scheduleClustering();
+    }
   }
 
   @Override
@@ -1199,7 +1365,14 @@ class NativeOpenStreetMapController implements MapController, MapListener {
 
   @Override
   public void showFeature(MapFeature feature) {
-    if (!hiddenFeatures.contains(feature)) {
+    if (hiddenFeatures.contains(feature)) {
+      return;
+    }
+    if (clusterMarkers && feature instanceof MapMarker) {
+      if (featureOverlays.containsKey(feature) && clusteredMarkers.add((MapMarker) feature)) {
+        scheduleClustering();
+      }
+    } else {
       showOverlay(featureOverlays.get(feature));
     }
   }
@@ -1211,7 +1384,12 @@ class NativeOpenStreetMapController implements MapController, MapListener {
 
   @Override
   public void hideFeature(MapFeature feature) {
-    hideOverlay(featureOverlays.get(feature));
+    OverlayWithIW overlay = featureOverlays.get(feature);
+    hideOverlay(overlay);
+    unclusteredOverlays.remove(overlay);
+    if (clusteredMarkers.remove(feature)) {
+      scheduleClustering();
+    }
   }
 
   protected void hideOverlay(OverlayWithIW overlay) {
@@ -1221,6 +1399,9 @@ class NativeOpenStreetMapController implements MapController, MapListener {
 
   @Override
   public boolean isFeatureVisible(MapFeature feature) {
+    if (clusteredMarkers.contains(feature)) {
+      return true;
+    }
     OverlayWithIW overlay = featureOverlays.get(feature);
     return overlay != null && view.getOverlayManager().contains(overlay);
   }
@@ -1293,6 +1474,9 @@ class NativeOpenStreetMapController implements MapController, MapListener {
 
   @Override
   public boolean onScroll(ScrollEvent event) {
+    if (clusterMarkers) {
+      showClusters();
+    }
     for (MapEventListener listener : eventListeners) {
       listener.onBoundsChanged();
     }
@@ -1302,6 +1486,9 @@ class NativeOpenStreetMapController implements MapController, MapListener {
   @Override
   public boolean onZoom(ZoomEvent event) {
     zoomControls.updateButtons();
+    if (clusterMarkers) {
+      scheduleClustering();
+    }
     for (MapEventListener listener : eventListeners) {
       listener.onZoom();
     }
@@ -1394,6 +1581,271 @@ class NativeOpenStreetMapController implements MapController, MapListener {
     }
   }
 
+  @Override
+  public void setMarkerClusteringEnabled(boolean enabled) {
+    if (enabled == clusterMarkers) {
+      return;
+    }
+    clusterMarkers = enabled;
+    if (enabled) {
+      if (clusterOverlay == null) {
+        clusterOverlay = new ClusterOverlay();
+      }
+      for (Map.Entry<MapFeature, OverlayWithIW> entry : featureOverlays.entrySet()) {
+        if (entry.getKey() instanceof MapMarker
+            && view.getOverlayManager().contains(entry.getValue())) {
+          clusteredMarkers.add((MapMarker) entry.getKey());
+          view.getOverlayManager().remove(entry.getValue());
+        }
+      }
+      view.getOverlayManager().add(clusterOverlay);
+      updateClusters();
+    } else {
+      // Drop any clustering that is still in progress
+      clusterGeneration++;
+      clusterHandler.removeCallbacks(clusterTask);
+      view.getOverlayManager().remove(clusterOverlay);
+      clusterOverlay.badges = Collections.emptyList();
+      for (MapMarker marker : clusteredMarkers) {
+        OverlayWithIW overlay = featureOverlays.get(marker);
+        if (overlay != null && !unclusteredOverlays.contains(overlay)) {
+          view.getOverlayManager().add(overlay);
+        }
+      }
+      clusteredMarkers.clear();
+      unclusteredOverlays.clear();
+      clusters = Collections.emptyList();
+      view.invalidate();
+    }
+  }
+
+  @Override
+  public boolean isMarkerClusteringEnabled() {
+    return clusterMarkers;
+  }
+
+  private void scheduleClustering() {
+    clusterHandler.removeCallbacks(clusterTask);
+    clusterHandler.postDelayed(clusterTask, CLUSTER_DELAY);
+  }
+
+  /**
+   * Groups the clustered markers for the current zoom level. The positions are read on the UI
+   * thread and the grouping happens in the background. Results that arrive after clustering was
+   * disabled or restarted are dropped.
+   */
+  private void updateClusters() {
+    clusterHandler.removeCallbacks(clusterTask);
+    final int generation = ++clusterGeneration;
+    final int zoom = view.getZoomLevel();
+    // Markers cannot be pulled apart by zooming in any further, so show them all
+    final double cellSize = zoom >= view.getMaxZoomLevel() ? 0 : CLUSTER_CELL_SIZE;
+    final List<MapMarker> markers = new ArrayList<MapMarker>(clusteredMarkers);
+    final double[] latitudes = new double[markers.size()];
+    final double[] longitudes = new double[markers.size()];
+    for (int i = 0; i < markers.size(); i++) {
+      latitudes[i] = markers.get(i).Latitude();
+      longitudes[i] = markers.get(i).Longitude();
+    }
+    AsynchUtil.runAsynchronously(new Runnable() {
+      @Override
+      public void run() {
+        final List<MarkerClusterer.Cluster<MapMarker>> result =
+            MarkerClusterer.cluster(markers, latitudes, longitudes, zoom, cellSize);
+        form.runOnUiThread(new Runnable() {
+          @Override
+          public void run() {
+            if (clusterMarkers && generation == clusterGeneration) {
+              clusters = result;
+              showClusters();
+            }
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Shows the clusters near the visible area of the map. Markers that are alone in their cluster
+   * are shown as their own overlays so that they keep their usual events, and the rest are drawn
+   * as badges by the {@link ClusterOverlay}.
+   */
+  private void showClusters() {
+    BoundingBox box = view.getBoundingBox();
+    boolean everywhere = view.getWidth() == 0 || view.getHeight() == 0;
+    // Include half a screen around the view so that panning does not reveal empty space
+    double latMargin = box.getLatitudeSpan() / 2;
+    double lonMargin = box.getLongitudeSpan() / 2;
+    List<MarkerClusterer.Cluster<MapMarker>> badges =
+        new ArrayList<MarkerClusterer.Cluster<MapMarker>>();
+    Set<OverlayWithIW> singles = new HashSet<OverlayWithIW>();
+    for (MarkerClusterer.Cluster<MapMarker> cluster : clusters) {
+      if (!everywhere && (cluster.latitude > box.getLatNorth() + latMargin
+          || cluster.latitude < box.getLatSouth() - latMargin
+          || cluster.longitude > box.getLonEast() + lonMargin
+          || cluster.longitude < box.getLonWest() - lonMargin)) {
+        continue;
+      }
+      if (cluster.size() > 1) {
+        badges.add(cluster);
+      } else if (clusteredMarkers.contains(cluster.members.get(0))) {
+        OverlayWithIW overlay = featureOverlays.get(cluster.members.get(0));
+        if (overlay != null) {
+          singles.add(overlay);
+        }
+      }
+    }
+    Iterator<OverlayWithIW> it = unclusteredOverlays.iterator();
+    while (it.hasNext()) {
+      OverlayWithIW overlay = it.next();
+      if (!singles.contains(overlay)) {
+        view.getOverlayManager().remove(overlay);
+        it.remove();
+      }
+    }
+    for (OverlayWithIW overlay : singles) {
+      if (unclusteredOverlays.add(overlay)) {
+        view.getOverlayManager().add(overlay);
+      }
+    }
+    clusterOverlay.badges = badges;
+    view.invalidate();
+  }
+
+  /**
+   * Zooms the map so that the markers of the cluster are drawn apart.
+   */
+  private void expandCluster(MarkerClusterer.Cluster<MapMarker> cluster) {
+    int zoom = view.getZoomLevel();
+    GeoPoint center = new GeoPoint(cluster.latitude, cluster.longitude);
+    double latPadding = (cluster.north - cluster.south) / 5;
+    double lonPadding = (cluster.east - cluster.west) / 5;
+    if (latPadding > 0 || lonPadding > 0) {
+      view.zoomToBoundingBox(new BoundingBox(cluster.north + latPadding,
+          cluster.east + lonPadding, cluster.south - latPadding, cluster.west - lonPadding), false);
+    }
+    if (view.getZoomLevel() <= zoom) {
+      view.getController().setZoom(Math.min(zoom + 1, view.getMaxZoomLevel()));
+      view.getController().setCenter(center);
+    }
+  }
+
+  @Override
+  public void saveOfflineTiles(final BoundingBox bounds, final int minZoom, final int maxZoom) {
+    final ITileSource source = view.getTileProvider().getTileSource();
+    if (offlineTiles == null || !(source instanceof OnlineTileSourceBase)) {
+      for (MapEventListener listener : eventListeners) {
+        listener.onOfflineTilesSaved(0, 0);
+      }
+      return;
+    }
+    // Listeners are only added on the UI thread, so the download reports to a copy.
+    final List<MapEventListener> listeners = new ArrayList<MapEventListener>(eventListeners);
+    AsynchUtil.runAsynchronously(new Runnable() {
+      @Override
+      public void run() {
+        List<MapTile> tiles = new ArrayList<MapTile>();
+        double north = Math.min(bounds.getLatNorth(), MAX_TILE_LATITUDE);
+        double south = Math.max(bounds.getLatSouth(), -MAX_TILE_LATITUDE);
+        if (bounds.getLonWest() <= bounds.getLonEast()) {
+          tiles.addAll(CacheManager.getTilesCoverage(new BoundingBox(north, bounds.getLonEast(),
+              south, bounds.getLonWest()), minZoom, maxZoom));
+        } else {
+          // The area crosses the antimeridian
+          tiles.addAll(CacheManager.getTilesCoverage(new BoundingBox(north, 180, south,
+              bounds.getLonWest()), minZoom, maxZoom));
+          tiles.addAll(CacheManager.getTilesCoverage(new BoundingBox(north, bounds.getLonEast(),
+              south, -180), minZoom, maxZoom));
+        }
+        if (tiles.size() > MAX_OFFLINE_TILES) {
+          Log.w(TAG, "Saving only " + MAX_OFFLINE_TILES + " of " + tiles.size() + " tiles");
+          tiles = tiles.subList(0, MAX_OFFLINE_TILES);
+        }
+        int total = tiles.size();
+        int processed = 0;
+        int failed = 0;
+        for (MapTile tile : tiles) {
+          if (!offlineTiles.contains(source.name(), tile)) {
+            byte[] image = downloadTile((OnlineTileSourceBase) source, tile);
+            if (image == null) {
+              failed++;
+            } else {
+              offlineTiles.save(source.name(), tile, image);
+            }
+          }
+          processed++;
+          if (processed % OFFLINE_PROGRESS_INTERVAL == 0 && processed < total) {
+            for (MapEventListener listener : listeners) {
+              listener.onOfflineTilesProgress(processed, total);
+            }
+          }
+        }
+        for (MapEventListener listener : listeners) {
+          listener.onOfflineTilesProgress(total, total);
+          listener.onOfflineTilesSaved(total - failed, failed);
+        }
+      }
+    });
+  }
+
+  private static byte[] downloadTile(OnlineTileSourceBase source, MapTile tile) {
+    HttpURLConnection connection = null;
+    try {
+      connection = (HttpURLConnection) new URL(source.getTileURLString(tile)).openConnection();
+      connection.setRequestProperty("User-Agent",
+          Configuration.getInstance().getUserAgentValue());
+      connection.setConnectTimeout(TILE_DOWNLOAD_TIMEOUT);
+      connection.setReadTimeout(TILE_DOWNLOAD_TIMEOUT);
+      if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+        Log.w(TAG, "Unable to download tile " + tile + ": " + connection.getResponseCode());
+        return null;
+      }
+      InputStream in = connection.getInputStream();
+      try {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+          out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+      } finally {
+        in.close();
+      }
+    } catch (IOException e) {
+      Log.w(TAG, "Unable to download tile " + tile, e);
+      return null;
+    } finally {
+      if (connection != null) {
+        connection.disconnect();
+      }
+    }
+  }
+
+  @Override
+  public void clearOfflineTiles() {
+    if (offlineTiles != null) {
+      offlineTiles.clear();
+    }
+  }
+
+  @Override
+  public void setOfflineTileLimit(long bytes) {
+    if (offlineTiles != null) {
+      offlineTiles.setMaxSize(bytes);
+    }
+  }
+
+  @Override
+  public long getOfflineTileLimit() {
+    return offlineTiles == null ? 0 : offlineTiles.getMaxSize();
+  }
+
+  @Override
+  public long getOfflineTileSize() {
+    return offlineTiles == null ? 0 : offlineTiles.getSize();
+  }
+
   static class MultiPolygon extends Polygon {
 
     private List<Polygon> children = new ArrayList<Polygon>();
@@ -0,0 +1,226 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
+import android.util.Log;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Set;
+import org.osmdroid.tileprovider.MapTile;
+import org.osmdroid.tileprovider.modules.IArchiveFile;
+import org.osmdroid.tileprovider.tilesource.ITileSource;
+
+/**
+ * OfflineTileArchive stores map tiles that were saved for offline use in a SQLite database. Unlike
+ * osmdroid's passive tile cache, tiles in the archive do not expire and are only removed when the
+ * archive grows beyond its size limit, starting with the tiles that were least recently drawn.
+ *
+ * The archive implements {@link IArchiveFile} so that it can be placed in front of the other tile
+ * providers, letting saved areas be drawn without using the network.
+ */
+final class OfflineTileArchive implements IArchiveFile {
+  private static final String TAG = OfflineTileArchive.class.getSimpleName();
+
+  private static final String TABLE = "tiles";
+  private static final String COLUMN_PROVIDER = "provider";
+  private static final String COLUMN_KEY = "key";
+  private static final String COLUMN_TILE = "tile";
+  private static final String COLUMN_SIZE = "size";
+  private static final String COLUMN_USED = "used";
+
+  /**
+   * When the archive is over its limit, tiles are removed until it is this fraction of the limit,
+   * so that saving many tiles does not trigger an eviction for every tile.
+   */
+  private static final double EVICTION_TARGET = 0.9;
+
+  /**
+   * How long, in milliseconds, a tile's last use time may lag behind before it is updated.
+   */
+  private static final long USE_RESOLUTION = 60 * 1000;
+
+  private SQLiteDatabase db;
+  private long size;
+  private long maxSize;
+
+  OfflineTileArchive(File file, long maxSize) throws SQLiteException {
+    this.maxSize = maxSize;
+    open(file);
+  }
+
+  @Override
+  public void init(File file) throws Exception {
+    open(file);
+  }
+
+  private synchronized void open(File file) {
+    if (db != null) {
+      db.close();
+    }
+    db = SQLiteDatabase.openOrCreateDatabase(file, null);
+    db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE + " (" + COLUMN_PROVIDER + " TEXT, "
+        + COLUMN_KEY + " INTEGER, " + COLUMN_TILE + " BLOB, " + COLUMN_SIZE + " INTEGER, "
+        + COLUMN_USED + " INTEGER, PRIMARY KEY (" + COLUMN_PROVIDER + ", " + COLUMN_KEY + "))");
+    db.execSQL("CREATE INDEX IF NOT EXISTS " + TABLE + "_" + COLUMN_USED + " ON " + TABLE + " ("
+        + COLUMN_USED + ")");
+    Cursor cursor = db.rawQuery("SELECT SUM(" + COLUMN_SIZE + ") FROM " + TABLE, null);
+    try {
+      size = cursor.moveToFirst() ? cursor.getLong(0) : 0;
+    } finally {
+      cursor.close();
+    }
+  }
+
+  /**
+   * Computes the key of a tile. This is the same index osmdroid uses for its SQLite tile cache.
+   */
+  static long getKey(MapTile tile) {
+    int zoom = tile.getZoomLevel();
+    return ((((long) zoom << zoom) + tile.getX()) << zoom) + tile.getY();
+  }
+
+  public synchronized boolean contains(String provider, MapTile tile) {
+    Cursor cursor = db.query(TABLE, new String[] { COLUMN_KEY },
+        COLUMN_PROVIDER + " = ? AND " + COLUMN_KEY + " = ?",
+        new String[] { provider, Long.toString(getKey(tile)) }, null, null, null);
+    try {
+      return cursor.moveToFirst();
+    } finally {
+      cursor.close();
+    }
+  }
+
+  /**
+   * Saves the image of a tile, replacing any earlier image, and then removes the least recently
+   * used tiles if the archive has grown beyond its limit.
+   */
+  public synchronized void save(String provider, MapTile tile, byte[] image) {
+    String[] args = new String[] { provider, Long.toString(getKey(tile)) };
+    Cursor cursor = db.query(TABLE, new String[] { COLUMN_SIZE },
+        COLUMN_PROVIDER + " = ? AND " + COLUMN_KEY + " = ?", args, null, null, null);
+    try {
+      if (cursor.moveToFirst()) {
+        size -= cursor.getLong(0);
+      }
+    } finally {
+      cursor.close();
+    }
+    ContentValues values = new ContentValues();
+    values.put(COLUMN_PROVIDER, provider);
+    values.put(COLUMN_KEY, getKey(tile));
+    values.put(COLUMN_TILE, image);
+    values.put(COLUMN_SIZE, image.length);
+    values.put(COLUMN_USED, System.currentTimeMillis());
+    db.insertWithOnConflict(TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    size += image.length;
+    if (size > maxSize) {
+      evict((long) (maxSize * EVICTION_TARGET));
+    }
+  }
+
+  @Override
+  public synchronized InputStream getInputStream(ITileSource tileSource, MapTile tile) {
+    if (db == null) {
+      return null;
+    }
+    String[] args = new String[] { tileSource.name(), Long.toString(getKey(tile)) };
+    Cursor cursor = db.query(TABLE, new String[] { COLUMN_TILE, COLUMN_USED },
+        COLUMN_PROVIDER + " = ? AND " + COLUMN_KEY + " = ?", args, null, null, null);
+    byte[] image;
+    long used;
+    try {
+      if (!cursor.moveToFirst()) {
+        return null;
+      }
+      image = cursor.getBlob(0);
+      used = cursor.getLong(1);
+    } finally {
+      cursor.close();
+    }
+    long now = System.currentTimeMillis();
+    if (now - used > USE_RESOLUTION) {
+      ContentValues values = new ContentValues();
+      values.put(COLUMN_USED, now);
+      db.update(TABLE, values, COLUMN_PROVIDER + " = ? AND " + COLUMN_KEY + " = ?", args);
+    }
+    return new ByteArrayInputStream(image);
+  }
+
+  @Override
+  public synchronized Set<String> getTileSources() {
+    Set<String> sources = new HashSet<String>();
+    Cursor cursor = db.rawQuery("SELECT DISTINCT " + COLUMN_PROVIDER + " FROM " + TABLE, null);
+    try {
+      while (cursor.moveToNext()) {
+        sources.add(cursor.getString(0));
+      }
+    } finally {
+      cursor.close();
+    }
+    return sources;
+  }
+
+  /**
+   * Returns the total size in bytes of the saved tile images.
+   */
+  public synchronized long getSize() {
+    return size;
+  }
+
+  public synchronized long getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Sets the largest total size in bytes of the saved tile images. Tiles are not removed until
+   * the next tile is saved, so a map that briefly sets a small limit while its properties are
+   * applied does not discard tiles saved by another map.
+   */
+  public synchronized void setMaxSize(long maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  public synchronized void clear() {
+    db.delete(TABLE, null, null);
+    size = 0;
+  }
+
+  @Override
+  public synchronized void close() {
+    // The archive is shared by the map views of the app, so it stays open.
+  }
+
+  /**
+   * Removes the least recently used tiles until the archive is no larger than the target size.
+   * The tiles to remove are chosen first, and then removed in a single statement once the query
+   * is closed.
+   */
+  private void evict(long target) {
+    StringBuilder victims = new StringBuilder();
+    long remaining = size;
+    Cursor cursor = db.query(TABLE, new String[] { "rowid", COLUMN_SIZE },
+        null, null, null, null, COLUMN_USED + " ASC, rowid ASC");
+    try {
+      while (remaining > target && cursor.moveToNext()) {
+        victims.append(victims.length() == 0 ? "" : ",").append(cursor.getLong(0));
+        remaining -= cursor.getLong(1);
+      }
+    } finally {
+      cursor.close();
+    }
+    if (victims.length() > 0) {
+      db.execSQL("DELETE FROM " + TABLE + " WHERE rowid IN (" + victims + ")");
+      size = remaining;
+    }
+    Log.d(TAG, "Offline tiles trimmed to " + size + " bytes");
+  }
+}
@@ -0,0 +1,87 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import android.graphics.drawable.Drawable;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicReference;
+import microsoft.mappoint.TileSystem;
+import org.osmdroid.config.Configuration;
+import org.osmdroid.tileprovider.MapTile;
+import org.osmdroid.tileprovider.modules.MapTileModuleProviderBase;
+import org.osmdroid.tileprovider.tilesource.BitmapTileSourceBase.LowMemoryException;
+import org.osmdroid.tileprovider.tilesource.ITileSource;
+
+/**
+ * OfflineTileProvider draws tiles from an {@link OfflineTileArchive}. osmdroid's
+ * MapTileFileArchiveProvider would serve the same tiles, but it gives up when external storage is
+ * not mounted, even though the archive lives in the app's internal storage.
+ */
+final class OfflineTileProvider extends MapTileModuleProviderBase {
+  private final OfflineTileArchive archive;
+  private final AtomicReference<ITileSource> tileSource = new AtomicReference<ITileSource>();
+
+  OfflineTileProvider(ITileSource tileSource, OfflineTileArchive archive) {
+    super(Configuration.getInstance().getTileFileSystemThreads(),
+        Configuration.getInstance().getTileFileSystemMaxQueueSize());
+    this.archive = archive;
+    setTileSource(tileSource);
+  }
+
+  @Override
+  protected String getName() {
+    return "Offline Tile Archive Provider";
+  }
+
+  @Override
+  protected String getThreadGroupName() {
+    return "offlinetiles";
+  }
+
+  @Override
+  public TileLoader getTileLoader() {
+    return new TileLoader() {
+      @Override
+      public Drawable loadTile(MapTile tile) throws CantContinueException {
+        ITileSource source = tileSource.get();
+        if (source == null) {
+          return null;
+        }
+        InputStream in = archive.getInputStream(source, tile);
+        if (in == null) {
+          return null;
+        }
+        try {
+          return source.getDrawable(in);
+        } catch (LowMemoryException e) {
+          throw new CantContinueException(e);
+        }
+      }
+    };
+  }
+
+  @Override
+  public boolean getUsesDataConnection() {
+    return false;
+  }
+
+  @Override
+  public int getMinimumZoomLevel() {
+    ITileSource source = tileSource.get();
+    return source == null ? 0 : source.getMinimumZoomLevel();
+  }
+
+  @Override
+  public int getMaximumZoomLevel() {
+    ITileSource source = tileSource.get();
+    return source == null ? TileSystem.getMaximumZoomLevel() : source.getMaximumZoomLevel();
+  }
+
+  @Override
+  public void setTileSource(ITileSource tileSource) {
+    this.tileSource.set(tileSource);
+  }
+}
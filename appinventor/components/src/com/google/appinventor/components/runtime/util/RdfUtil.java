@@ -78,6 +78,8 @@ public final class RdfUtil {
 
   public static final Map<String, String> PREFIXES = new HashMap<>();
 
+  private static final String SPARQL_RESULTS_TSV = "text/tab-separated-values";
+
   private static final Set<RDFDatatype> INTEGER_TYPES;
   private static final Set<RDFDatatype> DOUBLE_TYPES;
 
@@ -287,6 +289,30 @@ public final class RdfUtil {
     return qe.execSelect();
   }
 
+  /**
+   * Prepares a SPARQL SELECT query on the specified endpoint whose results
+   * are requested as tab-separated values. Unlike the JSON results used by
+   * {@link #executeSELECT(String, String)}, TSV results are parsed one row
+   * at a time as the {@link ResultSet} is consumed, so the caller only holds
+   * the solutions it has not yet processed. The caller is responsible for
+   * closing the returned execution once it has finished reading the results.
+   * @param endpoint
+   * @param queryText
+   * @return the query execution, or null if the query is not a SELECT query
+   */
+  public static QueryEngineHTTP createStreamingSELECT(String endpoint, String queryText) {
+    Query query = QueryFactory.create(queryText);
+    if(!query.isSelectType()) {
+      Log.d(LOG_TAG, "Cannot execute query that is not SELECT");
+      return null;
+    }
+    QueryEngineHTTP qe = QueryExecutionFactory.createServiceRequest(endpoint, query);
+    qe.setSelectContentType(SPARQL_RESULTS_TSV);
+    Log.d(LOG_TAG, "Executing streaming SPARQL select query");
+    Log.d(LOG_TAG, query.toString());
+    return qe;
+  }
+
   /**
    * Executes a SPARQL SELECT query on the specified endpoint.
    * @param endpoint
@@ -1007,54 +1033,73 @@ public final class RdfUtil {
   public static YailList resultSetUsingYailDictionary(ResultSet results) {
     List<YailDictionary> bindings = new ArrayList<>();
     while (results.hasNext()) {
-      QuerySolution s = results.next();
-      Iterator<String> varNames = s.varNames();
-      YailDictionary binding = new YailDictionary();
-      while (varNames.hasNext()) {
-        String var = varNames.next();
-        RDFNode node = s.get(var);
-        if (node.isResource()) {
-          binding.put(var, node.toString());
-        } else if (node.isLiteral()) {
-          Literal l = node.asLiteral();
-          if (l.getDatatype() != null) {
-            RDFDatatype datatype = l.getDatatype();
-            if (XSDDatatype.XSDboolean.equals(datatype)) {
-              binding.put(var, l.getBoolean());
-            } else if (INTEGER_TYPES.contains(l.getDatatype())) {
-              binding.put(var, l.getInt());
-            } else if (DOUBLE_TYPES.contains(l.getDatatype())) {
-              binding.put(var, l.getDouble());
-            } else if (XSDDatatype.XSDdate.equals(datatype)) {
-              String[] parts = l.getString().split("-");
-              Calendar cal = GregorianCalendar.getInstance();
-              cal.set(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
-              binding.put(var, node.toString());
-            } else if (XSDDatatype.XSDdateTime.equals(datatype)) {
-              // TODO(ewpatton): Implementation
-              String[] parts = l.getString().split("T");
-              String[] dateParts = parts[0].split("-");
-              String[] timeParts = parts[1].split(":");
-              Calendar cal = GregorianCalendar.getInstance();
-              cal.set(Integer.parseInt(dateParts[0]), Integer.parseInt(dateParts[1]), Integer.parseInt(dateParts[2]),
-                  Integer.parseInt(timeParts[0]), Integer.parseInt(timeParts[1]), Integer.parseInt(timeParts[2]));
-            } else {
-              binding.put(var, l.getString());
-            }
+      bindings.add(solutionAsYailDictionary(results.next()));
+    }
+    Log.d(LOG_TAG, bindings.toString());
+    return YailList.makeList(bindings);
+  }
+
+  /**
+   * Converts at most <code>pageSize</code> of the remaining solutions in the
+   * result set into dictionaries. The result set is left positioned at the
+   * first unconverted solution so that the next page can be read from it.
+   * @param results the result set to read from
+   * @param pageSize the maximum number of solutions to convert
+   * @return a list of dictionaries mapping variable names to values
+   */
+  public static YailList resultSetPageUsingYailDictionary(ResultSet results, int pageSize) {
+    List<YailDictionary> bindings = new ArrayList<>(pageSize);
+    while (bindings.size() < pageSize && results.hasNext()) {
+      bindings.add(solutionAsYailDictionary(results.next()));
+    }
+    return YailList.makeList(bindings);
+  }
+
+  private static YailDictionary solutionAsYailDictionary(QuerySolution s) {
+    Iterator<String> varNames = s.varNames();
+    YailDictionary binding = new YailDictionary();
+    while (varNames.hasNext()) {
+      String var = varNames.next();
+      RDFNode node = s.get(var);
+      if (node.isResource()) {
+        binding.put(var, node.toString());
+      } else if (node.isLiteral()) {
+        Literal l = node.asLiteral();
+        if (l.getDatatype() != null) {
+          RDFDatatype datatype = l.getDatatype();
+          if (XSDDatatype.XSDboolean.equals(datatype)) {
+            binding.put(var, l.getBoolean());
+          } else if (INTEGER_TYPES.contains(l.getDatatype())) {
+            binding.put(var, l.getInt());
+          } else if (DOUBLE_TYPES.contains(l.getDatatype())) {
+            binding.put(var, l.getDouble());
+          } else if (XSDDatatype.XSDdate.equals(datatype)) {
+            String[] parts = l.getString().split("-");
+            Calendar cal = GregorianCalendar.getInstance();
+            cal.set(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            binding.put(var, node.toString());
+          } else if (XSDDatatype.XSDdateTime.equals(datatype)) {
+            // TODO(ewpatton): Implementation
+            String[] parts = l.getString().split("T");
+            String[] dateParts = parts[0].split("-");
+            String[] timeParts = parts[1].split(":");
+            Calendar cal = GregorianCalendar.getInstance();
+            cal.set(Integer.parseInt(dateParts[0]), Integer.parseInt(dateParts[1]), Integer.parseInt(dateParts[2]),
+                Integer.parseInt(timeParts[0]), Integer.parseInt(timeParts[1]), Integer.parseInt(timeParts[2]));
           } else {
             binding.put(var, l.getString());
           }
         } else {
-          Log.d(LOG_TAG, "Unexpected type: " + node.getClass());
-          binding.put(var, node.toString());
+          binding.put(var, l.getString());
         }
+      } else {
+        Log.d(LOG_TAG, "Unexpected type: " + node.getClass());
+        binding.put(var, node.toString());
       }
-      bindings.add(binding);
     }
-    Log.d(LOG_TAG, bindings.toString());
-    return YailList.makeList(bindings);
+    return binding;
   }
-  
+
   public static YailList resultSetAsYailList(ResultSet results) {
     final Collection<Solution> solutions = RdfUtil.resultSetAsCollection( results );
     final List<YailList> list = new ArrayList<YailList>();
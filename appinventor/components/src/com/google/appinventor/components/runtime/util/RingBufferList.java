@@ -0,0 +1,169 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * A list stored in a circular array, so that elements can be added and
+ * removed at either end in constant time.
+ *
+ * <p>Adding or removing an element in the middle moves the elements on
+ * whichever side of it is shorter. A series that drops its oldest element
+ * whenever a new one is added, as real-time Chart data does, therefore never
+ * shifts the whole list.</p>
+ *
+ * @param <E> the type of the elements
+ */
+public class RingBufferList<E> extends AbstractList<E> implements RandomAccess {
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private Object[] elements;
+  // Index in elements of the first element of the list
+  private int head = 0;
+  private int size = 0;
+
+  public RingBufferList() {
+    elements = new Object[DEFAULT_CAPACITY];
+  }
+
+  public RingBufferList(Collection<? extends E> source) {
+    elements = new Object[Math.max(DEFAULT_CAPACITY, source.size())];
+    for (E element : source) {
+      elements[size++] = element;
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E get(int index) {
+    checkIndex(index, size);
+    return (E) elements[slot(index)];
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E set(int index, E element) {
+    checkIndex(index, size);
+    int slot = slot(index);
+    E previous = (E) elements[slot];
+    elements[slot] = element;
+    return previous;
+  }
+
+  @Override
+  public boolean add(E element) {
+    ensureCapacity(size + 1);
+    elements[slot(size)] = element;
+    size++;
+    modCount++;
+    return true;
+  }
+
+  @Override
+  public void add(int index, E element) {
+    checkIndex(index, size + 1);
+    ensureCapacity(size + 1);
+    if (index < size / 2) {
+      // Move the elements before index one place towards the front
+      head = (head - 1 + elements.length) % elements.length;
+      for (int i = 0; i < index; i++) {
+        elements[slot(i)] = elements[slot(i + 1)];
+      }
+    } else {
+      for (int i = size; i > index; i--) {
+        elements[slot(i)] = elements[slot(i - 1)];
+      }
+    }
+    elements[slot(index)] = element;
+    size++;
+    modCount++;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E remove(int index) {
+    checkIndex(index, size);
+    E removed = (E) elements[slot(index)];
+    if (index < size / 2) {
+      for (int i = index; i > 0; i--) {
+        elements[slot(i)] = elements[slot(i - 1)];
+      }
+      elements[head] = null;
+      head = (head + 1) % elements.length;
+    } else {
+      for (int i = index; i < size - 1; i++) {
+        elements[slot(i)] = elements[slot(i + 1)];
+      }
+      elements[slot(size - 1)] = null;
+    }
+    size--;
+    modCount++;
+    return removed;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(elements, null);
+    head = 0;
+    size = 0;
+    modCount++;
+  }
+
+  @Override
+  public Object[] toArray() {
+    Object[] result = new Object[size];
+    copyTo(result);
+    return result;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T[] toArray(T[] array) {
+    if (array.length < size) {
+      array = (T[]) java.lang.reflect.Array.newInstance(array.getClass().getComponentType(), size);
+    }
+    copyTo(array);
+    if (array.length > size) {
+      array[size] = null;
+    }
+    return array;
+  }
+
+  private void copyTo(Object[] target) {
+    int firstPart = Math.min(size, elements.length - head);
+    System.arraycopy(elements, head, target, 0, firstPart);
+    System.arraycopy(elements, 0, target, firstPart, size - firstPart);
+  }
+
+  private int slot(int index) {
+    int slot = head + index;
+    return slot < elements.length ? slot : slot - elements.length;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > elements.length) {
+      Object[] grown = new Object[Math.max(capacity, elements.length * 2)];
+      copyTo(grown);
+      elements = grown;
+      head = 0;
+    }
+  }
+
+  private void checkIndex(int index, int limit) {
+    if (index < 0 || index >= limit) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+}
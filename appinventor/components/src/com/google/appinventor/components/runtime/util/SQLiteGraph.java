@@ -0,0 +1,366 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.util.Log;
+import com.hp.hpl.jena.datatypes.TypeMapper;
+import com.hp.hpl.jena.graph.GraphEvents;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.TransactionHandler;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.graph.TripleMatch;
+import com.hp.hpl.jena.graph.impl.GraphBase;
+import com.hp.hpl.jena.graph.impl.TransactionHandlerBase;
+import com.hp.hpl.jena.rdf.model.AnonId;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
+import com.hp.hpl.jena.util.iterator.NiceIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A Jena graph whose triples are stored in an on-device SQLite database.
+ *
+ * <p>Triples are kept in a single table with SPO, POS and OSP indexes so that
+ * any (subject, predicate, object) pattern is answered by an index range scan.
+ * Matches are read through a cursor rather than materialized, and nothing is
+ * parsed when the graph is opened, so opening the graph and looking up a
+ * pattern cost the same regardless of how many triples are stored.</p>
+ *
+ * <p>The database is opened on a background thread when the graph is
+ * created, because opening may create or upgrade it. A method that needs the
+ * database before then waits for it.</p>
+ *
+ * <p>Nodes are stored in a compact N-Triples-like encoding: URIs as
+ * {@code <uri>}, blank nodes as {@code _:label} and literals as
+ * {@code "lexical"} followed by an optional {@code @lang} or {@code ^^datatype}.
+ * Literals therefore match by term rather than by value.</p>
+ */
+public final class SQLiteGraph extends GraphBase {
+  private static final String TABLE_NAME = "triples";
+  private static final String COLUMN_SUBJECT = "s";
+  private static final String COLUMN_PREDICATE = "p";
+  private static final String COLUMN_OBJECT = "o";
+  private static final String[] COLUMNS =
+      { "rowid", COLUMN_SUBJECT, COLUMN_PREDICATE, COLUMN_OBJECT };
+
+  private static final String SQL_CREATE_TABLE =
+      "CREATE TABLE " + TABLE_NAME + " (" +
+      COLUMN_SUBJECT + " TEXT NOT NULL," +
+      COLUMN_PREDICATE + " TEXT NOT NULL," +
+      COLUMN_OBJECT + " TEXT NOT NULL," +
+      "UNIQUE (" + COLUMN_SUBJECT + ", " + COLUMN_PREDICATE + ", " + COLUMN_OBJECT + "))";
+
+  private static final String SQL_CREATE_POS_INDEX =
+      "CREATE INDEX " + TABLE_NAME + "_pos ON " + TABLE_NAME + " (" +
+      COLUMN_PREDICATE + ", " + COLUMN_OBJECT + ", " + COLUMN_SUBJECT + ")";
+
+  private static final String SQL_CREATE_OSP_INDEX =
+      "CREATE INDEX " + TABLE_NAME + "_osp ON " + TABLE_NAME + " (" +
+      COLUMN_OBJECT + ", " + COLUMN_SUBJECT + ", " + COLUMN_PREDICATE + ")";
+
+  private static final String SQL_DELETE_TABLE = "DROP TABLE IF EXISTS " + TABLE_NAME;
+
+  private static final int DATABASE_VERSION = 1;
+
+  private static final class Helper extends SQLiteOpenHelper {
+    Helper(Context context, String name) {
+      super(context, name, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+      db.execSQL(SQL_CREATE_TABLE);
+      db.execSQL(SQL_CREATE_POS_INDEX);
+      db.execSQL(SQL_CREATE_OSP_INDEX);
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+      db.execSQL(SQL_DELETE_TABLE);
+      onCreate(db);
+    }
+  }
+
+  private static final String LOG_TAG = SQLiteGraph.class.getSimpleName();
+
+  private final Helper helper;
+  // Guarded by this
+  private SQLiteDatabase db = null;
+  private TransactionHandler transactionHandler;
+
+  /**
+   * Opens (creating if necessary) the graph stored in the named database in
+   * the application's private database directory.
+   *
+   * @param context the context used to locate the database
+   * @param name the name of the database file
+   */
+  public SQLiteGraph(Context context, String name) {
+    helper = new Helper(context, name.endsWith(".db") ? name : name + ".db");
+    AsynchUtil.runAsynchronously(AsynchUtil.Lane.IO, new Runnable() {
+      @Override
+      public void run() {
+        try {
+          db();
+        } catch (RuntimeException e) {
+          // Closed already, or the failure is thrown again on first use.
+          Log.w(LOG_TAG, "Unable to open triple store", e);
+        }
+      }
+    });
+  }
+
+  /**
+   * Returns the database, opening it if the background open has not yet
+   * finished.
+   */
+  private synchronized SQLiteDatabase db() {
+    checkOpen();
+    if (db == null) {
+      db = helper.getWritableDatabase();
+    }
+    return db;
+  }
+
+  @Override
+  public void performAdd(Triple t) {
+    ContentValues values = new ContentValues();
+    values.put(COLUMN_SUBJECT, encode(t.getSubject()));
+    values.put(COLUMN_PREDICATE, encode(t.getPredicate()));
+    values.put(COLUMN_OBJECT, encode(t.getObject()));
+    db().insertWithOnConflict(TABLE_NAME, null, values, SQLiteDatabase.CONFLICT_IGNORE);
+  }
+
+  @Override
+  public void performDelete(Triple t) {
+    db().delete(TABLE_NAME,
+        COLUMN_SUBJECT + " = ? AND " + COLUMN_PREDICATE + " = ? AND " + COLUMN_OBJECT + " = ?",
+        new String[] { encode(t.getSubject()), encode(t.getPredicate()), encode(t.getObject()) });
+  }
+
+  @Override
+  public void remove(Node s, Node p, Node o) {
+    checkOpen();
+    List<String> args = new ArrayList<String>(3);
+    String where = whereClause(nullIfAny(s), nullIfAny(p), nullIfAny(o), args);
+    db().delete(TABLE_NAME, where, args.toArray(new String[args.size()]));
+    getEventManager().notifyEvent(this, GraphEvents.remove(s, p, o));
+  }
+
+  @Override
+  public void clear() {
+    checkOpen();
+    db().delete(TABLE_NAME, null, null);
+    getEventManager().notifyEvent(this, GraphEvents.removeAll);
+  }
+
+  @Override
+  protected ExtendedIterator<Triple> graphBaseFind(TripleMatch m) {
+    List<String> args = new ArrayList<String>(3);
+    String where = whereClause(m.getMatchSubject(), m.getMatchPredicate(), m.getMatchObject(),
+        args);
+    Cursor cursor = db().query(TABLE_NAME, COLUMNS, where, args.toArray(new String[args.size()]),
+        null, null, null);
+    return new CursorTripleIterator(cursor);
+  }
+
+  @Override
+  protected boolean graphBaseContains(Triple t) {
+    if (!t.isConcrete()) {
+      return super.graphBaseContains(t);
+    }
+    List<String> args = new ArrayList<String>(3);
+    String where = whereClause(t.getSubject(), t.getPredicate(), t.getObject(), args);
+    return DatabaseUtils.queryNumEntries(db(), TABLE_NAME, where,
+        args.toArray(new String[args.size()])) > 0;
+  }
+
+  @Override
+  protected int graphBaseSize() {
+    return (int) DatabaseUtils.queryNumEntries(db(), TABLE_NAME);
+  }
+
+  @Override
+  public TransactionHandler getTransactionHandler() {
+    if (transactionHandler == null) {
+      final SQLiteDatabase db = db();
+      transactionHandler = new TransactionHandlerBase() {
+        @Override
+        public boolean transactionsSupported() {
+          return true;
+        }
+
+        @Override
+        public void begin() {
+          db.beginTransaction();
+        }
+
+        @Override
+        public void abort() {
+          db.endTransaction();
+        }
+
+        @Override
+        public void commit() {
+          db.setTransactionSuccessful();
+          db.endTransaction();
+        }
+      };
+    }
+    return transactionHandler;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (!closed) {
+      helper.close();
+    }
+    super.close();
+  }
+
+  private static Node nullIfAny(Node n) {
+    return n == null || n == Node.ANY || n.isVariable() ? null : n;
+  }
+
+  private static String whereClause(Node s, Node p, Node o, List<String> args) {
+    StringBuilder sb = new StringBuilder();
+    appendCondition(sb, COLUMN_SUBJECT, s, args);
+    appendCondition(sb, COLUMN_PREDICATE, p, args);
+    appendCondition(sb, COLUMN_OBJECT, o, args);
+    return sb.length() == 0 ? null : sb.toString();
+  }
+
+  private static void appendCondition(StringBuilder sb, String column, Node n, List<String> args) {
+    if (n == null) {
+      return;
+    }
+    if (sb.length() > 0) {
+      sb.append(" AND ");
+    }
+    sb.append(column).append(" = ?");
+    args.add(encode(n));
+  }
+
+  static String encode(Node n) {
+    if (n.isURI()) {
+      return "<" + n.getURI() + ">";
+    } else if (n.isBlank()) {
+      return "_:" + n.getBlankNodeLabel();
+    } else if (n.isLiteral()) {
+      StringBuilder sb = new StringBuilder();
+      sb.append('"').append(n.getLiteralLexicalForm()).append('"');
+      String lang = n.getLiteralLanguage();
+      String datatype = n.getLiteralDatatypeURI();
+      if (lang != null && lang.length() > 0) {
+        sb.append('@').append(lang);
+      } else if (datatype != null) {
+        sb.append("^^").append(datatype);
+      }
+      return sb.toString();
+    }
+    throw new IllegalArgumentException("Cannot store node " + n);
+  }
+
+  static Node decode(String value) {
+    switch (value.charAt(0)) {
+      case '<':
+        return Node.createURI(value.substring(1, value.length() - 1));
+      case '_':
+        return Node.createAnon(new AnonId(value.substring(2)));
+      default:
+        // Language tags and datatype URIs cannot contain a double quote, so the
+        // last one in the value closes the lexical form.
+        int end = value.lastIndexOf('"');
+        String lexical = value.substring(1, end);
+        String suffix = value.substring(end + 1);
+        if (suffix.startsWith("@")) {
+          return Node.createLiteral(lexical, suffix.substring(1), false);
+        } else if (suffix.startsWith("^^")) {
+          return Node.createLiteral(lexical, null,
+              TypeMapper.getInstance().getSafeTypeByName(suffix.substring(2)));
+        }
+        return Node.createLiteral(lexical);
+    }
+  }
+
+  /**
+   * Iterates over the rows of a query. Triples removed through the iterator
+   * are deleted once the cursor is closed, because deleting rows while a
+   * cursor is open can make it skip rows when it refills its window.
+   */
+  private final class CursorTripleIterator extends NiceIterator<Triple> {
+    private final Cursor cursor;
+    private final List<Long> removedRows = new ArrayList<Long>();
+    private final List<Triple> removedTriples = new ArrayList<Triple>();
+    private Triple current = null;
+    private long currentRow;
+    private boolean advanced = false;
+    private boolean hasNext = false;
+
+    CursorTripleIterator(Cursor cursor) {
+      this.cursor = cursor;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (!advanced) {
+        advanced = true;
+        hasNext = !cursor.isClosed() && cursor.moveToNext();
+        if (!hasNext) {
+          close();
+        }
+      }
+      return hasNext;
+    }
+
+    @Override
+    public Triple next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      advanced = false;
+      currentRow = cursor.getLong(0);
+      current = Triple.create(decode(cursor.getString(1)), decode(cursor.getString(2)),
+          decode(cursor.getString(3)));
+      return current;
+    }
+
+    @Override
+    public void remove() {
+      if (current == null) {
+        throw new IllegalStateException();
+      }
+      removedRows.add(currentRow);
+      removedTriples.add(current);
+      current = null;
+    }
+
+    @Override
+    public void close() {
+      cursor.close();
+      if (removedRows.isEmpty()) {
+        return;
+      }
+      StringBuilder rows = new StringBuilder();
+      for (Long row : removedRows) {
+        rows.append(rows.length() == 0 ? "" : ",").append(row);
+      }
+      db().execSQL("DELETE FROM " + TABLE_NAME + " WHERE rowid IN (" + rows + ")");
+      for (Triple t : removedTriples) {
+        getEventManager().notifyDeleteTriple(SQLiteGraph.this, t);
+      }
+      removedRows.clear();
+      removedTriples.clear();
+    }
+  }
+}
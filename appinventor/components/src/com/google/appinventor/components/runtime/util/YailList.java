@@ -11,7 +11,9 @@ import gnu.lists.LList;
 import gnu.lists.Pair;
 import gnu.math.IntNum;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import org.json.JSONException;
@@ -21,6 +23,18 @@ import org.json.JSONException;
  * by the Kawa framework. YailList is the main list primitive used
  * by App Inventor components.
  *
+ * <p>The elements are stored in the usual chain of pairs so that
+ * Scheme code can walk the list, but YailList also keeps an array of
+ * the pairs in the chain so that indexed access and size are constant
+ * time. The pairs of the chain tell the list when their cdr is changed,
+ * so set-cdr! anywhere in the chain makes the array be rebuilt. Pairs
+ * that Scheme code links into the chain are replaced by copies of the
+ * list's own kind when the array is rebuilt.</p>
+ *
+ * <p>The array is published as a whole, so the list can be read from
+ * several threads. Changes to the list must still not run at the same
+ * time as other changes or reads.</p>
+ *
  */
 @SuppressWarnings("rawtypes")
 public class YailList extends Pair implements YailObject {
@@ -42,8 +56,51 @@ public class YailList extends Pair implements YailObject {
     super(YailConstants.YAIL_HEADER, LList.Empty);
   }
 
-  private YailList(Object cdrval) {
-    super(YailConstants.YAIL_HEADER, cdrval);
+  /**
+   * The index of the chain. Null until indexed access is first needed,
+   * and cleared whenever the chain changes.
+   */
+  private transient volatile Index index;
+
+  /**
+   * The pairs of the chain, in order; element i is the car of cells[i].
+   * Entries at and after count may be filled in for a later index, so an
+   * index is never changed once published.
+   */
+  private static final class Index {
+    final Pair[] cells;
+    final int count;
+
+    Index(Pair[] cells, int count) {
+      this.cells = cells;
+      this.count = count;
+    }
+  }
+
+  /**
+   * A pair of the chain that clears the index of its list when its cdr
+   * is changed.
+   */
+  private static final class Cell extends Pair {
+    private YailList owner;
+
+    Cell(Object car, Object cdr, YailList owner) {
+      super(car, cdr);
+      this.owner = owner;
+    }
+
+    @Override
+    public void setCdr(Object cdr) {
+      super.setCdr(cdr);
+      if (owner != null) {
+        owner.index = null;
+      }
+    }
+
+    // Serialize as a plain pair, since Cell has no public constructor.
+    private Object writeReplace() {
+      return new Pair(car, cdr);
+    }
   }
 
   /**
@@ -57,37 +114,67 @@ public class YailList extends Pair implements YailObject {
    * Create a YailList from an array.
    */
   public static YailList makeList(Object[] objects) {
-    LList newCdr = Pair.makeList(objects, 0);
-    return new YailList(newCdr);
+    YailList list = new YailList();
+    list.addValues(Arrays.asList(objects));
+    return list;
   }
 
   /**
    * Create a YailList from a List.
    */
   public static YailList makeList(List vals) {
-    LList newCdr = Pair.makeList(vals);
-    return new YailList(newCdr);
+    YailList list = new YailList();
+    list.addValues(vals);
+    return list;
   }
 
   /**
    * Create a YailList from a Collection.
    */
   public static YailList makeList(Collection vals) {
-    List valsList = new ArrayList(vals);
-
-    LList newCdr = Pair.makeList(valsList);
-    return new YailList(newCdr);
+    YailList list = new YailList();
+    list.addValues(vals);
+    return list;
   }
 
   /**
    * Create a YailList from a Set.
    */
   public static YailList makeList(Set vals) {
-    // LList newCdr = Pair.makeList(vals.toArray(new Object[vals.size()]), 0);
-    List valsList = new ArrayList(vals);
+    YailList list = new YailList();
+    list.addValues(vals);
+    return list;
+  }
+
+  /**
+   * Adds the values to the end of this list in new pairs of the chain.
+   */
+  private void addValues(Iterable vals) {
+    Index current = index();
+    Pair[] cells = current.cells;
+    int count = current.count;
+    Pair tail = count == 0 ? this : cells[count - 1];
+    for (Object val : vals) {
+      Cell cell = new Cell(val, LList.Empty, this);
+      if (count == cells.length) {
+        cells = Arrays.copyOf(cells, count * 2);
+      }
+      // Only entries past the published count are written.
+      cells[count++] = cell;
+      tail.setCdrBackdoor(cell);
+      tail = cell;
+    }
+    index = new Index(cells, count);
+  }
 
-    LList newCdr = Pair.makeList(valsList);
-    return new YailList(newCdr);
+  /**
+   * Replace the tail of the chain, which clears the index like a set-cdr!
+   * on any other pair of the chain.
+   */
+  @Override
+  public void setCdr(Object cdr) {
+    super.setCdr(cdr);
+    index = null;
   }
 
   /**
@@ -170,7 +257,19 @@ public class YailList extends Pair implements YailObject {
    */
   @Override
   public int size() {
-    return super.size() - 1;
+    return index().count;
+  }
+
+  /**
+   * Return the item at the given position, where position 0 is the
+   * list header and position 1 the first element.
+   */
+  @Override
+  public Object get(int index) {
+    if (index == 0) {
+      return car;
+    }
+    return cell(index - 1).getCar();
   }
 
   /**
@@ -200,4 +299,142 @@ public class YailList extends Pair implements YailObject {
   public Object getObject(int index) {
     return get(index + 1);
   }
+
+  /**
+   * Replace the Object at the given index.
+   */
+  public void setObject(int index, Object value) {
+    cell(index).setCar(value);
+  }
+
+  /**
+   * Insert an Object so that it is at the given index, which may be
+   * equal to the size of the list to add it at the end.
+   */
+  public void insertObject(int index, Object value) {
+    Index current = index();
+    int count = current.count;
+    if (index < 0 || index > count) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+    }
+    if (index == count) {
+      addValues(Collections.singletonList(value));
+      return;
+    }
+    Pair previous = index == 0 ? this : current.cells[index - 1];
+    Pair pair = new Cell(value, previous.getCdr(), this);
+    Pair[] cells = new Pair[Math.max(count + 1, current.cells.length)];
+    System.arraycopy(current.cells, 0, cells, 0, index);
+    cells[index] = pair;
+    System.arraycopy(current.cells, index, cells, index + 1, count - index);
+    previous.setCdrBackdoor(pair);
+    this.index = new Index(cells, count + 1);
+  }
+
+  /**
+   * Remove and return the Object at the given index.
+   */
+  public Object removeObject(int index) {
+    Index current = index();
+    Pair pair = cell(current, index);
+    Pair previous = index == 0 ? this : current.cells[index - 1];
+    int count = current.count;
+    Pair[] cells = new Pair[current.cells.length];
+    System.arraycopy(current.cells, 0, cells, 0, index);
+    System.arraycopy(current.cells, index + 1, cells, index, count - index - 1);
+    previous.setCdrBackdoor(pair.getCdr());
+    ((Cell) pair).owner = null;
+    this.index = new Index(cells, count - 1);
+    return pair.getCar();
+  }
+
+  /**
+   * Append shallow copies of the elements of a Kawa list to the end of
+   * this list.
+   */
+  public void appendAll(Object items) {
+    // Copy the items before linking them in case they are this list's own contents.
+    int size = LList.listLength(items, false);
+    if (size <= 0) {
+      return;
+    }
+    List<Object> values = new ArrayList<Object>(size);
+    Object rest = items;
+    for (int i = 0; i < size; i++) {
+      Pair source = (Pair) rest;
+      values.add(source.getCar());
+      rest = source.getCdr();
+    }
+    addValues(values);
+  }
+
+  /**
+   * Replace the contents of this list with shallow copies of the
+   * elements of a Kawa list.
+   */
+  public void setContents(Object contents) {
+    // Copy first in case the contents are part of this list's chain.
+    List<Object> values = new ArrayList<Object>();
+    Object rest = contents;
+    while (rest instanceof Pair) {
+      values.add(((Pair) rest).getCar());
+      rest = ((Pair) rest).getCdr();
+    }
+    cdr = LList.Empty;
+    index = null;
+    addValues(values);
+  }
+
+  private Pair cell(int index) {
+    return cell(index(), index);
+  }
+
+  private static Pair cell(Index current, int index) {
+    if (index < 0 || index >= current.count) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + current.count);
+    }
+    return current.cells[index];
+  }
+
+  /**
+   * Returns the index of the current chain, building it if the chain has
+   * changed since it was last built.
+   */
+  private Index index() {
+    Index current = index;
+    return current != null ? current : buildIndex();
+  }
+
+  /**
+   * Builds the index in local variables and then publishes it, so that a
+   * concurrent reader never sees a partly built index. Pairs that are not
+   * this list's own cells are replaced by cells, so that later changes to
+   * them clear the index.
+   */
+  private synchronized Index buildIndex() {
+    Index current = index;
+    if (current != null) {
+      return current;
+    }
+    Pair[] cells = new Pair[8];
+    int count = 0;
+    Pair previous = this;
+    Object rest = cdr;
+    while (rest instanceof Pair) {
+      Pair pair = (Pair) rest;
+      if (!(pair instanceof Cell) || ((Cell) pair).owner != this) {
+        pair = new Cell(pair.getCar(), pair.getCdr(), this);
+        previous.setCdrBackdoor(pair);
+      }
+      if (count == cells.length) {
+        cells = Arrays.copyOf(cells, count * 2);
+      }
+      cells[count++] = pair;
+      previous = pair;
+      rest = pair.getCdr();
+    }
+    current = new Index(cells, count);
+    index = current;
+    return current;
+  }
 }
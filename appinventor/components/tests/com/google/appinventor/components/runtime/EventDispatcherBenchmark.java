@@ -0,0 +1,80 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime;
+
+import com.google.appinventor.components.runtime.EventDispatcherTest.FakeComponent;
+import com.google.appinventor.components.runtime.EventDispatcherTest.FakeDelegate;
+
+/**
+ * Measures the throughput of {@link EventDispatcher#dispatchEvent} as the number of
+ * components handling the same event grows, from one thread and from several.
+ *
+ * <p>This is not a unit test. Run it by hand with the components test
+ * classpath, optionally passing the number of threads:</p>
+ *
+ * <pre>
+ *   java -cp ... com.google.appinventor.components.runtime.EventDispatcherBenchmark 4
+ * </pre>
+ */
+public final class EventDispatcherBenchmark {
+  private static final int[] HANDLER_COUNTS = {1, 10, 100, 1000};
+  private static final long DURATION_MILLIS = 1000;
+
+  private EventDispatcherBenchmark() {
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+    System.out.printf("%-10s %20s %20s%n", "handlers", "1 thread (ops/s)",
+        threads + " threads (ops/s)");
+    for (int handlers : HANDLER_COUNTS) {
+      System.out.printf("%-10d %20d %20d%n", handlers, run(handlers, 1), run(handlers, threads));
+    }
+  }
+
+  private static long run(int handlers, int threadCount) throws InterruptedException {
+    FakeDelegate delegate = new FakeDelegate() {
+      @Override
+      public boolean dispatchEvent(Component component, String componentName, String eventName,
+          Object[] args) {
+        // Do no work beyond matching the component, and record nothing.
+        return bindings.get(componentName) == component;
+      }
+    };
+    final FakeComponent[] components = new FakeComponent[handlers];
+    for (int i = 0; i < handlers; i++) {
+      components[i] = new FakeComponent(delegate);
+      delegate.bindings.put("Button" + i, components[i]);
+      EventDispatcher.registerEventForDelegation(delegate, "Button" + i, "Click");
+    }
+    final long[] counts = new long[threadCount];
+    final long deadline = System.currentTimeMillis() + DURATION_MILLIS;
+    Thread[] threads = new Thread[threadCount];
+    for (int t = 0; t < threadCount; t++) {
+      final int index = t;
+      threads[t] = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          long count = 0;
+          int i = index;
+          while ((count & 0xff) != 0 || System.currentTimeMillis() < deadline) {
+            EventDispatcher.dispatchEvent(components[i++ % components.length], "Click");
+            count++;
+          }
+          counts[index] = count;
+        }
+      });
+      threads[t].start();
+    }
+    long total = 0;
+    for (int t = 0; t < threadCount; t++) {
+      threads[t].join();
+      total += counts[t];
+    }
+    EventDispatcher.removeDispatchDelegate(delegate);
+    return total * 1000 / DURATION_MILLIS;
+  }
+}
@@ -0,0 +1,200 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link EventDispatcher}.
+ */
+public class EventDispatcherTest {
+  private FakeDelegate delegate;
+  private FakeComponent button1;
+  private FakeComponent button2;
+
+  @Before
+  public void setUp() {
+    delegate = new FakeDelegate();
+    button1 = new FakeComponent(delegate);
+    button2 = new FakeComponent(delegate);
+    delegate.bindings.put("Button1", button1);
+    delegate.bindings.put("Button2", button2);
+  }
+
+  @After
+  public void tearDown() {
+    EventDispatcher.removeDispatchDelegate(delegate);
+  }
+
+  @Test
+  public void testDispatchesToMatchingHandler() {
+    EventDispatcher.registerEventForDelegation(delegate, "Button1", "Click");
+    EventDispatcher.registerEventForDelegation(delegate, "Button2", "Click");
+
+    assertTrue(EventDispatcher.dispatchEvent(button2, "Click"));
+    assertEquals("Button2.Click", delegate.handled.get(0));
+    assertTrue(EventDispatcher.dispatchEvent(button1, "Click"));
+    assertTrue(EventDispatcher.dispatchEvent(button2, "Click"));
+    assertEquals(3, delegate.handled.size());
+    assertEquals("Button2.Click", delegate.handled.get(2));
+    assertFalse(EventDispatcher.dispatchEvent(button1, "LongClick"));
+  }
+
+  @Test
+  public void testUnregisteredHandlerIsNotCalled() {
+    EventDispatcher.registerEventForDelegation(delegate, "Button1", "Click");
+    assertTrue(EventDispatcher.dispatchEvent(button1, "Click"));
+
+    EventDispatcher.unregisterEventForDelegation(delegate, "Button1", "Click");
+    assertFalse(EventDispatcher.dispatchEvent(button1, "Click"));
+
+    EventDispatcher.registerEventForDelegation(delegate, "Button1", "Click");
+    EventDispatcher.unregisterAllEventsForDelegation();
+    assertFalse(EventDispatcher.dispatchEvent(button1, "Click"));
+    assertEquals(1, delegate.handled.size());
+  }
+
+  @Test
+  public void testRebindingComponentName() {
+    EventDispatcher.registerEventForDelegation(delegate, "Button1", "Click");
+    EventDispatcher.registerEventForDelegation(delegate, "Button2", "Click");
+    assertTrue(EventDispatcher.dispatchEvent(button1, "Click"));
+
+    // As when components are renamed in the companion.
+    delegate.bindings.put("Button1", button2);
+    delegate.bindings.put("Button2", button1);
+    assertTrue(EventDispatcher.dispatchEvent(button1, "Click"));
+    assertEquals("Button2.Click", delegate.handled.get(1));
+  }
+
+  @Test
+  public void testFailedHandlerRunsOnce() {
+    EventDispatcher.registerEventForDelegation(delegate, "Button1", "Click");
+    EventDispatcher.registerEventForDelegation(delegate, "Button2", "Click");
+    assertTrue(EventDispatcher.dispatchEvent(button1, "Click"));
+
+    delegate.failing = true;
+    assertFalse(EventDispatcher.dispatchEvent(button1, "Click"));
+    assertEquals(2, delegate.handled.size());
+    assertFalse(EventDispatcher.dispatchEvent(button1, "Click"));
+    assertEquals(3, delegate.handled.size());
+  }
+
+  @Test
+  public void testHandlerThatFailsFirstIsTriedAgain() {
+    EventDispatcher.registerEventForDelegation(delegate, "Button1", "Click");
+    EventDispatcher.registerEventForDelegation(delegate, "Button2", "Click");
+    delegate.failing = true;
+    assertFalse(EventDispatcher.dispatchEvent(button1, "Click"));
+
+    delegate.failing = false;
+    assertTrue(EventDispatcher.dispatchEvent(button1, "Click"));
+    assertEquals(2, delegate.handled.size());
+    assertEquals("Button1.Click", delegate.handled.get(1));
+  }
+
+  @Test
+  public void testRegisteringForgetsComponentIds() {
+    EventDispatcher.registerEventForDelegation(delegate, "Button1", "Click");
+    assertTrue(EventDispatcher.dispatchEvent(button1, "Click"));
+
+    // The component now answers to another id
+    delegate.bindings.remove("Button1");
+    delegate.bindings.put("Label1", button1);
+    EventDispatcher.registerEventForDelegation(delegate, "Label1", "Click");
+    assertTrue(EventDispatcher.dispatchEvent(button1, "Click"));
+    assertEquals("Label1.Click", delegate.handled.get(1));
+  }
+
+  @Test
+  public void testKnownComponentOnlyTriesItsHandler() {
+    EventDispatcher.registerEventForDelegation(delegate, "Button1", "Click");
+    EventDispatcher.registerEventForDelegation(delegate, "Button2", "Click");
+    EventDispatcher.registerEventForDelegation(delegate, "Button2", "LongClick");
+    assertTrue(EventDispatcher.dispatchEvent(button1, "Click"));
+
+    int calls = delegate.calls;
+    assertTrue(EventDispatcher.dispatchEvent(button1, "Click"));
+    assertEquals(calls + 1, delegate.calls);
+    assertFalse(EventDispatcher.dispatchEvent(button1, "LongClick"));
+    assertEquals(calls + 1, delegate.calls);
+  }
+
+  @Test
+  public void testHasEventHandler() {
+    assertFalse(EventDispatcher.hasEventHandler(button1, "Click"));
+    EventDispatcher.registerEventForDelegation(delegate, "Button2", "Click");
+    // Button1's id is not known yet, so Button2's handler might be its handler.
+    assertTrue(EventDispatcher.hasEventHandler(button1, "Click"));
+    assertFalse(EventDispatcher.hasEventHandler(button1, "LongClick"));
+
+    EventDispatcher.registerEventForDelegation(delegate, "Button1", "LongClick");
+    assertTrue(EventDispatcher.dispatchEvent(button1, "LongClick"));
+    assertFalse(EventDispatcher.hasEventHandler(button1, "Click"));
+    assertTrue(EventDispatcher.hasEventHandler(button2, "Click"));
+  }
+
+  static class FakeComponent implements Component {
+    private final HandlesEventDispatching delegate;
+
+    FakeComponent(HandlesEventDispatching delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public HandlesEventDispatching getDispatchDelegate() {
+      return delegate;
+    }
+  }
+
+  /**
+   * Dispatches events like a form does, by checking that the registered component name is bound
+   * to the component raising the event.
+   */
+  static class FakeDelegate implements HandlesEventDispatching {
+    final Map<String, Component> bindings = new HashMap<String, Component>();
+    final List<String> handled = new ArrayList<String>();
+    boolean failing = false;
+    int calls = 0;
+
+    @Override
+    public boolean canDispatchEvent(Component component, String eventName) {
+      return true;
+    }
+
+    @Override
+    public boolean dispatchEvent(Component component, String componentName, String eventName,
+        Object[] args) {
+      calls++;
+      if (bindings.get(componentName) != component) {
+        return false;
+      }
+      handled.add(componentName + "." + eventName);
+      // The form returns false when the handler throws.
+      return !failing;
+    }
+
+    @Override
+    public void dispatchErrorOccurredEvent(Component component, String functionName,
+        int errorCode, Object... args) {
+    }
+
+    @Override
+    public void dispatchGenericEvent(Component component, String eventName,
+        boolean notAlreadyHandled, Object[] args) {
+    }
+  }
+}
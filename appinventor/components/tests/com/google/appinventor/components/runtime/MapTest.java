@@ -28,6 +28,7 @@ import org.robolectric.shadows.ShadowSensorManager;
 import org.robolectric.shadows.ShadowView;
 
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -415,6 +416,122 @@ public class MapTest extends MapTestBase {
     }
   }
 
+  @Test
+  public void testLoadFromURLSimplified() throws MalformedURLException {
+    ShadowEventDispatcher.doNotHandleEvent(map, "GotFeatures");
+    String target = TestUtils.APP_INVENTOR_ROOT_DIR + "/components/tests/assets/com.google.appinventor.components.runtime.test/usa-new-england.geojson".replace('/', File.separatorChar);
+    String url = new File(target).toURI().toURL().toString();
+    map.LoadFromURL(url);
+    runAllAsynchronousCommandsAndEvents();
+    int detailed = 0;
+    for (int i = 0; i < map.Features().size(); i++) {
+      detailed += countPoints(((Polygon) map.Features().getObject(i)).Points());
+    }
+
+    map.Features(YailList.makeEmptyList());
+    map.ZoomLevel(3);
+    map.SimplifyFeatures(true);
+    map.LoadFromURL(url);
+    runAllAsynchronousCommandsAndEvents();
+    assertEquals(6, map.Features().size());
+    int simplified = 0;
+    for (int i = 0; i < map.Features().size(); i++) {
+      simplified += countPoints(((Polygon) map.Features().getObject(i)).Points());
+    }
+    assertTrue(simplified < detailed);
+  }
+
+  @Test
+  public void testLoadFromURLManyFeatures() throws IOException {
+    ShadowEventDispatcher.doNotHandleEvent(map, "GotFeatures");
+    map.LoadFromURL(writePoints(250, true));
+    runAllAsynchronousCommandsAndEvents();
+    assertEventFiredAny(map, "GotFeatures");
+    assertEquals(250, map.Features().size());
+  }
+
+  @Test
+  public void testLoadFromURLHandledWithTypeLast() throws IOException {
+    map.LoadFromURL(writePoints(250, false));
+    runAllAsynchronousCommandsAndEvents();
+    Object[] args = ShadowEventDispatcher.getArgumentsForEventFired(map, "GotFeatures");
+    assertEquals(250, ((YailList) args[1]).size());
+    assertEquals(0, map.Features().size());
+  }
+
+  /**
+   * Writes a FeatureCollection of the given number of points to a temporary file and returns its
+   * URL. The collection's type comes before or after its features.
+   */
+  private static String writePoints(int count, boolean typeFirst) throws IOException {
+    File file = File.createTempFile("features", ".geojson");
+    file.deleteOnExit();
+    String type = "\"type\":\"FeatureCollection\"";
+    StringBuilder content = new StringBuilder("{").append(typeFirst ? type + "," : "")
+        .append("\"features\":[");
+    for (int i = 0; i < count; i++) {
+      content.append(i == 0 ? "" : ",")
+          .append("{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[")
+          .append(-71 + i / 1000.0).append(",42]}}");
+    }
+    content.append("]").append(typeFirst ? "" : "," + type).append("}");
+    FileWriter writer = new FileWriter(file);
+    writer.write(content.toString());
+    writer.close();
+    return file.toURI().toURL().toString();
+  }
+
+  /**
+   * Tests that features created without any points, as the designer and GeoJSON loading do,
+   * can be added to the map and are found by spatial queries once they have points.
+   */
+  @Test
+  public void testEmptyFeaturesInIndex() {
+    LineString line = new LineString(map);
+    Polygon polygon = new Polygon(map);
+    assertEquals(0, map.FeaturesInBoundingBox(90, -180, -90, 180).size());
+    assertEquals(0, map.NearestFeatures(0, 0, 5).size());
+    line.PointsFromString("[[1, 1], [-1, -1]]");
+    YailList found = map.FeaturesInBoundingBox(2, -2, -2, 2);
+    assertEquals(1, found.size());
+    assertEquals(line, found.getObject(0));
+    assertEquals(1, map.NearestFeatures(0, 0, 5).size());
+    polygon.PointsFromString("[[10, 10], [10, 11], [11, 11]]");
+    assertEquals(2, map.NearestFeatures(0, 0, 5).size());
+  }
+
+  @Test
+  public void testClusterMarkers() {
+    int defaultOverlayCount = map.getController().getOverlayCount();
+    map.ClusterMarkers(true);
+    assertTrue(map.ClusterMarkers());
+    Marker[] markers = new Marker[100];
+    for (int i = 0; i < markers.length; i++) {
+      markers[i] = map.CreateMarker(42.3591 + i / 100000.0, -71.0936);
+    }
+    // Clusters are computed after a short delay and then in the background
+    runAllAsynchronousCommandsAndEvents();
+    runAllAsynchronousCommandsAndEvents();
+    // All of the markers share one badge drawn by a single overlay
+    assertEquals(defaultOverlayCount + 1, map.getController().getOverlayCount());
+    assertTrue(map.getController().isFeatureVisible(markers[0]));
+    markers[0].Visible(false);
+    assertFalse(map.getController().isFeatureVisible(markers[0]));
+    map.ClusterMarkers(false);
+    assertEquals(defaultOverlayCount + 99, map.getController().getOverlayCount());
+  }
+
+  private static int countPoints(YailList points) {
+    if (points.size() > 0 && points.getObject(0) instanceof Number) {
+      return 1;
+    }
+    int count = 0;
+    for (Object o : points.toArray()) {
+      count += countPoints((YailList) o);
+    }
+    return count;
+  }
+
   private MapView getMapView() {
     RelativeLayout layout = (RelativeLayout) map.getView();
     return (MapView) layout.getChildAt(0);
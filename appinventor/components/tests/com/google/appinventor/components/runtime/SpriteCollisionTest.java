@@ -434,4 +434,43 @@ public class SpriteCollisionTest extends RobolectricTestBase {
 
     assertFalse(Sprite.colliding(ball2, ball1));
   }
+
+  @Test
+  public void testCollisionsFollowMovingSprites() {
+    ball1.Radius(10);
+    ball1.MoveTo(0, 0);
+    ball2.Radius(10);
+    ball2.MoveTo(500, 500);
+    ball1.Initialize();
+    ball2.Initialize();
+    assertFalse(ball1.CollidingWith(ball2));
+
+    // Moving into another grid cell finds the collision.
+    ball2.MoveTo(15, 0);
+    assertTrue(ball1.CollidingWith(ball2));
+    assertTrue(ball2.CollidingWith(ball1));
+
+    // Moving far away ends it, even though the sprites no longer share a cell.
+    ball1.MoveTo(1000, 1000);
+    assertFalse(ball1.CollidingWith(ball2));
+    assertFalse(ball2.CollidingWith(ball1));
+  }
+
+  @Test
+  public void testCollisionWithRotatedImageSprite() {
+    ball1.Radius(5);
+    ball1.OriginAtCenter(true);
+    ball1.MoveTo(300, 300);
+    ball1.Initialize();
+
+    // A long, thin sprite rotated about its left end reaches the ball.
+    imageSpriteRotated1.Width(200);
+    imageSpriteRotated1.Height(4);
+    imageSpriteRotated1.U(0);
+    imageSpriteRotated1.V(0.5);
+    imageSpriteRotated1.Heading(-45);
+    imageSpriteRotated1.MoveTo(160, 160);
+    imageSpriteRotated1.Initialize();
+    assertTrue(ball1.CollidingWith(imageSpriteRotated1));
+  }
 }
@@ -0,0 +1,44 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.linkeddata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.hp.hpl.jena.reasoner.rulesys.Rule;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Tests {@link RuleCache}.
+ */
+public class RuleCacheTest {
+  private static final String RULES =
+      "[parent: (?a <http://example.com/#parent> ?b) -> (?b <http://example.com/#child> ?a)]";
+
+  @Test
+  public void testCacheHitsAndInvalidation() {
+    List<Rule> first = RuleCache.parseRules(RULES);
+    first.clear();
+    List<Rule> second = RuleCache.parseRules(RULES);
+    List<Rule> third = RuleCache.parseRules(RULES);
+    // Each caller gets its own list of the same parsed rules
+    assertEquals(1, second.size());
+    assertNotSame(second, third);
+    assertSame(second.get(0), third.get(0));
+
+    // Different text is parsed again
+    List<Rule> changed = RuleCache.parseRules(RULES.replace("child", "offspring"));
+    assertNotSame(second.get(0), changed.get(0));
+
+    // Rulesets that have not been used recently are dropped
+    for (int i = 0; i < 32; i++) {
+      RuleCache.parseRules(RULES.replace("parent", "parent" + i));
+    }
+    assertNotSame(second.get(0), RuleCache.parseRules(RULES).get(0));
+  }
+}
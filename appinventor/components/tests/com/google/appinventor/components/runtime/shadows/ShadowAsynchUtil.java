@@ -13,6 +13,8 @@ import com.google.appinventor.components.runtime.util.Synchronizer;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import org.robolectric.annotation.Implementation;
 import org.robolectric.annotation.Implements;
@@ -49,6 +51,13 @@ public class ShadowAsynchUtil {
     runnables.add(call);
   }
 
+  @Implementation
+  public static Future<?> runAsynchronously(AsynchUtil.Lane lane, final Runnable call) {
+    FutureTask<Void> task = new FutureTask<Void>(call, null);
+    runnables.add(task);
+    return task;
+  }
+
   @Implementation
   public static void runAsynchronously(final Handler androidUIHandler,
                                        final Runnable call,
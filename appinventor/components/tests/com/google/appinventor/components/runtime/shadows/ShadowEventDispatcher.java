@@ -56,6 +56,11 @@ public class ShadowEventDispatcher {
     unhandledEvents.get(component).add(eventName);
   }
 
+  @Implementation
+  public static boolean hasEventHandler(Component component, String eventName) {
+    return !unhandledEvents.containsKey(component) || !unhandledEvents.get(component).contains(eventName);
+  }
+
   @Implementation
   public static boolean dispatchEvent(Component component, String eventName, Object... args) {
     if (!firedEvents.containsKey(component)) {
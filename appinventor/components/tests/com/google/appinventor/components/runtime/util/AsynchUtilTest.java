@@ -0,0 +1,100 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+/**
+ * Tests the lanes used by {@link AsynchUtil}.
+ */
+public class AsynchUtilTest {
+
+  @Test
+  public void testRunsOnLaneAndCountsCompletions() throws Exception {
+    long completed = AsynchUtil.Lane.CPU.getCompletedCount();
+    final AtomicReference<String> threadName = new AtomicReference<String>();
+    Future<?> future = AsynchUtil.runAsynchronously(AsynchUtil.Lane.CPU, new Runnable() {
+      @Override
+      public void run() {
+        threadName.set(Thread.currentThread().getName());
+      }
+    });
+    future.get(5, TimeUnit.SECONDS);
+    assertTrue(threadName.get().startsWith("AsynchUtil-cpu-"));
+    // Calls left over from other tests may finish too.
+    assertTrue(AsynchUtil.Lane.CPU.getCompletedCount() > completed);
+  }
+
+  @Test
+  public void testCancelQueuedCall() throws Exception {
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    Runnable blocker = new Runnable() {
+      @Override
+      public void run() {
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    };
+    // Fill every thread of the lane so that the next call has to wait.
+    int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+    for (int i = 0; i < threads; i++) {
+      AsynchUtil.runAsynchronously(AsynchUtil.Lane.CPU, blocker);
+    }
+    started.await(5, TimeUnit.SECONDS);
+    final boolean[] ran = {false};
+    Future<?> queued = AsynchUtil.runAsynchronously(AsynchUtil.Lane.CPU, new Runnable() {
+      @Override
+      public void run() {
+        ran[0] = true;
+      }
+    });
+    assertTrue(queued.cancel(false));
+    release.countDown();
+    try {
+      queued.get();
+    } catch (CancellationException e) {
+      // expected
+    }
+    assertTrue(queued.isCancelled());
+    assertEquals(false, ran[0]);
+  }
+
+  @Test
+  public void testCallableFromLaneThreadRunsInline() throws Exception {
+    final AtomicReference<String> result = new AtomicReference<String>();
+    Future<?> future = AsynchUtil.runAsynchronously(AsynchUtil.Lane.IO, new Runnable() {
+      @Override
+      public void run() {
+        try {
+          result.set(AsynchUtil.runAsynchronously(new Callable<String>() {
+            @Override
+            public String call() {
+              return Thread.currentThread().getName();
+            }
+          }));
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+    future.get(5, TimeUnit.SECONDS);
+    assertTrue(result.get().startsWith("AsynchUtil-io-"));
+  }
+}
@@ -0,0 +1,97 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link CloudDBCache}.
+ */
+public class CloudDBCacheTest {
+  private static final List<String> TAGS = Arrays.asList("a", "b");
+
+  private CloudDBCache cache;
+
+  @Before
+  public void setUp() {
+    cache = new CloudDBCache();
+    cache.setEnabled(true);
+    cache.subscribed();
+  }
+
+  @Test
+  public void testReadsAndUpdates() {
+    cache.put("a", "1", cache.getGeneration());
+    cache.put("b", null, cache.getGeneration());
+    Map<String, String> values = cache.getAll(TAGS, false);
+    assertEquals("1", values.get("a"));
+    assertTrue(values.containsKey("b"));
+    assertNull(values.get("b"));
+
+    cache.update("a", "2");
+    cache.update("b", "\"x\"");
+    assertEquals("2", cache.getAll(TAGS, false).get("a"));
+    assertEquals("\"x\"", cache.getAll(TAGS, false).get("b"));
+  }
+
+  @Test
+  public void testReadRacingUpdateIsNotStored() {
+    long generation = cache.getGeneration();
+    // A change published while the read was in flight.
+    cache.update("b", "2");
+    cache.put("a", "1", generation);
+    assertFalse(cache.getAll(TAGS, false).containsKey("a"));
+    assertEquals("2", cache.getAll(TAGS, false).get("b"));
+  }
+
+  @Test
+  public void testStaleValuesOnlyOffline() {
+    cache.update("a", "1");
+    cache.unsubscribed();
+    assertTrue(cache.getAll(TAGS, false).isEmpty());
+    assertEquals("1", cache.getAll(TAGS, true).get("a"));
+
+    // Nothing is learned while unsubscribed, and resubscribing discards what might be stale.
+    cache.update("b", "2");
+    assertFalse(cache.getAll(TAGS, true).containsKey("b"));
+    cache.subscribed();
+    assertTrue(cache.getAll(TAGS, true).isEmpty());
+  }
+
+  @Test
+  public void testInvalidate() {
+    cache.update("a", "1");
+    cache.update("b", "2");
+    long generation = cache.getGeneration();
+    // This device stores a new value in a.
+    cache.invalidate("a");
+    assertFalse(cache.getAll(TAGS, false).containsKey("a"));
+    assertEquals("2", cache.getAll(TAGS, false).get("b"));
+
+    // A read that started before the store may have the old value.
+    cache.put("a", "1", generation);
+    assertFalse(cache.getAll(TAGS, false).containsKey("a"));
+    cache.put("a", "3", cache.getGeneration());
+    assertEquals("3", cache.getAll(TAGS, false).get("a"));
+  }
+
+  @Test
+  public void testDisabled() {
+    cache.setEnabled(false);
+    cache.update("a", "1");
+    cache.put("b", "2", cache.getGeneration());
+    assertTrue(cache.getAll(TAGS, true).isEmpty());
+  }
+}
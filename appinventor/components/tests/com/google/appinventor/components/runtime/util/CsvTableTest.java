@@ -0,0 +1,99 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import org.junit.Test;
+
+/**
+ * Tests {@link CsvTable}, comparing it with the rows and columns read by
+ * {@link CsvUtil#fromCsvTable(String)}.
+ */
+public class CsvTableTest {
+
+  private static CsvTable read(String csv) throws Exception {
+    return CsvUtil.readCsvTable(new StringReader(csv));
+  }
+
+  private static void assertSameAsRows(String csv) throws Exception {
+    CsvTable table = read(csv);
+    YailList rows = CsvUtil.fromCsvTable(csv);
+    assertEquals(rows, table.getRows());
+    assertEquals(ChartDataSourceUtil.getTranspose(rows), table.getColumns());
+  }
+
+  @Test
+  public void testNumericColumns() throws Exception {
+    String csv = "t,x,y\n1,2.5,-3\n2,0.1,4\n3,,5\n";
+    assertSameAsRows(csv);
+    CsvTable table = read(csv);
+    assertTrue(table.isNumeric(0));
+    assertTrue(table.isNumeric(1));
+    assertTrue(table.isNumeric(2));
+    assertEquals("", table.get(3, 1));
+  }
+
+  @Test
+  public void testNumbersKeepTheirText() throws Exception {
+    // Integers in a column of decimals, and numbers not written the usual way
+    String csv = "a,b\n1,007\n2.50,1e3\n3,-0\n1.0E-4,9007199254740993\n0.0001,12345678901234567890\n";
+    assertSameAsRows(csv);
+    assertTrue(read(csv).isNumeric(0));
+  }
+
+  @Test
+  public void testTextColumns() throws Exception {
+    String csv = "name,value\n1,2\nfoo,3\n\"a, b\",4\n";
+    assertSameAsRows(csv);
+    CsvTable table = read(csv);
+    assertFalse(table.isNumeric(0));
+    assertTrue(table.isNumeric(1));
+    assertEquals("a, b", table.get(3, 0));
+  }
+
+  @Test
+  public void testLineBreaksInQuotedCells() throws Exception {
+    CsvTable table = read("\"a\r\nb\",c\r\n1,\"two\r\nlines\"\r\n");
+    assertEquals("a\nb", table.get(0, 0));
+    assertEquals("two\nlines", table.get(1, 1));
+    assertSameAsRows("\"a\nb\",c\n1,\"two\nlines\"\n");
+  }
+
+  @Test
+  public void testUnevenRows() throws Exception {
+    assertSameAsRows("a,b\n1\n2,3,4\n\n5,6\n");
+    assertSameAsRows("a,b,c\n1,2\n");
+    CsvTable table = read("a\n1,2\n3\n");
+    assertEquals(2, table.getColumnCount());
+    assertEquals(1, table.getRowLength(2));
+    assertEquals("", table.get(2, 1));
+  }
+
+  @Test
+  public void testEmpty() throws Exception {
+    CsvTable table = read("");
+    assertEquals(0, table.getRowCount());
+    assertEquals(0, table.getColumnCount());
+    assertEquals(new YailList(), table.getRows());
+    assertEquals(new YailList(), table.getColumnNames());
+  }
+
+  @Test
+  public void testManyRows() throws Exception {
+    StringBuilder csv = new StringBuilder("i,x\n");
+    for (int i = 0; i < 1000; i++) {
+      csv.append(i).append(',').append(i * 0.5).append('\n');
+    }
+    assertSameAsRows(csv.toString());
+    CsvTable table = read(csv.toString());
+    assertEquals(1001, table.getRowCount());
+    assertEquals("499.5", table.get(1000, 1));
+  }
+}
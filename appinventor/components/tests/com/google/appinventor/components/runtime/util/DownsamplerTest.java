@@ -0,0 +1,66 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+/**
+ * Tests {@link Downsampler}.
+ */
+public class DownsamplerTest {
+
+  @Test
+  public void testSmallSeriesIsNotDownsampled() {
+    float[] values = {0, 1, 2};
+    assertNull(Downsampler.largestTriangleThreeBuckets(values, values, 3, 3));
+  }
+
+  @Test
+  public void testKeepsEndsAndSpikes() {
+    int count = 10000;
+    float[] x = new float[count];
+    float[] y = new float[count];
+    for (int i = 0; i < count; i++) {
+      x[i] = i;
+      y[i] = (float) Math.sin(i / 500.0);
+    }
+    y[1234] = 100;
+    y[8765] = -100;
+
+    int[] kept = Downsampler.largestTriangleThreeBuckets(x, y, count, 200);
+    assertEquals(200, kept.length);
+    assertEquals(0, kept[0]);
+    assertEquals(count - 1, kept[kept.length - 1]);
+    for (int i = 1; i < kept.length; i++) {
+      assertTrue(kept[i] > kept[i - 1]);
+    }
+    assertTrue(Arrays.binarySearch(kept, 1234) >= 0);
+    assertTrue(Arrays.binarySearch(kept, 8765) >= 0);
+  }
+
+  @Test
+  public void testEveryBucketIsUsed() {
+    for (int count = 4; count < 60; count++) {
+      float[] x = new float[count];
+      for (int i = 0; i < count; i++) {
+        x[i] = i;
+      }
+      for (int threshold = 3; threshold < count; threshold++) {
+        int[] kept = Downsampler.largestTriangleThreeBuckets(x, x, count, threshold);
+        assertEquals(threshold, kept.length);
+        for (int i = 1; i < kept.length; i++) {
+          assertTrue(kept[i] > kept[i - 1]);
+        }
+        assertEquals(count - 1, kept[threshold - 1]);
+      }
+    }
+  }
+}
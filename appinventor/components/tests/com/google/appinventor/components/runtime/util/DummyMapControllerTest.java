@@ -277,4 +277,39 @@ public class DummyMapControllerTest {
   public void testGetOverlayCount() {
     mapController.getOverlayCount();
   }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSetMarkerClusteringEnabled() {
+    mapController.setMarkerClusteringEnabled(true);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testIsMarkerClusteringEnabled() {
+    mapController.isMarkerClusteringEnabled();
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSaveOfflineTiles() {
+    mapController.saveOfflineTiles(null, 1, 2);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testClearOfflineTiles() {
+    mapController.clearOfflineTiles();
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSetOfflineTileLimit() {
+    mapController.setOfflineTileLimit(0);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testGetOfflineTileLimit() {
+    mapController.getOfflineTileLimit();
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testGetOfflineTileSize() {
+    mapController.getOfflineTileSize();
+  }
 }
@@ -0,0 +1,184 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * Tests {@link FeatureIndex}, comparing its answers with a scan over every feature.
+ */
+public class FeatureIndexTest {
+
+  /**
+   * A point feature whose position can change after it has been indexed.
+   */
+  private static class Point {
+    double latitude;
+    double longitude;
+
+    Point(double latitude, double longitude) {
+      this.latitude = latitude;
+      this.longitude = longitude;
+    }
+  }
+
+  private static final FeatureIndex.Measure<Point> MEASURE = new FeatureIndex.Measure<Point>() {
+    @Override
+    public Envelope getEnvelope(Point point) {
+      return new Envelope(point.longitude, point.longitude, point.latitude, point.latitude);
+    }
+
+    @Override
+    public double distanceTo(Point point, double latitude, double longitude) {
+      return distance(point, latitude, longitude);
+    }
+  };
+
+  private FeatureIndex<Point> index;
+  private List<Point> points;
+
+  private static double distance(Point point, double latitude, double longitude) {
+    double lat1 = Math.toRadians(point.latitude);
+    double lat2 = Math.toRadians(latitude);
+    double dLat = lat2 - lat1;
+    double dLng = Math.toRadians(longitude - point.longitude);
+    double a = Math.pow(Math.sin(dLat / 2), 2)
+        + Math.cos(lat1) * Math.cos(lat2) * Math.pow(Math.sin(dLng / 2), 2);
+    return GeometryUtil.ONE_DEG_IN_METERS * Math.toDegrees(2 * Math.atan2(Math.sqrt(a),
+        Math.sqrt(1 - a)));
+  }
+
+  private List<Point> scanNearest(final double latitude, final double longitude, int count) {
+    List<Point> sorted = new ArrayList<Point>(points);
+    Collections.sort(sorted, new Comparator<Point>() {
+      @Override
+      public int compare(Point a, Point b) {
+        return Double.compare(distance(a, latitude, longitude), distance(b, latitude, longitude));
+      }
+    });
+    return sorted.subList(0, Math.min(count, sorted.size()));
+  }
+
+  @Before
+  public void setUp() {
+    index = new FeatureIndex<Point>(MEASURE);
+    points = new ArrayList<Point>();
+    Random random = new Random(42);
+    for (int i = 0; i < 2000; i++) {
+      Point point = new Point(42 + random.nextDouble(), -71.5 + random.nextDouble());
+      points.add(point);
+      index.add(point);
+    }
+  }
+
+  @Test
+  public void testNearestMatchesScan() {
+    assertEquals(scanNearest(42.5, -71, 10), index.nearest(42.5, -71, 10, null));
+    assertEquals(scanNearest(42.5, -71, 1), index.nearest(42.5, -71, 1, null));
+    // Far outside the points, so the search has to grow
+    assertEquals(scanNearest(-30, 100, 5), index.nearest(-30, 100, 5, null));
+    assertEquals(2000, index.nearest(0, 0, 5000, null).size());
+  }
+
+  @Test
+  public void testNearestWithFilter() {
+    final HashSet<Point> even = new HashSet<Point>();
+    for (int i = 0; i < points.size(); i += 2) {
+      even.add(points.get(i));
+    }
+    List<Point> result = index.nearest(42.5, -71, 20, new FeatureIndex.Filter<Point>() {
+      @Override
+      public boolean accept(Point point) {
+        return even.contains(point);
+      }
+    });
+    points = new ArrayList<Point>(even);
+    assertEquals(scanNearest(42.5, -71, 20), result);
+  }
+
+  @Test
+  public void testQuery() {
+    Envelope box = new Envelope(-71.2, -71.1, 42.3, 42.4);
+    List<Point> result = index.query(box, null);
+    int expected = 0;
+    for (Point point : points) {
+      if (box.contains(point.longitude, point.latitude)) {
+        expected++;
+        assertTrue(result.contains(point));
+      }
+    }
+    assertEquals(expected, result.size());
+  }
+
+  @Test
+  public void testMoveAndRemove() {
+    Point moved = points.get(0);
+    moved.latitude = 10;
+    moved.longitude = 10;
+    index.invalidate(moved);
+    assertEquals(Collections.singletonList(moved), index.nearest(10, 10, 1, null));
+    index.remove(moved);
+    assertEquals(1999, index.size());
+    assertTrue(index.query(new Envelope(9, 11, 9, 11), null).isEmpty());
+    // Invalidating a feature that is not indexed does not add it
+    index.invalidate(moved);
+    assertEquals(1999, index.size());
+    index.clear();
+    assertTrue(index.nearest(42.5, -71, 3, null).isEmpty());
+  }
+
+  @Test
+  public void testFeaturesWithoutShape() {
+    final Point shapeless = new Point(Double.NaN, Double.NaN);
+    FeatureIndex<Point> partial = new FeatureIndex<Point>(new FeatureIndex.Measure<Point>() {
+      @Override
+      public Envelope getEnvelope(Point point) {
+        if (Double.isNaN(point.latitude)) {
+          throw new IndexOutOfBoundsException();
+        }
+        return MEASURE.getEnvelope(point);
+      }
+
+      @Override
+      public double distanceTo(Point point, double latitude, double longitude) {
+        return distance(point, latitude, longitude);
+      }
+    });
+    Point placed = new Point(1, 1);
+    partial.add(shapeless);
+    partial.add(placed);
+    assertEquals(2, partial.size());
+    assertTrue(partial.contains(shapeless));
+    assertEquals(Collections.singletonList(placed), partial.nearest(0, 0, 5, null));
+    // Giving the feature a shape and invalidating it places it in the tree
+    shapeless.latitude = 2;
+    shapeless.longitude = 2;
+    partial.invalidate(shapeless);
+    assertEquals(2, partial.nearest(0, 0, 5, null).size());
+  }
+
+  @Test
+  public void testBoxAroundAntimeridian() {
+    Envelope[] boxes = FeatureIndex.boxAround(0, 179.99, 10000);
+    assertEquals(2, boxes.length);
+    Point east = new Point(0, -179.99);
+    index.clear();
+    index.add(east);
+    index.add(new Point(0, 170));
+    assertEquals(Collections.singletonList(east), index.nearest(0, 179.99, 1, null));
+  }
+}
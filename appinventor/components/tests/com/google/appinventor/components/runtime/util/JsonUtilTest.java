@@ -10,6 +10,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -232,4 +234,56 @@ public class JsonUtilTest {
     assertTrue(result.contains(expected2));
     assertTrue(result.contains(expected3));
   }
+
+  @Test
+  public void testGetObjectFromJsonWithDicts() throws JSONException {
+    Object result = JsonUtil.getObjectFromJson(
+        "{\"b\": [1, 2.5, null, \"FALSE\"], \"a\": {\"c\": true}, \"b\": \"x\"}", true);
+    YailDictionary expected = new YailDictionary();
+    YailDictionary nested = new YailDictionary();
+    nested.put("c", true);
+    expected.put("a", nested);
+    expected.put("b", "x");
+    assertEquals(expected, result);
+    assertEquals(Arrays.asList("a", "b"), new ArrayList<Object>(((YailDictionary) result).keySet()));
+
+    List<?> array = (List<?>) JsonUtil.getObjectFromJson("[[1, 2.5, null, \"FALSE\"]]", true);
+    assertEquals(YailList.makeList(Arrays.asList(1, 2.5, "null", false)), array.get(0));
+  }
+
+  @Test
+  public void testGetObjectFromJsonLenient() throws JSONException {
+    List<Object> expected = new ArrayList<Object>();
+    expected.add(Arrays.asList("a", 1));
+    expected.add(Arrays.asList("b", "two"));
+    assertEquals(expected,
+        JsonUtil.getObjectFromJson("/* c */ {'b' => two; a = 1 # end\n}", false));
+    assertEquals(null, JsonUtil.getObjectFromJson("null", false));
+    assertEquals("true", JsonUtil.getObjectFromJson("\"true\"", false));
+    assertEquals(5000000000L, JsonUtil.getObjectFromJson("5000000000", false));
+  }
+
+  @Test(expected = JSONException.class)
+  public void testGetObjectFromJsonMissingElement() throws JSONException {
+    JsonUtil.getObjectFromJson("[1, , 2]", false);
+  }
+
+  @Test(expected = JSONException.class)
+  public void testGetObjectFromJsonUnterminated() throws JSONException {
+    JsonUtil.getObjectFromJson("{\"a\": [1, 2}", false);
+  }
+
+  @Test
+  public void testGetObjectFromJsonReader() throws JSONException, IOException {
+    // Longer than the parser's buffer, so that values straddle refills.
+    StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < 2000; i++) {
+      json.append("{\"name\": \"item ").append(i).append("\", \"value\": ").append(i).append("},");
+    }
+    json.append("0]");
+    Object expected = JsonUtil.getObjectFromJson(json.toString(), true);
+    Object result = JsonUtil.getObjectFromJson(new StringReader(json.toString()), true);
+    assertEquals(expected, result);
+    assertEquals(2001, ((List<?>) result).size());
+  }
 }
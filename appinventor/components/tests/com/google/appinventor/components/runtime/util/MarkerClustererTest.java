@@ -0,0 +1,87 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Tests {@link MarkerClusterer}.
+ */
+public class MarkerClustererTest {
+
+  private static List<MarkerClusterer.Cluster<Integer>> cluster(double[] latitudes,
+      double[] longitudes, int zoom) {
+    List<Integer> items = new ArrayList<Integer>();
+    for (int i = 0; i < latitudes.length; i++) {
+      items.add(i);
+    }
+    return MarkerClusterer.cluster(items, latitudes, longitudes, zoom, 64);
+  }
+
+  @Test
+  public void testProjection() {
+    assertEquals(0.5, MarkerClusterer.projectX(0), 1e-9);
+    assertEquals(0.5, MarkerClusterer.projectY(0), 1e-9);
+    assertEquals(0, MarkerClusterer.projectY(90), 1e-9);
+    assertEquals(1, MarkerClusterer.projectY(-90), 1e-9);
+    assertEquals(1, MarkerClusterer.projectX(180), 1e-9);
+  }
+
+  @Test
+  public void testNearbyPointsClusterUntilZoomedIn() {
+    double[] latitudes = { 42.3601, 42.3602, 42.3603, 40.7128 };
+    double[] longitudes = { -71.0589, -71.0590, -71.0591, -74.0060 };
+    List<MarkerClusterer.Cluster<Integer>> clusters = cluster(latitudes, longitudes, 10);
+    assertEquals(2, clusters.size());
+    MarkerClusterer.Cluster<Integer> boston = clusters.get(0);
+    assertEquals(Arrays.asList(0, 1, 2), boston.members);
+    assertEquals(42.3602, boston.latitude, 1e-9);
+    assertEquals(-71.0590, boston.longitude, 1e-9);
+    assertEquals(42.3603, boston.north, 1e-9);
+    assertEquals(-71.0591, boston.west, 1e-9);
+    assertEquals(Arrays.asList(3), clusters.get(1).members);
+    // Everything shares one cell when the whole world is a single tile
+    assertEquals(1, cluster(latitudes, longitudes, 0).size());
+    // The three points are about 10 m apart, which is many pixels at zoom 21
+    assertEquals(4, cluster(latitudes, longitudes, 21).size());
+    // A cell size of 0 turns clustering off
+    List<Integer> items = Arrays.asList(0, 1, 2, 3);
+    assertEquals(4, MarkerClusterer.cluster(items, latitudes, longitudes, 0, 0).size());
+  }
+
+  @Test
+  public void testEveryPointIsInOneCluster() {
+    Random random = new Random(7);
+    int count = 5000;
+    double[] latitudes = new double[count];
+    double[] longitudes = new double[count];
+    for (int i = 0; i < count; i++) {
+      latitudes[i] = 42 + random.nextDouble();
+      longitudes[i] = -72 + random.nextDouble();
+    }
+    List<MarkerClusterer.Cluster<Integer>> clusters = cluster(latitudes, longitudes, 8);
+    assertTrue(clusters.size() < 20);
+    int total = 0;
+    boolean[] seen = new boolean[count];
+    for (MarkerClusterer.Cluster<Integer> cluster : clusters) {
+      for (int i : cluster.members) {
+        assertTrue(!seen[i]);
+        seen[i] = true;
+        assertTrue(cluster.south <= latitudes[i] && latitudes[i] <= cluster.north);
+        assertTrue(cluster.west <= longitudes[i] && longitudes[i] <= cluster.east);
+      }
+      total += cluster.size();
+    }
+    assertEquals(count, total);
+  }
+}
@@ -0,0 +1,133 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.os.Environment;
+import com.google.appinventor.components.runtime.RobolectricTestBase;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import org.junit.Before;
+import org.junit.Test;
+import org.osmdroid.tileprovider.MapTile;
+import org.osmdroid.tileprovider.tilesource.TileSourceFactory;
+import org.robolectric.shadows.ShadowEnvironment;
+
+/**
+ * Tests for the SQLite archive of map tiles saved for offline use.
+ */
+public class OfflineTileArchiveTest extends RobolectricTestBase {
+
+  private static final String PROVIDER = TileSourceFactory.MAPNIK.name();
+  private static final MapTile FIRST = new MapTile(3, 1, 2);
+  private static final MapTile SECOND = new MapTile(3, 2, 1);
+  private static final MapTile THIRD = new MapTile(4, 1, 2);
+
+  private File file;
+  private OfflineTileArchive archive;
+
+  @Before
+  public void setUp() {
+    super.setUp();
+    file = new File(getForm().getCacheDir(), "offline-tiles-test.db");
+    file.delete();
+    archive = new OfflineTileArchive(file, 250);
+  }
+
+  private static byte[] image(int size, int fill) {
+    byte[] result = new byte[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = (byte) fill;
+    }
+    return result;
+  }
+
+  private static byte[] read(InputStream in) throws IOException {
+    byte[] result = new byte[in.available()];
+    assertEquals(result.length, in.read(result));
+    return result;
+  }
+
+  @Test
+  public void testSaveAndRead() throws IOException {
+    archive.save(PROVIDER, FIRST, image(100, 1));
+    assertTrue(archive.contains(PROVIDER, FIRST));
+    assertFalse(archive.contains(PROVIDER, SECOND));
+    assertFalse(archive.contains("other", FIRST));
+    assertArrayEquals(image(100, 1),
+        read(archive.getInputStream(TileSourceFactory.MAPNIK, FIRST)));
+    assertNull(archive.getInputStream(TileSourceFactory.MAPNIK, THIRD));
+    assertEquals(100, archive.getSize());
+    assertTrue(archive.getTileSources().contains(PROVIDER));
+  }
+
+  @Test
+  public void testReplaceKeepsSize() {
+    archive.save(PROVIDER, FIRST, image(100, 1));
+    archive.save(PROVIDER, FIRST, image(60, 2));
+    assertEquals(60, archive.getSize());
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsed() {
+    archive.save(PROVIDER, FIRST, image(100, 1));
+    archive.save(PROVIDER, SECOND, image(100, 2));
+    archive.save(PROVIDER, THIRD, image(100, 3));
+    assertFalse(archive.contains(PROVIDER, FIRST));
+    assertTrue(archive.contains(PROVIDER, SECOND));
+    assertTrue(archive.contains(PROVIDER, THIRD));
+    assertEquals(200, archive.getSize());
+    // A lower limit takes effect the next time a tile is saved
+    archive.setMaxSize(150);
+    assertTrue(archive.contains(PROVIDER, SECOND));
+    archive.save(PROVIDER, FIRST, image(10, 1));
+    assertFalse(archive.contains(PROVIDER, SECOND));
+    assertEquals(110, archive.getSize());
+  }
+
+  @Test
+  public void testReopenAndClear() {
+    archive.save(PROVIDER, FIRST, image(100, 1));
+    archive.save(PROVIDER, SECOND, image(50, 2));
+    OfflineTileArchive reopened = new OfflineTileArchive(file, 250);
+    assertEquals(150, reopened.getSize());
+    assertTrue(reopened.contains(PROVIDER, SECOND));
+    reopened.clear();
+    assertEquals(0, reopened.getSize());
+    assertFalse(reopened.contains(PROVIDER, FIRST));
+  }
+
+  @Test
+  public void testEvictsSeveralTilesAtOnce() {
+    archive.save(PROVIDER, FIRST, image(100, 1));
+    archive.save(PROVIDER, SECOND, image(100, 2));
+    archive.setMaxSize(50);
+    archive.save(PROVIDER, THIRD, image(10, 3));
+    assertFalse(archive.contains(PROVIDER, FIRST));
+    assertFalse(archive.contains(PROVIDER, SECOND));
+    assertTrue(archive.contains(PROVIDER, THIRD));
+    assertEquals(10, archive.getSize());
+  }
+
+  @Test
+  public void testProviderWithoutExternalStorage() throws Exception {
+    ShadowEnvironment.setExternalStorageState(Environment.MEDIA_UNMOUNTED);
+    archive.save(PROVIDER, FIRST, image(100, 1));
+    OfflineTileProvider provider = new OfflineTileProvider(TileSourceFactory.MAPNIK, archive);
+    assertFalse(provider.getUsesDataConnection());
+    assertEquals(TileSourceFactory.MAPNIK.getMaximumZoomLevel(), provider.getMaximumZoomLevel());
+    assertNotNull(provider.getTileLoader().loadTile(FIRST));
+    assertNull(provider.getTileLoader().loadTile(SECOND));
+    provider.detach();
+  }
+}
@@ -0,0 +1,82 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Tests {@link RingBufferList}.
+ */
+public class RingBufferListTest {
+
+  @Test
+  public void testSlidingWindow() {
+    List<Integer> list = new RingBufferList<Integer>();
+    for (int i = 0; i < 100; i++) {
+      if (list.size() == 10) {
+        list.remove(0);
+      }
+      list.add(i);
+    }
+    assertEquals(10, list.size());
+    for (int i = 0; i < 10; i++) {
+      assertEquals(Integer.valueOf(90 + i), list.get(i));
+    }
+    assertArrayEquals(new Integer[] {90, 91, 92, 93, 94, 95, 96, 97, 98, 99},
+        list.toArray(new Integer[0]));
+  }
+
+  @Test
+  public void testMatchesArrayList() {
+    // Random inserts and removals anywhere in the list, across wrap-arounds and growth.
+    Random random = new Random(42);
+    List<Integer> expected = new ArrayList<Integer>();
+    List<Integer> actual = new RingBufferList<Integer>();
+    for (int step = 0; step < 5000; step++) {
+      int operation = random.nextInt(4);
+      if (operation < 2 || expected.isEmpty()) {
+        int index = random.nextInt(expected.size() + 1);
+        expected.add(index, step);
+        actual.add(index, step);
+      } else if (operation == 2) {
+        int index = random.nextInt(expected.size());
+        assertEquals(expected.remove(index), actual.remove(index));
+      } else {
+        int index = random.nextInt(expected.size());
+        assertEquals(expected.set(index, -step), actual.set(index, -step));
+      }
+      assertEquals(expected.size(), actual.size());
+    }
+    assertEquals(expected, actual);
+    assertArrayEquals(expected.toArray(), actual.toArray());
+  }
+
+  @Test
+  public void testCopyAndClear() {
+    List<String> list = new RingBufferList<String>(Arrays.asList("a", "b", "c"));
+    list.remove(0);
+    list.add("d");
+    assertEquals(Arrays.asList("b", "c", "d"), new ArrayList<String>(list));
+    list.clear();
+    assertEquals(0, list.size());
+    list.add("e");
+    assertEquals(Arrays.asList("e"), list);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testGetOutOfBounds() {
+    List<String> list = new RingBufferList<String>();
+    list.add("a");
+    list.get(1);
+  }
+}
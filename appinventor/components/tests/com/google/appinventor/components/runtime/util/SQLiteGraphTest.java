@@ -0,0 +1,110 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.appinventor.components.runtime.RobolectricTestBase;
+import com.hp.hpl.jena.datatypes.xsd.XSDDatatype;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.AnonId;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the SQLite-backed triple store used by LinkedData.
+ */
+public class SQLiteGraphTest extends RobolectricTestBase {
+
+  private static final Node ALICE = Node.createURI("http://example.com/alice");
+  private static final Node BOB = Node.createURI("http://example.com/bob");
+  private static final Node KNOWS = Node.createURI("http://xmlns.com/foaf/0.1/knows");
+  private static final Node NAME = Node.createURI("http://xmlns.com/foaf/0.1/name");
+
+  private SQLiteGraph graph;
+
+  @Before
+  public void setUp() {
+    super.setUp();
+    graph = new SQLiteGraph(getForm(), "test-store");
+    graph.clear();
+    graph.add(Triple.create(ALICE, KNOWS, BOB));
+    graph.add(Triple.create(ALICE, NAME, Node.createLiteral("Alice", "en", false)));
+    graph.add(Triple.create(BOB, NAME, Node.createLiteral("Bob")));
+  }
+
+  @After
+  public void tearDown() {
+    graph.close();
+  }
+
+  @Test
+  public void testFindByPattern() {
+    assertEquals(3, graph.find(Node.ANY, Node.ANY, Node.ANY).toList().size());
+    assertEquals(2, graph.find(ALICE, Node.ANY, Node.ANY).toList().size());
+    assertEquals(2, graph.find(Node.ANY, NAME, Node.ANY).toList().size());
+    List<Triple> knows = graph.find(Node.ANY, Node.ANY, BOB).toList();
+    assertEquals(1, knows.size());
+    assertEquals(Triple.create(ALICE, KNOWS, BOB), knows.get(0));
+  }
+
+  @Test
+  public void testDuplicateTriplesAreIgnored() {
+    graph.add(Triple.create(ALICE, KNOWS, BOB));
+    assertEquals(3, graph.size());
+  }
+
+  @Test
+  public void testDelete() {
+    graph.delete(Triple.create(ALICE, KNOWS, BOB));
+    assertFalse(graph.contains(ALICE, KNOWS, BOB));
+    assertEquals(2, graph.size());
+    graph.remove(Node.ANY, NAME, Node.ANY);
+    assertTrue(graph.isEmpty());
+  }
+
+  @Test
+  public void testRemoveWhileIterating() {
+    ExtendedIterator<Triple> it = graph.find(Node.ANY, NAME, Node.ANY);
+    int seen = 0;
+    while (it.hasNext()) {
+      it.next();
+      it.remove();
+      seen++;
+    }
+    assertEquals(2, seen);
+    assertEquals(1, graph.size());
+    assertTrue(graph.contains(ALICE, KNOWS, BOB));
+  }
+
+  @Test
+  public void testTriplesPersistAcrossReopen() {
+    graph.close();
+    graph = new SQLiteGraph(getForm(), "test-store");
+    assertEquals(3, graph.size());
+    assertTrue(graph.contains(ALICE, NAME, Node.createLiteral("Alice", "en", false)));
+  }
+
+  @Test
+  public void testNodeEncodingRoundTrip() {
+    Node[] nodes = new Node[] {
+        ALICE,
+        Node.createAnon(new AnonId("b0")),
+        Node.createLiteral("plain"),
+        Node.createLiteral("say \"hi\"", "en", false),
+        Node.createLiteral("42", null, XSDDatatype.XSDinteger)
+    };
+    for (Node node : nodes) {
+      assertEquals(node, SQLiteGraph.decode(SQLiteGraph.encode(node)));
+    }
+  }
+}
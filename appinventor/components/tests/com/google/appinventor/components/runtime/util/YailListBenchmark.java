@@ -0,0 +1,129 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Copyright 2026 MIT, All rights reserved
+// Released under the Apache License, Version 2.0
+// http://www.apache.org/licenses/LICENSE-2.0
+
+package com.google.appinventor.components.runtime.util;
+
+import gnu.lists.LList;
+import gnu.lists.Pair;
+
+/**
+ * Compares indexed access, append and iteration on a {@link YailList}
+ * with the same operations on a plain Kawa list, which is how YailList
+ * behaved before it kept an index of its pairs.
+ *
+ * <p>This is not a unit test. Run it by hand with the components test
+ * classpath, optionally passing the list size:</p>
+ *
+ * <pre>
+ *   java -cp ... com.google.appinventor.components.runtime.util.YailListBenchmark 10000
+ * </pre>
+ */
+public final class YailListBenchmark {
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int ROUNDS = 10;
+
+  private static Object sink;
+
+  private YailListBenchmark() {
+  }
+
+  private interface Operation {
+    void run(int size);
+  }
+
+  public static void main(String[] args) {
+    int size = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+    System.out.println("List size " + size + ", best of " + ROUNDS + " rounds");
+    report("index (chain)", size, new Operation() {
+      @Override
+      public void run(int size) {
+        Pair list = (Pair) chainOf(size);
+        for (int i = 0; i < size; i++) {
+          sink = list.get(i);
+        }
+      }
+    });
+    report("index (YailList)", size, new Operation() {
+      @Override
+      public void run(int size) {
+        YailList list = yailListOf(size);
+        for (int i = 0; i < size; i++) {
+          sink = list.getObject(i);
+        }
+      }
+    });
+    report("append (chain)", size, new Operation() {
+      @Override
+      public void run(int size) {
+        Pair list = new Pair(YailConstants.YAIL_HEADER, LList.Empty);
+        for (int i = 0; i < size; i++) {
+          Pair tail = list;
+          while (tail.getCdr() instanceof Pair) {
+            tail = (Pair) tail.getCdr();
+          }
+          tail.setCdr(LList.list1(i));
+        }
+        sink = list;
+      }
+    });
+    report("append (YailList)", size, new Operation() {
+      @Override
+      public void run(int size) {
+        YailList list = new YailList();
+        for (int i = 0; i < size; i++) {
+          list.insertObject(list.size(), i);
+        }
+        sink = list;
+      }
+    });
+    report("iterate (chain)", size, new Operation() {
+      @Override
+      public void run(int size) {
+        Object rest = chainOf(size);
+        while (rest instanceof Pair) {
+          sink = ((Pair) rest).getCar();
+          rest = ((Pair) rest).getCdr();
+        }
+      }
+    });
+    report("iterate (YailList)", size, new Operation() {
+      @Override
+      public void run(int size) {
+        YailList list = yailListOf(size);
+        int length = list.size();
+        for (int i = 0; i < length; i++) {
+          sink = list.getObject(i);
+        }
+      }
+    });
+  }
+
+  private static Object chainOf(int size) {
+    Object list = LList.Empty;
+    for (int i = size - 1; i >= 0; i--) {
+      list = new Pair(i, list);
+    }
+    return list;
+  }
+
+  private static YailList yailListOf(int size) {
+    YailList list = new YailList();
+    list.setContents(chainOf(size));
+    return list;
+  }
+
+  private static void report(String name, int size, Operation operation) {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      operation.run(size);
+    }
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < ROUNDS; i++) {
+      long start = System.nanoTime();
+      operation.run(size);
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    System.out.printf("%-20s %10.3f ms%n", name, best / 1e6);
+  }
+}
@@ -7,6 +7,8 @@
 package com.google.appinventor.components.runtime.util;
 
 import gnu.lists.FString;
+import gnu.lists.LList;
+import gnu.lists.Pair;
 import gnu.math.IntNum;
 
 import org.junit.Test;
@@ -235,4 +237,86 @@ public class YailListTest {
     assertEquals(Long.toString(Long.MAX_VALUE), strings[0]);
     assertEquals(Long.toString(Long.MAX_VALUE), strings[1]);
   }
+
+  @Test
+  public void testInsertAndRemove() {
+    YailList yailList = YailList.makeList(new Object[] {"b", "d"});
+    yailList.insertObject(0, "a");
+    yailList.insertObject(2, "c");
+    yailList.insertObject(4, "e");
+    assertEquals("(a b c d e)", yailList.toString());
+    assertEquals(5, yailList.size());
+    assertEquals("a", yailList.removeObject(0));
+    assertEquals("c", yailList.removeObject(1));
+    assertEquals("e", yailList.removeObject(2));
+    assertEquals("(b d)", yailList.toString());
+    assertEquals(2, yailList.size());
+    assertEquals(2, LList.listLength(yailList.getCdr(), false));
+    try {
+      yailList.removeObject(2);
+      fail();
+    } catch (IndexOutOfBoundsException e) {
+      // this is the intended behavior
+    }
+    try {
+      yailList.insertObject(3, "f");
+      fail();
+    } catch (IndexOutOfBoundsException e) {
+      // this is the intended behavior
+    }
+  }
+
+  @Test
+  public void testSetObject() {
+    YailList yailList = YailList.makeList(new Object[] {"a", "b", "c"});
+    yailList.setObject(1, "B");
+    assertEquals("B", yailList.getObject(1));
+    assertEquals("(a B c)", yailList.toString());
+  }
+
+  @Test
+  public void testAppendAll() {
+    YailList yailList = new YailList();
+    yailList.appendAll(LList.Empty);
+    assertEquals(0, yailList.size());
+    yailList.appendAll(LList.makeList(new Object[] {"a", "b"}, 0));
+    yailList.appendAll(yailList.getCdr());
+    assertEquals("(a b a b)", yailList.toString());
+    assertEquals(4, yailList.size());
+    yailList.setObject(2, "c");
+    assertEquals("(a b c b)", yailList.toString());
+  }
+
+  @Test
+  public void testChangesToTheChainAreSeen() {
+    YailList yailList = YailList.makeList(new Object[] {"a", "b"});
+    assertEquals(2, yailList.size());
+    // Extend the list the way Scheme code does, behind the index's back.
+    ((Pair) ((Pair) yailList.getCdr()).getCdr()).setCdr(LList.list1("c"));
+    assertEquals(3, yailList.size());
+    assertEquals("c", yailList.getString(2));
+    yailList.setContents(LList.list1("z"));
+    assertEquals(1, yailList.size());
+    assertEquals("z", yailList.getString(0));
+  }
+
+  @Test
+  public void testChangesInTheMiddleOfTheChainAreSeen() {
+    YailList yailList = YailList.makeList(new Object[] {"a", "b", "c", "d"});
+    assertEquals("c", yailList.getString(2));
+    // Drop "b" by linking the first pair past it.
+    Pair first = (Pair) yailList.getCdr();
+    first.setCdr(((Pair) first.getCdr()).getCdr());
+    assertEquals(3, yailList.size());
+    assertEquals("d", yailList.getString(2));
+    // The same holds for pairs made outside of YailList once they are in the chain.
+    first.setCdr(LList.list2("p", "q"));
+    assertEquals("(a p q)", yailList.toString());
+    assertEquals("q", yailList.getString(2));
+    ((Pair) first.getCdr()).setCdr(LList.list2("r", "s"));
+    assertEquals(4, yailList.size());
+    assertEquals("r", yailList.getString(2));
+    yailList.insertObject(1, "v");
+    assertEquals("(a v p r s)", yailList.toString());
+  }
 }